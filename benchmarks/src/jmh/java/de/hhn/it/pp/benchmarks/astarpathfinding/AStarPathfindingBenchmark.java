@@ -0,0 +1,84 @@
+package de.hhn.it.pp.benchmarks.astarpathfinding;
+
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.PathfindingInformation;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.AStarPathfindingAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of a single search of {@link AStarPathfindingAlgorithm} from the left to the right
+ * border of maps with different sizes and obstacle densities, with both kinds of open lists.
+ */
+@State(Scope.Benchmark)
+public class AStarPathfindingBenchmark {
+
+  @Param({"29x18", "128x128", "512x512"})
+  public String size;
+
+  @Param({"0.0", "0.2", "0.35"})
+  public double obstacleDensity;
+
+  @Param({"false", "true"})
+  public boolean diagonalPathing;
+
+  @Param({"BINARY_HEAP", "BUCKET_QUEUE"})
+  public OpenListType openList;
+
+  private AStarPathfindingAlgorithm algorithm;
+
+  /**
+   * Creates the map and the algorithm. Maps which exceed the limits of a normal map are created in
+   * large-map mode.
+   */
+  @Setup
+  public void setup() throws PositionOutOfBounds {
+    int[] dimensions = BenchmarkMaps.parseSize(size);
+    MapManager mapManager = new MapManager();
+    if (dimensions[0] > MapManager.MAX_WIDTH || dimensions[1] > MapManager.MAX_HEIGHT) {
+      mapManager.createLargeMap(dimensions[0], dimensions[1]);
+    } else {
+      mapManager.createMap(dimensions[0], dimensions[1]);
+    }
+    Position start = mapManager.getStartCoordinates();
+    Position destination = mapManager.getDestinationCoordinates();
+    for (Position obstacle :
+        BenchmarkMaps.obstacles(
+            dimensions[0], dimensions[1], obstacleDensity, start, destination)) {
+      mapManager.createTerrain(TerrainType.LAVA, obstacle);
+    }
+    algorithm = new AStarPathfindingAlgorithm(mapManager, diagonalPathing, openList);
+  }
+
+  /** The search with recording of all states, as it is used by the visualisation. */
+  @Benchmark
+  public List<PathfindingInformation> findPath() throws IllegalParameterException {
+    return algorithm.findPath();
+  }
+
+  /** The search followed by rebuilding the last state, which is what the visualisation shows. */
+  @Benchmark
+  public void findPathLastFrame(Blackhole blackhole) throws IllegalParameterException {
+    List<PathfindingInformation> frames = algorithm.findPath();
+    if (!frames.isEmpty()) {
+      blackhole.consume(frames.get(frames.size() - 1));
+    }
+  }
+
+  /** The search without recording of the states. */
+  @Benchmark
+  public PathResult findShortestPath() throws IllegalParameterException {
+    return algorithm.findShortestPath();
+  }
+}
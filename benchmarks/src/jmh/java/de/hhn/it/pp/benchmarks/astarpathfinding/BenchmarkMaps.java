@@ -0,0 +1,54 @@
+package de.hhn.it.pp.benchmarks.astarpathfinding;
+
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates the reproducible random maps which are shared by all benchmarks.
+ */
+final class BenchmarkMaps {
+  private static final long SEED = 20200601L;
+
+  private BenchmarkMaps() {}
+
+  /**
+   * Parses a map size of the form {@code <width>x<height>}.
+   *
+   * @param size the size
+   * @return the width and the height
+   */
+  static int[] parseSize(String size) {
+    String[] parts = size.split("x");
+    return new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+  }
+
+  /**
+   * Chooses the obstacle positions of a map. The start and destination positions of the map are
+   * never chosen, so a search always has a chance to find a path.
+   *
+   * @param width the width of the map
+   * @param height the height of the map
+   * @param density the share of cells which are obstacles, between 0 and 1
+   * @param start the start position
+   * @param destination the destination position
+   * @return the obstacle positions
+   */
+  static List<Position> obstacles(
+      int width, int height, double density, Position start, Position destination) {
+    Random random = new Random(SEED);
+    List<Position> obstacles = new ArrayList<>();
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        Position position = new Position(row, col);
+        if (random.nextDouble() < density
+            && !position.equals(start)
+            && !position.equals(destination)) {
+          obstacles.add(position);
+        }
+      }
+    }
+    return obstacles;
+  }
+}
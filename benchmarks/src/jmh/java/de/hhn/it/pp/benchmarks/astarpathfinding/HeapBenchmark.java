@@ -0,0 +1,76 @@
+package de.hhn.it.pp.benchmarks.astarpathfinding;
+
+import de.hhn.it.pp.components.astarpathfinding.Heap;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.provider.Terrain;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the operations of {@link Heap} with terrains as they occur during a search.
+ */
+@State(Scope.Thread)
+public class HeapBenchmark {
+
+  @Param({"64", "1024", "16384"})
+  public int itemCount;
+
+  private Terrain[] terrains;
+  private Heap<Terrain> filledHeap;
+  private int nextUpdate;
+
+  /** Creates terrains with random costs and a heap which contains all of them. */
+  @Setup
+  public void setup() throws IllegalParameterException {
+    Random random = new Random(42);
+    terrains = new Terrain[itemCount];
+    filledHeap = new Heap<>(itemCount);
+    for (int i = 0; i < itemCount; i++) {
+      terrains[i] = new Terrain(new Position(i / 128, i % 128), TerrainType.DIRT);
+      terrains[i].setGCost(random.nextInt(1000));
+      terrains[i].setHCost(random.nextInt(1000));
+      filledHeap.add(terrains[i]);
+    }
+  }
+
+  /** Adds all terrains to an empty heap. */
+  @Benchmark
+  public Heap<Terrain> add() throws IllegalParameterException {
+    Heap<Terrain> heap = new Heap<>(itemCount);
+    for (Terrain terrain : terrains) {
+      heap.add(terrain);
+    }
+    return heap;
+  }
+
+  /** Adds all terrains to an empty heap and removes them in the order of their costs. */
+  @Benchmark
+  public void addRemoveFirst(Blackhole blackhole) throws IllegalParameterException {
+    Heap<Terrain> heap = new Heap<>(itemCount);
+    for (Terrain terrain : terrains) {
+      heap.add(terrain);
+    }
+    while (heap.getItemCount() > 0) {
+      blackhole.consume(heap.removeFirst());
+    }
+  }
+
+  /**
+   * Lowers the g cost of the terrains in the filled heap one after another and updates them, like
+   * a search does when it finds a shorter path.
+   */
+  @Benchmark
+  public void updateItem() {
+    Terrain terrain = terrains[nextUpdate];
+    nextUpdate = (nextUpdate + 1) % itemCount;
+    terrain.setGCost(terrain.getGCost() - 1);
+    filledHeap.updateItem(terrain);
+  }
+}
@@ -0,0 +1,47 @@
+package de.hhn.it.pp.benchmarks.astarpathfinding;
+
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks of creating maps. Normal maps are limited to {@link MapManager#MAX_WIDTH} x {@link
+ * MapManager#MAX_HEIGHT} cells, larger sizes are measured in large-map mode.
+ */
+@State(Scope.Thread)
+public class MapManagerBenchmark {
+
+  @Param({"10x10", "29x18"})
+  public String size;
+
+  @Param({"512x512", "4096x4096"})
+  public String largeSize;
+
+  private MapManager mapManager;
+  private int[] dimensions;
+  private int[] largeDimensions;
+
+  /** Creates the map manager and parses the sizes. */
+  @Setup
+  public void setup() {
+    mapManager = new MapManager();
+    dimensions = BenchmarkMaps.parseSize(size);
+    largeDimensions = BenchmarkMaps.parseSize(largeSize);
+  }
+
+  @Benchmark
+  public MapManager createMap() throws PositionOutOfBounds {
+    mapManager.createMap(dimensions[0], dimensions[1]);
+    return mapManager;
+  }
+
+  @Benchmark
+  public MapManager createLargeMap() throws PositionOutOfBounds {
+    mapManager.createLargeMap(largeDimensions[0], largeDimensions[1]);
+    return mapManager;
+  }
+}
@@ -0,0 +1,82 @@
+package de.hhn.it.pp.benchmarks.astarpathfinding;
+
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks of {@link Pathfinder#findPaths(List, ForkJoinPool)} with pools of different sizes.
+ * The throughput over the parallelism is the scaling curve of the batch searches; with one
+ * worker per core it should grow almost linearly. Parallelisms above the number of cores of the
+ * machine only show the overhead of the pool.
+ */
+@State(Scope.Benchmark)
+public class ParallelBatchBenchmark {
+
+  @Param({"1", "2", "4", "8", "16", "32"})
+  public int parallelism;
+
+  @Param({"512x512"})
+  public String size;
+
+  @Param({"256"})
+  public int queryCount;
+
+  @Param({"false", "true"})
+  public boolean diagonalPathing;
+
+  private Pathfinder pathfinder;
+  private List<PathQuery> queries;
+  private ForkJoinPool pool;
+
+  /** Creates the map with random terrain, the queries and the pool. */
+  @Setup
+  public void setup() throws PositionOutOfBounds, IllegalParameterException {
+    int[] dimensions = BenchmarkMaps.parseSize(size);
+    pathfinder = new Pathfinder();
+    pathfinder.createLargeMap(dimensions[0], dimensions[1]);
+    pathfinder.setDiagonalPathing(diagonalPathing);
+    // Every iteration must search all queries again
+    pathfinder.setPathCacheSize(0);
+    Position corner = new Position(0, 0);
+    for (Position obstacle :
+        BenchmarkMaps.obstacles(dimensions[0], dimensions[1], 0.2, corner, corner)) {
+      pathfinder.placeTerrain(TerrainType.SWAMP, obstacle);
+    }
+
+    Random random = new Random(queryCount);
+    queries = new ArrayList<>(queryCount);
+    for (int i = 0; i < queryCount; i++) {
+      queries.add(
+          new PathQuery(
+              new Position(random.nextInt(dimensions[1]), random.nextInt(dimensions[0])),
+              new Position(random.nextInt(dimensions[1]), random.nextInt(dimensions[0]))));
+    }
+    pool = new ForkJoinPool(parallelism);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  /** One batch of all queries, searched by the workers of the pool. */
+  @Benchmark
+  public List<PathResult> findPaths() throws IllegalParameterException, PositionOutOfBounds {
+    return pathfinder.findPaths(queries, pool);
+  }
+}
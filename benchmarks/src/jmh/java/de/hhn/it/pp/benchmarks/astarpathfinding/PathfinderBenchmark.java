@@ -0,0 +1,61 @@
+package de.hhn.it.pp.benchmarks.astarpathfinding;
+
+import de.hhn.it.pp.components.astarpathfinding.PathfindingInformation;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks of {@link Pathfinder#doPathfinding()} on the maps the service supports, i.e. up to
+ * {@link MapManager#MAX_WIDTH} x {@link MapManager#MAX_HEIGHT} cells.
+ */
+@State(Scope.Benchmark)
+public class PathfinderBenchmark {
+
+  @Param({"10x10", "29x18"})
+  public String size;
+
+  @Param({"0.0", "0.2", "0.35"})
+  public double obstacleDensity;
+
+  @Param({"false", "true"})
+  public boolean diagonalPathing;
+
+  private Pathfinder pathfinder;
+
+  /** Creates the pathfinder and places the obstacles. */
+  @Setup
+  public void setup() throws PositionOutOfBounds {
+    int[] dimensions = BenchmarkMaps.parseSize(size);
+    pathfinder = new Pathfinder();
+    pathfinder.createMap(dimensions[0], dimensions[1]);
+    pathfinder.setDiagonalPathing(diagonalPathing);
+
+    // The pathfinder does not expose its points, they are the defaults of a new map
+    MapManager mapManager = new MapManager();
+    mapManager.createMap(dimensions[0], dimensions[1]);
+    for (Position obstacle :
+        BenchmarkMaps.obstacles(
+            dimensions[0],
+            dimensions[1],
+            obstacleDensity,
+            mapManager.getStartCoordinates(),
+            mapManager.getDestinationCoordinates())) {
+      pathfinder.placeTerrain(TerrainType.LAVA, obstacle);
+    }
+  }
+
+  @Benchmark
+  public List<PathfindingInformation> doPathfinding() throws IllegalParameterException {
+    return pathfinder.doPathfinding();
+  }
+}
@@ -0,0 +1,74 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+/**
+ * Snapshot of the counters of a cache of path results.
+ */
+public class CacheStatistics {
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  private final int size;
+  private final int maxSize;
+
+  /**
+   * Creates a snapshot.
+   *
+   * @param hits the number of lookups which have been answered from the cache
+   * @param misses the number of lookups which required a search
+   * @param evictions the number of results which have been removed to make room for others
+   * @param size the number of results in the cache
+   * @param maxSize the maximum number of results in the cache
+   */
+  public CacheStatistics(long hits, long misses, long evictions, int size, int maxSize) {
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.size = size;
+    this.maxSize = maxSize;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Returns the share of the lookups which have been answered from the cache.
+   *
+   * @return the hit rate between 0 and 1, 0 if there has been no lookup
+   */
+  public double getHitRate() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStatistics{hits="
+        + hits
+        + ", misses="
+        + misses
+        + ", evictions="
+        + evictions
+        + ", size="
+        + size
+        + ", maxSize="
+        + maxSize
+        + "}";
+  }
+}
@@ -0,0 +1,207 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.Arrays;
+
+/**
+ * Immutable cost model of a search: the modifier of every terrain type and the step costs which
+ * are computed from it. A step costs the distance times one plus the modifier of the terrain which
+ * is left, rounded down, and a terrain whose modifier is {@link TerrainType#MAX_VALUE} can not be
+ * entered. All costs are computed when the table is created, so a search only reads them by the
+ * code of a terrain type, which is its ordinal.
+ *
+ * <p>A table is never changed. {@link #withModifier(TerrainType, double)} returns a new table, so
+ * several maps or queries with different costs can be searched at the same time.
+ */
+public final class CostTable {
+  private static final TerrainType[] TYPES = TerrainType.values();
+
+  /** The last table created from the modifiers of the terrain types. */
+  private static volatile CostTable terrainTypeTable;
+
+  private final double[] modifiers;
+  private final int[] straightCosts;
+  private final int[] diagonalCosts;
+  private final boolean[] passable;
+  private final int minStraightCost;
+  private final int minDiagonalCost;
+  private final int hash;
+
+  private CostTable(double[] modifiers) {
+    this.modifiers = modifiers;
+    this.straightCosts = new int[modifiers.length];
+    this.diagonalCosts = new int[modifiers.length];
+    this.passable = new boolean[modifiers.length];
+    for (int code = 0; code < modifiers.length; code++) {
+      straightCosts[code] = (int) (1 + modifiers[code]);
+      diagonalCosts[code] = (int) (2 * (1 + modifiers[code]));
+      passable[code] = modifiers[code] < TerrainType.MAX_VALUE;
+    }
+    // Over all terrain types, because the start of a search is left even if it is an obstacle
+    this.minStraightCost = Arrays.stream(straightCosts).min().orElse(1);
+    this.minDiagonalCost = Arrays.stream(diagonalCosts).min().orElse(2);
+    this.hash = Arrays.hashCode(modifiers);
+  }
+
+  /**
+   * Returns a table with the default modifiers of all terrain types.
+   *
+   * @return the default table
+   */
+  public static CostTable defaults() {
+    double[] modifiers = new double[TYPES.length];
+    for (TerrainType type : TYPES) {
+      modifiers[type.ordinal()] = type.getDefaultModifier();
+    }
+    return new CostTable(modifiers);
+  }
+
+  /**
+   * Returns a table with the modifiers which are currently set on the terrain types. This is the
+   * cost model of searches which are not given a table. The table is only created again when one
+   * of the modifiers has changed.
+   *
+   * @return a table with the current modifiers of the terrain types
+   */
+  public static CostTable fromTerrainTypes() {
+    CostTable table = terrainTypeTable;
+    if (table == null || !table.hasTerrainTypeModifiers()) {
+      double[] modifiers = new double[TYPES.length];
+      for (TerrainType type : TYPES) {
+        modifiers[type.ordinal()] = type.getModifier();
+      }
+      table = new CostTable(modifiers);
+      terrainTypeTable = table;
+    }
+    return table;
+  }
+
+  /**
+   * Returns a table which differs from this table only in the modifier of one terrain type.
+   *
+   * @param type the terrain type
+   * @param modifier the new modifier of the terrain type
+   * @return the new table
+   * @throws IllegalParameterException if the type is null or the modifier is out of range
+   */
+  public CostTable withModifier(TerrainType type, double modifier)
+      throws IllegalParameterException {
+    if (type == null) {
+      throw new IllegalParameterException("The terrain type must not be null!");
+    }
+    if (modifier < TerrainType.MIN_VALUE) {
+      throw new IllegalParameterException(
+          String.format(
+              "Invalid modifier value! Modifier must not be lower than %f!",
+              TerrainType.MIN_VALUE));
+    } else if (modifier > TerrainType.MAX_VALUE) {
+      throw new IllegalParameterException(
+          String.format(
+              "Invalid modifier value! Modifier must not be greater than %f!",
+              TerrainType.MAX_VALUE));
+    }
+    double[] newModifiers = modifiers.clone();
+    newModifiers[type.ordinal()] = modifier;
+    return new CostTable(newModifiers);
+  }
+
+  public double getModifier(TerrainType type) {
+    return modifiers[type.ordinal()];
+  }
+
+  /**
+   * Returns the cost of a straight step from a cell of the given terrain code.
+   *
+   * @param code the ordinal of the terrain type of the cell which is left
+   * @return the cost of the step
+   */
+  public int getStraightCost(int code) {
+    return straightCosts[code];
+  }
+
+  /**
+   * Returns the cost of a diagonal step from a cell of the given terrain code.
+   *
+   * @param code the ordinal of the terrain type of the cell which is left
+   * @return the cost of the step
+   */
+  public int getDiagonalCost(int code) {
+    return diagonalCosts[code];
+  }
+
+  /**
+   * Returns the cost of a step from a cell of the given terrain code.
+   *
+   * @param code the ordinal of the terrain type of the cell which is left
+   * @param distance 1 for a straight and 2 for a diagonal step
+   * @return the cost of the step
+   */
+  public int getStepCost(int code, int distance) {
+    return distance == 1 ? straightCosts[code] : diagonalCosts[code];
+  }
+
+  /**
+   * Returns the lowest cost of a straight step, which scales the heuristics of the searches.
+   *
+   * @return the lowest straight step cost of all terrain types
+   */
+  public int getMinStraightCost() {
+    return minStraightCost;
+  }
+
+  /**
+   * Returns the lowest cost of a diagonal step, which scales the heuristics of the searches.
+   *
+   * @return the lowest diagonal step cost of all terrain types
+   */
+  public int getMinDiagonalCost() {
+    return minDiagonalCost;
+  }
+
+  /**
+   * Checks whether cells of the given terrain code can be entered.
+   *
+   * @param code the ordinal of the terrain type
+   * @return true if the terrain is no obstacle
+   */
+  public boolean isPassable(int code) {
+    return passable[code];
+  }
+
+  private boolean hasTerrainTypeModifiers() {
+    for (TerrainType type : TYPES) {
+      if (modifiers[type.ordinal()] != type.getModifier()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CostTable)) {
+      return false;
+    }
+    return Arrays.equals(modifiers, ((CostTable) o).modifiers);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("CostTable{");
+    for (TerrainType type : TYPES) {
+      if (type.ordinal() > 0) {
+        builder.append(", ");
+      }
+      builder.append(type).append('=').append(modifiers[type.ordinal()]);
+    }
+    return builder.append('}').toString();
+  }
+}
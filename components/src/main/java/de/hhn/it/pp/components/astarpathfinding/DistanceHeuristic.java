@@ -0,0 +1,51 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+/**
+ * The common distances between two cells as {@link Heuristic heuristics}. Every distance is
+ * scaled by the lowest step costs of the cost table of the search, so it never overestimates the
+ * cost of a path, but is much closer to it than the plain number of steps. A diagonal step costs
+ * at least twice as much as a straight step with the cost tables of this component, so {@link
+ * #MANHATTAN} and {@link #OCTILE} are equal and the tightest of them.
+ */
+public enum DistanceHeuristic implements Heuristic {
+  /** The number of straight steps between two cells. */
+  MANHATTAN {
+    @Override
+    public int estimate(
+        int rowDistance, int colDistance, int minStraightCost, int minDiagonalCost) {
+      // A diagonal step covers two straight steps at a cost of at least two straight steps
+      return minStraightCost * (rowDistance + colDistance);
+    }
+  },
+  /** Diagonal steps as long as both distances are left, then straight steps. */
+  OCTILE {
+    @Override
+    public int estimate(
+        int rowDistance, int colDistance, int minStraightCost, int minDiagonalCost) {
+      int diagonalSteps = Math.min(rowDistance, colDistance);
+      int straightSteps = Math.max(rowDistance, colDistance) - diagonalSteps;
+      int diagonalCost = (int) Math.min(minDiagonalCost, 2L * minStraightCost);
+      return straightSteps * minStraightCost + diagonalSteps * diagonalCost;
+    }
+  },
+  /** The larger of both distances, i.e. the number of steps of a king on a chess board. */
+  CHEBYSHEV {
+    @Override
+    public int estimate(
+        int rowDistance, int colDistance, int minStraightCost, int minDiagonalCost) {
+      return Math.min(minStraightCost, minDiagonalCost) * Math.max(rowDistance, colDistance);
+    }
+  },
+  /** The length of the straight line between the centers of two cells. */
+  EUCLIDEAN {
+    @Override
+    public int estimate(
+        int rowDistance, int colDistance, int minStraightCost, int minDiagonalCost) {
+      // A diagonal step covers a length of the square root of 2
+      double costPerLength = Math.min(minStraightCost, minDiagonalCost / Math.sqrt(2));
+      return (int)
+          (costPerLength * Math.sqrt((double) rowDistance * rowDistance
+              + (double) colDistance * colDistance));
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+
+/**
+ * The costs of the shortest paths from every cell of a map to one destination and the first step
+ * of each of these paths. Any number of agents which share the destination read their next step
+ * from the field instead of searching their own path. The field is kept up to date when terrain
+ * is placed and can be read from other threads meanwhile, which see the field before the change
+ * until the update is finished.
+ */
+public interface FlowField {
+
+  /**
+   * Returns the destination of all paths of the field.
+   *
+   * @return the destination
+   */
+  Position getDestination();
+
+  /**
+   * Returns the cost of the shortest path from a position to the destination.
+   *
+   * @param position the position, which must be on the map
+   * @return the cost of the path, 0 at the destination and -1 if the destination can not be
+   *     reached
+   * @throws PositionOutOfBounds thrown if the position is not on the map
+   */
+  int getDistance(Position position) throws PositionOutOfBounds;
+
+  /**
+   * Returns the neighbour to which an agent on a position steps to follow the shortest path to
+   * the destination.
+   *
+   * @param position the position of the agent, which must be on the map
+   * @return the next position, null at the destination and if the destination can not be reached
+   * @throws PositionOutOfBounds thrown if the position is not on the map
+   */
+  Position getNextStep(Position position) throws PositionOutOfBounds;
+
+  /**
+   * Checks whether the field still belongs to the map. A new map, a reset or another diagonal
+   * pathing option discard the field, which is not updated any more afterwards.
+   *
+   * @return true if the field is kept up to date
+   */
+  boolean isValid();
+}
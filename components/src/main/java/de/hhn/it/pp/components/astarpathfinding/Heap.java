@@ -60,6 +60,25 @@ public class Heap<T extends IHeapItem<? super T>> {
     return firstItem;
   }
 
+  /**
+   * Removes a specific item from the heap. The last item of the heap takes its place and is sorted
+   * into the right position.
+   *
+   * @param item which should be removed from the heap
+   */
+  public void remove(T item) {
+    int index = item.getHeapIndex();
+    currentItemCount--;
+    T lastItem = items[currentItemCount];
+    items[currentItemCount] = null;
+    if (lastItem != item) {
+      items[index] = lastItem;
+      lastItem.setHeapIndex(index);
+      sortItemUp(lastItem);
+      sortItemDown(lastItem);
+    }
+  }
+
   /**
    * Check if the heap contains a specific item.
    *
@@ -0,0 +1,23 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+/**
+ * Estimates the cost of the path between two cells, which orders the open list of a search. The
+ * estimate must never be higher than the cost of any path between the cells and must not drop by
+ * more than the cost of a step between neighbours, otherwise the found paths are not the shortest
+ * ones. {@link DistanceHeuristic} contains the common estimates.
+ */
+@FunctionalInterface
+public interface Heuristic {
+
+  /**
+   * Estimates the cost of the path between two cells.
+   *
+   * @param rowDistance the number of rows between the cells, not negative
+   * @param colDistance the number of columns between the cells, not negative
+   * @param minStraightCost the lowest cost of a straight step in the cost table of the search
+   * @param minDiagonalCost the lowest cost of a diagonal step in the cost table of the search,
+   *     {@link Integer#MAX_VALUE} if the search does not allow diagonal steps
+   * @return the estimated cost, not negative
+   */
+  int estimate(int rowDistance, int colDistance, int minStraightCost, int minDiagonalCost);
+}
@@ -0,0 +1,150 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds which can be recorded from several threads at the same
+ * time. Every power of two is split into {@link #SUB_BUCKETS} buckets of equal width, so a
+ * percentile is at most 12.5 percent greater than the exact value. Recording a value neither locks
+ * nor allocates. The counters are striped, so the workers of a parallel batch which record their
+ * searches at the same time do not contend for them.
+ */
+public final class LatencyHistogram {
+  /** The number of buckets per power of two. */
+  public static final int SUB_BUCKETS = 8;
+
+  private static final int SUB_BITS = 3;
+  private static final int BUCKET_COUNT = (Long.SIZE - SUB_BITS + 1) * SUB_BUCKETS;
+
+  private final LongAdder[] counts = new LongAdder[BUCKET_COUNT];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /** Creates an empty histogram. */
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records a duration. Negative durations are recorded as 0.
+   *
+   * @param nanos the duration in nanoseconds
+   */
+  public void record(long nanos) {
+    long value = Math.max(nanos, 0);
+    counts[getBucket(value)].increment();
+    count.increment();
+    sum.add(value);
+    // Only write the maximum if it grows, a write on every call would contend for it
+    long current = max.get();
+    while (value > current && !max.compareAndSet(current, value)) {
+      current = max.get();
+    }
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Returns the sum of all recorded durations.
+   *
+   * @return the total duration in nanoseconds
+   */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns the mean of all recorded durations.
+   *
+   * @return the mean in nanoseconds, 0 if nothing has been recorded
+   */
+  public double getMean() {
+    long currentCount = count.sum();
+    return currentCount == 0 ? 0 : (double) sum.sum() / currentCount;
+  }
+
+  /**
+   * Returns the duration below which the given share of all recorded durations lies. The result
+   * is the upper bound of the bucket of the percentile, but never greater than the maximum.
+   *
+   * @param percentile the percentile between 0 and 100, e.g. 99 for the 99th percentile
+   * @return the duration in nanoseconds, 0 if nothing has been recorded
+   * @throws IllegalArgumentException if the percentile is not between 0 and 100
+   */
+  public long getPercentile(double percentile) {
+    if (!(percentile >= 0 && percentile <= 100)) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 100!");
+    }
+    long[] snapshot = new long[BUCKET_COUNT];
+    long total = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      snapshot[i] = counts[i].sum();
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(getUpperBound(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /** Removes all recorded durations. Durations recorded at the same time may partly remain. */
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i].reset();
+    }
+    count.reset();
+    sum.reset();
+    max.set(0);
+  }
+
+  private static int getBucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+    return (exponent - SUB_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  private static long getUpperBound(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+    long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+    return lowerBound + (1L << (exponent - SUB_BITS)) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return "LatencyHistogram{count="
+        + getCount()
+        + ", mean="
+        + (long) getMean()
+        + ", p50="
+        + getPercentile(50)
+        + ", p99="
+        + getPercentile(99)
+        + ", max="
+        + getMax()
+        + "}";
+  }
+}
@@ -0,0 +1,15 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+/**
+ * The data structures which can hold the open list of a search. All of them find paths of the same
+ * cost, but may choose another of several equally short paths.
+ */
+public enum OpenListType {
+  /** Binary heap with O(log n) insertions and removals. */
+  BINARY_HEAP,
+  /**
+   * Bucket queue with one bucket per f cost. Insertions and removals take amortized constant time,
+   * because the f costs of the removed cells never decrease during an A* search.
+   */
+  BUCKET_QUEUE
+}
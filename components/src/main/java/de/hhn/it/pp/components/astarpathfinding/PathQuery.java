@@ -0,0 +1,33 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+/**
+ * A single query of a batch search: the shortest path from a start to a goal position.
+ */
+public class PathQuery {
+  private final Position start;
+  private final Position goal;
+
+  /**
+   * Creates a query.
+   *
+   * @param start the start position
+   * @param goal the goal position
+   */
+  public PathQuery(Position start, Position goal) {
+    this.start = start;
+    this.goal = goal;
+  }
+
+  public Position getStart() {
+    return start;
+  }
+
+  public Position getGoal() {
+    return goal;
+  }
+
+  @Override
+  public String toString() {
+    return "PathQuery{start=" + start + ", goal=" + goal + "}";
+  }
+}
@@ -0,0 +1,200 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact result of a {@link PathQuery}. The path is stored as an array of cell indices, i.e.
+ * {@code row * width + col}, instead of terrain objects, so a result of a batch search only
+ * occupies one int per step.
+ */
+public class PathResult {
+  private static final int[] NO_PATH = new int[0];
+
+  private final PathQuery query;
+  private final int width;
+  private final int[] cells;
+  private final int cost;
+  private final SearchStats stats;
+  private final SearchStatus status;
+
+  /**
+   * Creates a result without counters of a search.
+   *
+   * @param query the answered query
+   * @param width the width of the searched map, used to decode the cell indices
+   * @param cells the cell indices of the path from the start to the goal, empty if there is none
+   * @param cost the cost of the path
+   */
+  public PathResult(PathQuery query, int width, int[] cells, int cost) {
+    this(query, width, cells, cost, new SearchStats(0, 0, 0, 0, 0, 0, cells.length, cost, 0));
+  }
+
+  /**
+   * Creates a result.
+   *
+   * @param query the answered query
+   * @param width the width of the searched map, used to decode the cell indices
+   * @param cells the cell indices of the path from the start to the goal, empty if there is none
+   * @param cost the cost of the path
+   * @param stats the counters of the search which found the path
+   */
+  public PathResult(PathQuery query, int width, int[] cells, int cost, SearchStats stats) {
+    this(
+        query,
+        width,
+        cells,
+        cost,
+        stats,
+        cells.length > 0 ? SearchStatus.FOUND : SearchStatus.NO_PATH);
+  }
+
+  /**
+   * Creates a result which may hold a partial path, i.e. the path to the cell closest to the goal
+   * which a search has reached before its budget was exhausted.
+   *
+   * @param query the answered query
+   * @param width the width of the searched map, used to decode the cell indices
+   * @param cells the cell indices of the path from the start, empty if there is none
+   * @param cost the cost of the path
+   * @param stats the counters of the search
+   * @param status how the search has ended
+   */
+  public PathResult(
+      PathQuery query, int width, int[] cells, int cost, SearchStats stats, SearchStatus status) {
+    this.query = query;
+    this.width = width;
+    this.cells = cells;
+    this.cost = cost;
+    this.stats = stats;
+    this.status = status;
+  }
+
+  /**
+   * Creates the result of a query without a path.
+   *
+   * @param query the answered query
+   * @param width the width of the searched map
+   * @return a result without path
+   */
+  public static PathResult notFound(PathQuery query, int width) {
+    return new PathResult(query, width, NO_PATH, -1);
+  }
+
+  /**
+   * Creates the result of a query without a path.
+   *
+   * @param query the answered query
+   * @param width the width of the searched map
+   * @param stats the counters of the search which did not find a path
+   * @return a result without path
+   */
+  public static PathResult notFound(PathQuery query, int width, SearchStats stats) {
+    return new PathResult(query, width, NO_PATH, -1, stats);
+  }
+
+  /**
+   * Returns a result with the same path for another query with the same start and goal, e.g. to
+   * answer a repeated query from a cache. The counters are the ones of the original search.
+   *
+   * @param otherQuery the answered query
+   * @return the result of the other query
+   */
+  public PathResult withQuery(PathQuery otherQuery) {
+    return new PathResult(otherQuery, width, cells, cost, stats, status);
+  }
+
+  public PathQuery getQuery() {
+    return query;
+  }
+
+  /**
+   * Checks whether the path leads to the goal.
+   *
+   * @return true if the path has been found, false if there is none or it is partial
+   */
+  public boolean isFound() {
+    return status == SearchStatus.FOUND;
+  }
+
+  /**
+   * Checks whether the search has been stopped by its budget. The path then leads from the start
+   * to the cell which is closest to the goal.
+   *
+   * @return true if the path is partial
+   */
+  public boolean isPartial() {
+    return status.isPartial();
+  }
+
+  public SearchStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * Returns the cost of the path, which is the g cost of the goal or, for a partial path, of the
+   * last cell of the path.
+   *
+   * @return the cost of the path or -1 if there is none
+   */
+  public int getCost() {
+    return cost;
+  }
+
+  /**
+   * Returns the number of positions of the path including the start and the goal.
+   *
+   * @return the length of the path, 0 if there is none
+   */
+  public int getLength() {
+    return cells.length;
+  }
+
+  /**
+   * Returns the counters of the search which found this result. Results which have not been
+   * searched, e.g. by the hierarchical search for a start on the goal, only count the path.
+   *
+   * @return the counters of the search
+   */
+  public SearchStats getStats() {
+    return stats;
+  }
+
+  public int getRow(int step) {
+    return cells[step] / width;
+  }
+
+  public int getCol(int step) {
+    return cells[step] % width;
+  }
+
+  public Position getPosition(int step) {
+    return new Position(getRow(step), getCol(step));
+  }
+
+  /**
+   * Creates the positions of the whole path.
+   *
+   * @return the positions from the start to the goal
+   */
+  public List<Position> toPositions() {
+    List<Position> positions = new ArrayList<>(cells.length);
+    for (int step = 0; step < cells.length; step++) {
+      positions.add(getPosition(step));
+    }
+    return positions;
+  }
+
+  @Override
+  public String toString() {
+    return "PathResult{query="
+        + query
+        + ", status="
+        + status
+        + ", length="
+        + cells.length
+        + ", cost="
+        + cost
+        + "}";
+  }
+}
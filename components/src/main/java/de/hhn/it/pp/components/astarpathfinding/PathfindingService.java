@@ -4,6 +4,10 @@ import de.hhn.it.pp.components.astarpathfinding.exceptions.OccupiedPositionExcep
 import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
 import de.hhn.it.pp.components.exceptions.IllegalParameterException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This Service is an interface for a pathfinding simulator that provides all the functionality to
@@ -22,6 +26,20 @@ public interface PathfindingService {
    */
   void createMap(int width, int height) throws PositionOutOfBounds;
 
+  /**
+   * Creates a map in large-map mode, which supports maps of up to 32768 x 32768 cells. The terrain
+   * of a large map is stored with four bits per cell. Every search works on a large map, e.g.
+   * {@link #findShortestPath()}, {@link #findPaths(List)}, {@link #findHierarchicalPaths(List)},
+   * {@link #replan()} and the asynchronous searches. Only {@link #doPathfinding()}, which records
+   * a frame of all states of the algorithm per expanded cell, is practical just for small
+   * searches.
+   *
+   * @param width the width of the map, must be higher then 1
+   * @param height the height of the map, must be higher then 1
+   * @throws PositionOutOfBounds if either the width or the height is invalid
+   */
+  void createLargeMap(int width, int height) throws PositionOutOfBounds;
+
   /**
    * Sets the start point for the pathfinding algorithm.
    *
@@ -41,7 +59,9 @@ public interface PathfindingService {
   void setEndPoint(Position position) throws PositionOutOfBounds, OccupiedPositionException;
 
   /**
-   * Places a terrain of the given type on the given position.
+   * Places a terrain of the given type on the given position. Searches which are running on other
+   * threads are not blocked and keep the map as it has been when they started, the following
+   * searches see the new terrain.
    *
    * @param type the type defining the terrain
    * @param position the position on the map
@@ -59,14 +79,184 @@ public interface PathfindingService {
    */
   List<PathfindingInformation> doPathfinding() throws IllegalParameterException;
 
+  /**
+   * Searches the path between the start and the end point in the common fork join pool. See
+   * {@link #doPathfindingAsync(SearchBudget, Executor)}.
+   *
+   * @param budget the limits of the search
+   * @return the future result of the search
+   * @throws IllegalParameterException thrown if the budget is null
+   */
+  CompletableFuture<PathResult> doPathfindingAsync(SearchBudget budget)
+      throws IllegalParameterException;
+
+  /**
+   * Searches the path between the start and the end point on a thread of the given executor. The
+   * start and the end point are taken when this method is called, the map when the search starts.
+   * If the budget is exhausted first, the result holds the path to the cell which is closest to
+   * the end point and its status tells which limit has been reached. The timeout of the budget
+   * starts when this method is called, so the time the search waits for a thread counts as well.
+   *
+   * <p>Cancelling the future stops the search within a few hundred expanded cells. The
+   * search is not recorded in the path cache.
+   *
+   * @param budget the limits of the search
+   * @param executor the executor which runs the search
+   * @return the future result of the search
+   * @throws IllegalParameterException thrown if the budget or the executor is null
+   */
+  CompletableFuture<PathResult> doPathfindingAsync(SearchBudget budget, Executor executor)
+      throws IllegalParameterException;
+
+  /**
+   * Searches the path between the start and the end point with an anytime search in the common
+   * fork join pool. See {@link #doPathfindingAnytime(SearchBudget, SolutionListener, Executor)}.
+   *
+   * @param budget the limits of the search
+   * @param listener the listener which receives every improved solution
+   * @return the future result of the search
+   * @throws IllegalParameterException thrown if the budget or the listener is null
+   */
+  CompletableFuture<PathResult> doPathfindingAnytime(
+      SearchBudget budget, SolutionListener listener) throws IllegalParameterException;
+
+  /**
+   * Searches the path between the start and the end point with an anytime search (ARA*) on a
+   * thread of the given executor. The first solution is searched with the heuristic weight of the
+   * service, so it is found quickly but may cost up to the weight times the cost of the shortest
+   * path. Then the weight is lowered step by step down to 1 and every search continues where the
+   * search before stopped. The listener receives the solution of every search.
+   *
+   * <p>The future completes with the shortest path, or with the best solution found so far when
+   * the budget is exhausted. If no solution has been found by then, the result is a partial path
+   * like the one of {@link #doPathfindingAsync(SearchBudget, Executor)}. Cancelling the future
+   * stops the search.
+   *
+   * @param budget the limits of the search
+   * @param listener the listener which receives every improved solution
+   * @param executor the executor which runs the search
+   * @return the future result of the search
+   * @throws IllegalParameterException thrown if the budget, the listener or the executor is null
+   */
+  CompletableFuture<PathResult> doPathfindingAnytime(
+      SearchBudget budget, SolutionListener listener, Executor executor)
+      throws IllegalParameterException;
+
+  /**
+   * Determines only the shortest path between the start and the end point. In contrast to {@link
+   * #doPathfinding()} no information about the states of the algorithm is recorded.
+   *
+   * @return the shortest path, a result without path if there is none
+   * @throws IllegalParameterException thrown if the mapsize or the total number of terrain on the
+   *     map is less then 1
+   */
+  PathResult findShortestPath() throws IllegalParameterException;
+
+  /**
+   * Determines the shortest path between the start and the end point like {@link
+   * #findShortestPath()}, but keeps the search between two calls. Only the costs which depend on
+   * terrain placed or modifiers changed since the previous call are repaired, so replanning after
+   * a small change of the map takes a fraction of a full search. Moving the start point keeps the
+   * search, a new end point starts a new one.
+   *
+   * @return the shortest path, a result without path if there is none
+   * @throws IllegalParameterException thrown if the mapsize or the total number of terrain on the
+   *     map is less then 1
+   */
+  PathResult replan() throws IllegalParameterException;
+
+  /**
+   * Determines the shortest path and reports every step of the search to the given listener while
+   * the search is running. The steps are not stored, so this is suitable for long searches which
+   * should be visualized step by step.
+   *
+   * @param listener the listener which receives the events on the calling thread
+   * @return the shortest path, a result without path if there is none
+   * @throws IllegalParameterException thrown if the listener is null
+   */
+  PathResult findShortestPath(SearchListener listener) throws IllegalParameterException;
+
+  /**
+   * Returns a publisher of the steps of the search between the start and the end point. Nothing
+   * is searched until a subscriber subscribes, then a search runs in the background for every
+   * subscription. The search only proceeds as fast as the subscriber requests events and stops
+   * when the subscription is cancelled. The last event is a {@link
+   * SearchEvent.Kind#SEARCH_FINISHED} event with the final path. Every search runs on the map as
+   * it has been when the search started.
+   *
+   * @return the publisher of the search events
+   */
+  Flow.Publisher<SearchEvent> publishPathfinding();
+
+  /**
+   * Determines the shortest paths for a batch of start and goal positions on the current map. The
+   * start and end point of the service are not changed. The search state is shared by all queries
+   * of the batch, so this is much cheaper than setting the points and searching once per query.
+   *
+   * @param queries the start and goal positions
+   * @return one result per query in the order of the queries
+   * @throws IllegalParameterException if the list of queries or one of its positions is null
+   * @throws PositionOutOfBounds if a start or goal position is out of bounds
+   */
+  List<PathResult> findPaths(List<PathQuery> queries)
+      throws IllegalParameterException, PositionOutOfBounds;
+
+  /**
+   * Determines the shortest paths for a batch of start and goal positions like {@link
+   * #findPaths(List)}, but searches chunks of the batch in parallel on the given pool. Every worker
+   * reuses the search state of its own thread and the map is only read, so the throughput grows
+   * with the parallelism of the pool. Use {@link ForkJoinPool#commonPool()} to search on all cores.
+   *
+   * @param queries the start and goal positions
+   * @param pool the pool which runs the searches
+   * @return one result per query in the order of the queries
+   * @throws IllegalParameterException if the list of queries, one of its positions or the pool is
+   *     null
+   * @throws PositionOutOfBounds if a start or goal position is out of bounds
+   */
+  List<PathResult> findPaths(List<PathQuery> queries, ForkJoinPool pool)
+      throws IllegalParameterException, PositionOutOfBounds;
+
+  /**
+   * Determines paths for a batch of start and goal positions with hierarchical path-finding. The
+   * map is divided into clusters whose entrances and internal costs are computed once and reused
+   * by all following queries, so long paths on large maps are found much faster than by {@link
+   * #findPaths(List)}. The paths are valid, but may be slightly longer than the shortest paths.
+   * Placing a terrain only discards the clusters next to it.
+   *
+   * @param queries the start and goal positions
+   * @return one result per query in the order of the queries
+   * @throws IllegalParameterException if the list of queries or one of its positions is null
+   * @throws PositionOutOfBounds if a start or goal position is out of bounds
+   */
+  List<PathResult> findHierarchicalPaths(List<PathQuery> queries)
+      throws IllegalParameterException, PositionOutOfBounds;
+
+  /**
+   * Returns the flow field of a destination, which holds the cost of the shortest path from every
+   * position of the map to the destination and the first step of that path. The whole field is
+   * computed once by a single search, so many agents sharing one destination read their next steps
+   * instead of searching their own paths. Placing a terrain only updates the positions whose
+   * paths change, a new cost table computes the field again. A new map, a reset or another
+   * diagonal pathing option discard the field, so it must be requested again afterwards.
+   *
+   * @param destination the destination of the paths
+   * @return the field of the destination, shared by all callers until it is discarded
+   * @throws IllegalParameterException if the destination is null
+   * @throws PositionOutOfBounds if the destination is out of bounds
+   */
+  FlowField getFlowField(Position destination)
+      throws IllegalParameterException, PositionOutOfBounds;
+
   /**
    * Stops the visualization if it is running and resets the start and end point and removes the
-   * obstacles on the grid.
+   * obstacles on the grid. The cost table is reset to {@link CostTable#defaults()}.
    */
   void reset();
 
   /**
-   * Changes the terrain modifier for a specific terrain type.
+   * Changes the terrain modifier for a specific terrain type in the cost table of this service.
+   * The modifiers of other services and of the terrain types themselves are not changed.
    *
    * @param type the terrain type which will be changed
    * @param modifier the new value for the terrain type modifier. The value must be between 0 and 1
@@ -81,4 +271,142 @@ public interface PathfindingService {
    * @param enabled whether the option is enabled
    */
   void setDiagonalPathing(boolean enabled);
+
+  /**
+   * Selects the algorithm which is used by all following searches. The default is {@link
+   * SearchAlgorithm#A_STAR}.
+   *
+   * @param algorithm the algorithm
+   * @throws IllegalParameterException thrown if the algorithm is null
+   */
+  void setSearchAlgorithm(SearchAlgorithm algorithm) throws IllegalParameterException;
+
+  /**
+   * Selects the data structure of the open list which is used by all following searches. The
+   * default is {@link OpenListType#BINARY_HEAP}.
+   *
+   * @param type the data structure
+   * @throws IllegalParameterException thrown if the type is null
+   */
+  void setOpenListType(OpenListType type) throws IllegalParameterException;
+
+  /**
+   * Replaces the cost table which is used by all following searches of this service. The default
+   * is {@link CostTable#defaults()}.
+   *
+   * @param costTable the costs of the steps
+   * @throws IllegalParameterException thrown if the cost table is null
+   */
+  void setCostTable(CostTable costTable) throws IllegalParameterException;
+
+  /**
+   * Returns the cost table which is used by all following searches of this service.
+   *
+   * @return the current cost table
+   */
+  CostTable getCostTable();
+
+  /**
+   * Changes the weight of the heuristic of {@link SearchAlgorithm#WEIGHTED_A_STAR} and the weight
+   * of the first solution of {@link #doPathfindingAnytime(SearchBudget, SolutionListener)}. A
+   * found path costs at most the weight times the cost of the shortest path. The default is 1.5.
+   *
+   * @param weight the weight, between 1 and 100
+   * @throws IllegalParameterException thrown if the weight is not between 1 and 100
+   */
+  void setHeuristicWeight(double weight) throws IllegalParameterException;
+
+  /**
+   * Returns the weight of the heuristic which is used by all following weighted searches.
+   *
+   * @return the current weight
+   */
+  double getHeuristicWeight();
+
+  /**
+   * Changes the heuristic of all following searches except the hierarchical search and the D* Lite
+   * planner, which keep the Manhattan distance. The heuristic is scaled by the lowest step costs of
+   * the cost table, so every {@link DistanceHeuristic} keeps finding the shortest paths. The
+   * default is {@link DistanceHeuristic#MANHATTAN}.
+   *
+   * @param heuristic the heuristic
+   * @throws IllegalParameterException thrown if the heuristic is null
+   */
+  void setHeuristic(Heuristic heuristic) throws IllegalParameterException;
+
+  /**
+   * Returns the heuristic which is used by all following searches.
+   *
+   * @return the current heuristic
+   */
+  Heuristic getHeuristic();
+
+  /**
+   * Selects the landmarks of the landmark heuristic (ALT). The costs of the shortest paths from
+   * and to every landmark are computed on a background thread whenever the map, the cost table or
+   * the diagonal pathing option change. A*, weighted A*, Jump Point Search and the anytime search
+   * then use lower bounds from these costs, which include the costs of the terrain, instead of the
+   * Manhattan distance alone and expand far fewer cells. The found paths have the same cost.
+   * Until the costs of the current map are computed, the searches use the Manhattan distance.
+   * Placing terrain which makes no step cheaper keeps the costs. After other terrain has been
+   * placed, they are computed again once no terrain has been placed for a short pause.
+   *
+   * <p>Landmarks work best on the border of the map, behind the start or the end point of the
+   * queries. Every landmark needs 8 bytes per cell of the map.
+   *
+   * @param landmarks the positions of at most 16 landmarks, an empty list disables the heuristic
+   * @throws IllegalParameterException thrown if the list or a position is null or the list has
+   *     more than 16 positions
+   * @throws PositionOutOfBounds if a position is not on the map
+   */
+  void setLandmarks(List<Position> landmarks)
+      throws IllegalParameterException, PositionOutOfBounds;
+
+  /**
+   * Uses the landmark heuristic like {@link #setLandmarks(List)}, but selects the landmarks
+   * automatically for every map: each landmark is the reachable cell which is farthest from the
+   * landmarks before.
+   *
+   * @param count the number of landmarks, between 0 and 16, 0 disables the heuristic
+   * @throws IllegalParameterException thrown if the count is not between 0 and 16
+   */
+  void setLandmarkCount(int count) throws IllegalParameterException;
+
+  /**
+   * Returns a future which completes when the landmark costs of the current map are computed, or
+   * right away if the landmark heuristic is disabled. It completes exceptionally with an {@link
+   * IllegalStateException} if the costs of the landmarks do not fit into memory for the map, in
+   * which case the searches keep using the Manhattan distance.
+   *
+   * @return the future of the computation
+   */
+  CompletableFuture<Void> whenLandmarksReady();
+
+  /**
+   * Changes the maximum number of results in the path cache. {@link #findShortestPath()} and
+   * {@link #findPaths(List)} answer a query from the cache if it has been searched before with the
+   * same version of the map, cost table, search algorithm, heuristic weight and diagonal pathing
+   * option. The default size is 1024 results.
+   *
+   * @param maxSize the maximum number of cached results, 0 disables the cache
+   * @throws IllegalParameterException thrown if the size is negative
+   */
+  void setPathCacheSize(int maxSize) throws IllegalParameterException;
+
+  /**
+   * Returns the hit, miss and eviction counters of the path cache.
+   *
+   * @return a snapshot of the counters
+   */
+  CacheStatistics getPathCacheStatistics();
+
+  /**
+   * Returns the metrics of all searches of this service: the summed counters of the searches and
+   * histograms of the latencies of the searches and of the calls of {@link #findShortestPath()},
+   * {@link #findPaths(List)} and {@link #findHierarchicalPaths(List)}. The metrics are updated
+   * while searches are running and are not reset with the map.
+   *
+   * @return the live metrics of this service
+   */
+  SearchMetrics getSearchMetrics();
 }
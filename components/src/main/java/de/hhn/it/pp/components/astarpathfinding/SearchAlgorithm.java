@@ -0,0 +1,24 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+/**
+ * The algorithms which can be used to search a path.
+ */
+public enum SearchAlgorithm {
+  /** Plain A* search which expands every neighbour of a cell. */
+  A_STAR,
+  /**
+   * A* search with Jump Point Search pruning, which expands far fewer cells in regions of a single
+   * terrain type, with and without diagonal pathing.
+   */
+  JUMP_POINT_SEARCH,
+  /**
+   * A* search from the start and from the end point at the same time, which expands fewer cells
+   * for paths across the map.
+   */
+  BIDIRECTIONAL_A_STAR,
+  /**
+   * A* search whose heuristic is multiplied by the heuristic weight of the service. It expands
+   * fewer cells, but the found paths may cost up to the weight times the cost of the shortest path.
+   */
+  WEIGHTED_A_STAR
+}
@@ -0,0 +1,102 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.time.Duration;
+
+/**
+ * Limits of a single search: a maximum number of expanded nodes and a timeout, after which the
+ * search stops and returns the path to the node closest to the goal. A budget is immutable, the
+ * {@code with} methods return a new budget.
+ */
+public final class SearchBudget {
+  private static final SearchBudget UNLIMITED = new SearchBudget(Long.MAX_VALUE, null);
+
+  private final long maxExpandedNodes;
+  private final Duration timeout;
+
+  private SearchBudget(long maxExpandedNodes, Duration timeout) {
+    this.maxExpandedNodes = maxExpandedNodes;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Returns a budget without limits.
+   *
+   * @return the unlimited budget
+   */
+  public static SearchBudget unlimited() {
+    return UNLIMITED;
+  }
+
+  /**
+   * Returns a budget which stops the search after the given number of expanded nodes.
+   *
+   * @param max the maximum number of expanded nodes
+   * @return the new budget
+   * @throws IllegalParameterException if the maximum is lower than 1
+   */
+  public SearchBudget withMaxExpandedNodes(long max) throws IllegalParameterException {
+    if (max < 1) {
+      throw new IllegalParameterException("The maximum number of expanded nodes must be positive!");
+    }
+    return new SearchBudget(max, timeout);
+  }
+
+  /**
+   * Returns a budget which stops the search when the timeout has passed. The timeout starts when
+   * the search is requested, so the time it waits for a thread counts as well.
+   *
+   * @param newTimeout the time the search may take
+   * @return the new budget
+   * @throws IllegalParameterException if the timeout is null or negative
+   */
+  public SearchBudget withTimeout(Duration newTimeout) throws IllegalParameterException {
+    if (newTimeout == null) {
+      throw new IllegalParameterException("The timeout must not be null!");
+    }
+    if (newTimeout.isNegative()) {
+      throw new IllegalParameterException("The timeout must not be negative!");
+    }
+    return new SearchBudget(maxExpandedNodes, newTimeout);
+  }
+
+  /**
+   * Returns the maximum number of expanded nodes.
+   *
+   * @return the maximum, {@link Long#MAX_VALUE} if there is none
+   */
+  public long getMaxExpandedNodes() {
+    return maxExpandedNodes;
+  }
+
+  /**
+   * Returns the timeout of the search.
+   *
+   * @return the timeout or null if there is none
+   */
+  public Duration getTimeout() {
+    return timeout;
+  }
+
+  /**
+   * Returns the timeout of the search in nanoseconds.
+   *
+   * @return the timeout, {@link Long#MAX_VALUE} if there is none or it is too long to be counted
+   *     in nanoseconds
+   */
+  public long getTimeoutNanos() {
+    if (timeout == null) {
+      return Long.MAX_VALUE;
+    }
+    try {
+      return timeout.toNanos();
+    } catch (ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SearchBudget{maxExpandedNodes=" + maxExpandedNodes + ", timeout=" + timeout + "}";
+  }
+}
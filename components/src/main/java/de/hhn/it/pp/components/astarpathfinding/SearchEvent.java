@@ -0,0 +1,113 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single change of the state of a running search, e.g. a position which has been added to the
+ * open list. The events of a search are delivered in the order in which they happened, the last
+ * event of a search is always of the kind {@link Kind#SEARCH_FINISHED}.
+ */
+public class SearchEvent {
+
+  /** The kinds of events. */
+  public enum Kind {
+    /** A position has been added to the open list. */
+    OPENED,
+    /** The costs and the parent of a position in the open list have been updated. */
+    UPDATED,
+    /** A position has been removed from the open list and added to the closed list. */
+    CLOSED,
+    /** A step of the algorithm, i.e. the expansion of one position, has been finished. */
+    STEP_FINISHED,
+    /** The search has been finished, the event holds the final path. */
+    SEARCH_FINISHED
+  }
+
+  private final Kind kind;
+  private final Position position;
+  private final TerrainType type;
+  private final int gCost;
+  private final int hCost;
+  private final Position parent;
+  private final List<Position> path;
+
+  /**
+   * Creates an event.
+   *
+   * @param kind the kind of the event
+   * @param position the position the event is about, null for steps and the end of the search
+   * @param type the terrain type of the position, null if there is no position
+   * @param gCost the g cost of the position
+   * @param hCost the h cost of the position
+   * @param parent the parent of the position, null if there is none
+   * @param path the final path, empty for all events but the end of a successful search
+   */
+  public SearchEvent(
+      Kind kind,
+      Position position,
+      TerrainType type,
+      int gCost,
+      int hCost,
+      Position parent,
+      List<Position> path) {
+    this.kind = kind;
+    this.position = position;
+    this.type = type;
+    this.gCost = gCost;
+    this.hCost = hCost;
+    this.parent = parent;
+    this.path = Collections.unmodifiableList(path);
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  public Position getPosition() {
+    return position;
+  }
+
+  public TerrainType getType() {
+    return type;
+  }
+
+  public int getGCost() {
+    return gCost;
+  }
+
+  public int getHCost() {
+    return hCost;
+  }
+
+  public Position getParent() {
+    return parent;
+  }
+
+  /**
+   * Returns the final path of the search.
+   *
+   * @return the positions from the start to the destination, empty if no path has been found or
+   *     the event is not of the kind {@link Kind#SEARCH_FINISHED}
+   */
+  public List<Position> getPath() {
+    return path;
+  }
+
+  public boolean isPathFound() {
+    return !path.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "SearchEvent{kind="
+        + kind
+        + ", position="
+        + position
+        + ", gCost="
+        + gCost
+        + ", hCost="
+        + hCost
+        + "}";
+  }
+}
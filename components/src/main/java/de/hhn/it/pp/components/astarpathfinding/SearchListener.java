@@ -0,0 +1,16 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+/**
+ * Listener which is informed about every change of the state of a running search. It is called on
+ * the thread which runs the search, so the search waits until the listener returns.
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+  /**
+   * Called for every event of the search.
+   *
+   * @param event the event
+   */
+  void onEvent(SearchEvent event);
+}
@@ -0,0 +1,163 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated counters and latencies of all searches of a pathfinder. The metrics are updated
+ * without locks by all threads which search, so they can be read at any time, e.g. by a monitoring
+ * system, without enabling debug logging.
+ *
+ * <p>A search is a single query which has not been answered from the path cache. A request is a
+ * call of the pathfinder, which may answer many queries at once.
+ */
+public final class SearchMetrics {
+  private final LongAdder searches = new LongAdder();
+  private final LongAdder pathsFound = new LongAdder();
+  private final LongAdder expandedNodes = new LongAdder();
+  private final LongAdder generatedNodes = new LongAdder();
+  private final LongAdder pushes = new LongAdder();
+  private final LongAdder pops = new LongAdder();
+  private final LongAdder updates = new LongAdder();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder queries = new LongAdder();
+  private final LatencyHistogram searchLatency = new LatencyHistogram();
+  private final LatencyHistogram requestLatency = new LatencyHistogram();
+
+  /**
+   * Adds the counters of a search.
+   *
+   * @param stats the counters of the search
+   */
+  public void recordSearch(SearchStats stats) {
+    searches.increment();
+    if (stats.isPathFound()) {
+      pathsFound.increment();
+    }
+    expandedNodes.add(stats.getExpandedNodes());
+    generatedNodes.add(stats.getGeneratedNodes());
+    pushes.add(stats.getPushes());
+    pops.add(stats.getPops());
+    updates.add(stats.getUpdates());
+    searchLatency.record(stats.getWallTimeNanos());
+  }
+
+  /**
+   * Adds a request of the pathfinder.
+   *
+   * @param queryCount the number of queries of the request
+   * @param nanos the time the request took in nanoseconds
+   */
+  public void recordRequest(int queryCount, long nanos) {
+    requests.increment();
+    queries.add(queryCount);
+    requestLatency.record(nanos);
+  }
+
+  public long getSearches() {
+    return searches.sum();
+  }
+
+  public long getPathsFound() {
+    return pathsFound.sum();
+  }
+
+  public long getExpandedNodes() {
+    return expandedNodes.sum();
+  }
+
+  public long getGeneratedNodes() {
+    return generatedNodes.sum();
+  }
+
+  public long getPushes() {
+    return pushes.sum();
+  }
+
+  public long getPops() {
+    return pops.sum();
+  }
+
+  public long getUpdates() {
+    return updates.sum();
+  }
+
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  public long getQueries() {
+    return queries.sum();
+  }
+
+  /**
+   * Returns the latencies of the single searches.
+   *
+   * @return the histogram of the wall times of the searches
+   */
+  public LatencyHistogram getSearchLatency() {
+    return searchLatency;
+  }
+
+  /**
+   * Returns the latencies of the requests, including the queries answered from the cache.
+   *
+   * @return the histogram of the wall times of the requests
+   */
+  public LatencyHistogram getRequestLatency() {
+    return requestLatency;
+  }
+
+  /**
+   * Returns all counters and the main percentiles of the latencies by name, e.g. to export them
+   * to a monitoring system. Latencies are given in nanoseconds.
+   *
+   * @return the current values in a fixed order
+   */
+  public Map<String, Long> toMap() {
+    Map<String, Long> values = new LinkedHashMap<>();
+    values.put("searches", getSearches());
+    values.put("pathsFound", getPathsFound());
+    values.put("expandedNodes", getExpandedNodes());
+    values.put("generatedNodes", getGeneratedNodes());
+    values.put("pushes", getPushes());
+    values.put("pops", getPops());
+    values.put("updates", getUpdates());
+    values.put("requests", getRequests());
+    values.put("queries", getQueries());
+    putLatency(values, "searchLatency", searchLatency);
+    putLatency(values, "requestLatency", requestLatency);
+    return values;
+  }
+
+  private static void putLatency(
+      Map<String, Long> values, String name, LatencyHistogram histogram) {
+    values.put(name + ".count", histogram.getCount());
+    values.put(name + ".sum", histogram.getSum());
+    values.put(name + ".p50", histogram.getPercentile(50));
+    values.put(name + ".p90", histogram.getPercentile(90));
+    values.put(name + ".p99", histogram.getPercentile(99));
+    values.put(name + ".max", histogram.getMax());
+  }
+
+  /** Sets all counters and latencies back to zero. */
+  public void reset() {
+    searches.reset();
+    pathsFound.reset();
+    expandedNodes.reset();
+    generatedNodes.reset();
+    pushes.reset();
+    pops.reset();
+    updates.reset();
+    requests.reset();
+    queries.reset();
+    searchLatency.reset();
+    requestLatency.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "SearchMetrics" + toMap();
+  }
+}
@@ -0,0 +1,156 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+/**
+ * Counters of a single search. A node is a cell of the map, or an entrance of a cluster for a
+ * hierarchical search.
+ */
+public class SearchStats {
+  private final long expandedNodes;
+  private final long generatedNodes;
+  private final long pushes;
+  private final long pops;
+  private final long updates;
+  private final int maxOpenListSize;
+  private final int pathLength;
+  private final int pathCost;
+  private final boolean pathFound;
+  private final long wallTimeNanos;
+
+  /**
+   * Creates the counters of a search.
+   *
+   * @param expandedNodes the number of nodes whose neighbours have been generated
+   * @param generatedNodes the number of neighbours which have been generated, i.e. could be
+   *     entered
+   * @param pushes the number of nodes which have been added to the open list
+   * @param pops the number of nodes which have been removed from the open list
+   * @param updates the number of nodes of the open list whose costs have been lowered
+   * @param maxOpenListSize the largest number of nodes in the open list
+   * @param pathLength the number of positions of the found path, 0 if there is none
+   * @param pathCost the cost of the found path, -1 if there is none
+   * @param wallTimeNanos the time the search took in nanoseconds
+   */
+  public SearchStats(
+      long expandedNodes,
+      long generatedNodes,
+      long pushes,
+      long pops,
+      long updates,
+      int maxOpenListSize,
+      int pathLength,
+      int pathCost,
+      long wallTimeNanos) {
+    this(
+        expandedNodes,
+        generatedNodes,
+        pushes,
+        pops,
+        updates,
+        maxOpenListSize,
+        pathLength,
+        pathCost,
+        pathLength > 0,
+        wallTimeNanos);
+  }
+
+  /**
+   * Creates the counters of a search which may have been stopped with a partial path.
+   *
+   * @param expandedNodes the number of nodes whose neighbours have been generated
+   * @param generatedNodes the number of neighbours which have been generated, i.e. could be
+   *     entered
+   * @param pushes the number of nodes which have been added to the open list
+   * @param pops the number of nodes which have been removed from the open list
+   * @param updates the number of nodes of the open list whose costs have been lowered
+   * @param maxOpenListSize the largest number of nodes in the open list
+   * @param pathLength the number of positions of the found or partial path, 0 if there is none
+   * @param pathCost the cost of the found or partial path, -1 if there is none
+   * @param pathFound whether the path reaches the goal
+   * @param wallTimeNanos the time the search took in nanoseconds
+   */
+  public SearchStats(
+      long expandedNodes,
+      long generatedNodes,
+      long pushes,
+      long pops,
+      long updates,
+      int maxOpenListSize,
+      int pathLength,
+      int pathCost,
+      boolean pathFound,
+      long wallTimeNanos) {
+    this.expandedNodes = expandedNodes;
+    this.generatedNodes = generatedNodes;
+    this.pushes = pushes;
+    this.pops = pops;
+    this.updates = updates;
+    this.maxOpenListSize = maxOpenListSize;
+    this.pathLength = pathLength;
+    this.pathCost = pathCost;
+    this.pathFound = pathFound;
+    this.wallTimeNanos = wallTimeNanos;
+  }
+
+  public long getExpandedNodes() {
+    return expandedNodes;
+  }
+
+  public long getGeneratedNodes() {
+    return generatedNodes;
+  }
+
+  public long getPushes() {
+    return pushes;
+  }
+
+  public long getPops() {
+    return pops;
+  }
+
+  public long getUpdates() {
+    return updates;
+  }
+
+  public int getMaxOpenListSize() {
+    return maxOpenListSize;
+  }
+
+  public int getPathLength() {
+    return pathLength;
+  }
+
+  public int getPathCost() {
+    return pathCost;
+  }
+
+  public long getWallTimeNanos() {
+    return wallTimeNanos;
+  }
+
+  public boolean isPathFound() {
+    return pathFound;
+  }
+
+  @Override
+  public String toString() {
+    return "SearchStats{expanded="
+        + expandedNodes
+        + ", generated="
+        + generatedNodes
+        + ", pushes="
+        + pushes
+        + ", pops="
+        + pops
+        + ", updates="
+        + updates
+        + ", maxOpenListSize="
+        + maxOpenListSize
+        + ", pathLength="
+        + pathLength
+        + ", pathCost="
+        + pathCost
+        + ", wallTimeNanos="
+        + wallTimeNanos
+        + "}";
+  }
+}
@@ -0,0 +1,31 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+/**
+ * How a search has ended.
+ */
+public enum SearchStatus {
+  /** The path to the goal has been found. */
+  FOUND,
+  /** All reachable cells have been searched, there is no path to the goal. */
+  NO_PATH,
+  /**
+   * The deadline of the {@link SearchBudget} has passed. The path leads to the closest cell to
+   * the goal the search has reached.
+   */
+  DEADLINE_EXCEEDED,
+  /**
+   * The search has expanded as many nodes as the {@link SearchBudget} allows. The path leads to the
+   * closest cell to the goal the search has reached.
+   */
+  EXPANSION_LIMIT_REACHED;
+
+  /**
+   * Checks whether the search has been stopped by its budget before it could decide whether there
+   * is a path.
+   *
+   * @return true if the result holds a partial path
+   */
+  public boolean isPartial() {
+    return this == DEADLINE_EXCEEDED || this == EXPANSION_LIMIT_REACHED;
+  }
+}
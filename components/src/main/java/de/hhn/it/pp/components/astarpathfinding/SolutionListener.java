@@ -0,0 +1,19 @@
+package de.hhn.it.pp.components.astarpathfinding;
+
+/**
+ * Listener which receives the solutions of an anytime search as soon as they are found. Every
+ * solution is at least as cheap as the one before and its bound is tighter. The listener is
+ * called on the thread which runs the search, so the search waits until the listener returns.
+ */
+@FunctionalInterface
+public interface SolutionListener {
+
+  /**
+   * Called for every solution of the search.
+   *
+   * @param result the path found by the last iteration of the search
+   * @param weight the bound of the solution: its cost is at most this factor times the cost of
+   *     the shortest path, 1 for the shortest path
+   */
+  void onSolution(PathResult result, double weight);
+}
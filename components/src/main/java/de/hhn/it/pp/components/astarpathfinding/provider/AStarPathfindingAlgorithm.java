@@ -1,20 +1,53 @@
 package de.hhn.it.pp.components.astarpathfinding.provider;
 
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.DistanceHeuristic;
+import de.hhn.it.pp.components.astarpathfinding.Heuristic;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
 import de.hhn.it.pp.components.astarpathfinding.PathfindingInformation;
 import de.hhn.it.pp.components.astarpathfinding.Position;
-import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.SearchBudget;
+import de.hhn.it.pp.components.astarpathfinding.SearchEvent;
+import de.hhn.it.pp.components.astarpathfinding.SearchListener;
+import de.hhn.it.pp.components.astarpathfinding.SearchMetrics;
+import de.hhn.it.pp.components.astarpathfinding.SearchStats;
+import de.hhn.it.pp.components.astarpathfinding.SearchStatus;
 import de.hhn.it.pp.components.exceptions.IllegalParameterException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
 
 public class AStarPathfindingAlgorithm {
   private static final org.slf4j.Logger logger =
       org.slf4j.LoggerFactory.getLogger(AStarPathfindingAlgorithm.class);
 
-  private final ArrayList<PathfindingInformation> result = new ArrayList<>();
+  /** The largest number of queries of a batch which are searched by one task of a pool. */
+  private static final int BATCH_CHUNK_SIZE = 32;
+
+  /**
+   * The number of chunks per worker into which a small batch is split, so workers which finish
+   * early can take chunks of the others.
+   */
+  private static final int BATCH_CHUNKS_PER_WORKER = 4;
+
   private final MapManager mapManager;
   private final boolean diagonalPathing;
+  private final OpenListType openListType;
+  /** The cost table given to the constructor, null to use the modifiers of the terrain types. */
+  private final CostTable costTable;
+  /** The cost table of the current search, which is resolved once when the search starts. */
+  private CostTable costs;
+  /** The metrics to which the counters of every search are added, may be null. */
+  private SearchMetrics metrics;
+  /** The estimate of the distance to the destination, null for the plain Manhattan distance. */
+  private Heuristic heuristic;
+  /** The lower bounds of the landmarks of the searched map, null to only use the distance. */
+  private LandmarkHeuristic landmarks;
 
   /**
    * Constructor for this class.
@@ -22,198 +55,867 @@ public class AStarPathfindingAlgorithm {
    * @param mapManager holds all the information from the map
    */
   public AStarPathfindingAlgorithm(MapManager mapManager, boolean diagonalPathing) {
+    this(mapManager, diagonalPathing, OpenListType.BINARY_HEAP);
+  }
+
+  /**
+   * Constructor for this class.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param openListType the data structure of the open list of every search
+   */
+  public AStarPathfindingAlgorithm(
+      MapManager mapManager, boolean diagonalPathing, OpenListType openListType) {
+    this(mapManager, diagonalPathing, openListType, null);
+  }
+
+  /**
+   * Constructor for this class. Without a cost table every search uses the modifiers which are
+   * set on the terrain types when it starts.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param openListType the data structure of the open list of every search
+   * @param costTable the costs of the steps of every search, may be null
+   */
+  public AStarPathfindingAlgorithm(
+      MapManager mapManager,
+      boolean diagonalPathing,
+      OpenListType openListType,
+      CostTable costTable) {
     this.mapManager = mapManager;
     this.diagonalPathing = diagonalPathing;
+    this.openListType = openListType;
+    this.costTable = costTable;
+    this.costs = costTable;
   }
 
   /**
    * Determines the shortest path from the start position to the destination position on the given
    * map. The algorithm used for this search is an implementation of the A* algorithm. The
-   * approximation heuristics are calculated using the Manhattan Distance.
+   * approximation heuristics are calculated using the Manhattan Distance unless a {@link
+   * #setHeuristic heuristic} has been set.
+   *
+   * <p>The states the algorithm has been through are recorded in a {@link SearchEventLog} and are
+   * only rebuilt when an element of the returned list is accessed.
    *
    * @return If there is a shortest path then all states the algorithm has been through else an
    *     empty list.
    */
-  public ArrayList<PathfindingInformation> findPath() throws IllegalParameterException {
+  public List<PathfindingInformation> findPath() throws IllegalParameterException {
     logger.debug("findPath: no params");
+    SearchEventLog log = recordSearch();
+    if (!log.isPathFound()) {
+      return new ArrayList<>();
+    }
+    return log.asFrames();
+  }
+
+  /**
+   * Runs the search and records every step in an event log, regardless of whether a path could be
+   * found.
+   *
+   * @return the event log of the search
+   */
+  public SearchEventLog recordSearch() throws IllegalParameterException {
+    logger.debug("recordSearch: no params");
+    SearchEventLog log = new SearchEventLog(mapManager.getWidth());
+    GridMap grid = mapManager.getGrid();
+    PathResult result = search(grid, log);
+    if (result.isFound()) {
+      log.setFinalPath(toTerrains(grid, result));
+    }
+    return log;
+  }
+
+  /**
+   * Determines only the shortest path. No information about the states of the algorithm is
+   * recorded.
+   *
+   * @return the final path from the start to the destination, a result without path if there is
+   *     none
+   */
+  public PathResult findShortestPath() throws IllegalParameterException {
+    logger.debug("findShortestPath: no params");
+    return search(mapManager.getGrid(), null);
+  }
+
+  /**
+   * Determines the shortest path and reports every step of the search to the given listener while
+   * the search is running. Nothing is recorded, so the memory of the search does not grow with
+   * the number of steps. The last event is always a {@link SearchEvent.Kind#SEARCH_FINISHED}
+   * event with the final path.
+   *
+   * @param listener the listener which receives the events on the calling thread
+   * @return the final path from the start to the destination, a result without path if there is
+   *     none
+   */
+  public PathResult findShortestPath(SearchListener listener) throws IllegalParameterException {
+    logger.debug("findShortestPath: listener = {}", listener);
+    GridMap grid = mapManager.getGrid();
+    SearchEventEmitter emitter = new SearchEventEmitter(grid, listener);
+    PathResult result = search(grid, emitter);
+    emitter.finish(result);
+    return result;
+  }
+
+  /**
+   * Determines the shortest paths of all queries on the current map. All queries of the batch
+   * share one {@link SearchContext}, so the search state is allocated only once and nothing is
+   * logged per query. The whole batch searches the snapshot of the map which is current when it
+   * starts, terrain which is placed while the batch is running is not seen.
+   *
+   * @param queries the start and goal positions, which must be on the map
+   * @return one result per query in the order of the queries
+   */
+  public List<PathResult> findPaths(List<PathQuery> queries) {
+    return findPaths(mapManager.getGrid(), queries);
+  }
 
+  /**
+   * Determines the shortest paths of all queries on the given snapshot of the map like {@link
+   * #findPaths(List)}.
+   *
+   * @param grid the snapshot of the map of the map manager which is searched
+   * @param queries the start and goal positions, which must be on the map
+   * @return one result per query in the order of the queries
+   */
+  List<PathResult> findPaths(GridMap grid, List<PathQuery> queries) {
+    logger.debug("findPaths: {} queries", queries.size());
+    resolveCosts();
+    PathResult[] results = new PathResult[queries.size()];
+    searchBatch(grid, queries, results, 0, results.length);
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Determines the shortest paths of all queries on the current map like {@link
+   * #findPaths(List)}, but splits the batch into chunks which are searched by the workers of the
+   * given pool. Every worker uses the search context of its own thread as its arena, which is
+   * reused by all chunks the worker searches, and only reads the map. Small batches are split into
+   * smaller chunks, so all workers get several of them.
+   *
+   * @param queries the start and goal positions, which must be on the map
+   * @param pool the pool which runs the searches
+   * @return one result per query in the order of the queries
+   */
+  public List<PathResult> findPaths(List<PathQuery> queries, ForkJoinPool pool) {
+    return findPaths(mapManager.getGrid(), queries, pool);
+  }
+
+  /**
+   * Determines the shortest paths of all queries on the given snapshot of the map like {@link
+   * #findPaths(List, ForkJoinPool)}.
+   *
+   * @param grid the snapshot of the map of the map manager which is searched
+   * @param queries the start and goal positions, which must be on the map
+   * @param pool the pool which runs the searches
+   * @return one result per query in the order of the queries
+   */
+  List<PathResult> findPaths(GridMap grid, List<PathQuery> queries, ForkJoinPool pool) {
+    logger.debug("findPaths: {} queries, parallelism = {}", queries.size(), pool.getParallelism());
+    resolveCosts();
+    PathResult[] results = new PathResult[queries.size()];
+    int chunkSize =
+        Math.max(
+            1,
+            Math.min(
+                BATCH_CHUNK_SIZE,
+                queries.size() / (BATCH_CHUNKS_PER_WORKER * pool.getParallelism())));
+    pool.invoke(new BatchTask(grid, queries, results, 0, results.length, chunkSize));
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Searches the path of a query within a budget. If the budget is exhausted before the search
+   * has decided whether there is a path, the result holds the path to the closed cell which is
+   * closest to the goal.
+   *
+   * @param query the start and goal position, which must be on the map
+   * @param budget the limits of the search, the timeout starts now
+   * @return the found, partial or missing path
+   */
+  public PathResult findPath(PathQuery query, SearchBudget budget) {
+    logger.debug("findPath: query = {}, budget = {}", query, budget);
+    return findPath(mapManager.getGrid(), query, budget, System.nanoTime(), () -> false);
+  }
+
+  /**
+   * Searches the path of a query within a budget on the given snapshot of the map like {@link
+   * #findPath(PathQuery, SearchBudget)}, but can be cancelled.
+   *
+   * @param grid the snapshot of the map of the map manager which is searched
+   * @param query the start and goal position, which must be on the map
+   * @param budget the limits of the search
+   * @param requested the value of {@link System#nanoTime()} when the search has been requested,
+   *     at which the timeout starts
+   * @param cancelled returns true once the result is not needed any more
+   * @return the found, partial or missing path, null if the search has been cancelled
+   */
+  PathResult findPath(
+      GridMap grid,
+      PathQuery query,
+      SearchBudget budget,
+      long requested,
+      BooleanSupplier cancelled) {
+    PathSearchEvent event = new PathSearchEvent();
+    event.begin();
+    long start = System.nanoTime();
+    resolveCosts();
+    int startCell = grid.index(query.getStart().getRow(), query.getStart().getCol());
+    int destinationCell = grid.index(query.getGoal().getRow(), query.getGoal().getCol());
+    SearchLimit limit = new SearchLimit(budget, requested, cancelled);
+
+    SearchContext context = SearchContext.acquire(grid.getCellCount(), openListType);
+    try {
+      context.limit = limit;
+      int[] cells = findCells(grid, context, null, startCell, destinationCell);
+      if (limit.isCancelled()) {
+        logger.debug("findPath: cancelled after {} cells", context.counters.expandedCells);
+        return null;
+      }
+      SearchStatus status = SearchStatus.FOUND;
+      if (cells == null && limit.getStatus() != null) {
+        // The search has been stopped, the start is the closest cell if it has not been closed
+        int bestCell = limit.getBestCell() != -1 ? limit.getBestCell() : startCell;
+        cells = traceCells(grid, context.parent, bestCell);
+        status = limit.getStatus();
+      }
+      int cost = cells != null ? getPathCost(grid, cells) : -1;
+      SearchStats stats =
+          finishSearch(context, cells, cost, status == SearchStatus.FOUND && cells != null, start);
+      event.finish(this, grid, startCell, destinationCell, stats);
+      if (cells == null) {
+        return PathResult.notFound(query, grid.getWidth(), stats);
+      }
+      return new PathResult(query, grid.getWidth(), cells, cost, stats, status);
+    } finally {
+      context.release();
+    }
+  }
+
+  private void searchBatch(
+      GridMap grid, List<PathQuery> queries, PathResult[] results, int from, int to) {
+    SearchContext context = SearchContext.acquire(grid.getCellCount(), openListType);
+    try {
+      for (int i = from; i < to; i++) {
+        if (i > from) {
+          context.prepare(grid.getCellCount(), openListType);
+        }
+        PathSearchEvent event = new PathSearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        PathQuery query = queries.get(i);
+        int startCell = grid.index(query.getStart().getRow(), query.getStart().getCol());
+        int destinationCell = grid.index(query.getGoal().getRow(), query.getGoal().getCol());
+        int[] cells = findCells(grid, context, null, startCell, destinationCell);
+        int cost = cells != null ? getPathCost(grid, cells) : -1;
+        SearchStats stats = finishSearch(context, cells, cost, start);
+        event.finish(this, grid, startCell, destinationCell, stats);
+        if (cells != null) {
+          results[i] = new PathResult(query, grid.getWidth(), cells, cost, stats);
+        } else {
+          results[i] = PathResult.notFound(query, grid.getWidth(), stats);
+        }
+      }
+    } finally {
+      context.release();
+    }
+  }
+
+  /**
+   * Runs the A* search on the {@link GridMap} of the map manager. The search state of every cell
+   * is kept in parallel arrays of a {@link SearchContext} which are indexed by the cell index, so
+   * no objects are allocated per cell and the map is never changed by a search.
+   *
+   * @param grid the snapshot of the map which is searched
+   * @param recorder the recorder of the events of the search, may be null
+   * @return the final path between the start and the destination of the map manager
+   */
+  private PathResult search(GridMap grid, SearchRecorder recorder)
+      throws IllegalParameterException {
     // Benchmark time
+    PathSearchEvent event = new PathSearchEvent();
+    event.begin();
     final long start = System.nanoTime();
+    resolveCosts();
 
-    Terrain[][] map = mapManager.getMap();
-    PathfindingInformation information = new PathfindingInformation(map.length * map[0].length);
     Position startCoordinates = mapManager.getStartCoordinates();
     Position destinationCoordinates = mapManager.getDestinationCoordinates();
+    int startCell = grid.index(startCoordinates.getRow(), startCoordinates.getCol());
+    int destinationCell =
+        grid.index(destinationCoordinates.getRow(), destinationCoordinates.getCol());
+
+    SearchContext context = SearchContext.acquire(grid.getCellCount(), openListType);
+    try {
+      int[] cells = findCells(grid, context, recorder, startCell, destinationCell);
+      int cost = cells != null ? getPathCost(grid, cells) : -1;
+      SearchStats stats = finishSearch(context, cells, cost, start);
+      event.finish(this, grid, startCell, destinationCell, stats);
+      logger.debug("findPath: {}", stats);
+      PathQuery query = new PathQuery(startCoordinates, destinationCoordinates);
+      if (cells == null) {
+        logger.debug("findPath: unable to find path");
+        return PathResult.notFound(query, grid.getWidth(), stats);
+      }
+      logger.debug("findPath: shortest path found");
+      return new PathResult(query, grid.getWidth(), cells, cost, stats);
+    } finally {
+      context.release();
+    }
+  }
+
+  /**
+   * Searches the path from the start cell to the destination cell.
+   *
+   * @param grid the searched grid
+   * @param context the prepared state of the search
+   * @param recorder the recorder of the events of the search, may be null
+   * @param startCell the start of the path
+   * @param destinationCell the destination of the path
+   * @return the cell indices of the path from the start to the destination or null if there is no
+   *     path
+   */
+  int[] findCells(
+      GridMap grid,
+      SearchContext context,
+      SearchRecorder recorder,
+      int startCell,
+      int destinationCell) {
+    if (!search(grid, context, recorder, startCell, destinationCell)) {
+      return null;
+    }
+    return traceCells(grid, context.parent, destinationCell);
+  }
+
+  /**
+   * Runs the A* search from the start cell to the destination cell. The costs and parents of the
+   * found path are left in the context.
+   *
+   * @return true if a path has been found
+   */
+  private boolean search(
+      GridMap grid,
+      SearchContext context,
+      SearchRecorder recorder,
+      int startCell,
+      int destinationCell) {
+    final PagedIntArray gCost = context.gCost;
+    final PagedIntArray hCost = context.hCost;
+    final PagedIntArray parent = context.parent;
+    final OpenList openList = context.openList;
+    final ClosedSet closedSet = context.closedSet;
+    final SearchLimit limit = context.limit;
+
+    int destinationRow = grid.row(destinationCell);
+    int destinationCol = grid.col(destinationCell);
 
     // Add the start cell to the open list
-    information
-        .getSpecificPositions()
-        .add(map[startCoordinates.getRow()][startCoordinates.getCol()]);
+    gCost.set(startCell, 0);
+    hCost.set(startCell, getHCost(grid, startCell, destinationRow, destinationCol));
+    parent.set(startCell, -1);
+    openList.add(startCell);
+    if (recorder != null) {
+      recorder.push(startCell, grid.getType(startCell), 0, hCost.get(startCell), -1);
+    }
 
-    while (information.getSpecificPositions().getItemCount() > 0) {
-      Terrain currentTerrain = information.getSpecificPositions().removeFirst();
-      information.getVisitedPositions().add(currentTerrain);
+    while (openList.getItemCount() > 0) {
+      int currentCell = openList.removeFirst();
+      closedSet.add(currentCell);
+      if (recorder != null) {
+        recorder.pop(currentCell);
+        recorder.close(currentCell);
+      }
 
       // Check whether the algorithm reached the destination cell
-      if (currentTerrain.equals(
-          map[destinationCoordinates.getRow()][destinationCoordinates.getCol()])) {
-        final long end = System.nanoTime();
-        logger.debug("Pathfinding took " + (end - start) / 1000000 + " ms");
-        logger.debug("findPath: shortest path found");
-        information.setFinalPathPositions(
-            tracePath(map[startCoordinates.getRow()][startCoordinates.getCol()], currentTerrain));
-        result.add(information);
-        return result;
+      if (currentCell == destinationCell) {
+        if (recorder != null) {
+          recorder.endFrame();
+        }
+        return true;
       }
-
-      // Add neighbours to possible path if they are accessible i.e. no obstacle.
-      for (Terrain neighbour : getNeighbours(currentTerrain)) {
-        if (neighbour != null) {
-          if (neighbour.getType().getModifier() >= TerrainType.MAX_VALUE
-              || information.getVisitedPositions().contains(neighbour)) {
-            continue;
-          }
-
-          // Update costs of the neighbour if a shorter path was found
-          int newCostToNeighbour =
-              currentTerrain.getGCost()
-                  + (int)
-                      ((getMDistance(currentTerrain, neighbour))
-                          * (1 + (currentTerrain.getType().getModifier())));
-          if (newCostToNeighbour < neighbour.getGCost()
-              || !information.getSpecificPositions().contains(neighbour)) {
-            neighbour.setGCost(newCostToNeighbour);
-            neighbour.setHCost(
-                getMDistance(
-                    neighbour,
-                    map[destinationCoordinates.getRow()][destinationCoordinates.getCol()]));
-            neighbour.setParent(currentTerrain);
-
-            if (!information.getSpecificPositions().contains(neighbour)) {
-              information.getSpecificPositions().add(neighbour);
-            } else {
-              // Update the neighbour
-              information.getSpecificPositions().updateItem(neighbour);
-            }
+      if (limit != null) {
+        limit.offer(currentCell, hCost.get(currentCell));
+        if (limit.isReached(context.counters.expandedCells)) {
+          if (recorder != null) {
+            recorder.endFrame();
           }
+          return false;
         }
       }
 
-      try {
-        result.add(information.clone());
-      } catch (CloneNotSupportedException e) {
-        e.printStackTrace();
+      context.counters.expandedCells++;
+      expand(grid, context, recorder, currentCell, destinationRow, destinationCol);
+
+      if (recorder != null) {
+        recorder.endFrame();
       }
     }
 
-    logger.debug("findPath: unable to find path");
-    return new ArrayList<>();
+    return false;
   }
 
   /**
-   * Backtrack the shortest path from the destination cell to the first cell after the start cell.
+   * Runs the search from the start cell until every reachable cell has been closed. The heuristic
+   * is consistent, so the costs and parents of all reachable cells are the ones of their shortest
+   * paths and are left in the context.
    *
-   * @param startTerrain start point in the grid
-   * @param endTerrain destination in the grid
-   * @return the final path.
+   * @param grid the searched grid
+   * @param context the prepared state of the search
+   * @param startCell the start of all paths
    */
-  private List<Terrain> tracePath(Terrain startTerrain, Terrain endTerrain) {
-    List<Terrain> path = new ArrayList<>();
-    Terrain currentTerrain = endTerrain;
+  final void searchAll(GridMap grid, SearchContext context, int startCell) {
+    int startRow = grid.row(startCell);
+    int startCol = grid.col(startCell);
+    context.gCost.set(startCell, 0);
+    context.hCost.set(startCell, 0);
+    context.parent.set(startCell, -1);
+    context.openList.add(startCell);
+    while (context.openList.getItemCount() > 0) {
+      int currentCell = context.openList.removeFirst();
+      context.closedSet.add(currentCell);
+      context.counters.expandedCells++;
+      // The distance to the start is as consistent as the distance to any other cell
+      expand(grid, context, null, currentCell, startRow, startCol);
+    }
+  }
 
-    while (currentTerrain != startTerrain) {
-      path.add(currentTerrain);
-      currentTerrain = currentTerrain.getParent();
+  /**
+   * Hands every accessible neighbour of the current cell, i.e. no obstacle, to {@link
+   * #reachNeighbour}, which adds it to the open list or updates it if a shorter path to it has
+   * been found.
+   *
+   * @param grid the searched grid
+   * @param context the state of the search
+   * @param recorder the recorder of the events of the search, may be null
+   * @param currentCell the cell which has just been closed
+   * @param destinationRow the row of the destination
+   * @param destinationCol the column of the destination
+   */
+  void expand(
+      GridMap grid,
+      SearchContext context,
+      SearchRecorder recorder,
+      int currentCell,
+      int destinationRow,
+      int destinationCol) {
+    int neighbourCount = diagonalPathing ? GridMap.ROW_OFFSETS.length : 4;
+    int row = grid.row(currentCell);
+    int col = grid.col(currentCell);
+    int currentCost = context.gCost.get(currentCell);
+    int code = grid.getCode(currentCell);
+    int straightCost = costs.getStraightCost(code);
+    int diagonalCost = costs.getDiagonalCost(code);
+    int[] offsets = grid.getNeighbourOffsets();
+    // Only the cells on the border of the grid have neighbours which must be checked for bounds
+    boolean interior = grid.isInterior(row, col);
+    for (int i = 0; i < neighbourCount; i++) {
+      int neighbour = currentCell + offsets[i];
+      if (interior
+          ? !costs.isPassable(grid.getCode(neighbour))
+          : !isAccessible(grid, row + GridMap.ROW_OFFSETS[i], col + GridMap.COL_OFFSETS[i])) {
+        continue;
+      }
+      // The first four neighbours are the straight ones
+      reachNeighbour(
+          grid,
+          context,
+          recorder,
+          currentCell,
+          neighbour,
+          currentCost + (i < 4 ? straightCost : diagonalCost),
+          destinationRow,
+          destinationCol);
     }
-    path.add(startTerrain);
+  }
 
-    Collections.reverse(path);
-    return path;
+  /**
+   * Handles an accessible neighbour of the current cell during {@link #expand}. The plain search
+   * {@link #relax relaxes} it.
+   *
+   * @param grid the searched grid
+   * @param context the state of the search
+   * @param recorder the recorder of the events of the search, may be null
+   * @param currentCell the cell which has just been closed
+   * @param cell the neighbour
+   * @param newCost the g cost of the neighbour on the path through the current cell
+   * @param destinationRow the row of the destination
+   * @param destinationCol the column of the destination
+   */
+  void reachNeighbour(
+      GridMap grid,
+      SearchContext context,
+      SearchRecorder recorder,
+      int currentCell,
+      int cell,
+      int newCost,
+      int destinationRow,
+      int destinationCol) {
+    relax(grid, context, recorder, currentCell, cell, newCost, destinationRow, destinationCol);
   }
 
   /**
-   * Calculates the approximation heuristics (Manhattan Distance).
+   * Adds a cell to the open list or updates its costs if the new path to it is shorter. Closed
+   * cells are ignored.
    *
-   * @param terrainA from
-   * @param terrainB to
-   * @return approximation distance between two cells
+   * @param grid the searched grid
+   * @param context the state of the search
+   * @param recorder the recorder of the events of the search, may be null
+   * @param currentCell the cell from which the cell is reached
+   * @param cell the cell which is reached
+   * @param newCost the g cost of the cell on the new path
+   * @param destinationRow the row of the destination
+   * @param destinationCol the column of the destination
+   * @return true if the cell has been added to the open list or its costs have been updated
    */
-  private int getMDistance(Terrain terrainA, Terrain terrainB) {
-    return Math.abs(terrainA.getPosition().getRow() - terrainB.getPosition().getRow())
-        + Math.abs(terrainA.getPosition().getCol() - terrainB.getPosition().getCol());
+  final boolean relax(
+      GridMap grid,
+      SearchContext context,
+      SearchRecorder recorder,
+      int currentCell,
+      int cell,
+      int newCost,
+      int destinationRow,
+      int destinationCol) {
+    context.counters.generatedCells++;
+    if (context.closedSet.contains(cell)) {
+      return false;
+    }
+    OpenList openList = context.openList;
+    boolean inOpenList = openList.contains(cell);
+    if (inOpenList && newCost >= context.gCost.get(cell)) {
+      return false;
+    }
+    int cellHCost = getHCost(grid, cell, destinationRow, destinationCol);
+    context.gCost.set(cell, newCost);
+    context.hCost.set(cell, cellHCost);
+    context.parent.set(cell, currentCell);
+
+    if (!inOpenList) {
+      openList.add(cell);
+      if (recorder != null) {
+        recorder.push(cell, grid.getType(cell), newCost, cellHCost, currentCell);
+      }
+    } else {
+      // Update the cell
+      openList.updateItem(cell);
+      if (recorder != null) {
+        recorder.update(cell, newCost, cellHCost, currentCell);
+      }
+    }
+    return true;
   }
 
   /**
-   * Looks for all available horizontal and vertical neighbours of the given cell in the grid and
-   * returns them as an array of cells. If diagonal pathing is enabled, diagonal neighbours are
-   * considered.
+   * Checks whether a cell is on the grid and no obstacle.
    *
-   * @param terrain the cell from which the neighbours are to be determined
-   * @return an array of cells which are neighbours of the given cell
+   * @param grid the searched grid
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return true if the cell can be entered
    */
-  private Terrain[] getNeighbours(Terrain terrain) {
-    // We currently have a maximum of 4 neighbours, possibly even less.
-    Terrain[] neighbours = new Terrain[4];
-    Terrain[][] map = mapManager.getMap();
+  final boolean isAccessible(GridMap grid, int row, int col) {
+    return row >= 0
+        && row < grid.getHeight()
+        && col >= 0
+        && col < grid.getWidth()
+        && costs.isPassable(grid.getCode(grid.index(row, col)));
+  }
 
-    // Left neighbour
-    if (terrain.getPosition().getCol() - 1 >= 0) {
-      neighbours[0] = map[terrain.getPosition().getRow()][terrain.getPosition().getCol() - 1];
+  /**
+   * Creates the statistics of a finished search and adds them to the metrics.
+   *
+   * @param context the context of the search
+   * @param cells the found path, null if there is none
+   * @param cost the cost of the found path
+   * @param start the value of {@link System#nanoTime()} when the search started
+   * @return the statistics of the search
+   */
+  final SearchStats finishSearch(SearchContext context, int[] cells, int cost, long start) {
+    return finishSearch(context, cells, cost, cells != null, start);
+  }
+
+  /**
+   * Creates the statistics of a search which may have been stopped with a partial path and adds
+   * them to the metrics.
+   *
+   * @param context the context of the search
+   * @param cells the found or partial path, null if there is none
+   * @param cost the cost of the path
+   * @param found whether the path reaches the goal
+   * @param start the value of {@link System#nanoTime()} when the search started
+   * @return the statistics of the search
+   */
+  final SearchStats finishSearch(
+      SearchContext context, int[] cells, int cost, boolean found, long start) {
+    SearchStats stats = context.counters.toStats(cells, cost, found, System.nanoTime() - start);
+    if (metrics != null) {
+      metrics.recordSearch(stats);
     }
+    return stats;
+  }
 
-    // Right neighbour
-    if (terrain.getPosition().getCol() + 1 < map[terrain.getPosition().getRow()].length) {
-      neighbours[1] = map[terrain.getPosition().getRow()][terrain.getPosition().getCol() + 1];
+  /**
+   * Sets the metrics to which the counters of every following search are added.
+   *
+   * @param metrics the metrics, null to not record the searches
+   */
+  void setMetrics(SearchMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Sets the landmark table whose lower bounds raise the h costs of every following search on the
+   * snapshot of the map it has been built on. The table must belong to the cost table and the
+   * diagonal pathing option of the searches.
+   *
+   * @param landmarks the table, null to only use the heuristic
+   */
+  void setLandmarks(LandmarkHeuristic landmarks) {
+    this.landmarks = landmarks;
+  }
+
+  /**
+   * Sets the heuristic which estimates the distance to the destination in every following search.
+   * It is scaled by the lowest step costs of the cost table of the search. Without a heuristic
+   * the plain Manhattan distance is used, which is the number of straight steps and does not
+   * depend on the costs, so the recorded h costs and the order of the expanded cells stay the
+   * ones of the first versions of this class.
+   *
+   * @param heuristic the heuristic, e.g. {@link DistanceHeuristic#MANHATTAN}, or null
+   */
+  public void setHeuristic(Heuristic heuristic) {
+    this.heuristic = heuristic;
+  }
+
+  public Heuristic getHeuristic() {
+    return heuristic;
+  }
+
+  boolean isDiagonalPathing() {
+    return diagonalPathing;
+  }
+
+  OpenListType getOpenListType() {
+    return openListType;
+  }
+
+  /** Returns the grid of the current snapshot of the map, which is searched by the next search. */
+  final GridMap getGrid() {
+    return mapManager.getGrid();
+  }
+
+  /** Returns the cost table of the current search. */
+  final CostTable getCosts() {
+    return costs;
+  }
+
+  /**
+   * Resolves the cost table of the search which is about to start. Without a table given to the
+   * constructor the current modifiers of the terrain types are used.
+   */
+  final void resolveCosts() {
+    if (costTable == null) {
+      costs = CostTable.fromTerrainTypes();
     }
+  }
 
-    // Top neighbour
-    if (terrain.getPosition().getRow() - 1 >= 0) {
-      neighbours[2] = map[terrain.getPosition().getRow() - 1][terrain.getPosition().getCol()];
+  /**
+   * Calculates the cost of a path, which is the sum of the costs of its steps.
+   *
+   * @param grid the searched grid
+   * @param cells the cell indices of the path from the start to the destination
+   * @return the cost of the path
+   */
+  final int getPathCost(GridMap grid, int[] cells) {
+    int cost = 0;
+    for (int i = 1; i < cells.length; i++) {
+      int distance =
+          Math.abs(grid.row(cells[i]) - grid.row(cells[i - 1]))
+              + Math.abs(grid.col(cells[i]) - grid.col(cells[i - 1]));
+      cost += getStepCost(grid, cells[i - 1], distance);
     }
+    return cost;
+  }
+
+  /**
+   * Returns the cost of a step from a cell to one of its neighbours, which depends on the terrain
+   * of the cell which is left.
+   *
+   * @param grid the searched grid
+   * @param cell the cell which is left
+   * @param distance 1 for a straight and 2 for a diagonal step
+   * @return the cost of the step
+   */
+  final int getStepCost(GridMap grid, int cell, int distance) {
+    return costs.getStepCost(grid.getCode(cell), distance);
+  }
 
-    // Bottom neighbour
-    if (terrain.getPosition().getRow() + 1 < map.length) {
-      neighbours[3] = map[terrain.getPosition().getRow() + 1][terrain.getPosition().getCol()];
+  /**
+   * Converts the cells of a path into the terrain objects of the map manager.
+   *
+   * @param grid the searched grid
+   * @param result the found path
+   * @return the final path.
+   */
+  private List<Terrain> toTerrains(GridMap grid, PathResult result) {
+    List<Terrain> path = new ArrayList<>(result.getLength());
+    for (int step = 0; step < result.getLength(); step++) {
+      path.add(mapManager.terrainAt(grid, grid.index(result.getRow(step), result.getCol(step))));
     }
+    return path;
+  }
 
-    if (diagonalPathing) {
-      Terrain[] tmp = new Terrain[8];
-      for (int i = 0; i < neighbours.length; i++) {
-        if (neighbours[i] != null) {
-          tmp[i] = neighbours[i];
-        }
+  /**
+   * Backtrack the shortest path from the destination cell to the start cell. A parent does not
+   * have to be a neighbour of its cell, the cells on the straight or diagonal line between them
+   * are filled in.
+   *
+   * @param grid the searched grid
+   * @param parent the parent of every cell, the start cell has the parent -1
+   * @param destinationCell destination in the grid
+   * @return the cell indices of the path from the start to the destination
+   */
+  final int[] traceCells(GridMap grid, PagedIntArray parent, int destinationCell) {
+    int length = 1;
+    for (int cell = destinationCell; parent.get(cell) != -1; cell = parent.get(cell)) {
+      length += getSteps(grid, cell, parent.get(cell));
+    }
+    int[] cells = new int[length];
+    int cell = destinationCell;
+    cells[--length] = cell;
+    while (parent.get(cell) != -1) {
+      int parentCell = parent.get(cell);
+      int rowStep = Integer.signum(grid.row(parentCell) - grid.row(cell));
+      int colStep = Integer.signum(grid.col(parentCell) - grid.col(cell));
+      int row = grid.row(cell);
+      int col = grid.col(cell);
+      while (cell != parentCell) {
+        row += rowStep;
+        col += colStep;
+        cell = grid.index(row, col);
+        cells[--length] = cell;
       }
+    }
+    return cells;
+  }
 
-      // Diagonal neighbours
-      // Top left
-      if (terrain.getPosition().getCol() - 1 >= 0 && terrain.getPosition().getRow() - 1 >= 0) {
-        tmp[4] = map[terrain.getPosition().getRow() - 1][terrain.getPosition().getCol() - 1];
-      }
+  private int getSteps(GridMap grid, int cell, int otherCell) {
+    return Math.max(
+        Math.abs(grid.row(cell) - grid.row(otherCell)),
+        Math.abs(grid.col(cell) - grid.col(otherCell)));
+  }
 
-      // Top right
-      if (terrain.getPosition().getCol() + 1 < map[0].length
-          && terrain.getPosition().getRow() - 1 >= 0) {
-        tmp[5] = map[terrain.getPosition().getRow() - 1][terrain.getPosition().getCol() + 1];
-      }
+  /**
+   * Calculates the approximation heuristics (Manhattan Distance).
+   *
+   * @param grid the searched grid
+   * @param cell from
+   * @param row the row of the destination
+   * @param col the column of the destination
+   * @return approximation distance between the cell and the destination
+   */
+  final int getMDistance(GridMap grid, int cell, int row, int col) {
+    return Math.abs(grid.row(cell) - row) + Math.abs(grid.col(cell) - col);
+  }
 
-      // Bottom left
-      if (terrain.getPosition().getCol() - 1 >= 0
-          && terrain.getPosition().getRow() + 1 < map.length) {
-        tmp[6] = map[terrain.getPosition().getRow() + 1][terrain.getPosition().getCol() - 1];
-      }
+  /**
+   * Estimates the cost of the path from a cell to the destination with the heuristic of the
+   * algorithm and the lowest step costs of the current search or, without a heuristic, with the
+   * Manhattan distance.
+   *
+   * @param grid the searched grid
+   * @param cell the cell whose distance is needed
+   * @param row the row of the destination
+   * @param col the column of the destination
+   * @return the estimated cost, which does not exceed the cost of any path
+   */
+  final int getDistanceEstimate(GridMap grid, int cell, int row, int col) {
+    if (heuristic == null) {
+      return getMDistance(grid, cell, row, col);
+    }
+    return heuristic.estimate(
+        Math.abs(grid.row(cell) - row),
+        Math.abs(grid.col(cell) - col),
+        costs.getMinStraightCost(),
+        diagonalPathing ? costs.getMinDiagonalCost() : Integer.MAX_VALUE);
+  }
 
-      // Bottom right
-      if (terrain.getPosition().getCol() + 1 < map[0].length
-          && terrain.getPosition().getRow() + 1 < map.length) {
-        tmp[7] = map[terrain.getPosition().getRow() + 1][terrain.getPosition().getCol() + 1];
-      }
-      neighbours = tmp;
+  /**
+   * Returns the h cost of a cell by which the open list of the search is ordered. It is the
+   * estimate of the heuristic or, with a {@link LandmarkHeuristic landmark table}, the higher
+   * lower bound of the landmarks if the table has been built on the searched grid. Neither
+   * overestimates the cost of the remaining path, so the found paths are the shortest ones.
+   *
+   * @param grid the searched grid
+   * @param cell the cell whose h cost is needed
+   * @param row the row of the destination
+   * @param col the column of the destination
+   * @return the h cost of the cell
+   */
+  int getHCost(GridMap grid, int cell, int row, int col) {
+    int distance = getDistanceEstimate(grid, cell, row, col);
+    if (landmarks == null || !landmarks.isBuiltOn(grid)) {
+      return distance;
     }
-    return neighbours;
+    return Math.max(distance, landmarks.estimate(cell, grid.index(row, col)));
+  }
+
+  /**
+   * Returns the factor by which the h cost exceeds the estimate of the heuristic. The cost of
+   * every found path is at most this factor times the cost of the shortest path.
+   *
+   * @return 1 for the search of the shortest paths
+   */
+  double getHeuristicWeight() {
+    return 1.0;
   }
 
   @Override
   public String toString() {
-    return String.format("Diagonal pathing enabled: %b;", diagonalPathing);
+    return String.format(
+        "Diagonal pathing enabled: %b; Open list: %s;", diagonalPathing, openListType);
+  }
+
+  /**
+   * Searches a range of the queries of a batch, splitting it as long as it is too large. The task
+   * is never serialized, although RecursiveAction is serializable.
+   */
+  @SuppressWarnings("serial")
+  private class BatchTask extends RecursiveAction {
+    private final GridMap grid;
+    private final List<PathQuery> queries;
+    private final PathResult[] results;
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+
+    BatchTask(
+        GridMap grid,
+        List<PathQuery> queries,
+        PathResult[] results,
+        int from,
+        int to,
+        int chunkSize) {
+      this.grid = grid;
+      this.queries = queries;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= chunkSize) {
+        searchBatch(grid, queries, results, from, to);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new BatchTask(grid, queries, results, from, middle, chunkSize),
+          new BatchTask(grid, queries, results, middle, to, chunkSize));
+    }
   }
 }
@@ -0,0 +1,386 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.SearchBudget;
+import de.hhn.it.pp.components.astarpathfinding.SearchStats;
+import de.hhn.it.pp.components.astarpathfinding.SearchStatus;
+import de.hhn.it.pp.components.astarpathfinding.SolutionListener;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Anytime repairing A* (ARA*). The first solution is searched like a {@link
+ * WeightedAStarAlgorithm weighted A* search} with the initial weight, which finds a path quickly
+ * whose cost is at most the weight times the cost of the shortest path. Then the weight is lowered
+ * step by step down to 1 and the search is continued with the lower weight. Every solution is
+ * published to a {@link SolutionListener} as soon as it is found, so a caller with a deadline
+ * always has the best path found so far.
+ *
+ * <p>The following searches reuse the effort of the searches before: the costs and parents of all
+ * reached cells are kept in one {@link SearchContext}. A closed cell which is reached by a cheaper
+ * path is not opened again during a search but remembered as inconsistent. Before the next search
+ * the open cells and the inconsistent cells are sorted by their keys with the new weight and the
+ * closed list is cleared, so only the cells whose costs may still improve are expanded again.
+ * Every search stops as soon as no open cell has a key below the cost of the destination.
+ *
+ * <p>The methods without a budget skip the solutions with higher weights and return the shortest
+ * path, which a plain A* search finds directly.
+ */
+public class AnytimeAStarAlgorithm extends AStarPathfindingAlgorithm {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(AnytimeAStarAlgorithm.class);
+
+  /** The amount by which the weight is lowered after every solution if none is given. */
+  public static final double DEFAULT_WEIGHT_STEP = 0.5;
+
+  private final double initialWeight;
+  private final double weightStep;
+
+  /**
+   * Constructor for this class.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param initialWeight the weight of the first search, between 1 and {@link
+   *     WeightedAStarAlgorithm#MAX_WEIGHT}
+   */
+  public AnytimeAStarAlgorithm(
+      MapManager mapManager, boolean diagonalPathing, double initialWeight) {
+    this(
+        mapManager,
+        diagonalPathing,
+        OpenListType.BINARY_HEAP,
+        null,
+        initialWeight,
+        DEFAULT_WEIGHT_STEP);
+  }
+
+  /**
+   * Constructor for this class.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param openListType the data structure of the open list of every search
+   * @param costTable the costs of the steps of every search, may be null
+   * @param initialWeight the weight of the first search, between 1 and {@link
+   *     WeightedAStarAlgorithm#MAX_WEIGHT}
+   * @param weightStep the amount by which the weight is lowered after every solution
+   */
+  public AnytimeAStarAlgorithm(
+      MapManager mapManager,
+      boolean diagonalPathing,
+      OpenListType openListType,
+      CostTable costTable,
+      double initialWeight,
+      double weightStep) {
+    super(mapManager, diagonalPathing, openListType, costTable);
+    if (!WeightedAStarAlgorithm.isValidWeight(initialWeight)) {
+      throw new IllegalArgumentException(
+          "The initial weight must be between 1 and "
+              + WeightedAStarAlgorithm.MAX_WEIGHT
+              + " but is "
+              + initialWeight);
+    }
+    if (!(weightStep > 0) || Double.isInfinite(weightStep)) {
+      throw new IllegalArgumentException("The weight step must be positive but is " + weightStep);
+    }
+    this.initialWeight = initialWeight;
+    this.weightStep = weightStep;
+  }
+
+  /**
+   * Searches the path of a query within a budget and publishes every solution to the listener.
+   * If the budget is exhausted, the result is the last published solution or, if there is none,
+   * the path to the closed cell which is closest to the goal.
+   *
+   * @param query the start and goal position, which must be on the map
+   * @param budget the limits of the search, the timeout starts now
+   * @param listener the listener which receives the solutions on the calling thread, may be null
+   * @return the shortest, best found, partial or missing path
+   */
+  public PathResult findPath(PathQuery query, SearchBudget budget, SolutionListener listener) {
+    logger.debug("findPath: query = {}, budget = {}, listener = {}", query, budget, listener);
+    return findPath(getGrid(), query, budget, listener, System.nanoTime(), () -> false);
+  }
+
+  @Override
+  PathResult findPath(
+      GridMap grid,
+      PathQuery query,
+      SearchBudget budget,
+      long requested,
+      BooleanSupplier cancelled) {
+    return findPath(grid, query, budget, null, requested, cancelled);
+  }
+
+  /**
+   * Searches the path of a query within a budget on the given snapshot of the map like {@link
+   * #findPath(PathQuery, SearchBudget, SolutionListener)}, but can be cancelled.
+   *
+   * @param grid the snapshot of the map of the map manager which is searched
+   * @param query the start and goal position, which must be on the map
+   * @param budget the limits of the search
+   * @param listener the listener which receives the solutions, may be null
+   * @param requested the value of {@link System#nanoTime()} when the search has been requested,
+   *     at which the timeout starts
+   * @param cancelled returns true once the result is not needed any more
+   * @return the shortest, best found, partial or missing path, null if the search has been
+   *     cancelled
+   */
+  PathResult findPath(
+      GridMap grid,
+      PathQuery query,
+      SearchBudget budget,
+      SolutionListener listener,
+      long requested,
+      BooleanSupplier cancelled) {
+    PathSearchEvent event = new PathSearchEvent();
+    event.begin();
+    long start = System.nanoTime();
+    resolveCosts();
+    int startCell = grid.index(query.getStart().getRow(), query.getStart().getCol());
+    int destinationCell = grid.index(query.getGoal().getRow(), query.getGoal().getCol());
+    SearchLimit limit = new SearchLimit(budget, requested, cancelled);
+
+    SearchContext context = SearchContext.acquire(grid.getCellCount(), getOpenListType());
+    try {
+      context.limit = limit;
+      AnytimeSearch search =
+          new AnytimeSearch(grid, context, query, startCell, destinationCell, listener, start);
+      context.anytimeSearch = search;
+      int[] cells = search.run();
+      if (limit.isCancelled()) {
+        logger.debug("findPath: cancelled after {} cells", context.counters.expandedCells);
+        return null;
+      }
+      SearchStatus status = SearchStatus.FOUND;
+      if (cells == null && limit.getStatus() != null) {
+        // Stopped before the first solution, the start is the closest cell if it is not closed
+        int bestCell = limit.getBestCell() != -1 ? limit.getBestCell() : startCell;
+        cells = traceCells(grid, context.parent, bestCell);
+        status = limit.getStatus();
+      }
+      int cost = cells != null ? getPathCost(grid, cells) : -1;
+      SearchStats stats =
+          finishSearch(context, cells, cost, status == SearchStatus.FOUND && cells != null, start);
+      event.finish(this, grid, startCell, destinationCell, stats);
+      if (cells == null) {
+        return PathResult.notFound(query, grid.getWidth(), stats);
+      }
+      return new PathResult(query, grid.getWidth(), cells, cost, stats, status);
+    } finally {
+      context.release();
+    }
+  }
+
+  /**
+   * Handles the neighbours of an anytime search, where a closed cell which is reached by a
+   * cheaper path is remembered as inconsistent instead of being relaxed.
+   */
+  @Override
+  void reachNeighbour(
+      GridMap grid,
+      SearchContext context,
+      SearchRecorder recorder,
+      int currentCell,
+      int cell,
+      int newCost,
+      int destinationRow,
+      int destinationCol) {
+    if (context.anytimeSearch == null) {
+      super.reachNeighbour(
+          grid, context, recorder, currentCell, cell, newCost, destinationRow, destinationCol);
+      return;
+    }
+    context.anytimeSearch.reach(currentCell, cell, newCost);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "Anytime A* search with weights from %s in steps of %s; %s",
+        initialWeight, weightStep, super.toString());
+  }
+
+  /**
+   * The state of one anytime search which is kept across its iterations. The g costs and parents
+   * live in the context, the cells whose g cost is valid are tracked separately because the
+   * closed list of the context is cleared before every iteration.
+   */
+  final class AnytimeSearch {
+    private final GridMap grid;
+    private final SearchContext context;
+    private final PathQuery query;
+    private final int startCell;
+    private final int destinationCell;
+    private final int destinationRow;
+    private final int destinationCol;
+    private final SolutionListener listener;
+    private final long start;
+    /** The cells which have been reached in any iteration, i.e. have a valid g cost. */
+    private final ClosedSet reached;
+    /** The closed cells whose g cost has been lowered during the current iteration. */
+    private final ClosedSet inconsistent;
+    private int[] inconsistentCells = new int[16];
+    private int inconsistentCount;
+    private double weight = initialWeight;
+
+    AnytimeSearch(
+        GridMap grid,
+        SearchContext context,
+        PathQuery query,
+        int startCell,
+        int destinationCell,
+        SolutionListener listener,
+        long start) {
+      this.grid = grid;
+      this.context = context;
+      this.query = query;
+      this.startCell = startCell;
+      this.destinationCell = destinationCell;
+      this.destinationRow = grid.row(destinationCell);
+      this.destinationCol = grid.col(destinationCell);
+      this.listener = listener;
+      this.start = start;
+      this.reached = new ClosedSet(grid.getCellCount());
+      this.inconsistent = new ClosedSet(grid.getCellCount());
+    }
+
+    /**
+     * Runs the iterations until the shortest path has been found, there is no path or the budget
+     * is exhausted.
+     *
+     * @return the cells of the last solution or null if there is none
+     */
+    int[] run() {
+      context.gCost.set(startCell, 0);
+      context.parent.set(startCell, -1);
+      reached.add(startCell);
+      context.hCost.set(startCell, getWeightedHCost(startCell));
+      context.openList.add(startCell);
+
+      int[] solution = null;
+      while (improvePath()) {
+        if (!reached.contains(destinationCell)) {
+          // The open list is empty, there is no path
+          return null;
+        }
+        solution = traceCells(grid, context.parent, destinationCell);
+        publish(solution);
+        if (weight <= 1) {
+          break;
+        }
+        weight = Math.max(1, weight - weightStep);
+        reopen();
+      }
+      return solution;
+    }
+
+    /**
+     * Expands the cells of the open list until no open cell has a lower key than the destination.
+     *
+     * @return false if the search has been stopped by its budget
+     */
+    private boolean improvePath() {
+      final PagedIntArray gCost = context.gCost;
+      final OpenList openList = context.openList;
+      final SearchLimit limit = context.limit;
+      while (openList.getItemCount() > 0) {
+        int currentCell = openList.removeFirst();
+        long key = (long) gCost.get(currentCell) + context.hCost.get(currentCell);
+        if (reached.contains(destinationCell) && key >= gCost.get(destinationCell)) {
+          // The cell stays open for the next iteration
+          openList.add(currentCell);
+          return true;
+        }
+        context.closedSet.add(currentCell);
+        if (limit != null) {
+          limit.offer(
+              currentCell, getMDistance(grid, currentCell, destinationRow, destinationCol));
+          if (limit.isReached(context.counters.expandedCells)) {
+            return false;
+          }
+        }
+        context.counters.expandedCells++;
+        expand(grid, context, null, currentCell, destinationRow, destinationCol);
+      }
+      return true;
+    }
+
+    /**
+     * Lowers the g cost of a neighbour if the path through the current cell is cheaper. A closed
+     * neighbour becomes inconsistent and is only opened again by the next iteration.
+     */
+    private void reach(int currentCell, int neighbour, int newCost) {
+      context.counters.generatedCells++;
+      if (reached.contains(neighbour) && newCost >= context.gCost.get(neighbour)) {
+        return;
+      }
+      context.gCost.set(neighbour, newCost);
+      context.parent.set(neighbour, currentCell);
+      reached.add(neighbour);
+      if (context.closedSet.contains(neighbour)) {
+        addInconsistent(neighbour);
+      } else if (context.openList.contains(neighbour)) {
+        context.openList.updateItem(neighbour);
+      } else {
+        context.hCost.set(neighbour, getWeightedHCost(neighbour));
+        context.openList.add(neighbour);
+      }
+    }
+
+    private void addInconsistent(int cell) {
+      if (inconsistent.contains(cell)) {
+        return;
+      }
+      inconsistent.add(cell);
+      if (inconsistentCount == inconsistentCells.length) {
+        inconsistentCells = Arrays.copyOf(inconsistentCells, inconsistentCount * 2);
+      }
+      inconsistentCells[inconsistentCount++] = cell;
+    }
+
+    /**
+     * Prepares the next iteration: the open and the inconsistent cells are added to the open list
+     * with the keys of the new weight and the closed list is cleared.
+     */
+    private void reopen() {
+      OpenList openList = context.openList;
+      int openCount = openList.getItemCount();
+      int[] cells = Arrays.copyOf(inconsistentCells, inconsistentCount + openCount);
+      for (int i = inconsistentCount; i < cells.length; i++) {
+        cells[i] = openList.removeFirst();
+      }
+      logger.debug(
+          "reopen: weight = {}, {} open and {} inconsistent cells",
+          weight,
+          openCount,
+          inconsistentCount);
+      inconsistentCount = 0;
+      inconsistent.clear(grid.getCellCount());
+      openList.clear(grid.getCellCount());
+      context.closedSet.clear(grid.getCellCount());
+      for (int cell : cells) {
+        context.hCost.set(cell, getWeightedHCost(cell));
+        openList.add(cell);
+      }
+    }
+
+    private void publish(int[] cells) {
+      int cost = getPathCost(grid, cells);
+      logger.debug("publish: weight = {}, cost = {}", weight, cost);
+      if (listener == null) {
+        return;
+      }
+      SearchStats stats = context.counters.toStats(cells, cost, System.nanoTime() - start);
+      listener.onSolution(new PathResult(query, grid.getWidth(), cells, cost, stats), weight);
+    }
+
+    private int getWeightedHCost(int cell) {
+      return (int) (weight * getHCost(grid, cell, destinationRow, destinationCol));
+    }
+  }
+}
@@ -0,0 +1,286 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+
+/**
+ * A* search which searches from the start and from the destination at the same time. Each of the
+ * two searches has its own {@link SearchContext} with its own open list, and the search with the
+ * smaller open list is expanded next. For a query across the map both searches only explore a
+ * region around their own origin until they meet, instead of a single region reaching from the
+ * start to the destination.
+ *
+ * <p>The cost of a step depends on the terrain of the cell which is left, so the search from the
+ * destination follows the steps backwards and charges the terrain of the cell it steps to. Both
+ * searches order their open lists by the doubled g cost plus a balanced potential, the estimated
+ * distance to their target minus the estimated distance to their origin. The potential of one
+ * search is the negated potential of the other, so the keys of a cell in both searches add up to
+ * the doubled cost of the path through it, and the keys removed by each search never decrease.
+ *
+ * <p>Whenever a cell is reached by both searches, the path through it is the best path found so
+ * far. The search stops as soon as the last keys removed by both searches add up to at least the
+ * doubled cost of that path, because every cheaper path would have to pass a cell with lower keys
+ * in the open lists of both searches. The found paths therefore have the same cost as the paths
+ * of {@link AStarPathfindingAlgorithm}, even on terrain with different step costs.
+ */
+public class BidirectionalAStarAlgorithm extends AStarPathfindingAlgorithm {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(BidirectionalAStarAlgorithm.class);
+
+  /**
+   * Constructor for this class.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   */
+  public BidirectionalAStarAlgorithm(MapManager mapManager, boolean diagonalPathing) {
+    super(mapManager, diagonalPathing);
+  }
+
+  /**
+   * Constructor for this class.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param openListType the data structure of both open lists of every search
+   */
+  public BidirectionalAStarAlgorithm(
+      MapManager mapManager, boolean diagonalPathing, OpenListType openListType) {
+    super(mapManager, diagonalPathing, openListType);
+  }
+
+  /**
+   * Constructor for this class.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param openListType the data structure of both open lists of every search
+   * @param costTable the costs of the steps of every search, may be null
+   */
+  public BidirectionalAStarAlgorithm(
+      MapManager mapManager,
+      boolean diagonalPathing,
+      OpenListType openListType,
+      CostTable costTable) {
+    super(mapManager, diagonalPathing, openListType, costTable);
+  }
+
+  @Override
+  int[] findCells(
+      GridMap grid,
+      SearchContext forward,
+      SearchRecorder recorder,
+      int startCell,
+      int destinationCell) {
+    if (startCell == destinationCell) {
+      return new int[] {startCell};
+    }
+    if (!isAccessible(grid, grid.row(destinationCell), grid.col(destinationCell))) {
+      // The destination can never be entered
+      return null;
+    }
+
+    SearchContext backward = SearchContext.acquire(grid.getCellCount(), getOpenListType());
+    try {
+      addOrigin(grid, forward, recorder, startCell, startCell, destinationCell);
+      addOrigin(grid, backward, recorder, destinationCell, destinationCell, startCell);
+      long forwardKey = getKey(forward, startCell);
+      long backwardKey = getKey(backward, destinationCell);
+
+      long bestCost = Long.MAX_VALUE;
+      int meetingCell = -1;
+      while (forward.openList.getItemCount() > 0 && backward.openList.getItemCount() > 0) {
+        boolean forwards = forward.openList.getItemCount() <= backward.openList.getItemCount();
+        SearchContext context = forwards ? forward : backward;
+        SearchContext other = forwards ? backward : forward;
+
+        int currentCell = context.openList.removeFirst();
+        if (forwards) {
+          forwardKey = getKey(forward, currentCell);
+        } else {
+          backwardKey = getKey(backward, currentCell);
+        }
+        // The keys of the other search only grow, so its last key bounds its open list
+        if (forwardKey + backwardKey >= bestCost) {
+          break;
+        }
+        context.closedSet.add(currentCell);
+        if (recorder != null) {
+          recorder.pop(currentCell);
+          recorder.close(currentCell);
+        }
+        SearchLimit limit = forward.limit;
+        if (limit != null) {
+          // A partial path can only be traced from the start, i.e. by the forward search
+          if (forwards) {
+            limit.offer(currentCell, getDistance(grid, currentCell, destinationCell));
+          }
+          if (limit.isReached(forward.counters.expandedCells + backward.counters.expandedCells)) {
+            if (recorder != null) {
+              recorder.endFrame();
+            }
+            return null;
+          }
+        }
+        context.counters.expandedCells++;
+
+        int row = grid.row(currentCell);
+        int col = grid.col(currentCell);
+        int origin = forwards ? startCell : destinationCell;
+        int target = forwards ? destinationCell : startCell;
+        int neighbourCount = isDiagonalPathing() ? GridMap.ROW_OFFSETS.length : 4;
+        for (int i = 0; i < neighbourCount; i++) {
+          int neighbourRow = row + GridMap.ROW_OFFSETS[i];
+          int neighbourCol = col + GridMap.COL_OFFSETS[i];
+          int distance = Math.abs(GridMap.ROW_OFFSETS[i]) + Math.abs(GridMap.COL_OFFSETS[i]);
+          int stepCost;
+          if (forwards) {
+            if (!isAccessible(grid, neighbourRow, neighbourCol)) {
+              continue;
+            }
+            stepCost = getStepCost(grid, currentCell, distance);
+          } else {
+            // The neighbour is the cell which is left, only the start does not have to be entered
+            boolean isStart =
+                neighbourRow == grid.row(startCell) && neighbourCol == grid.col(startCell);
+            if (!isStart && !isAccessible(grid, neighbourRow, neighbourCol)) {
+              continue;
+            }
+            stepCost = getStepCost(grid, grid.index(neighbourRow, neighbourCol), distance);
+          }
+          int neighbour = grid.index(neighbourRow, neighbourCol);
+          if (reach(grid, context, recorder, currentCell, neighbour, stepCost, origin, target)
+              && isReached(other, neighbour)) {
+            long cost = (long) context.gCost.get(neighbour) + other.gCost.get(neighbour);
+            if (cost < bestCost) {
+              bestCost = cost;
+              meetingCell = neighbour;
+            }
+          }
+        }
+
+        if (recorder != null) {
+          recorder.endFrame();
+        }
+      }
+
+      if (meetingCell == -1) {
+        return null;
+      }
+      logger.debug("findCells: searches met at cell {} with cost {}", meetingCell, bestCost / 2);
+      return joinPaths(grid, forward.parent, backward.parent, meetingCell);
+    } finally {
+      // The statistics of the query are read from the forward context
+      forward.counters.add(backward.counters);
+      backward.release();
+    }
+  }
+
+  private void addOrigin(
+      GridMap grid,
+      SearchContext context,
+      SearchRecorder recorder,
+      int cell,
+      int origin,
+      int target) {
+    context.gCost.set(cell, 0);
+    context.hCost.set(cell, getPotential(grid, cell, origin, target));
+    context.parent.set(cell, -1);
+    context.openList.add(cell);
+    if (recorder != null) {
+      recorder.push(cell, grid.getType(cell), 0, getDistance(grid, cell, target), -1);
+    }
+  }
+
+  /**
+   * Adds a cell to the open list of a search or updates its costs if the new path to it is
+   * shorter, like {@link #relax}, but with doubled costs and the balanced potential as h cost.
+   *
+   * @return true if the cell has been added to the open list or its costs have been updated
+   */
+  private boolean reach(
+      GridMap grid,
+      SearchContext context,
+      SearchRecorder recorder,
+      int currentCell,
+      int cell,
+      int stepCost,
+      int origin,
+      int target) {
+    context.counters.generatedCells++;
+    if (context.closedSet.contains(cell)) {
+      return false;
+    }
+    int newCost = context.gCost.get(currentCell) + 2 * stepCost;
+    boolean inOpenList = context.openList.contains(cell);
+    if (inOpenList && newCost >= context.gCost.get(cell)) {
+      return false;
+    }
+    context.gCost.set(cell, newCost);
+    context.hCost.set(cell, getPotential(grid, cell, origin, target));
+    context.parent.set(cell, currentCell);
+    if (!inOpenList) {
+      context.openList.add(cell);
+      if (recorder != null) {
+        recorder.push(
+            cell, grid.getType(cell), newCost / 2, getDistance(grid, cell, target), currentCell);
+      }
+    } else {
+      context.openList.updateItem(cell);
+      if (recorder != null) {
+        recorder.update(cell, newCost / 2, getDistance(grid, cell, target), currentCell);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the balanced potential of a cell, which is the difference of the distances to the
+   * target and to the origin of a search. Both searches use the negated potential of each other,
+   * so their keys add up to the doubled cost of a path.
+   */
+  private int getPotential(GridMap grid, int cell, int origin, int target) {
+    return getDistance(grid, cell, target) - getDistance(grid, cell, origin);
+  }
+
+  private int getDistance(GridMap grid, int cell, int otherCell) {
+    return getDistanceEstimate(grid, cell, grid.row(otherCell), grid.col(otherCell));
+  }
+
+  /** Returns the doubled cost plus the potential by which the open list of a search is ordered. */
+  private long getKey(SearchContext context, int cell) {
+    return (long) context.gCost.get(cell) + context.hCost.get(cell);
+  }
+
+  /** Checks whether a search has a cost for a cell, i.e. the cell is in its open or closed list. */
+  private boolean isReached(SearchContext context, int cell) {
+    return context.closedSet.contains(cell) || context.openList.contains(cell);
+  }
+
+  /**
+   * Joins the path from the start to the meeting cell and the path from the meeting cell to the
+   * destination.
+   *
+   * @return the cell indices of the path from the start to the destination
+   */
+  private int[] joinPaths(
+      GridMap grid, PagedIntArray forwardParent, PagedIntArray backwardParent, int meetingCell) {
+    int[] head = traceCells(grid, forwardParent, meetingCell);
+    int length = head.length;
+    for (int cell = meetingCell; backwardParent.get(cell) != -1; cell = backwardParent.get(cell)) {
+      length++;
+    }
+    int[] cells = new int[length];
+    System.arraycopy(head, 0, cells, 0, head.length);
+    int index = head.length;
+    for (int cell = meetingCell; backwardParent.get(cell) != -1; cell = backwardParent.get(cell)) {
+      cells[index++] = backwardParent.get(cell);
+    }
+    return cells;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Bidirectional A* search; %s", super.toString());
+  }
+}
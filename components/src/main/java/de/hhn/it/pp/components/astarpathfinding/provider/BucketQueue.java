@@ -0,0 +1,168 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import java.util.Arrays;
+
+/**
+ * Bucket queue of cell indices with one bucket per integer f cost, also known as Dial's
+ * algorithm. The f costs of the cells removed by an A* search with a consistent heuristic never
+ * decrease, so the lowest non-empty bucket is found by moving forward from the bucket of the last
+ * removed cell. Adding a cell and removing the first cell take amortized constant time.
+ *
+ * <p>Cells whose costs are lowered are added to their new bucket again and the old entry is
+ * skipped when it is reached. Cells with the same f cost are removed in the reverse order of their
+ * insertion, which prefers the cells found last, i.e. usually the cells closer to the destination.
+ * Keys below the lowest bucket are supported, but shift all buckets.
+ *
+ * @see OpenListType#BUCKET_QUEUE
+ */
+class BucketQueue implements OpenList {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(BucketQueue.class);
+
+  private static final int INITIAL_BUCKET_COUNT = 64;
+  private static final int INITIAL_BUCKET_SIZE = 16;
+
+  private final PagedIntArray gCost;
+  private final PagedIntArray hCost;
+  private final SearchCounters counters;
+  private final ClosedSet members = new ClosedSet(0);
+
+  private int[][] buckets = new int[INITIAL_BUCKET_COUNT][];
+  private int[] bucketSizes = new int[INITIAL_BUCKET_COUNT];
+  /** The f cost of the first bucket. */
+  private int baseKey;
+  /** All buckets before this one are empty. */
+  private int firstBucket;
+  /** All buckets from this one on are empty. */
+  private int usedBuckets;
+  private int currentItemCount;
+
+  /**
+   * Creates an empty bucket queue.
+   *
+   * @param gCost the g costs of all cells
+   * @param hCost the h costs of all cells
+   * @param counters the counters of the operations of the current search
+   */
+  BucketQueue(PagedIntArray gCost, PagedIntArray hCost, SearchCounters counters) {
+    this.gCost = gCost;
+    this.hCost = hCost;
+    this.counters = counters;
+  }
+
+  @Override
+  public void add(int cell) {
+    members.add(cell);
+    currentItemCount++;
+    counters.pushes++;
+    if (currentItemCount > counters.maxOpenListSize) {
+      counters.maxOpenListSize = currentItemCount;
+    }
+    push(cell);
+  }
+
+  @Override
+  public int removeFirst() {
+    while (true) {
+      while (bucketSizes[firstBucket] == 0) {
+        firstBucket++;
+      }
+      int cell = buckets[firstBucket][--bucketSizes[firstBucket]];
+      // Skip the entries of cells which have been moved to a lower bucket
+      if (members.contains(cell) && getKey(cell) == baseKey + firstBucket) {
+        members.remove(cell);
+        currentItemCount--;
+        counters.pops++;
+        return cell;
+      }
+    }
+  }
+
+  @Override
+  public boolean contains(int cell) {
+    return members.contains(cell);
+  }
+
+  @Override
+  public void updateItem(int cell) {
+    counters.updates++;
+    push(cell);
+  }
+
+  @Override
+  public void clear(int cellCount) {
+    Arrays.fill(bucketSizes, 0, usedBuckets, 0);
+    firstBucket = 0;
+    usedBuckets = 0;
+    currentItemCount = 0;
+    members.clear(cellCount);
+  }
+
+  /** Empties the queue and shrinks it to its initial size. */
+  @Override
+  public void trim() {
+    buckets = new int[INITIAL_BUCKET_COUNT][];
+    bucketSizes = new int[INITIAL_BUCKET_COUNT];
+    firstBucket = 0;
+    usedBuckets = 0;
+    currentItemCount = 0;
+    members.trim();
+  }
+
+  @Override
+  public int getItemCount() {
+    return currentItemCount;
+  }
+
+  private int getKey(int cell) {
+    return gCost.get(cell) + hCost.get(cell);
+  }
+
+  private void push(int cell) {
+    int key = getKey(cell);
+    if (usedBuckets == 0) {
+      baseKey = key;
+    } else if (key < baseKey) {
+      shiftBuckets(baseKey - key);
+    }
+    int bucket = key - baseKey;
+    if (bucket >= buckets.length) {
+      int newLength = Math.max(buckets.length * 2, bucket + 1);
+      buckets = Arrays.copyOf(buckets, newLength);
+      bucketSizes = Arrays.copyOf(bucketSizes, newLength);
+    }
+    int[] items = buckets[bucket];
+    int size = bucketSizes[bucket];
+    if (items == null) {
+      items = new int[INITIAL_BUCKET_SIZE];
+      buckets[bucket] = items;
+    } else if (size == items.length) {
+      items = Arrays.copyOf(items, size * 2);
+      buckets[bucket] = items;
+    }
+    items[size] = cell;
+    bucketSizes[bucket] = size + 1;
+    if (bucket < firstBucket) {
+      firstBucket = bucket;
+    }
+    if (bucket >= usedBuckets) {
+      usedBuckets = bucket + 1;
+    }
+  }
+
+  /** Moves all buckets back, so a key lower than the key of the first bucket fits in. */
+  private void shiftBuckets(int shift) {
+    logger.debug("shiftBuckets: shift = {}", shift);
+    int newLength = Math.max(buckets.length, usedBuckets + shift);
+    int[][] newBuckets = new int[newLength][];
+    int[] newSizes = new int[newLength];
+    System.arraycopy(buckets, 0, newBuckets, shift, usedBuckets);
+    System.arraycopy(bucketSizes, 0, newSizes, shift, usedBuckets);
+    buckets = newBuckets;
+    bucketSizes = newSizes;
+    baseKey -= shift;
+    firstBucket += shift;
+    usedBuckets += shift;
+  }
+}
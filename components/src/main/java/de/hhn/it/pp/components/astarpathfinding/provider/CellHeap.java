@@ -0,0 +1,147 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import java.util.Arrays;
+
+/**
+ * Binary heap of cell indices. It works exactly like {@link
+ * de.hhn.it.pp.components.astarpathfinding.Heap}, but the costs and the heap index of every cell
+ * live in parallel int arrays instead of heap item objects. The heap grows with the number of
+ * cells in it, not with the size of the map.
+ *
+ * @see OpenListType#BINARY_HEAP
+ */
+class CellHeap implements OpenList {
+  private static final int INITIAL_SIZE = 64;
+
+  private int[] items = new int[INITIAL_SIZE];
+  private final PagedIntArray gCost;
+  private final PagedIntArray hCost;
+  private final PagedIntArray heapIndex;
+  private final SearchCounters counters;
+  private int currentItemCount;
+
+  /**
+   * Creates an empty heap.
+   *
+   * @param gCost the g costs of all cells
+   * @param hCost the h costs of all cells
+   * @param heapIndex the array in which the position of every cell in the heap is stored
+   * @param counters the counters of the operations of the current search
+   */
+  CellHeap(
+      PagedIntArray gCost, PagedIntArray hCost, PagedIntArray heapIndex, SearchCounters counters) {
+    this.gCost = gCost;
+    this.hCost = hCost;
+    this.heapIndex = heapIndex;
+    this.counters = counters;
+  }
+
+  @Override
+  public void add(int cell) {
+    if (currentItemCount == items.length) {
+      items = Arrays.copyOf(items, currentItemCount * 2);
+    }
+    heapIndex.set(cell, currentItemCount);
+    items[currentItemCount] = cell;
+    sortItemUp(cell);
+    currentItemCount++;
+    counters.pushes++;
+    if (currentItemCount > counters.maxOpenListSize) {
+      counters.maxOpenListSize = currentItemCount;
+    }
+  }
+
+  @Override
+  public int removeFirst() {
+    final int firstItem = items[0];
+    currentItemCount--;
+    counters.pops++;
+    // Place last item in heap in first position and sort
+    items[0] = items[currentItemCount];
+    heapIndex.set(items[0], 0);
+    sortItemDown(items[0]);
+    return firstItem;
+  }
+
+  @Override
+  public boolean contains(int cell) {
+    int index = heapIndex.get(cell);
+    return index < currentItemCount && items[index] == cell;
+  }
+
+  @Override
+  public void updateItem(int cell) {
+    counters.updates++;
+    sortItemUp(cell);
+  }
+
+  @Override
+  public void clear(int cellCount) {
+    currentItemCount = 0;
+  }
+
+  /** Empties the heap and shrinks it to its initial size. */
+  @Override
+  public void trim() {
+    currentItemCount = 0;
+    items = new int[INITIAL_SIZE];
+  }
+
+  @Override
+  public int getItemCount() {
+    return currentItemCount;
+  }
+
+  /**
+   * Compares two cells the same way {@link Terrain#compareTo(Terrain)} does.
+   *
+   * @return true if the first cell has a lower f cost, or the same f cost and a lower h cost
+   */
+  private boolean hasHigherPriority(int cellA, int cellB) {
+    int hCostA = hCost.get(cellA);
+    int hCostB = hCost.get(cellB);
+    int fCostA = gCost.get(cellA) + hCostA;
+    int fCostB = gCost.get(cellB) + hCostB;
+    return fCostA < fCostB || fCostA == fCostB && hCostA < hCostB;
+  }
+
+  private void sortItemUp(int cell) {
+    int parentIdx = (heapIndex.get(cell) - 1) / 2;
+    while (hasHigherPriority(cell, items[parentIdx])) {
+      swapItems(cell, items[parentIdx]);
+      parentIdx = (heapIndex.get(cell) - 1) / 2;
+    }
+  }
+
+  private void sortItemDown(int cell) {
+    while (true) {
+      int childIdxLeft = heapIndex.get(cell) * 2 + 1;
+      int childIdxRight = childIdxLeft + 1;
+      if (childIdxLeft >= currentItemCount) {
+        // Parent doesn't have any children
+        return;
+      }
+
+      int swapIdx = childIdxLeft;
+      if (childIdxRight < currentItemCount
+          && hasHigherPriority(items[childIdxRight], items[childIdxLeft])) {
+        swapIdx = childIdxRight;
+      }
+
+      if (!hasHigherPriority(items[swapIdx], cell)) {
+        return;
+      }
+      swapItems(cell, items[swapIdx]);
+    }
+  }
+
+  private void swapItems(int cell1, int cell2) {
+    int cell1Index = heapIndex.get(cell1);
+    int cell2Index = heapIndex.get(cell2);
+    items[cell1Index] = cell2;
+    items[cell2Index] = cell1;
+    heapIndex.set(cell1, cell2Index);
+    heapIndex.set(cell2, cell1Index);
+  }
+}
@@ -0,0 +1,69 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+/**
+ * Set of closed cells keyed by the cell index. Membership is answered in O(1). Instead of clearing
+ * its memory between two searches, the set stamps every closed cell with the current generation
+ * and simply starts a new generation when it is cleared. The stamps are stored in pages which are
+ * only allocated when a cell of the page is closed.
+ */
+public class ClosedSet {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(ClosedSet.class);
+
+  private final PagedIntArray stamps = new PagedIntArray();
+  private int capacity;
+  private int generation = 1;
+
+  /**
+   * Creates an empty closed set.
+   *
+   * @param cellCount the number of cells the set can hold
+   */
+  public ClosedSet(int cellCount) {
+    this.capacity = cellCount;
+    stamps.ensureLength(cellCount);
+  }
+
+  /**
+   * Removes all cells from the set and makes sure it can hold the given number of cells. The
+   * memory of the set is only touched if it has to grow or once every {@link Integer#MAX_VALUE}
+   * generations.
+   *
+   * @param cellCount the number of cells the set must be able to hold
+   */
+  public void clear(int cellCount) {
+    if (capacity < cellCount) {
+      logger.debug("clear: growing from {} to {} cells", capacity, cellCount);
+      capacity = cellCount;
+      stamps.ensureLength(cellCount);
+    }
+    if (generation == Integer.MAX_VALUE) {
+      stamps.clear();
+      generation = 1;
+    } else {
+      generation++;
+    }
+  }
+
+  /** Removes all cells from the set and frees the memory of all stamps. */
+  public void trim() {
+    stamps.clear();
+    generation = 1;
+  }
+
+  public void add(int cell) {
+    stamps.set(cell, generation);
+  }
+
+  public void remove(int cell) {
+    stamps.set(cell, 0);
+  }
+
+  public boolean contains(int cell) {
+    return stamps.get(cell) == generation;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+}
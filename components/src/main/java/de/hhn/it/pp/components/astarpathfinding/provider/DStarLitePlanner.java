@@ -0,0 +1,386 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import java.util.Arrays;
+
+/**
+ * Incremental path planner (D* Lite) on the grid of a {@link MapManager}. The planner searches
+ * from the destination towards the start and keeps its costs between two calls of {@link
+ * #findShortestPath()}. When the terrain of a cell changes, {@link #cellChanged(int, int)} only
+ * marks the cell and its neighbours as inconsistent, and the next call repairs the costs which
+ * depend on them instead of searching the whole map again.
+ *
+ * <p>Every cell has its cost to the destination g and a lookahead rhs, the cheapest step to one of
+ * its neighbours plus the cost of that neighbour. Only cells whose g and rhs differ are in the
+ * queue, ordered by the smaller of both plus the Manhattan distance to the start. A moving start
+ * keeps all costs, the keys of the queue are then lowered by the distance the start has moved
+ * instead. A new destination starts a new search.
+ *
+ * <p>The cost of a step depends on the terrain of the cell which is left, so a changed cell
+ * changes the costs of its own steps and whether its neighbours can step onto it. The found paths
+ * have the same cost as the paths of {@link AStarPathfindingAlgorithm}.
+ */
+public class DStarLitePlanner {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(DStarLitePlanner.class);
+
+  private static final int INFINITY = Integer.MAX_VALUE;
+  private static final long INFINITE_KEY = Long.MAX_VALUE;
+  private static final int INITIAL_PATH_LENGTH = 64;
+
+  private final MapManager mapManager;
+  /** The snapshot of the map which has been current at the last change of a cell. */
+  private GridMap grid;
+  private final boolean diagonalPathing;
+  private final int neighbourCount;
+  private CostTable costTable;
+  private AStarPathfindingAlgorithm algorithm;
+
+  /** The cost from every cell to the destination plus one, 0 for an unknown cost. */
+  private final PagedIntArray gCost = new PagedIntArray();
+  /** The lookahead cost of every cell plus one, 0 for an unknown cost. */
+  private final PagedIntArray rhsCost = new PagedIntArray();
+  private final KeyQueue queue;
+
+  private int destinationCell = -1;
+  private int lastStartCell;
+  /** The sum of the distances the start has moved since the search has been started. */
+  private int keyModifier;
+
+  private long expandedCells;
+
+  /**
+   * Creates the planner for the current map of the map manager with the modifiers which are
+   * currently set on the terrain types.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   */
+  public DStarLitePlanner(MapManager mapManager, boolean diagonalPathing) {
+    this(mapManager, diagonalPathing, CostTable.fromTerrainTypes());
+  }
+
+  /**
+   * Creates the planner for the current map of the map manager. Nothing is searched until the
+   * first call of {@link #findShortestPath()}. A new planner must be created when a new map is
+   * created.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param costTable the costs of the steps
+   */
+  public DStarLitePlanner(MapManager mapManager, boolean diagonalPathing, CostTable costTable) {
+    this.mapManager = mapManager;
+    this.grid = mapManager.getGrid();
+    this.diagonalPathing = diagonalPathing;
+    this.neighbourCount = diagonalPathing ? GridMap.ROW_OFFSETS.length : 4;
+    this.costTable = costTable;
+    this.algorithm = createAlgorithm(costTable);
+    gCost.ensureLength(grid.getCellCount());
+    rhsCost.ensureLength(grid.getCellCount());
+    this.queue = new KeyQueue(grid.getCellCount());
+  }
+
+  /**
+   * Determines the shortest path between the current start and destination of the map manager,
+   * reusing the costs of the previous call.
+   *
+   * @return the path from the start to the destination, a result without path if there is none
+   */
+  public synchronized PathResult findShortestPath() {
+    Position start = mapManager.getStartCoordinates();
+    Position destination = mapManager.getDestinationCoordinates();
+    int startCell = grid.index(start.getRow(), start.getCol());
+    int goalCell = grid.index(destination.getRow(), destination.getCol());
+    if (goalCell != destinationCell) {
+      initialize(startCell, goalCell);
+    } else if (startCell != lastStartCell) {
+      keyModifier += getDistance(lastStartCell, startCell);
+      lastStartCell = startCell;
+    }
+
+    long expandedBefore = expandedCells;
+    computeShortestPath(startCell);
+    logger.debug(
+        "findShortestPath: {} cells expanded, cost = {}",
+        expandedCells - expandedBefore,
+        getG(startCell) == INFINITY ? "none" : getG(startCell));
+    PathQuery query = new PathQuery(start, destination);
+    if (getG(startCell) == INFINITY) {
+      return PathResult.notFound(query, grid.getWidth());
+    }
+    return new PathResult(query, grid.getWidth(), tracePath(startCell), getG(startCell));
+  }
+
+  /**
+   * Marks everything which depends on a cell whose terrain has changed as inconsistent. The costs
+   * are repaired by the next call of {@link #findShortestPath()} on the current snapshot of the
+   * map.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   */
+  public synchronized void cellChanged(int row, int col) {
+    grid = mapManager.getGrid();
+    if (destinationCell == -1) {
+      return;
+    }
+    logger.debug("cellChanged: row = {}, col = {}", row, col);
+    int cell = grid.index(row, col);
+    // The steps of the cell itself cost differently
+    updateRhs(cell);
+    // The neighbours may not be able to step onto the cell any more, or now can
+    for (int i = 0; i < neighbourCount; i++) {
+      int neighbourRow = row + GridMap.ROW_OFFSETS[i];
+      int neighbourCol = col + GridMap.COL_OFFSETS[i];
+      if (isOnGrid(neighbourRow, neighbourCol)) {
+        updateRhs(grid.index(neighbourRow, neighbourCol));
+      }
+    }
+  }
+
+  /**
+   * Replaces the costs of the steps. All cells of the terrain types whose costs differ between
+   * both tables are marked as changed cells.
+   *
+   * @param newCostTable the new costs of the steps
+   */
+  public synchronized void setCostTable(CostTable newCostTable) {
+    int types = TerrainType.values().length;
+    boolean[] changed = new boolean[types];
+    boolean anyChanged = false;
+    for (int code = 0; code < types; code++) {
+      changed[code] =
+          costTable.getStraightCost(code) != newCostTable.getStraightCost(code)
+              || costTable.getDiagonalCost(code) != newCostTable.getDiagonalCost(code)
+              || costTable.isPassable(code) != newCostTable.isPassable(code);
+      anyChanged |= changed[code];
+    }
+    costTable = newCostTable;
+    algorithm = createAlgorithm(newCostTable);
+    if (destinationCell == -1 || !anyChanged) {
+      return;
+    }
+    logger.debug("setCostTable: costTable = {}", newCostTable);
+    for (int cell = 0; cell < grid.getCellCount(); cell++) {
+      if (changed[grid.getCode(cell)]) {
+        cellChanged(grid.row(cell), grid.col(cell));
+      }
+    }
+  }
+
+  /** Returns the number of cells which have been taken from the queue by all calls. */
+  public synchronized long getExpandedCells() {
+    return expandedCells;
+  }
+
+  private AStarPathfindingAlgorithm createAlgorithm(CostTable costs) {
+    return new AStarPathfindingAlgorithm(
+        mapManager, diagonalPathing, OpenListType.BINARY_HEAP, costs);
+  }
+
+  private void initialize(int startCell, int goalCell) {
+    logger.debug("initialize: start = {}, destination = {}", startCell, goalCell);
+    while (queue.getItemCount() > 0) {
+      queue.remove(queue.peek());
+    }
+    gCost.clear();
+    rhsCost.clear();
+    gCost.ensureLength(grid.getCellCount());
+    rhsCost.ensureLength(grid.getCellCount());
+    destinationCell = goalCell;
+    lastStartCell = startCell;
+    keyModifier = 0;
+    setRhs(goalCell, 0);
+    queue.add(goalCell, getKey(goalCell));
+  }
+
+  private void computeShortestPath(int startCell) {
+    while (queue.getItemCount() > 0
+        && (queue.peekKey() < getKey(startCell) || getRhs(startCell) != getG(startCell))) {
+      int cell = queue.peek();
+      long oldKey = queue.peekKey();
+      long newKey = getKey(cell);
+      expandedCells++;
+      if (oldKey < newKey) {
+        // The key was computed for an earlier start
+        queue.update(cell, newKey);
+      } else if (getG(cell) > getRhs(cell)) {
+        setG(cell, getRhs(cell));
+        queue.remove(cell);
+        lowerPredecessors(cell);
+      } else {
+        setG(cell, INFINITY);
+        updateRhs(cell);
+        raisePredecessors(cell);
+      }
+    }
+  }
+
+  /** Lets the cells which can step onto a cell use its lower cost. */
+  private void lowerPredecessors(int cell) {
+    if (!algorithm.isAccessible(grid, grid.row(cell), grid.col(cell))) {
+      return;
+    }
+    int cost = getG(cell);
+    for (int i = 0; i < neighbourCount; i++) {
+      int row = grid.row(cell) + GridMap.ROW_OFFSETS[i];
+      int col = grid.col(cell) + GridMap.COL_OFFSETS[i];
+      if (!isOnGrid(row, col)) {
+        continue;
+      }
+      int predecessor = grid.index(row, col);
+      if (predecessor == destinationCell) {
+        continue;
+      }
+      int stepCost = algorithm.getStepCost(grid, predecessor, getDistance(i));
+      if (cost + stepCost < getRhs(predecessor)) {
+        setRhs(predecessor, cost + stepCost);
+        updateQueue(predecessor);
+      }
+    }
+  }
+
+  /** Recomputes the lookahead of the cells which can step onto a cell whose cost has risen. */
+  private void raisePredecessors(int cell) {
+    if (!algorithm.isAccessible(grid, grid.row(cell), grid.col(cell))) {
+      return;
+    }
+    for (int i = 0; i < neighbourCount; i++) {
+      int row = grid.row(cell) + GridMap.ROW_OFFSETS[i];
+      int col = grid.col(cell) + GridMap.COL_OFFSETS[i];
+      if (isOnGrid(row, col)) {
+        updateRhs(grid.index(row, col));
+      }
+    }
+  }
+
+  /** Recomputes the lookahead of a cell from its neighbours and updates its place in the queue. */
+  private void updateRhs(int cell) {
+    if (cell != destinationCell) {
+      setRhs(cell, getBestStep(cell, null));
+    }
+    updateQueue(cell);
+  }
+
+  /**
+   * Returns the lowest cost of a path from a cell through one of its neighbours.
+   *
+   * @param cell the cell
+   * @param bestStep receives the neighbour of the best step if it is not null
+   * @return the lowest cost or {@link #INFINITY} if no neighbour has a cost
+   */
+  private int getBestStep(int cell, int[] bestStep) {
+    int bestCost = INFINITY;
+    int row = grid.row(cell);
+    int col = grid.col(cell);
+    for (int i = 0; i < neighbourCount; i++) {
+      int neighbourRow = row + GridMap.ROW_OFFSETS[i];
+      int neighbourCol = col + GridMap.COL_OFFSETS[i];
+      if (!algorithm.isAccessible(grid, neighbourRow, neighbourCol)) {
+        continue;
+      }
+      int neighbour = grid.index(neighbourRow, neighbourCol);
+      int neighbourCost = getG(neighbour);
+      if (neighbourCost == INFINITY) {
+        continue;
+      }
+      int cost = neighbourCost + algorithm.getStepCost(grid, cell, getDistance(i));
+      if (cost < bestCost) {
+        bestCost = cost;
+        if (bestStep != null) {
+          bestStep[0] = neighbour;
+        }
+      }
+    }
+    return bestCost;
+  }
+
+  private void updateQueue(int cell) {
+    boolean consistent = getG(cell) == getRhs(cell);
+    boolean queued = queue.contains(cell);
+    if (!consistent && queued) {
+      queue.update(cell, getKey(cell));
+    } else if (!consistent) {
+      queue.add(cell, getKey(cell));
+    } else if (queued) {
+      queue.remove(cell);
+    }
+  }
+
+  /**
+   * Follows the cheapest steps from the start to the destination. The costs are consistent along
+   * the path, so every step lowers the cost and the destination is always reached.
+   */
+  private int[] tracePath(int startCell) {
+    int[] path = new int[INITIAL_PATH_LENGTH];
+    int length = 0;
+    int[] next = new int[1];
+    int cell = startCell;
+    path[length++] = cell;
+    while (cell != destinationCell) {
+      getBestStep(cell, next);
+      cell = next[0];
+      if (length == path.length) {
+        path = Arrays.copyOf(path, length * 2);
+      }
+      path[length++] = cell;
+    }
+    return Arrays.copyOf(path, length);
+  }
+
+  /**
+   * Returns the key of a cell in the queue: the smaller of g and rhs plus the distance to the
+   * start in the upper half, the smaller of g and rhs in the lower half to break ties.
+   */
+  private long getKey(int cell) {
+    int cost = Math.min(getG(cell), getRhs(cell));
+    if (cost == INFINITY) {
+      return INFINITE_KEY;
+    }
+    long primary = (long) cost + getDistance(cell, lastStartCell) + keyModifier;
+    return primary << Integer.SIZE | cost;
+  }
+
+  private int getDistance(int cell, int otherCell) {
+    return algorithm.getMDistance(grid, cell, grid.row(otherCell), grid.col(otherCell));
+  }
+
+  private int getDistance(int direction) {
+    return Math.abs(GridMap.ROW_OFFSETS[direction]) + Math.abs(GridMap.COL_OFFSETS[direction]);
+  }
+
+  private boolean isOnGrid(int row, int col) {
+    return row >= 0 && row < grid.getHeight() && col >= 0 && col < grid.getWidth();
+  }
+
+  private int getG(int cell) {
+    int value = gCost.get(cell);
+    return value == 0 ? INFINITY : value - 1;
+  }
+
+  private void setG(int cell, int cost) {
+    gCost.set(cell, cost == INFINITY ? 0 : cost + 1);
+  }
+
+  private int getRhs(int cell) {
+    int value = rhsCost.get(cell);
+    return value == 0 ? INFINITY : value - 1;
+  }
+
+  private void setRhs(int cell, int cost) {
+    rhsCost.set(cell, cost == INFINITY ? 0 : cost + 1);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "D* Lite planner; destination = %d, %d cells queued",
+        destinationCell, queue.getItemCount());
+  }
+}
@@ -0,0 +1,358 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.FlowField;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import java.util.Arrays;
+
+/**
+ * A {@link FlowField} which is computed by one backward search of Dijkstra's algorithm from the
+ * destination over the whole map (a Dijkstra map). Every cell stores the cost of its shortest path
+ * and the direction of its first step, so an agent reads its next step in constant time.
+ *
+ * <p>The directions form a tree towards the destination. When the terrain of a cell changes, only
+ * the cell and the cells whose paths lead through it are searched again, starting from the costs
+ * of their neighbours outside of that subtree. Paths which become cheaper through the changed cell
+ * are spread from there, so the field is the same as one which is computed from scratch.
+ *
+ * <p>Like the searches, a step may leave an obstacle but never enter one, and its cost depends on
+ * the terrain of the cell which is left.
+ *
+ * <p>The costs and directions are split into tiles of {@link GridMap#TILE_CELLS} consecutive
+ * cells. Like {@link GridMap#withType}, an update copies the arrays which reference the tiles, but
+ * only the tiles whose cells it changes. All other tiles are shared with the previous field. The
+ * update publishes them together with the snapshot of the map they belong to in one volatile
+ * write, so agents can read the field from other threads while it is updated.
+ */
+final class DijkstraFlowField implements FlowField {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(DijkstraFlowField.class);
+
+  /** The cost of a cell which can not reach the destination. */
+  private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+  /** The direction of the destination and of the cells which can not reach it. */
+  private static final byte NO_DIRECTION = -1;
+
+  /** The index of the opposite direction of every direction. */
+  private static final int[] OPPOSITE = {1, 0, 3, 2, 7, 6, 5, 4};
+
+  private static final int TILE_SHIFT = Integer.numberOfTrailingZeros(GridMap.TILE_CELLS);
+  private static final int TILE_MASK = GridMap.TILE_CELLS - 1;
+
+  private final MapManager mapManager;
+  private final int neighbourCount;
+  private final Position destination;
+  private final int destinationCell;
+  /** The field which is read by the agents. */
+  private volatile Field field;
+  /** The snapshot of the map of the update which is running. */
+  private GridMap grid;
+  /** The cost tiles of the update which is running. */
+  private int[][] distance;
+  /** The direction tiles of the update which is running. */
+  private byte[][] direction;
+  /** The field whose tiles the update shares until it changes them, null if it shares none. */
+  private Field shared;
+  /** The number of tiles the update which is running has copied. */
+  private int copiedTiles;
+  private CostTable costTable;
+  private volatile boolean valid = true;
+
+  /** The costs and directions of the field on one snapshot of the map, never changed. */
+  private static final class Field {
+    private final GridMap grid;
+    private final int[][] distance;
+    /** The index of the neighbour to which the first step of the path of every cell leads. */
+    private final byte[][] direction;
+
+    private Field(GridMap grid, int[][] distance, byte[][] direction) {
+      this.grid = grid;
+      this.distance = distance;
+      this.direction = direction;
+    }
+
+    private int distanceOf(int cell) {
+      return distance[cell >>> TILE_SHIFT][cell & TILE_MASK];
+    }
+
+    private byte directionOf(int cell) {
+      return direction[cell >>> TILE_SHIFT][cell & TILE_MASK];
+    }
+  }
+
+  /**
+   * Computes the field of a destination on the current map of the map manager.
+   *
+   * @param mapManager holds all the information from the map
+   * @param destination the destination, which must be on the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param costTable the costs of the steps
+   */
+  DijkstraFlowField(
+      MapManager mapManager, Position destination, boolean diagonalPathing, CostTable costTable) {
+    this.mapManager = mapManager;
+    this.neighbourCount = diagonalPathing ? GridMap.ROW_OFFSETS.length : 4;
+    this.destination = destination;
+    this.costTable = costTable;
+    GridMap current = mapManager.getGrid();
+    this.destinationCell = current.index(destination.getRow(), destination.getCol());
+    compute(current);
+  }
+
+  @Override
+  public Position getDestination() {
+    return destination;
+  }
+
+  @Override
+  public int getDistance(Position position) throws PositionOutOfBounds {
+    mapManager.checkPositionInBounds(position);
+    Field current = field;
+    int cost = current.distanceOf(current.grid.index(position.getRow(), position.getCol()));
+    return cost == UNREACHABLE ? -1 : cost;
+  }
+
+  @Override
+  public Position getNextStep(Position position) throws PositionOutOfBounds {
+    mapManager.checkPositionInBounds(position);
+    Field current = field;
+    int next = current.directionOf(current.grid.index(position.getRow(), position.getCol()));
+    if (next == NO_DIRECTION) {
+      return null;
+    }
+    return new Position(
+        position.getRow() + GridMap.ROW_OFFSETS[next],
+        position.getCol() + GridMap.COL_OFFSETS[next]);
+  }
+
+  @Override
+  public boolean isValid() {
+    return valid;
+  }
+
+  /** Stops the updates of the field after a change which affects the whole map. */
+  void invalidate() {
+    valid = false;
+  }
+
+  /**
+   * Replaces the costs of the steps and computes the whole field again.
+   *
+   * @param newCostTable the new costs of the steps
+   */
+  synchronized void setCostTable(CostTable newCostTable) {
+    costTable = newCostTable;
+    compute(mapManager.getGrid());
+  }
+
+  /** Computes the costs and directions of all cells from scratch and publishes them. */
+  private void compute(GridMap current) {
+    long start = System.nanoTime();
+    grid = current;
+    int cellCount = grid.getCellCount();
+    int tileCount = (cellCount + TILE_MASK) >>> TILE_SHIFT;
+    distance = new int[tileCount][];
+    direction = new byte[tileCount][];
+    for (int tile = 0; tile < tileCount; tile++) {
+      int tileCells = Math.min(GridMap.TILE_CELLS, cellCount - (tile << TILE_SHIFT));
+      distance[tile] = new int[tileCells];
+      direction[tile] = new byte[tileCells];
+      Arrays.fill(distance[tile], UNREACHABLE);
+      Arrays.fill(direction[tile], NO_DIRECTION);
+    }
+    shared = null;
+    SearchContext context = SearchContext.acquire(grid.getCellCount(), OpenListType.BINARY_HEAP);
+    try {
+      push(context, destinationCell, 0, NO_DIRECTION);
+      spread(context);
+    } finally {
+      context.release();
+    }
+    field = new Field(grid, distance, direction);
+    logger.debug(
+        "compute: {} cells in {} ms", grid.getCellCount(), (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Updates the field after the terrain of a cell has changed. The cell and all cells whose paths
+   * lead through it lose their costs and take the cheapest step to a neighbour which has kept its
+   * cost. Then the new costs are spread from these cells on the current snapshot of the map. Only
+   * the tiles of the cells whose cost or direction changes are copied. The agents read the
+   * previous field until the update is published.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   */
+  synchronized void cellChanged(int row, int col) {
+    Field previous = field;
+    grid = mapManager.getGrid();
+    distance = previous.distance.clone();
+    direction = previous.direction.clone();
+    shared = previous;
+    copiedTiles = 0;
+    int cell = grid.index(row, col);
+    SearchContext context = SearchContext.acquire(grid.getCellCount(), OpenListType.BINARY_HEAP);
+    try {
+      // The closed set marks the subtree of the cell
+      int[] subtree = collectSubtree(context, cell);
+      for (int affected : subtree) {
+        set(affected, UNREACHABLE, NO_DIRECTION);
+      }
+      if (cell == destinationCell) {
+        push(context, destinationCell, 0, NO_DIRECTION);
+      } else {
+        for (int affected : subtree) {
+          reconnect(context, affected);
+        }
+      }
+      spread(context);
+      field = new Field(grid, distance, direction);
+      logger.debug(
+          "cellChanged: row = {}, col = {}, {} cells, {} copied tiles",
+          row,
+          col,
+          subtree.length,
+          copiedTiles);
+    } finally {
+      context.release();
+    }
+  }
+
+  /**
+   * Collects a cell and all cells whose directions lead to it, and adds them to the closed set.
+   *
+   * @return the cells of the subtree
+   */
+  private int[] collectSubtree(SearchContext context, int root) {
+    int[] cells = new int[16];
+    int count = 0;
+    cells[count++] = root;
+    context.closedSet.add(root);
+    for (int i = 0; i < count; i++) {
+      int parentCell = cells[i];
+      int row = grid.row(parentCell);
+      int col = grid.col(parentCell);
+      for (int n = 0; n < neighbourCount; n++) {
+        int childRow = row + GridMap.ROW_OFFSETS[n];
+        int childCol = col + GridMap.COL_OFFSETS[n];
+        if (!isOnGrid(childRow, childCol)) {
+          continue;
+        }
+        int child = grid.index(childRow, childCol);
+        // The child steps back into the direction it has been reached from
+        if (directionOf(child) == OPPOSITE[n] && !context.closedSet.contains(child)) {
+          if (count == cells.length) {
+            cells = Arrays.copyOf(cells, cells.length * 2);
+          }
+          cells[count++] = child;
+          context.closedSet.add(child);
+        }
+      }
+    }
+    return Arrays.copyOf(cells, count);
+  }
+
+  /**
+   * Gives a cell of the subtree of a changed cell the cheapest step to a neighbour outside of the
+   * subtree and adds it to the open list if there is one.
+   */
+  private void reconnect(SearchContext context, int cell) {
+    int row = grid.row(cell);
+    int col = grid.col(cell);
+    int code = grid.getCode(cell);
+    int bestCost = UNREACHABLE;
+    byte bestDirection = NO_DIRECTION;
+    for (int n = 0; n < neighbourCount; n++) {
+      int neighbourRow = row + GridMap.ROW_OFFSETS[n];
+      int neighbourCol = col + GridMap.COL_OFFSETS[n];
+      if (!isOnGrid(neighbourRow, neighbourCol)) {
+        continue;
+      }
+      int neighbour = grid.index(neighbourRow, neighbourCol);
+      if (context.closedSet.contains(neighbour)
+          || distanceOf(neighbour) == UNREACHABLE
+          || !costTable.isPassable(grid.getCode(neighbour))) {
+        continue;
+      }
+      int cost = distanceOf(neighbour) + costTable.getStepCost(code, n < 4 ? 1 : 2);
+      if (cost < bestCost) {
+        bestCost = cost;
+        bestDirection = (byte) n;
+      }
+    }
+    if (bestCost != UNREACHABLE) {
+      push(context, cell, bestCost, bestDirection);
+    }
+  }
+
+  /**
+   * Runs Dijkstra's algorithm backwards from the cells of the open list. A cell which is taken
+   * from the open list lowers the costs of all neighbours which can step onto it.
+   */
+  private void spread(SearchContext context) {
+    while (context.openList.getItemCount() > 0) {
+      int cell = context.openList.removeFirst();
+      // Obstacles can be left, but no neighbour can step onto them
+      if (!costTable.isPassable(grid.getCode(cell))) {
+        continue;
+      }
+      int row = grid.row(cell);
+      int col = grid.col(cell);
+      int cost = distanceOf(cell);
+      for (int n = 0; n < neighbourCount; n++) {
+        int neighbourRow = row + GridMap.ROW_OFFSETS[n];
+        int neighbourCol = col + GridMap.COL_OFFSETS[n];
+        if (!isOnGrid(neighbourRow, neighbourCol)) {
+          continue;
+        }
+        int neighbour = grid.index(neighbourRow, neighbourCol);
+        int newCost = cost + costTable.getStepCost(grid.getCode(neighbour), n < 4 ? 1 : 2);
+        if (newCost < distanceOf(neighbour)) {
+          push(context, neighbour, newCost, (byte) OPPOSITE[n]);
+        }
+      }
+    }
+  }
+
+  /** Sets the cost and direction of a cell and adds it to the open list or moves it there. */
+  private void push(SearchContext context, int cell, int cost, byte next) {
+    set(cell, cost, next);
+    context.gCost.set(cell, cost);
+    if (context.openList.contains(cell)) {
+      context.openList.updateItem(cell);
+    } else {
+      context.hCost.set(cell, 0);
+      context.openList.add(cell);
+    }
+  }
+
+  private int distanceOf(int cell) {
+    return distance[cell >>> TILE_SHIFT][cell & TILE_MASK];
+  }
+
+  private byte directionOf(int cell) {
+    return direction[cell >>> TILE_SHIFT][cell & TILE_MASK];
+  }
+
+  /**
+   * Sets the cost and direction of a cell of the update which is running. A tile which is still
+   * shared with the published field is copied first.
+   */
+  private void set(int cell, int cost, byte next) {
+    int tile = cell >>> TILE_SHIFT;
+    if (shared != null && distance[tile] == shared.distance[tile]) {
+      distance[tile] = distance[tile].clone();
+      direction[tile] = direction[tile].clone();
+      copiedTiles++;
+    }
+    distance[tile][cell & TILE_MASK] = cost;
+    direction[tile][cell & TILE_MASK] = next;
+  }
+
+  private boolean isOnGrid(int row, int col) {
+    return row >= 0 && row < grid.getHeight() && col >= 0 && col < grid.getWidth();
+  }
+}
@@ -0,0 +1,262 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import java.util.Arrays;
+
+/**
+ * Compact representation of a map. The terrain of every cell is stored as the ordinal of its
+ * {@link TerrainType} in byte arrays which are indexed by {@code row * width + col}. No objects
+ * are allocated per cell.
+ *
+ * <p>A packed grid stores two cells per byte, the cell with the even index in the lower and the
+ * cell with the odd index in the upper four bits. This halves the memory of large maps at the
+ * cost of a shift and a mask per access.
+ *
+ * <p>A grid is immutable, so it can be read by any number of threads without locking. The cells
+ * are split into tiles of {@link #TILE_CELLS} consecutive cells, and the tiles are referenced by
+ * blocks of {@link #BLOCK_TILES} tiles. {@link #withType(int, TerrainType)} creates a new grid
+ * which only copies the tile of the changed cell, its block and the root array of the blocks, so
+ * a change costs the same on every map size. All other tiles and blocks are shared with the old
+ * grid, so a search which still reads the old grid keeps its view of the map.
+ */
+public class GridMap {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(GridMap.class);
+
+  private static final TerrainType[] TYPES = TerrainType.values();
+  private static final int NIBBLE_MASK = 0xF;
+
+  private static final int TILE_SHIFT = 12;
+  /** The number of cells of a tile, which is even so a packed tile never splits a byte. */
+  public static final int TILE_CELLS = 1 << TILE_SHIFT;
+  private static final int TILE_MASK = TILE_CELLS - 1;
+
+  private static final int BLOCK_SHIFT = 9;
+  /** The number of tiles of a block. */
+  public static final int BLOCK_TILES = 1 << BLOCK_SHIFT;
+  private static final int BLOCK_MASK = BLOCK_TILES - 1;
+  /** Shifts a cell index to the index of its block. */
+  private static final int BLOCK_CELL_SHIFT = TILE_SHIFT + BLOCK_SHIFT;
+
+  /**
+   * The row offsets of the neighbours of a cell in the order of all searches: left, right, top and
+   * bottom followed by top left, top right, bottom left and bottom right, so the first four are the
+   * straight neighbours. Must not be changed.
+   */
+  static final int[] ROW_OFFSETS = {0, 0, -1, 1, -1, -1, 1, 1};
+  /** The column offsets of the neighbours, see {@link #ROW_OFFSETS}. Must not be changed. */
+  static final int[] COL_OFFSETS = {-1, 1, 0, 0, -1, 1, -1, 1};
+
+  private final int width;
+  private final int height;
+  private final int cellCount;
+  private final boolean packed;
+  /**
+   * The blocks of tiles with the terrain codes of the cells. A cell is stored in the tile {@code
+   * cell >>> TILE_SHIFT & BLOCK_MASK} of the block {@code cell >>> BLOCK_CELL_SHIFT}.
+   */
+  private final byte[][][] blocks;
+  /** The difference between the index of a cell and the indices of its eight neighbours. */
+  private final int[] neighbourOffsets;
+
+  /**
+   * Creates a new grid where every cell has the given terrain type.
+   *
+   * @param width the width of the grid
+   * @param height the height of the grid
+   * @param type the initial terrain type of all cells
+   */
+  public GridMap(int width, int height, TerrainType type) {
+    this(width, height, type, false);
+  }
+
+  /**
+   * Creates a new grid where every cell has the given terrain type.
+   *
+   * @param width the width of the grid
+   * @param height the height of the grid
+   * @param type the initial terrain type of all cells
+   * @param packed whether two cells are stored per byte
+   */
+  public GridMap(int width, int height, TerrainType type, boolean packed) {
+    if (TYPES.length > NIBBLE_MASK + 1) {
+      throw new IllegalStateException("Terrain codes do not fit into four bits");
+    }
+    this.width = width;
+    this.height = height;
+    this.cellCount = width * height;
+    this.packed = packed;
+    this.neighbourOffsets = new int[ROW_OFFSETS.length];
+    for (int i = 0; i < ROW_OFFSETS.length; i++) {
+      neighbourOffsets[i] = ROW_OFFSETS[i] * width + COL_OFFSETS[i];
+    }
+    int tileCount = (cellCount + TILE_MASK) >>> TILE_SHIFT;
+    this.blocks = new byte[(tileCount + BLOCK_MASK) >>> BLOCK_SHIFT][][];
+    int code = type.ordinal();
+    byte fill = (byte) (packed ? code | code << 4 : code);
+    for (int block = 0; block < blocks.length; block++) {
+      blocks[block] = new byte[Math.min(BLOCK_TILES, tileCount - (block << BLOCK_SHIFT))][];
+      for (int i = 0; i < blocks[block].length; i++) {
+        int firstCell = (block << BLOCK_SHIFT | i) << TILE_SHIFT;
+        int tileCells = Math.min(TILE_CELLS, cellCount - firstCell);
+        blocks[block][i] = new byte[packed ? (tileCells + 1) / 2 : tileCells];
+        Arrays.fill(blocks[block][i], fill);
+      }
+    }
+    logger.debug(
+        "constructor: width = {}, height = {}, packed = {}, {} tiles",
+        width,
+        height,
+        packed,
+        tileCount);
+  }
+
+  /** Creates a grid of the same size as another grid with the given blocks. */
+  private GridMap(GridMap grid, byte[][][] blocks) {
+    this.width = grid.width;
+    this.height = grid.height;
+    this.cellCount = grid.cellCount;
+    this.packed = grid.packed;
+    this.neighbourOffsets = grid.neighbourOffsets;
+    this.blocks = blocks;
+  }
+
+  /**
+   * Estimates the heap memory of a grid with the given size.
+   *
+   * @param width the width of the grid
+   * @param height the height of the grid
+   * @param packed whether two cells are stored per byte
+   * @return the estimated number of bytes
+   */
+  public static long estimateMemory(int width, int height, boolean packed) {
+    long cells = (long) width * height;
+    return packed ? (cells + 1) / 2 : cells;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public int getCellCount() {
+    return cellCount;
+  }
+
+  public boolean isPacked() {
+    return packed;
+  }
+
+  /**
+   * Returns the number of bytes which are used to store the terrain of all cells. Tiles which are
+   * shared with other grids are counted as well.
+   *
+   * @return the size of all tiles in bytes
+   */
+  public long getMemoryUsage() {
+    long bytes = 0;
+    for (byte[][] block : blocks) {
+      for (byte[] tile : block) {
+        bytes += tile.length;
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the index of the cell at the given row and column.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return the index of the cell
+   */
+  public int index(int row, int col) {
+    return row * width + col;
+  }
+
+  /**
+   * Returns the differences between the index of a cell and the indices of its neighbours: left,
+   * right, top and bottom followed by top left, top right, bottom left and bottom right. They are
+   * only valid for cells which are not on the border of the grid, see {@link #isInterior(int,
+   * int)}. The returned array must not be changed.
+   *
+   * @return the index offsets of the eight neighbours
+   */
+  int[] getNeighbourOffsets() {
+    return neighbourOffsets;
+  }
+
+  /**
+   * Checks whether all eight neighbours of a cell are on the grid, so they can be reached with
+   * {@link #getNeighbourOffsets()} without checking their bounds.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return true if the cell is not on the border of the grid
+   */
+  boolean isInterior(int row, int col) {
+    return row > 0 && row < height - 1 && col > 0 && col < width - 1;
+  }
+
+  public int row(int cell) {
+    return cell / width;
+  }
+
+  public int col(int cell) {
+    return cell % width;
+  }
+
+  /**
+   * Returns the terrain code of a cell, which is the ordinal of its terrain type.
+   *
+   * @param cell the index of the cell
+   * @return the terrain code
+   */
+  public int getCode(int cell) {
+    byte[] tile = blocks[cell >>> BLOCK_CELL_SHIFT][cell >>> TILE_SHIFT & BLOCK_MASK];
+    if (packed) {
+      return tile[(cell & TILE_MASK) >>> 1] >> ((cell & 1) << 2) & NIBBLE_MASK;
+    }
+    return tile[cell & TILE_MASK];
+  }
+
+  public TerrainType getType(int cell) {
+    return TYPES[getCode(cell)];
+  }
+
+  /**
+   * Returns a grid where a cell has the given terrain type and all other cells have the terrain
+   * of this grid. Only the tile of the cell, its block of tile references and the root array of
+   * the blocks are copied, this grid is not changed.
+   *
+   * @param cell the index of the cell
+   * @param type the new terrain type
+   * @return the new grid or this grid if the cell already has the terrain type
+   */
+  public GridMap withType(int cell, TerrainType type) {
+    if (getCode(cell) == type.ordinal()) {
+      return this;
+    }
+    byte[][][] newBlocks = blocks.clone();
+    int block = cell >>> BLOCK_CELL_SHIFT;
+    int tile = cell >>> TILE_SHIFT & BLOCK_MASK;
+    newBlocks[block] = newBlocks[block].clone();
+    newBlocks[block][tile] = newBlocks[block][tile].clone();
+    setCode(newBlocks, cell, type.ordinal());
+    return new GridMap(this, newBlocks);
+  }
+
+  /** Sets the code of a cell in a tile which has not been shared yet. */
+  private void setCode(byte[][][] target, int cell, int code) {
+    byte[] tile = target[cell >>> BLOCK_CELL_SHIFT][cell >>> TILE_SHIFT & BLOCK_MASK];
+    if (packed) {
+      int shift = (cell & 1) << 2;
+      int index = (cell & TILE_MASK) >>> 1;
+      tile[index] = (byte) (tile[index] & ~(NIBBLE_MASK << shift) | code << shift);
+    } else {
+      tile[cell & TILE_MASK] = (byte) code;
+    }
+  }
+}
@@ -0,0 +1,683 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Hierarchical path-finding (HPA*) on the grid of a {@link MapManager}. The grid is partitioned
+ * into square clusters. Along the border of two neighbouring clusters every run of cells which
+ * are accessible on both sides gets one or two entrances, and the costs between all entrances of
+ * a cluster are computed with {@link AStarPathfindingAlgorithm} on the cells of the cluster. A
+ * query first searches this abstract graph of entrances, then refines the found route by
+ * searching only inside the clusters it passes.
+ *
+ * <p>The abstract graph belongs to one snapshot of the map and is never changed, so queries run
+ * without a lock and do not block each other. Its clusters are built lazily when a query reaches
+ * them, or all at once by {@link #build()}. When a cell changes, {@link #cellChanged(int, int)}
+ * creates the graph of the new snapshot, which shares all clusters with the previous graph except
+ * the cluster of the cell, and for a cell on a cluster border also the entrances of that border
+ * and the cluster on the other side. They are rebuilt when they are needed again. The searches
+ * inside of a cluster run on the snapshot itself and do not leave the rectangle of the cluster.
+ *
+ * <p>The found paths are valid, but not always the shortest ones, because a route through a
+ * border must use one of its entrances. Borders are only crossed by straight steps. An entrance
+ * needs accessible cells on both sides, so a path which starts on an obstacle may have to leave
+ * its cluster without one. Such a search starts from all accessible neighbours of the start.
+ */
+public class HierarchicalPathfinder {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(HierarchicalPathfinder.class);
+
+  public static final int DEFAULT_CLUSTER_SIZE = 16;
+  public static final int MIN_CLUSTER_SIZE = 4;
+
+  /** Runs of accessible border cells of at least this length get an entrance at both ends. */
+  private static final int LONG_ENTRANCE_LENGTH = 6;
+
+  private static final int INITIAL_PATH_LENGTH = 64;
+
+  private final MapManager mapManager;
+  private final int clusterSize;
+  private final ClusterSearch algorithm;
+  private final int clusterRows;
+  private final int clusterCols;
+  /** The graph of the snapshot of the map which has been current at the last change of a cell. */
+  private volatile Graph graph;
+  private final AtomicInteger clusterBuilds = new AtomicInteger();
+
+  /**
+   * Creates the hierarchy for the current map of the map manager with the modifiers which are
+   * currently set on the terrain types.
+   *
+   * @param mapManager holds all the information from the map
+   * @param clusterSize the width and height of a cluster
+   * @param diagonalPathing whether diagonal steps are allowed inside of the clusters
+   */
+  public HierarchicalPathfinder(MapManager mapManager, int clusterSize, boolean diagonalPathing) {
+    this(mapManager, clusterSize, diagonalPathing, CostTable.fromTerrainTypes());
+  }
+
+  /**
+   * Creates the hierarchy for the current map of the map manager. Nothing is built until the
+   * first query or {@link #build()}. A new hierarchy must be created when a new map is created or
+   * the costs change.
+   *
+   * @param mapManager holds all the information from the map
+   * @param clusterSize the width and height of a cluster
+   * @param diagonalPathing whether diagonal steps are allowed inside of the clusters
+   * @param costTable the costs of the steps
+   */
+  public HierarchicalPathfinder(
+      MapManager mapManager, int clusterSize, boolean diagonalPathing, CostTable costTable) {
+    if (clusterSize < MIN_CLUSTER_SIZE) {
+      throw new IllegalArgumentException("The cluster size must be at least " + MIN_CLUSTER_SIZE);
+    }
+    this.mapManager = mapManager;
+    this.clusterSize = clusterSize;
+    this.algorithm = new ClusterSearch(mapManager, diagonalPathing, costTable);
+    GridMap grid = mapManager.getGrid();
+    this.clusterRows = (grid.getHeight() + clusterSize - 1) / clusterSize;
+    this.clusterCols = (grid.getWidth() + clusterSize - 1) / clusterSize;
+    this.graph = new Graph(grid, null);
+  }
+
+  /** Builds all clusters of the current graph which have not been built yet. */
+  public void build() {
+    Graph current = graph;
+    logger.debug("build: {} clusters", current.clusters.length());
+    SearchContext context = current.acquireLocalContext();
+    try {
+      for (int id = 0; id < current.clusters.length(); id++) {
+        current.getCluster(id, context);
+      }
+    } finally {
+      context.release();
+    }
+  }
+
+  /**
+   * Replaces the graph by the graph of the current snapshot of the map, which discards everything
+   * that depends on a cell whose terrain has changed. Queries which are running keep the previous
+   * graph.
+   *
+   * @param row the row of the cell
+   * @param col the column of the cell
+   */
+  public synchronized void cellChanged(int row, int col) {
+    Graph next = new Graph(mapManager.getGrid(), graph);
+    int clusterRow = row / clusterSize;
+    int clusterCol = col / clusterSize;
+    int id = clusterRow * clusterCols + clusterCol;
+    logger.debug("cellChanged: row = {}, col = {}, cluster = {}", row, col, id);
+    next.clusters.set(id, null);
+    if (col == clusterCol * clusterSize && clusterCol > 0) {
+      next.verticalBorders.set(id - 1, null);
+      next.clusters.set(id - 1, null);
+    }
+    if (col == Math.min((clusterCol + 1) * clusterSize, next.grid.getWidth()) - 1
+        && clusterCol < clusterCols - 1) {
+      next.verticalBorders.set(id, null);
+      next.clusters.set(id + 1, null);
+    }
+    if (row == clusterRow * clusterSize && clusterRow > 0) {
+      next.horizontalBorders.set(id - clusterCols, null);
+      next.clusters.set(id - clusterCols, null);
+    }
+    if (row == Math.min((clusterRow + 1) * clusterSize, next.grid.getHeight()) - 1
+        && clusterRow < clusterRows - 1) {
+      next.horizontalBorders.set(id, null);
+      next.clusters.set(id + clusterCols, null);
+    }
+    graph = next;
+  }
+
+  /**
+   * Finds a path for a query on the current graph. The positions must be on the map. The counters
+   * of the result are the ones of the search on the abstract graph, the searches inside of the
+   * clusters are not counted.
+   *
+   * @param query the start and goal position
+   * @return the found path or a result without a path
+   */
+  public PathResult findPath(PathQuery query) {
+    return graph.findPath(query);
+  }
+
+  public int getClusterSize() {
+    return clusterSize;
+  }
+
+  public int getClusterCount() {
+    return clusterRows * clusterCols;
+  }
+
+  /**
+   * Returns how often a cluster has been built since the hierarchy has been created.
+   *
+   * @return the number of cluster builds
+   */
+  public int getClusterBuilds() {
+    return clusterBuilds.get();
+  }
+
+  /**
+   * Returns the number of entrance cells of all clusters of the current graph which are built.
+   *
+   * @return the number of nodes of the abstract graph
+   */
+  public int getEntranceCount() {
+    Graph current = graph;
+    int count = 0;
+    for (int id = 0; id < current.clusters.length(); id++) {
+      Cluster cluster = current.clusters.get(id);
+      if (cluster != null) {
+        count += cluster.entrances.length;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "Hierarchical pathfinder; Cluster size: %d; Clusters: %d;",
+        clusterSize, getClusterCount());
+  }
+
+  /**
+   * The abstract graph of one snapshot of the map. The clusters and borders are built at most
+   * once per graph when they are needed first. Two queries may build the same cluster at the same
+   * time, which gives equal clusters, so the graph needs no lock.
+   */
+  private final class Graph {
+    private final GridMap grid;
+    /** The built clusters, null if a cluster has not been built or has been changed. */
+    private final AtomicReferenceArray<Cluster> clusters;
+    /**
+     * The pairs of cells of the entrances between a cluster and its right neighbour, the cell of
+     * the cluster first. Null if the border has not been computed.
+     */
+    private final AtomicReferenceArray<int[]> verticalBorders;
+    /** The pairs of cells of the entrances between a cluster and the cluster below it. */
+    private final AtomicReferenceArray<int[]> horizontalBorders;
+
+    /**
+     * Creates the graph of a snapshot.
+     *
+     * @param grid the snapshot of the map
+     * @param previous the graph whose clusters and borders are taken over, null for none
+     */
+    private Graph(GridMap grid, Graph previous) {
+      this.grid = grid;
+      int clusterCount = clusterRows * clusterCols;
+      this.clusters = new AtomicReferenceArray<>(clusterCount);
+      this.verticalBorders = new AtomicReferenceArray<>(clusterCount);
+      this.horizontalBorders = new AtomicReferenceArray<>(clusterCount);
+      if (previous != null) {
+        for (int id = 0; id < clusterCount; id++) {
+          clusters.set(id, previous.clusters.get(id));
+          verticalBorders.set(id, previous.verticalBorders.get(id));
+          horizontalBorders.set(id, previous.horizontalBorders.get(id));
+        }
+      }
+    }
+
+    private PathResult findPath(PathQuery query) {
+      long start = System.nanoTime();
+      int startCell = grid.index(query.getStart().getRow(), query.getStart().getCol());
+      int goalCell = grid.index(query.getGoal().getRow(), query.getGoal().getCol());
+      if (startCell == goalCell) {
+        return new PathResult(query, grid.getWidth(), new int[] {startCell}, 0);
+      }
+      if (!algorithm.isAccessible(grid, grid.row(goalCell), grid.col(goalCell))) {
+        return PathResult.notFound(query, grid.getWidth());
+      }
+
+      SearchContext local = acquireLocalContext();
+      SearchContext context = null;
+      try {
+        int goalClusterId = getClusterId(goalCell);
+        Cluster goalCluster = getCluster(goalClusterId, local);
+        // Connect the entrances of the goal cluster to the goal
+        int[] goalCosts = new int[goalCluster.entrances.length];
+        for (int i = 0; i < goalCosts.length; i++) {
+          goalCosts[i] = getLocalCost(goalCluster, goalCluster.entrances[i], goalCell, local);
+        }
+
+        context = SearchContext.acquire(grid.getCellCount(), OpenListType.BINARY_HEAP);
+        addStart(context, local, startCell, goalCell);
+        if (!searchAbstract(context, local, goalCell, goalClusterId, goalCosts)) {
+          return PathResult.notFound(
+              query,
+              grid.getWidth(),
+              context.counters.toStats(null, -1, System.nanoTime() - start));
+        }
+        int[] cells = refine(context.parent, goalCell, local);
+        int cost = algorithm.getPathCost(grid, cells);
+        return new PathResult(
+            query,
+            grid.getWidth(),
+            cells,
+            cost,
+            context.counters.toStats(cells, cost, System.nanoTime() - start));
+      } finally {
+        if (context != null) {
+          context.release();
+        }
+        local.release();
+      }
+    }
+
+    /**
+     * Adds the start to the open list of the abstract search. A start on an obstacle can be left
+     * but not entered again, and its first step may cross a border outside of an entrance, so its
+     * accessible neighbours are added instead.
+     */
+    private void addStart(SearchContext context, SearchContext local, int startCell, int goalCell) {
+      context.parent.set(startCell, -1);
+      if (algorithm.isAccessible(grid, grid.row(startCell), grid.col(startCell))) {
+        context.gCost.set(startCell, 0);
+        context.hCost.set(
+            startCell,
+            algorithm.getHCost(grid, startCell, grid.row(goalCell), grid.col(goalCell)));
+        context.openList.add(startCell);
+        return;
+      }
+      logger.debug("addStart: start {} is not accessible", startCell);
+      context.closedSet.add(startCell);
+      local.prepare(grid.getCellCount(), OpenListType.BINARY_HEAP);
+      local.gCost.set(startCell, 0);
+      algorithm.expand(grid, local, null, startCell, grid.row(goalCell), grid.col(goalCell));
+      while (local.openList.getItemCount() > 0) {
+        int cell = local.openList.removeFirst();
+        relax(context, startCell, cell, 0, local.gCost.get(cell), goalCell);
+      }
+    }
+
+    /**
+     * Runs A* on the abstract graph to the goal. The nodes of the graph are the cells of the
+     * entrances and of the start, so the context is indexed by the cells of the map. The routes
+     * from a start which is no entrance are searched when it is expanded.
+     *
+     * @return true if the goal has been reached
+     */
+    private boolean searchAbstract(
+        SearchContext context,
+        SearchContext local,
+        int goalCell,
+        int goalClusterId,
+        int[] goalCosts) {
+      while (context.openList.getItemCount() > 0) {
+        int currentCell = context.openList.removeFirst();
+        context.closedSet.add(currentCell);
+        if (currentCell == goalCell) {
+          return true;
+        }
+        context.counters.expandedCells++;
+        int currentCost = context.gCost.get(currentCell);
+        int clusterId = getClusterId(currentCell);
+        Cluster cluster = getCluster(clusterId, local);
+        int index = cluster.indexOf(currentCell);
+        int entranceCount = cluster.entrances.length;
+
+        if (index >= 0) {
+          for (int i = 0; i < entranceCount; i++) {
+            int cost = cluster.costs[index * entranceCount + i];
+            relax(context, currentCell, cluster.entrances[i], currentCost, cost, goalCell);
+          }
+          if (clusterId == goalClusterId) {
+            relax(context, currentCell, goalCell, currentCost, goalCosts[index], goalCell);
+          }
+          int stepCost = algorithm.getStepCost(grid, currentCell, 1);
+          for (int neighbour : cluster.transitions[index]) {
+            relax(context, currentCell, neighbour, currentCost, stepCost, goalCell);
+          }
+        } else {
+          int[] costs = new int[entranceCount];
+          getLocalCosts(cluster, currentCell, local, costs, 0);
+          for (int i = 0; i < entranceCount; i++) {
+            relax(context, currentCell, cluster.entrances[i], currentCost, costs[i], goalCell);
+          }
+          // The search of the costs has also reached the goal if it is in the same cluster
+          if (clusterId == goalClusterId && local.closedSet.contains(goalCell)) {
+            relax(
+                context, currentCell, goalCell, currentCost, local.gCost.get(goalCell), goalCell);
+          }
+        }
+      }
+      return false;
+    }
+
+    private void relax(
+        SearchContext context, int currentCell, int cell, int currentCost, int cost, int goalCell) {
+      if (cost < 0 || cell == currentCell) {
+        return;
+      }
+      algorithm.relax(
+          grid,
+          context,
+          null,
+          currentCell,
+          cell,
+          currentCost + cost,
+          grid.row(goalCell),
+          grid.col(goalCell));
+    }
+
+    /**
+     * Replaces the edges of the abstract path by the cells of the map. Steps between two clusters
+     * are taken as they are, the routes inside of a cluster are searched again.
+     *
+     * @return the cells of the path from the start to the goal
+     */
+    private int[] refine(PagedIntArray parent, int goalCell, SearchContext local) {
+      int nodeCount = 1;
+      for (int cell = goalCell; parent.get(cell) != -1; cell = parent.get(cell)) {
+        nodeCount++;
+      }
+      int[] nodes = new int[nodeCount];
+      for (int cell = goalCell; cell != -1; cell = parent.get(cell)) {
+        nodes[--nodeCount] = cell;
+      }
+
+      int[] cells = new int[INITIAL_PATH_LENGTH];
+      int length = 0;
+      cells[length++] = nodes[0];
+      for (int i = 1; i < nodes.length; i++) {
+        int clusterId = getClusterId(nodes[i - 1]);
+        if (clusterId != getClusterId(nodes[i])) {
+          cells = append(cells, length, nodes[i]);
+          length++;
+          continue;
+        }
+        int[] route = findLocalCells(clusters.get(clusterId), nodes[i - 1], nodes[i], local);
+        for (int step = 1; step < route.length; step++) {
+          cells = append(cells, length, route[step]);
+          length++;
+        }
+      }
+      return Arrays.copyOf(cells, length);
+    }
+
+    private int[] append(int[] cells, int length, int cell) {
+      if (length == cells.length) {
+        cells = Arrays.copyOf(cells, length * 2);
+      }
+      cells[length] = cell;
+      return cells;
+    }
+
+    /**
+     * Searches the route between two cells of a cluster which stays inside of the cluster.
+     *
+     * @return the cells of the route or null if there is no such route
+     */
+    private int[] findLocalCells(Cluster cluster, int fromCell, int toCell, SearchContext local) {
+      local.prepare(grid.getCellCount(), OpenListType.BINARY_HEAP);
+      local.cluster = cluster;
+      return algorithm.findCells(grid, local, null, fromCell, toCell);
+    }
+
+    /**
+     * Searches the cost of the route between two cells of a cluster which stays inside of the
+     * cluster.
+     *
+     * @return the cost or -1 if there is no such route
+     */
+    private int getLocalCost(Cluster cluster, int fromCell, int toCell, SearchContext local) {
+      int[] route = findLocalCells(cluster, fromCell, toCell, local);
+      return route == null ? -1 : algorithm.getPathCost(grid, route);
+    }
+
+    /**
+     * Searches the costs of the routes from a cell of a cluster to all entrances of the cluster
+     * which stay inside of the cluster, with a single search.
+     *
+     * @param costs the array which receives the costs, -1 for entrances without a route
+     * @param offset the index in the array of the cost of the first entrance
+     */
+    private void getLocalCosts(
+        Cluster cluster, int fromCell, SearchContext local, int[] costs, int offset) {
+      local.prepare(grid.getCellCount(), OpenListType.BINARY_HEAP);
+      local.cluster = cluster;
+      algorithm.searchAll(grid, local, fromCell);
+      for (int i = 0; i < cluster.entrances.length; i++) {
+        int entrance = cluster.entrances[i];
+        costs[offset + i] = local.closedSet.contains(entrance) ? local.gCost.get(entrance) : -1;
+      }
+    }
+
+    private int getClusterId(int cell) {
+      return grid.row(cell) / clusterSize * clusterCols + grid.col(cell) / clusterSize;
+    }
+
+    /** Returns a context for the searches inside of the clusters, which index the whole map. */
+    private SearchContext acquireLocalContext() {
+      return SearchContext.acquire(grid.getCellCount(), OpenListType.BINARY_HEAP);
+    }
+
+    private Cluster getCluster(int id, SearchContext local) {
+      Cluster cluster = clusters.get(id);
+      if (cluster == null) {
+        cluster = buildCluster(id, local);
+        clusters.set(id, cluster);
+        clusterBuilds.incrementAndGet();
+      }
+      return cluster;
+    }
+
+    /**
+     * Collects the entrances of a cluster from its four borders and searches the costs between
+     * all of them.
+     */
+    private Cluster buildCluster(int id, SearchContext local) {
+      int clusterRow = id / clusterCols;
+      int clusterCol = id % clusterCols;
+      int top = clusterRow * clusterSize;
+      int left = clusterCol * clusterSize;
+      Cluster cluster =
+          new Cluster(
+              top,
+              left,
+              Math.min(clusterSize, grid.getHeight() - top),
+              Math.min(clusterSize, grid.getWidth() - left));
+
+      // Every transition packed as entrance cell in the upper and cell across in the lower half
+      long[] transitions = new long[0];
+      if (clusterCol > 0) {
+        transitions = addTransitions(transitions, getVerticalBorder(id - 1), 1);
+      }
+      if (clusterCol < clusterCols - 1) {
+        transitions = addTransitions(transitions, getVerticalBorder(id), 0);
+      }
+      if (clusterRow > 0) {
+        transitions = addTransitions(transitions, getHorizontalBorder(id - clusterCols), 1);
+      }
+      if (clusterRow < clusterRows - 1) {
+        transitions = addTransitions(transitions, getHorizontalBorder(id), 0);
+      }
+      Arrays.sort(transitions);
+
+      int entranceCount = 0;
+      for (int i = 0; i < transitions.length; i++) {
+        if (i == 0 || transitions[i] >>> 32 != transitions[i - 1] >>> 32) {
+          entranceCount++;
+        }
+      }
+      cluster.entrances = new int[entranceCount];
+      cluster.transitions = new int[entranceCount][];
+      for (int i = 0, entrance = -1; i < transitions.length; i++) {
+        int cell = (int) (transitions[i] >>> 32);
+        if (entrance == -1 || cluster.entrances[entrance] != cell) {
+          entrance++;
+          cluster.entrances[entrance] = cell;
+          cluster.transitions[entrance] = new int[0];
+        }
+        int[] across = cluster.transitions[entrance];
+        across = Arrays.copyOf(across, across.length + 1);
+        across[across.length - 1] = (int) transitions[i];
+        cluster.transitions[entrance] = across;
+      }
+
+      cluster.costs = new int[entranceCount * entranceCount];
+      for (int from = 0; from < entranceCount; from++) {
+        getLocalCosts(cluster, cluster.entrances[from], local, cluster.costs, from * entranceCount);
+      }
+      logger.debug("buildCluster: cluster {} with {} entrances", id, entranceCount);
+      return cluster;
+    }
+
+    /**
+     * Adds the transitions of a border to the packed transitions of a cluster.
+     *
+     * @param side 0 if the cluster is the left or upper cluster of the border, else 1
+     */
+    private long[] addTransitions(long[] transitions, int[] border, int side) {
+      int offset = transitions.length;
+      transitions = Arrays.copyOf(transitions, offset + border.length / 2);
+      for (int i = 0; i < border.length; i += 2) {
+        long cell = border[i + side];
+        long across = border[i + 1 - side];
+        transitions[offset + i / 2] = cell << 32 | across;
+      }
+      return transitions;
+    }
+
+    private int[] getVerticalBorder(int id) {
+      int[] border = verticalBorders.get(id);
+      if (border == null) {
+        int top = id / clusterCols * clusterSize;
+        int col = Math.min((id % clusterCols + 1) * clusterSize, grid.getWidth()) - 1;
+        int height = Math.min(clusterSize, grid.getHeight() - top);
+        border = findEntrances(top, col, 1, 0, 0, 1, height);
+        verticalBorders.set(id, border);
+      }
+      return border;
+    }
+
+    private int[] getHorizontalBorder(int id) {
+      int[] border = horizontalBorders.get(id);
+      if (border == null) {
+        int row = Math.min((id / clusterCols + 1) * clusterSize, grid.getHeight()) - 1;
+        int left = id % clusterCols * clusterSize;
+        int width = Math.min(clusterSize, grid.getWidth() - left);
+        border = findEntrances(row, left, 0, 1, 1, 0, width);
+        horizontalBorders.set(id, border);
+      }
+      return border;
+    }
+
+    /**
+     * Finds the entrances along a border. A run of cells which are accessible on both sides of
+     * the border gets one entrance in its middle, or one at each end if it is long.
+     *
+     * @param row the row of the first cell on the near side
+     * @param col the column of the first cell on the near side
+     * @param rowStep the step along the border
+     * @param colStep the step along the border
+     * @param rowAcross the offset to the far side
+     * @param colAcross the offset to the far side
+     * @param length the number of cells along the border
+     * @return the pairs of cells of the entrances, the near cell first
+     */
+    private int[] findEntrances(
+        int row, int col, int rowStep, int colStep, int rowAcross, int colAcross, int length) {
+      int[] entrances = new int[0];
+      int runStart = -1;
+      for (int i = 0; i <= length; i++) {
+        boolean open =
+            i < length
+                && algorithm.isAccessible(grid, row + i * rowStep, col + i * colStep)
+                && algorithm.isAccessible(
+                    grid, row + i * rowStep + rowAcross, col + i * colStep + colAcross);
+        if (open && runStart == -1) {
+          runStart = i;
+        } else if (!open && runStart != -1) {
+          int runEnd = i - 1;
+          int[] positions =
+              runEnd - runStart + 1 >= LONG_ENTRANCE_LENGTH
+                  ? new int[] {runStart, runEnd}
+                  : new int[] {(runStart + runEnd) / 2};
+          for (int position : positions) {
+            int nearRow = row + position * rowStep;
+            int nearCol = col + position * colStep;
+            entrances = Arrays.copyOf(entrances, entrances.length + 2);
+            entrances[entrances.length - 2] = grid.index(nearRow, nearCol);
+            entrances[entrances.length - 1] =
+                grid.index(nearRow + rowAcross, nearCol + colAcross);
+          }
+          runStart = -1;
+        }
+      }
+      return entrances;
+    }
+  }
+
+  /**
+   * A cluster of the map with the costs between all of its entrances. A cluster is completely
+   * built before it is published in a graph and never changed afterwards.
+   */
+  static final class Cluster {
+    private final int top;
+    private final int left;
+    private final int height;
+    private final int width;
+    /** The cells of the entrances in ascending order. */
+    private int[] entrances;
+    /** The cells across the border which can be reached from every entrance. */
+    private int[][] transitions;
+    /** The cost from every entrance to every entrance, -1 if there is no route. */
+    private int[] costs;
+
+    private Cluster(int top, int left, int height, int width) {
+      this.top = top;
+      this.left = left;
+      this.height = height;
+      this.width = width;
+    }
+
+    private int indexOf(int cell) {
+      int index = Arrays.binarySearch(entrances, cell);
+      return index >= 0 ? index : -1;
+    }
+
+    /** Checks whether a cell of the map lies inside of the cluster. */
+    boolean contains(GridMap grid, int cell) {
+      int row = grid.row(cell) - top;
+      int col = grid.col(cell) - left;
+      return row >= 0 && row < height && col >= 0 && col < width;
+    }
+  }
+
+  /**
+   * A* whose searches do not leave the cluster of their context, see {@link
+   * SearchContext#cluster}. Searches without a cluster cover the whole map.
+   */
+  private static final class ClusterSearch extends AStarPathfindingAlgorithm {
+    private ClusterSearch(MapManager mapManager, boolean diagonalPathing, CostTable costTable) {
+      super(mapManager, diagonalPathing, OpenListType.BINARY_HEAP, costTable);
+    }
+
+    @Override
+    void reachNeighbour(
+        GridMap grid,
+        SearchContext context,
+        SearchRecorder recorder,
+        int currentCell,
+        int cell,
+        int newCost,
+        int destinationRow,
+        int destinationCol) {
+      if (context.cluster != null && !context.cluster.contains(grid, cell)) {
+        return;
+      }
+      super.reachNeighbour(
+          grid, context, recorder, currentCell, cell, newCost, destinationRow, destinationCol);
+    }
+  }
+}
@@ -0,0 +1,372 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+
+/**
+ * A* search with Jump Point Search pruning. Inside a region of a single terrain type every step
+ * costs the same, so there are many symmetric paths of equal cost. Instead of adding every
+ * neighbour to the open list, the search jumps along straight and diagonal lines and only adds the
+ * cells where the path may have to turn, i.e. cells next to an obstacle or another terrain type.
+ *
+ * <p>Without diagonal pathing the equally short paths are ordered with the horizontal steps
+ * first. A horizontal jump stops at a cell from which a vertical jump finds a jump point, and a
+ * vertical jump stops next to a cell whose horizontal path has been blocked one row before.
+ *
+ * <p>A cell of another terrain type always stops a jump and is expanded without pruning. If a
+ * cell is reached on equally short paths from several directions, the successors of all these
+ * directions are kept. With diagonal pathing, terrain types whose diagonal step does not cost
+ * exactly two straight steps, e.g. because of a fractional modifier, are expanded like in the
+ * plain A* search. The found paths have the same cost as the paths of {@link
+ * AStarPathfindingAlgorithm}, although they may take another of the equally short routes.
+ */
+public class JumpPointSearchAlgorithm extends AStarPathfindingAlgorithm {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(JumpPointSearchAlgorithm.class);
+
+  /** Marks a cell whose successors must not be pruned. */
+  private static final int ALL_DIRECTIONS = 1 << GridMap.ROW_OFFSETS.length;
+
+  /**
+   * Constructor for this class.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   */
+  public JumpPointSearchAlgorithm(MapManager mapManager, boolean diagonalPathing) {
+    super(mapManager, diagonalPathing);
+  }
+
+  /**
+   * Constructor for this class.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param openListType the data structure of the open list of every search
+   */
+  public JumpPointSearchAlgorithm(
+      MapManager mapManager, boolean diagonalPathing, OpenListType openListType) {
+    super(mapManager, diagonalPathing, openListType);
+  }
+
+  /**
+   * Constructor for this class.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param openListType the data structure of the open list of every search
+   * @param costTable the costs of the steps of every search, may be null
+   */
+  public JumpPointSearchAlgorithm(
+      MapManager mapManager,
+      boolean diagonalPathing,
+      OpenListType openListType,
+      CostTable costTable) {
+    super(mapManager, diagonalPathing, openListType, costTable);
+    logger.debug(
+        "constructor: diagonalPathing = {}, openListType = {}", diagonalPathing, openListType);
+  }
+
+  @Override
+  void expand(
+      GridMap grid,
+      SearchContext context,
+      SearchRecorder recorder,
+      int currentCell,
+      int destinationRow,
+      int destinationCol) {
+    boolean diagonal = isDiagonalPathing();
+    int directionCount = diagonal ? GridMap.ROW_OFFSETS.length : 4;
+    int code = grid.getCode(currentCell);
+    CostTable costs = getCosts();
+    int straightCost = costs.getStraightCost(code);
+    int diagonalCost = costs.getDiagonalCost(code);
+    boolean jumping = !diagonal || diagonalCost == 2 * straightCost;
+
+    int destinationCell = grid.index(destinationRow, destinationCol);
+    int row = grid.row(currentCell);
+    int col = grid.col(currentCell);
+    int currentCost = context.gCost.get(currentCell);
+    int arrivals =
+        context.parent.get(currentCell) == -1
+            ? ALL_DIRECTIONS
+            : context.directions.get(currentCell);
+
+    for (int i = 0; i < directionCount; i++) {
+      int rowStep = GridMap.ROW_OFFSETS[i];
+      int colStep = GridMap.COL_OFFSETS[i];
+      if (jumping && !isSuccessor(grid, code, row, col, arrivals, rowStep, colStep)) {
+        continue;
+      }
+      int target;
+      if (jumping && !diagonal) {
+        target = jumpStraight(grid, context, code, row, col, rowStep, colStep, destinationCell);
+      } else if (jumping) {
+        target = jump(grid, code, row, col, rowStep, colStep, destinationCell);
+      } else {
+        target =
+            isAccessible(grid, row + rowStep, col + colStep)
+                ? grid.index(row + rowStep, col + colStep)
+                : -1;
+      }
+      if (target == -1) {
+        continue;
+      }
+      int steps = Math.max(Math.abs(grid.row(target) - row), Math.abs(grid.col(target) - col));
+      int stepCost = rowStep != 0 && colStep != 0 ? diagonalCost : straightCost;
+      int newCost = currentCost + steps * stepCost;
+
+      // Only a jump through a single terrain type allows pruning the successors of the target
+      int arrival = jumping && grid.getCode(target) == code ? 1 << i : ALL_DIRECTIONS;
+      if (context.openList.contains(target) && newCost == context.gCost.get(target)) {
+        // Equally short paths from several directions need the successors of all of them
+        context.directions.set(target, context.directions.get(target) | arrival);
+      } else if (relax(
+          grid, context, recorder, currentCell, target, newCost, destinationRow, destinationCol)) {
+        context.directions.set(target, arrival);
+      }
+    }
+  }
+
+  /**
+   * Checks whether a step is a natural or forced neighbour of a cell for at least one of the
+   * directions from which the cell has been reached. All other neighbours can be reached at most
+   * as expensive without passing the cell.
+   */
+  private boolean isSuccessor(
+      GridMap grid, int code, int row, int col, int arrivals, int rowStep, int colStep) {
+    if ((arrivals & ALL_DIRECTIONS) == ALL_DIRECTIONS) {
+      return true;
+    }
+    for (int i = 0; i < GridMap.ROW_OFFSETS.length; i++) {
+      if ((arrivals & 1 << i) == 0) {
+        continue;
+      }
+      int rowDirection = GridMap.ROW_OFFSETS[i];
+      int colDirection = GridMap.COL_OFFSETS[i];
+      boolean successor =
+          isDiagonalPathing()
+              ? isNaturalOrForced(
+                  grid, code, row, col, rowDirection, colDirection, rowStep, colStep)
+              : isStraightNaturalOrForced(
+                  grid, code, row, col, rowDirection, colDirection, rowStep, colStep);
+      if (successor) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks a successor without diagonal pathing, where the horizontal steps of the equally short
+   * paths come first. After a horizontal step the path may go on or turn, after a vertical step it
+   * only turns if the horizontal path one row before has been blocked.
+   */
+  private boolean isStraightNaturalOrForced(
+      GridMap grid,
+      int code,
+      int row,
+      int col,
+      int rowDirection,
+      int colDirection,
+      int rowStep,
+      int colStep) {
+    if (rowDirection == 0) {
+      return rowStep != 0 || colStep == colDirection;
+    }
+    if (rowStep == rowDirection) {
+      return true;
+    }
+    return rowStep == 0 && !isSameType(grid, code, row - rowDirection, col + colStep);
+  }
+
+  private boolean isNaturalOrForced(
+      GridMap grid,
+      int code,
+      int row,
+      int col,
+      int rowDirection,
+      int colDirection,
+      int rowStep,
+      int colStep) {
+    if (rowDirection != 0 && colDirection != 0) {
+      // Diagonal: the two straight components, the diagonal itself and the forced neighbours
+      if ((rowStep == rowDirection || rowStep == 0) && (colStep == colDirection || colStep == 0)) {
+        return true;
+      }
+      if (rowStep == -rowDirection && colStep == colDirection) {
+        return !isSameType(grid, code, row - rowDirection, col);
+      }
+      if (rowStep == rowDirection && colStep == -colDirection) {
+        return !isSameType(grid, code, row, col - colDirection);
+      }
+      return false;
+    }
+    if (rowDirection == 0) {
+      // Horizontal: straight ahead and diagonally ahead next to a blocked cell
+      if (colStep != colDirection) {
+        return false;
+      }
+      return rowStep == 0 || !isSameType(grid, code, row + rowStep, col);
+    }
+    // Vertical
+    if (rowStep != rowDirection) {
+      return false;
+    }
+    return colStep == 0 || !isSameType(grid, code, row, col + colStep);
+  }
+
+  /**
+   * Moves from a cell in the given direction until a jump point is found.
+   *
+   * @return the jump point or -1 if the jump ran into an obstacle or off the grid
+   */
+  private int jump(
+      GridMap grid, int code, int row, int col, int rowStep, int colStep, int destinationCell) {
+    while (true) {
+      row += rowStep;
+      col += colStep;
+      if (!isAccessible(grid, row, col)) {
+        return -1;
+      }
+      int cell = grid.index(row, col);
+      if (cell == destinationCell || grid.getCode(cell) != code) {
+        return cell;
+      }
+      if (rowStep != 0 && colStep != 0) {
+        if (hasForcedNeighbour(grid, code, row, col, -rowStep, 0, colStep)
+            || hasForcedNeighbour(grid, code, row, col, 0, -colStep, rowStep)
+            || jump(grid, code, row, col, rowStep, 0, destinationCell) != -1
+            || jump(grid, code, row, col, 0, colStep, destinationCell) != -1) {
+          return cell;
+        }
+      } else if (rowStep == 0) {
+        if (hasForcedNeighbour(grid, code, row, col, -1, 0, colStep)
+            || hasForcedNeighbour(grid, code, row, col, 1, 0, colStep)) {
+          return cell;
+        }
+      } else if (hasForcedNeighbour(grid, code, row, col, 0, -1, rowStep)
+          || hasForcedNeighbour(grid, code, row, col, 0, 1, rowStep)) {
+        return cell;
+      }
+    }
+  }
+
+  /**
+   * Moves from a cell in a straight direction until a jump point is found, without diagonal
+   * pathing. The jumps from all cells which a jump passes end at the same jump point, so it is
+   * stored for all of them and every cell is passed at most once per direction and search.
+   * Otherwise every step of a horizontal jump would scan its whole column again.
+   *
+   * @return the jump point or -1 if the jump ran into an obstacle or off the grid
+   */
+  private int jumpStraight(
+      GridMap grid,
+      SearchContext context,
+      int code,
+      int row,
+      int col,
+      int rowStep,
+      int colStep,
+      int destinationCell) {
+    // The straight directions come first in the order of the neighbour offsets
+    int direction = rowStep == 0 ? (colStep < 0 ? 0 : 1) : (rowStep < 0 ? 2 : 3);
+    ClosedSet jumped = context.jumpedCells[direction];
+    PagedIntArray targets = context.jumpTargets[direction];
+    int firstRow = row;
+    int firstCol = col;
+    int target;
+    while (true) {
+      int cell = grid.index(row, col);
+      if (jumped.contains(cell)) {
+        target = targets.get(cell);
+        break;
+      }
+      row += rowStep;
+      col += colStep;
+      if (!isAccessible(grid, row, col)) {
+        target = -1;
+        break;
+      }
+      int next = grid.index(row, col);
+      if (next == destinationCell
+          || grid.getCode(next) != code
+          || isStraightJumpPoint(grid, context, code, row, col, rowStep, destinationCell)) {
+        target = next;
+        break;
+      }
+    }
+    // The cell where the jump has ended is not passed, its own jump goes on
+    for (int passedRow = firstRow, passedCol = firstCol;
+        passedRow != row || passedCol != col;
+        passedRow += rowStep, passedCol += colStep) {
+      int cell = grid.index(passedRow, passedCol);
+      jumped.add(cell);
+      targets.set(cell, target);
+    }
+    return target;
+  }
+
+  /**
+   * Checks whether a jump without diagonal pathing stops at a cell of its own terrain type. The
+   * path may turn into both vertical directions after every horizontal step.
+   */
+  private boolean isStraightJumpPoint(
+      GridMap grid,
+      SearchContext context,
+      int code,
+      int row,
+      int col,
+      int rowStep,
+      int destinationCell) {
+    if (rowStep == 0) {
+      return jumpStraight(grid, context, code, row, col, -1, 0, destinationCell) != -1
+          || jumpStraight(grid, context, code, row, col, 1, 0, destinationCell) != -1;
+    }
+    return hasForcedTurn(grid, code, row, col, rowStep, -1)
+        || hasForcedTurn(grid, code, row, col, rowStep, 1);
+  }
+
+  /**
+   * Checks whether the horizontal neighbour of a cell in a vertical jump can only be reached
+   * through the cell, because the neighbour of the cell before is blocked.
+   */
+  private boolean hasForcedTurn(
+      GridMap grid, int code, int row, int col, int rowStep, int colStep) {
+    return !isSameType(grid, code, row - rowStep, col + colStep)
+        && isAccessible(grid, row, col + colStep);
+  }
+
+  /**
+   * Checks whether the neighbour of a cell at the given offset blocks the symmetric path to the
+   * cell one step further along the direction of movement, which then has to be reached through
+   * the cell.
+   *
+   * @param rowOffset the row offset of the blocking neighbour
+   * @param colOffset the column offset of the blocking neighbour
+   * @param step the direction of movement, along the axis which the offset does not use
+   */
+  private boolean hasForcedNeighbour(
+      GridMap grid, int code, int row, int col, int rowOffset, int colOffset, int step) {
+    if (isSameType(grid, code, row + rowOffset, col + colOffset)) {
+      return false;
+    }
+    if (rowOffset != 0) {
+      return isAccessible(grid, row + rowOffset, col + step);
+    }
+    return isAccessible(grid, row + step, col + colOffset);
+  }
+
+  private boolean isSameType(GridMap grid, int code, int row, int col) {
+    return row >= 0
+        && row < grid.getHeight()
+        && col >= 0
+        && col < grid.getWidth()
+        && grid.getCode(grid.index(row, col)) == code;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Jump point search; %s", super.toString());
+  }
+}
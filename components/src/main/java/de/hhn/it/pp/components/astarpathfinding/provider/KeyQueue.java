@@ -0,0 +1,122 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of cell indices with a long key per cell, which can also remove cells and change
+ * their keys in both directions. The keys are stored per heap slot, so only the position of every
+ * cell in the heap is stored per cell.
+ */
+final class KeyQueue {
+  private static final int INITIAL_SIZE = 64;
+
+  private int[] items = new int[INITIAL_SIZE];
+  private long[] keys = new long[INITIAL_SIZE];
+  /** The slot of every cell plus one, 0 if the cell is not in the queue. */
+  private final PagedIntArray slots = new PagedIntArray();
+  private int currentItemCount;
+
+  /**
+   * Creates an empty queue for a map with the given number of cells.
+   *
+   * @param cellCount the number of cells of the map
+   */
+  KeyQueue(int cellCount) {
+    slots.ensureLength(cellCount);
+  }
+
+  void add(int cell, long key) {
+    if (currentItemCount == items.length) {
+      items = Arrays.copyOf(items, currentItemCount * 2);
+      keys = Arrays.copyOf(keys, currentItemCount * 2);
+    }
+    place(cell, key, currentItemCount);
+    currentItemCount++;
+    sortUp(currentItemCount - 1);
+  }
+
+  void update(int cell, long key) {
+    int slot = slots.get(cell) - 1;
+    long oldKey = keys[slot];
+    keys[slot] = key;
+    if (key < oldKey) {
+      sortUp(slot);
+    } else {
+      sortDown(slot);
+    }
+  }
+
+  void remove(int cell) {
+    int slot = slots.get(cell) - 1;
+    slots.set(cell, 0);
+    currentItemCount--;
+    if (slot == currentItemCount) {
+      return;
+    }
+    // Move the last item into the free slot and restore the order
+    long key = keys[currentItemCount];
+    place(items[currentItemCount], key, slot);
+    if (slot > 0 && key < keys[(slot - 1) / 2]) {
+      sortUp(slot);
+    } else {
+      sortDown(slot);
+    }
+  }
+
+  boolean contains(int cell) {
+    return slots.get(cell) != 0;
+  }
+
+  /** Returns the cell with the lowest key. Must only be called if the queue is not empty. */
+  int peek() {
+    return items[0];
+  }
+
+  long peekKey() {
+    return keys[0];
+  }
+
+  int getItemCount() {
+    return currentItemCount;
+  }
+
+  private void place(int cell, long key, int slot) {
+    items[slot] = cell;
+    keys[slot] = key;
+    slots.set(cell, slot + 1);
+  }
+
+  private void sortUp(int slot) {
+    int cell = items[slot];
+    long key = keys[slot];
+    while (slot > 0) {
+      int parent = (slot - 1) / 2;
+      if (keys[parent] <= key) {
+        break;
+      }
+      place(items[parent], keys[parent], slot);
+      slot = parent;
+    }
+    place(cell, key, slot);
+  }
+
+  private void sortDown(int slot) {
+    int cell = items[slot];
+    long key = keys[slot];
+    while (true) {
+      int child = slot * 2 + 1;
+      if (child >= currentItemCount) {
+        break;
+      }
+      if (child + 1 < currentItemCount && keys[child + 1] < keys[child]) {
+        child++;
+      }
+      if (keys[child] >= key) {
+        break;
+      }
+      place(items[child], keys[child], slot);
+      slot = child;
+    }
+    place(cell, key, slot);
+  }
+}
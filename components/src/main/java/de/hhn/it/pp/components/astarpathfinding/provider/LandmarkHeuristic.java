@@ -0,0 +1,335 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import java.util.Arrays;
+
+/**
+ * Lower bounds of the path costs between any two cells, derived from the costs of the shortest
+ * paths from and to a few landmark cells (A*, landmarks and the triangle inequality, ALT). Unlike
+ * the distance heuristics, the bounds include the costs of the terrain along the paths, so an A*
+ * search with them expands far fewer cells on maps with expensive terrain and obstacles.
+ *
+ * <p>The cost of a step depends on the cell which is left, so the costs from a landmark differ
+ * from the costs to it and both are stored. For a landmark L, a cell v and the goal t, the cost of
+ * the path from v to t is at least d(L, t) - d(L, v) and at least d(v, L) - d(t, L). The bound of
+ * a cell is the largest of these differences over all landmarks. It is consistent, so the found
+ * paths stay the shortest ones.
+ *
+ * <p>The table is immutable and only valid for the snapshot of the map, the cost table and the
+ * diagonal pathing option it has been built for. A change of a cell which makes no step cheaper
+ * only raises the real costs, so the bounds stay valid and the costs are carried over to the new
+ * snapshot by {@link #withSnapshot}. The costs of all landmarks are stored next to each other per
+ * cell, so the bound of a cell is read from one block of memory.
+ */
+final class LandmarkHeuristic {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(LandmarkHeuristic.class);
+
+  /** The largest number of landmarks of a table. */
+  static final int MAX_LANDMARKS = 16;
+
+  /** The largest number of costs of a table, which limits its memory to 128 MB. */
+  static final long MAX_ENTRIES = 1L << 25;
+
+  /** The cost of a cell which can not be reached from or can not reach a landmark. */
+  private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+  private final long mapVersion;
+  /** The snapshot of the map the costs have been searched on. */
+  private final GridMap grid;
+  private final int cellCount;
+  private final CostTable costTable;
+  private final boolean diagonalPathing;
+  private final int[] landmarks;
+  /** Per cell and landmark the cost from the landmark followed by the cost to the landmark. */
+  private final int[] costs;
+  private final int stride;
+
+  private LandmarkHeuristic(
+      long mapVersion,
+      GridMap grid,
+      CostTable costTable,
+      boolean diagonalPathing,
+      int[] landmarks,
+      int[] costs) {
+    this.mapVersion = mapVersion;
+    this.grid = grid;
+    this.cellCount = grid.getCellCount();
+    this.costTable = costTable;
+    this.diagonalPathing = diagonalPathing;
+    this.landmarks = landmarks;
+    this.costs = costs;
+    this.stride = 2 * landmarks.length;
+  }
+
+  /**
+   * Checks whether a table with the given number of landmarks fits into {@link #MAX_ENTRIES}.
+   *
+   * @param cellCount the number of cells of the map
+   * @param landmarkCount the number of landmarks
+   * @return true if the table can be built
+   */
+  static boolean fits(int cellCount, int landmarkCount) {
+    return 2L * landmarkCount * cellCount <= MAX_ENTRIES;
+  }
+
+  /**
+   * Builds the table for the given landmarks by searching the costs from and to every landmark.
+   *
+   * @param grid the snapshot of the map
+   * @param mapVersion the version of the snapshot
+   * @param costTable the costs of the steps
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param landmarks the cell indices of the landmarks
+   * @return the table
+   */
+  static LandmarkHeuristic build(
+      GridMap grid,
+      long mapVersion,
+      CostTable costTable,
+      boolean diagonalPathing,
+      int[] landmarks) {
+    long start = System.nanoTime();
+    int cellCount = grid.getCellCount();
+    int stride = 2 * landmarks.length;
+    int[] costs = new int[cellCount * stride];
+    SearchContext context = SearchContext.acquire(cellCount, OpenListType.BINARY_HEAP);
+    try {
+      for (int i = 0; i < landmarks.length; i++) {
+        if (i > 0) {
+          context.prepare(cellCount, OpenListType.BINARY_HEAP);
+        }
+        searchCosts(grid, context, costTable, diagonalPathing, landmarks[i], false);
+        copyCosts(context, cellCount, costs, stride, 2 * i);
+        context.prepare(cellCount, OpenListType.BINARY_HEAP);
+        searchCosts(grid, context, costTable, diagonalPathing, landmarks[i], true);
+        copyCosts(context, cellCount, costs, stride, 2 * i + 1);
+      }
+    } finally {
+      context.release();
+    }
+    logger.debug(
+        "build: {} landmarks on {} cells in {} ms",
+        landmarks.length,
+        cellCount,
+        (System.nanoTime() - start) / 1_000_000);
+    return new LandmarkHeuristic(
+        mapVersion, grid, costTable, diagonalPathing, landmarks.clone(), costs);
+  }
+
+  /**
+   * Selects landmarks which are spread over the reachable cells of the map. The first landmark is
+   * the cell farthest from the center, every further landmark the cell which is farthest from all
+   * landmarks before.
+   *
+   * @param grid the map
+   * @param costTable the costs of the steps
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param count the number of landmarks
+   * @return the cell indices of the landmarks, fewer if the reachable cells run out
+   */
+  static int[] selectLandmarks(
+      GridMap grid, CostTable costTable, boolean diagonalPathing, int count) {
+    int cellCount = grid.getCellCount();
+    int[] nearest = new int[cellCount];
+    Arrays.fill(nearest, UNREACHABLE);
+    int[] landmarks = new int[count];
+    int found = 0;
+    SearchContext context = SearchContext.acquire(cellCount, OpenListType.BINARY_HEAP);
+    try {
+      int origin = grid.index(grid.getHeight() / 2, grid.getWidth() / 2);
+      searchCosts(grid, context, costTable, diagonalPathing, origin, false);
+      int farthest = findFarthest(context, cellCount, null);
+      while (farthest != -1 && found < count) {
+        landmarks[found++] = farthest;
+        context.prepare(cellCount, OpenListType.BINARY_HEAP);
+        searchCosts(grid, context, costTable, diagonalPathing, farthest, false);
+        farthest = findFarthest(context, cellCount, nearest);
+      }
+    } finally {
+      context.release();
+    }
+    return Arrays.copyOf(landmarks, found);
+  }
+
+  /**
+   * Finds the reached cell with the highest cost. If the costs to the nearest landmark are given,
+   * they are updated with the costs of the last search first and the cell with the highest cost
+   * to its nearest landmark is returned.
+   *
+   * @return the cell or -1 if every reached cell already is a landmark
+   */
+  private static int findFarthest(SearchContext context, int cellCount, int[] nearest) {
+    int farthest = -1;
+    int farthestCost = 0;
+    for (int cell = 0; cell < cellCount; cell++) {
+      if (!context.closedSet.contains(cell)) {
+        continue;
+      }
+      int cost = context.gCost.get(cell);
+      if (nearest != null) {
+        cost = Math.min(cost, nearest[cell]);
+        nearest[cell] = cost;
+      }
+      if (cost > farthestCost) {
+        farthest = cell;
+        farthestCost = cost;
+      }
+    }
+    return farthest;
+  }
+
+  /**
+   * Searches the costs of the shortest paths from the origin to every cell or, backwards, from
+   * every cell to the origin (Dijkstra's algorithm). The costs are left in the g costs of the
+   * context and all reached cells are closed.
+   */
+  private static void searchCosts(
+      GridMap grid,
+      SearchContext context,
+      CostTable costTable,
+      boolean diagonalPathing,
+      int origin,
+      boolean backwards) {
+    int neighbourCount = diagonalPathing ? GridMap.ROW_OFFSETS.length : 4;
+    context.gCost.set(origin, 0);
+    context.hCost.set(origin, 0);
+    context.openList.add(origin);
+    while (context.openList.getItemCount() > 0) {
+      int currentCell = context.openList.removeFirst();
+      context.closedSet.add(currentCell);
+      int row = grid.row(currentCell);
+      int col = grid.col(currentCell);
+      int currentCost = context.gCost.get(currentCell);
+      for (int i = 0; i < neighbourCount; i++) {
+        int neighbourRow = row + GridMap.ROW_OFFSETS[i];
+        int neighbourCol = col + GridMap.COL_OFFSETS[i];
+        if (neighbourRow < 0
+            || neighbourRow >= grid.getHeight()
+            || neighbourCol < 0
+            || neighbourCol >= grid.getWidth()) {
+          continue;
+        }
+        int neighbour = grid.index(neighbourRow, neighbourCol);
+        int code = grid.getCode(neighbour);
+        if (!costTable.isPassable(code) || context.closedSet.contains(neighbour)) {
+          continue;
+        }
+        // Backwards the neighbour is the cell which is left by the step
+        int stepCode = backwards ? code : grid.getCode(currentCell);
+        int newCost = currentCost + costTable.getStepCost(stepCode, i < 4 ? 1 : 2);
+        if (!context.openList.contains(neighbour)) {
+          context.gCost.set(neighbour, newCost);
+          context.hCost.set(neighbour, 0);
+          context.openList.add(neighbour);
+        } else if (newCost < context.gCost.get(neighbour)) {
+          context.gCost.set(neighbour, newCost);
+          context.openList.updateItem(neighbour);
+        }
+      }
+    }
+  }
+
+  private static void copyCosts(
+      SearchContext context, int cellCount, int[] costs, int stride, int offset) {
+    for (int cell = 0; cell < cellCount; cell++) {
+      costs[cell * stride + offset] =
+          context.closedSet.contains(cell) ? context.gCost.get(cell) : UNREACHABLE;
+    }
+  }
+
+  /**
+   * Checks whether the table belongs to the given state of the map.
+   *
+   * @param version the current version of the map
+   * @param currentCellCount the number of cells of the current map
+   * @param currentCosts the cost table of the search
+   * @param diagonal whether the search allows diagonal steps
+   * @return true if the bounds of the table are valid for the search
+   */
+  boolean isValidFor(
+      long version, int currentCellCount, CostTable currentCosts, boolean diagonal) {
+    return mapVersion == version
+        && cellCount == currentCellCount
+        && diagonalPathing == diagonal
+        && costTable.equals(currentCosts);
+  }
+
+  /**
+   * Checks whether the costs have been searched on the given grid or carried over to it. A search
+   * on any other snapshot of the map must not use the bounds, the terrain may have become cheaper.
+   *
+   * @param searched the grid of the search
+   * @return true if the table is valid on this grid
+   */
+  boolean isBuiltOn(GridMap searched) {
+    return grid == searched;
+  }
+
+  /**
+   * Checks whether the change of a cell from the grid of the table to the given grid makes no
+   * step cheaper: the cell can not be entered if it could not be entered before, and leaving it
+   * costs at least as much as before.
+   *
+   * @param changed the grid with the changed cell, otherwise equal to the grid of the table
+   * @param cell the changed cell
+   * @return true if the bounds of the table are valid for the changed grid
+   */
+  boolean isRaisedBy(GridMap changed, int cell) {
+    if (changed.getWidth() != grid.getWidth() || changed.getHeight() != grid.getHeight()) {
+      return false;
+    }
+    int oldCode = grid.getCode(cell);
+    int newCode = changed.getCode(cell);
+    return (costTable.isPassable(oldCode) || !costTable.isPassable(newCode))
+        && costTable.getStraightCost(newCode) >= costTable.getStraightCost(oldCode)
+        && costTable.getDiagonalCost(newCode) >= costTable.getDiagonalCost(oldCode);
+  }
+
+  /**
+   * Returns the table for a newer snapshot of the map on which no step is cheaper, see {@link
+   * #isRaisedBy}. The costs are shared with this table.
+   *
+   * @param newer the grid of the newer snapshot
+   * @param version the version of the newer snapshot
+   * @return the table of the newer snapshot
+   */
+  LandmarkHeuristic withSnapshot(GridMap newer, long version) {
+    return new LandmarkHeuristic(version, newer, costTable, diagonalPathing, landmarks, costs);
+  }
+
+  /**
+   * Returns the lower bound of the cost of the path from a cell to the goal.
+   *
+   * @param cell the cell
+   * @param goalCell the goal
+   * @return the lower bound, 0 if no landmark reaches both cells
+   */
+  int estimate(int cell, int goalCell) {
+    int bound = 0;
+    int cellIndex = cell * stride;
+    int goalIndex = goalCell * stride;
+    for (int i = 0; i < stride; i += 2) {
+      int fromLandmarkToCell = costs[cellIndex + i];
+      int fromLandmarkToGoal = costs[goalIndex + i];
+      if (fromLandmarkToCell != UNREACHABLE && fromLandmarkToGoal != UNREACHABLE) {
+        bound = Math.max(bound, fromLandmarkToGoal - fromLandmarkToCell);
+      }
+      int fromCellToLandmark = costs[cellIndex + i + 1];
+      int fromGoalToLandmark = costs[goalIndex + i + 1];
+      if (fromCellToLandmark != UNREACHABLE && fromGoalToLandmark != UNREACHABLE) {
+        bound = Math.max(bound, fromCellToLandmark - fromGoalToLandmark);
+      }
+    }
+    return bound;
+  }
+
+  int[] getLandmarks() {
+    return landmarks.clone();
+  }
+
+  long getMapVersion() {
+    return mapVersion;
+  }
+}
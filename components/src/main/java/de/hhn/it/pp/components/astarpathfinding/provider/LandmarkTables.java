@@ -0,0 +1,268 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link LandmarkHeuristic} of the current map of a map manager up to date. Whenever the
+ * map, the costs or the diagonal pathing option change, the table is rebuilt on a background
+ * thread. Changes which arrive while a table is built are collected, so a burst of changes only
+ * causes one more build. Until the new table is ready, searches only use their heuristic.
+ *
+ * <p>A changed cell which makes no step cheaper keeps the table. A cell which lowers costs starts
+ * the build only after {@link #REBUILD_DELAY_MILLIS} without further changes, so placing terrain
+ * cell by cell does not rebuild the table after every cell. If the
+ * costs of the landmarks do not fit into {@link LandmarkHeuristic#MAX_ENTRIES}, the future of the
+ * build fails, so callers do not wait for a table which never comes.
+ */
+final class LandmarkTables {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(LandmarkTables.class);
+
+  /** The pause after a change of a cell which lowers costs before the table is rebuilt. */
+  static final long REBUILD_DELAY_MILLIS = 250;
+
+  private final MapManager mapManager;
+  private final Executor executor;
+
+  // Guarded by this
+  private List<Position> landmarks;
+  private int landmarkCount;
+  private CostTable costTable;
+  private boolean diagonalPathing;
+  private boolean building;
+  private boolean changed;
+  /** The {@link System#nanoTime()} before which no build starts. */
+  private long buildAfter;
+  private CompletableFuture<Void> ready = CompletableFuture.completedFuture(null);
+
+  private volatile LandmarkHeuristic table;
+
+  /**
+   * Creates the tables of a map manager without landmarks.
+   *
+   * @param mapManager the map manager whose map is searched
+   * @param executor the executor which builds the tables
+   */
+  LandmarkTables(MapManager mapManager, Executor executor) {
+    this.mapManager = mapManager;
+    this.executor = executor;
+  }
+
+  /**
+   * Uses the given landmarks for all following tables. Landmarks which are not on a map are
+   * ignored for that map.
+   *
+   * @param positions the positions of the landmarks, empty to disable the landmarks
+   * @param costs the current cost table
+   * @param diagonal the current diagonal pathing option
+   */
+  synchronized void setLandmarks(List<Position> positions, CostTable costs, boolean diagonal) {
+    landmarks = List.copyOf(positions);
+    landmarkCount = 0;
+    mapChanged(costs, diagonal);
+  }
+
+  /**
+   * Selects the given number of landmarks for every following table automatically.
+   *
+   * @param count the number of landmarks, 0 to disable the landmarks
+   * @param costs the current cost table
+   * @param diagonal the current diagonal pathing option
+   */
+  synchronized void setLandmarkCount(int count, CostTable costs, boolean diagonal) {
+    landmarks = null;
+    landmarkCount = count;
+    mapChanged(costs, diagonal);
+  }
+
+  /**
+   * Starts a new build of the table after the map, the costs or the diagonal pathing option have
+   * changed. If a build is already running, one more build is started after it.
+   *
+   * @param costs the current cost table
+   * @param diagonal the current diagonal pathing option
+   */
+  synchronized void mapChanged(CostTable costs, boolean diagonal) {
+    buildAfter = System.nanoTime();
+    startBuild(costs, diagonal);
+  }
+
+  /**
+   * Keeps the table after a cell has changed if no step has become cheaper. Otherwise the table
+   * is discarded and rebuilt after {@link #REBUILD_DELAY_MILLIS} without further changes.
+   *
+   * @param row the row of the changed cell
+   * @param col the column of the changed cell
+   * @param costs the current cost table
+   * @param diagonal the current diagonal pathing option
+   */
+  synchronized void cellChanged(int row, int col, CostTable costs, boolean diagonal) {
+    LandmarkHeuristic current = table;
+    MapManager.Snapshot snapshot = mapManager.getSnapshot();
+    GridMap grid = snapshot.getGrid();
+    // Only a table of the snapshot right before the change has seen all other cells
+    if (current != null
+        && snapshot.getVersion() == current.getMapVersion() + 1
+        && current.isValidFor(current.getMapVersion(), grid.getCellCount(), costs, diagonal)
+        && current.isRaisedBy(grid, grid.index(row, col))) {
+      logger.debug("cellChanged: keeping the table for row = {}, col = {}", row, col);
+      table = current.withSnapshot(grid, snapshot.getVersion());
+      return;
+    }
+    buildAfter = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REBUILD_DELAY_MILLIS);
+    startBuild(costs, diagonal);
+  }
+
+  private void startBuild(CostTable costs, boolean diagonal) {
+    costTable = costs;
+    diagonalPathing = diagonal;
+    table = null;
+    if (!isEnabled()) {
+      ready.complete(null);
+      return;
+    }
+    changed = true;
+    if (ready.isDone()) {
+      ready = new CompletableFuture<>();
+    }
+    if (building) {
+      return;
+    }
+    building = true;
+    schedule(buildAfter - System.nanoTime());
+  }
+
+  /** Runs the builds on the executor after the given delay. Guarded by this. */
+  private void schedule(long delayNanos) {
+    try {
+      Executor target =
+          delayNanos > 0
+              ? CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor)
+              : executor;
+      target.execute(this::buildTables);
+    } catch (RuntimeException e) {
+      building = false;
+      ready.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Returns the table if it has been built for the given snapshot of the map.
+   *
+   * @param snapshot the snapshot of the map which is searched
+   * @param costs the cost table of the search
+   * @param diagonal whether the search allows diagonal steps
+   * @return the table or null if there is no valid table
+   */
+  LandmarkHeuristic get(MapManager.Snapshot snapshot, CostTable costs, boolean diagonal) {
+    LandmarkHeuristic current = table;
+    if (current == null
+        || !current.isValidFor(
+            snapshot.getVersion(), snapshot.getGrid().getCellCount(), costs, diagonal)) {
+      return null;
+    }
+    return current;
+  }
+
+  /**
+   * Returns a future which completes when no build is pending any more. It completes
+   * exceptionally with an {@link IllegalStateException} if the costs do not fit into memory.
+   *
+   * @return the future of the running builds
+   */
+  synchronized CompletableFuture<Void> whenReady() {
+    return ready;
+  }
+
+  private boolean isEnabled() {
+    return landmarks != null ? !landmarks.isEmpty() : landmarkCount > 0;
+  }
+
+  private void buildTables() {
+    while (true) {
+      List<Position> positions;
+      int count;
+      CostTable costs;
+      boolean diagonal;
+      CompletableFuture<Void> future;
+      synchronized (this) {
+        future = ready;
+        if (!changed || !isEnabled()) {
+          building = false;
+          future.complete(null);
+          return;
+        }
+        long delay = buildAfter - System.nanoTime();
+        if (delay > 0) {
+          // A cell has changed during the pause
+          schedule(delay);
+          return;
+        }
+        changed = false;
+        positions = landmarks;
+        count = landmarkCount;
+        costs = costTable;
+        diagonal = diagonalPathing;
+      }
+      try {
+        // A change during the build publishes a new snapshot, so the table is never used
+        MapManager.Snapshot snapshot = mapManager.getSnapshot();
+        long version = snapshot.getVersion();
+        GridMap grid = snapshot.getGrid();
+        int wanted = positions != null ? positions.size() : count;
+        if (!LandmarkHeuristic.fits(grid.getCellCount(), wanted)) {
+          logger.warn(
+              "buildTables: {} landmarks do not fit for {} cells", wanted, grid.getCellCount());
+          synchronized (this) {
+            if (!changed) {
+              building = false;
+              future.completeExceptionally(
+                  new IllegalStateException(
+                      "The costs of "
+                          + wanted
+                          + " landmarks do not fit into memory for "
+                          + grid.getCellCount()
+                          + " cells"));
+              return;
+            }
+          }
+          continue;
+        }
+        int[] cells =
+            positions != null
+                ? toCells(grid, positions)
+                : LandmarkHeuristic.selectLandmarks(grid, costs, diagonal, count);
+        LandmarkHeuristic built = LandmarkHeuristic.build(grid, version, costs, diagonal, cells);
+        synchronized (this) {
+          if (!changed) {
+            table = built;
+          }
+        }
+      } catch (RuntimeException | Error e) {
+        synchronized (this) {
+          building = false;
+        }
+        future.completeExceptionally(e);
+        throw e;
+      }
+    }
+  }
+
+  private static int[] toCells(GridMap grid, List<Position> positions) {
+    return positions.stream()
+        .filter(
+            position ->
+                position.getRow() >= 0
+                    && position.getRow() < grid.getHeight()
+                    && position.getCol() >= 0
+                    && position.getCol() < grid.getWidth())
+        .mapToInt(position -> grid.index(position.getRow(), position.getCol()))
+        .distinct()
+        .toArray();
+  }
+}
@@ -6,6 +6,12 @@ import de.hhn.it.pp.components.astarpathfinding.exceptions.OccupiedPositionExcep
 import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds.PositionType;
 
+/**
+ * Holds the map, the start and the destination. Every change of the map publishes a new immutable
+ * {@link Snapshot}, which shares everything but the changed tile of the grid and the changed row
+ * of the terrain objects with the previous one. Searches read the map without locking and keep
+ * the snapshot they have started on, so terrain can be placed while other threads search.
+ */
 public class MapManager {
   private static final org.slf4j.Logger logger =
       org.slf4j.LoggerFactory.getLogger(MapManager.class);
@@ -15,6 +21,14 @@ public class MapManager {
   public static final int MIN_WIDTH = 2;
   public static final int MIN_HEIGHT = 2;
 
+  /** Maximum width of a map in large-map mode. */
+  public static final int LARGE_MAX_WIDTH = 32768;
+  /** Maximum height of a map in large-map mode. */
+  public static final int LARGE_MAX_HEIGHT = 32768;
+
+  /** Estimated size of a terrain object together with its position object and its reference. */
+  private static final int BYTES_PER_TERRAIN = 72;
+
   public static final int DEFAULT_WIDTH = 10;
   public static final int DEFAULT_HEIGHT = 10;
 
@@ -26,7 +40,10 @@ public class MapManager {
   private Position startCoordinates;
   private Position destinationCoordinates;
 
-  private Terrain[][] map;
+  /** The current state of the map, replaced by the changes which are serialized by this. */
+  private volatile Snapshot snapshot;
+  /** Incremented on every change of the map, so results can be tied to a state of the map. */
+  private long version;
 
   /** Constructor of the MapManager class. */
   public MapManager() {
@@ -46,60 +63,143 @@ public class MapManager {
    * @param height the height of the map, must higher then 1
    * @throws PositionOutOfBounds if either the width or the height is invalid
    */
-  public void createMap(int width, int height) throws PositionOutOfBounds {
+  public synchronized void createMap(int width, int height) throws PositionOutOfBounds {
     logger.info("createMap: width = {}, height = {}", width, height);
+    checkMapSize(width, height, MAX_WIDTH, MAX_HEIGHT);
+    setDefaultCoordinates(width, height);
+
+    // Create new map with grass terrain
+    Terrain[][] map = new Terrain[height][width];
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        map[row][col] = new Terrain(new Position(row, col), TerrainType.DIRT);
+      }
+    }
+    publish(new GridMap(width, height, TerrainType.DIRT), map);
+
+    logger.debug("createMap: map successfully created");
+  }
+
+  /**
+   * Creates a map in large-map mode. The map is only stored as a {@link GridMap} which packs two
+   * cells into one byte, no terrain objects are kept. {@link #getMap()} returns null for such a
+   * map and terrain objects returned by the other methods are created on demand.
+   *
+   * <p>The old map stays readable until the new one has been allocated, so searches which are
+   * running meanwhile are not disturbed, and it is kept if the allocation fails. Both maps are
+   * held in memory at the same time.
+   *
+   * @param width the width of the map, must be between {@link #MIN_WIDTH} and {@link
+   *     #LARGE_MAX_WIDTH}
+   * @param height the height of the map, must be between {@link #MIN_HEIGHT} and {@link
+   *     #LARGE_MAX_HEIGHT}
+   * @throws PositionOutOfBounds if either the width or the height is invalid
+   */
+  public synchronized void createLargeMap(int width, int height) throws PositionOutOfBounds {
+    logger.info("createLargeMap: width = {}, height = {}", width, height);
+    checkMapSize(width, height, LARGE_MAX_WIDTH, LARGE_MAX_HEIGHT);
+
+    GridMap grid = new GridMap(width, height, TerrainType.DIRT, true);
+    setDefaultCoordinates(width, height);
+    publish(grid, null);
+
+    logger.debug(
+        "createLargeMap: map successfully created, {} bytes of terrain data",
+        grid.getMemoryUsage());
+  }
+
+  private void checkMapSize(int width, int height, int maxWidth, int maxHeight)
+      throws PositionOutOfBounds {
     // Check minimum boundaries of the map
     if (width < MIN_WIDTH || height < MIN_HEIGHT) {
       throw new PositionOutOfBounds("Width or height cannot be lower than 2!");
     }
 
     // Check maximum boundaries of the map
-    if (width > MAX_WIDTH || height > MAX_HEIGHT) {
+    if (width > maxWidth || height > maxHeight) {
       throw new PositionOutOfBounds(
           String.format(
               "Width or height exceeded max value! Maximum width is %d. Maximum height is %d.",
-              MAX_WIDTH, MAX_HEIGHT));
+              maxWidth, maxHeight));
     }
+  }
 
+  private void setDefaultCoordinates(int width, int height) {
     // Set new start and destination coordinates
     startCoordinates = new Position((int) Math.ceil(height / 2f) - 1, 0);
     destinationCoordinates = new Position((int) Math.ceil(height / 2f) - 1, width - 1);
+  }
 
-    // Create new map with grass terrain
-    map = new Terrain[height][width];
-    for (int row = 0; row < height; row++) {
-      for (int col = 0; col < width; col++) {
-        map[row][col] = new Terrain(new Position(row, col), TerrainType.DIRT);
-      }
+  /**
+   * Estimates the heap memory a map of the given size occupies.
+   *
+   * @param width the width of the map
+   * @param height the height of the map
+   * @param largeMap whether the map is created in large-map mode
+   * @return the estimated number of bytes
+   */
+  public static long estimateMapMemory(int width, int height, boolean largeMap) {
+    long cells = (long) width * height;
+    if (largeMap) {
+      return GridMap.estimateMemory(width, height, true);
     }
+    return GridMap.estimateMemory(width, height, false) + cells * BYTES_PER_TERRAIN;
+  }
 
-    logger.debug("createMap: map successfully created");
+  /**
+   * Estimates the heap memory a single search needs in the worst case, i.e. when it touches every
+   * cell of a map of the given size. Searches only allocate memory for the regions they touch, so
+   * most searches need far less.
+   *
+   * @param width the width of the map
+   * @param height the height of the map
+   * @return the estimated number of bytes
+   */
+  public static long estimateSearchMemory(int width, int height) {
+    long cells = (long) width * height;
+    // Per cell state plus one open list entry per cell
+    return cells * (SearchContext.BYTES_PER_CELL + Integer.BYTES);
   }
 
   /**
-   * Creates and places a terrain from the given type on the given position.
+   * Creates and places a terrain from the given type on the given position. The current snapshot
+   * is not changed, a new one which only copies the changed tile and row is published.
    *
    * @param type the terrain type
    * @param position the position on the map
    * @return the created terrain
    */
-  public Terrain createTerrain(TerrainType type, Position position) throws PositionOutOfBounds {
+  public synchronized Terrain createTerrain(TerrainType type, Position position)
+      throws PositionOutOfBounds {
     logger.debug("createTerrain: type = {}, position = {}", type, position.toString());
 
     // Check map boundaries
     checkPositionInBounds(position);
     Terrain terrain = new Terrain(position, type);
-    map[position.getRow()][position.getCol()] = terrain;
+    Snapshot current = snapshot;
+    Terrain[][] map = current.getMap();
+    if (map != null) {
+      map = map.clone();
+      map[position.getRow()] = map[position.getRow()].clone();
+      map[position.getRow()][position.getCol()] = terrain;
+    }
+    GridMap grid = current.getGrid();
+    publish(grid.withType(grid.index(position.getRow(), position.getCol()), type), map);
     return terrain;
   }
 
+  /** Publishes a new snapshot of the map with the next version. */
+  private void publish(GridMap grid, Terrain[][] map) {
+    snapshot = new Snapshot(grid, map, ++version);
+  }
+
   /**
    * Evaluates if the position is in the current map's boundaries.
    *
    * @param position the x and y coordinates
    * @throws PositionOutOfBounds thrown when the position is not on the map
    */
-  private void checkPositionInBounds(Position position) throws PositionOutOfBounds {
+  public void checkPositionInBounds(Position position) throws PositionOutOfBounds {
     if (position.getRow() < 0) {
       throw new PositionOutOfBounds("X cannot be lower than 0!", PositionType.DEFAULT);
     } else if (position.getRow() > getHeight() - 1) {
@@ -114,10 +214,14 @@ public class MapManager {
   }
 
   /** Overwrites the map with a new empty map of the same size. */
-  public void reset() {
+  public synchronized void reset() {
     logger.debug("reset: no params");
     try {
-      createMap(map[0].length, map.length);
+      if (isLargeMap()) {
+        createLargeMap(getWidth(), getHeight());
+      } else {
+        createMap(getWidth(), getHeight());
+      }
     } catch (PositionOutOfBounds e) {
       // Do nothing, because this case should never happen
       e.printStackTrace();
@@ -134,19 +238,95 @@ public class MapManager {
   public Terrain getTerrainAt(Position position) throws PositionOutOfBounds {
     logger.debug("getTerrainAt: position = {}", position.toString());
     checkPositionInBounds(position);
-    return map[position.getRow()][position.getCol()];
+    return terrainAt(position.getRow(), position.getCol());
   }
 
+  /**
+   * Returns the terrain at a given row and column without checking the bounds. In large-map mode
+   * a new terrain object is created.
+   */
+  Terrain terrainAt(int row, int col) {
+    Snapshot current = snapshot;
+    if (current.getMap() == null) {
+      GridMap grid = current.getGrid();
+      return new Terrain(new Position(row, col), grid.getType(grid.index(row, col)));
+    }
+    return current.getMap()[row][col];
+  }
+
+  /**
+   * Returns the terrain of a cell of a snapshot of the map which a search has read. The terrain
+   * object of the current map is returned if it has the same type, else a new one is created.
+   *
+   * @param grid the grid of the snapshot
+   * @param cell the index of the cell
+   * @return the terrain of the cell in the snapshot
+   */
+  Terrain terrainAt(GridMap grid, int cell) {
+    int row = grid.row(cell);
+    int col = grid.col(cell);
+    TerrainType type = grid.getType(cell);
+    Terrain[][] map = snapshot.getMap();
+    if (map != null && row < map.length && col < map[row].length) {
+      Terrain terrain = map[row][col];
+      if (terrain.getType() == type) {
+        return terrain;
+      }
+    }
+    return new Terrain(new Position(row, col), type);
+  }
+
+  /**
+   * Returns the terrain objects of the current snapshot of the map. The arrays must not be
+   * changed, because they are shared with the following snapshots.
+   *
+   * @return the terrain objects or null if the map has been created in large-map mode
+   */
   public Terrain[][] getMap() {
-    return map;
+    return snapshot.getMap();
+  }
+
+  public boolean isLargeMap() {
+    return snapshot.getMap() == null;
+  }
+
+  /**
+   * Returns the current snapshot of the map. It is never changed, so a reader which keeps it sees
+   * the same terrain on every cell however the map is changed meanwhile.
+   *
+   * @return the current snapshot
+   */
+  public Snapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Returns the version of the map, which is incremented whenever a map is created, a terrain is
+   * placed or the map is reset. Two equal versions of the same map manager always belong to the
+   * same terrain on every cell.
+   *
+   * @return the current version of the map
+   */
+  public long getVersion() {
+    return snapshot.getVersion();
+  }
+
+  /**
+   * Returns the compact representation of the current snapshot of the map which is used by the
+   * pathfinding algorithms. It belongs to the same state of the map as {@link #getMap()}.
+   *
+   * @return the grid of terrain codes
+   */
+  public GridMap getGrid() {
+    return snapshot.getGrid();
   }
 
   public int getWidth() {
-    return map[0].length;
+    return snapshot.getGrid().getWidth();
   }
 
   public int getHeight() {
-    return map.length;
+    return snapshot.getGrid().getHeight();
   }
 
   public Position getStartCoordinates() {
@@ -205,5 +385,36 @@ public class MapManager {
     this.destinationCoordinates = destinationCoordinates;
   }
 
+  /**
+   * An immutable state of the map: the grid, the terrain objects of a map which has not been
+   * created in large-map mode and the version.
+   */
+  public static final class Snapshot {
+    private final GridMap grid;
+    private final Terrain[][] map;
+    private final long version;
+
+    private Snapshot(GridMap grid, Terrain[][] map, long version) {
+      this.grid = grid;
+      this.map = map;
+      this.version = version;
+    }
+
+    public GridMap getGrid() {
+      return grid;
+    }
+
+    /**
+     * Returns the terrain objects of this state of the map, which must not be changed.
+     *
+     * @return the terrain objects or null if the map has been created in large-map mode
+     */
+    public Terrain[][] getMap() {
+      return map;
+    }
 
+    public long getVersion() {
+      return version;
+    }
+  }
 }
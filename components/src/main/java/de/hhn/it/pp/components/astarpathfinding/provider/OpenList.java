@@ -0,0 +1,43 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+/**
+ * The open list of a search, which always returns the cell with the lowest f cost first. The
+ * costs of the cells are read from the arrays of the {@link SearchContext}.
+ */
+interface OpenList {
+
+  /**
+   * Adds a cell whose costs have already been set.
+   *
+   * @param cell the index of the cell
+   */
+  void add(int cell);
+
+  /**
+   * Removes the cell with the lowest f cost. Must only be called if the list is not empty.
+   *
+   * @return the index of the removed cell
+   */
+  int removeFirst();
+
+  boolean contains(int cell);
+
+  /**
+   * Moves a cell of the list after its costs have been lowered.
+   *
+   * @param cell the index of the cell
+   */
+  void updateItem(int cell);
+
+  /**
+   * Empties the list for a search on a map with the given number of cells.
+   *
+   * @param cellCount the number of cells of the searched map
+   */
+  void clear(int cellCount);
+
+  /** Empties the list and frees the memory it has grown to. */
+  void trim();
+
+  int getItemCount();
+}
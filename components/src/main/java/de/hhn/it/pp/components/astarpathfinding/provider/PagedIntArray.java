@@ -0,0 +1,54 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+/**
+ * Int array which is split into pages of {@link #PAGE_SIZE} values. A page is only allocated when
+ * one of its values is written for the first time, so a search on a large map only pays for the
+ * regions it actually touches. Reading a value of a missing page returns 0.
+ */
+final class PagedIntArray {
+  static final int PAGE_SHIFT = 12;
+  static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private int[][] pages = new int[0][];
+  private int allocatedPages;
+
+  /**
+   * Makes sure the array can address the given number of values. Existing pages are kept.
+   *
+   * @param length the number of values
+   */
+  void ensureLength(int length) {
+    int pageCount = (int) (((long) length + PAGE_MASK) >>> PAGE_SHIFT);
+    if (pages.length < pageCount) {
+      int[][] newPages = new int[pageCount][];
+      System.arraycopy(pages, 0, newPages, 0, pages.length);
+      pages = newPages;
+    }
+  }
+
+  int get(int index) {
+    int[] page = pages[index >>> PAGE_SHIFT];
+    return page == null ? 0 : page[index & PAGE_MASK];
+  }
+
+  void set(int index, int value) {
+    int[] page = pages[index >>> PAGE_SHIFT];
+    if (page == null) {
+      page = new int[PAGE_SIZE];
+      pages[index >>> PAGE_SHIFT] = page;
+      allocatedPages++;
+    }
+    page[index & PAGE_MASK] = value;
+  }
+
+  /** Frees all pages. All values are 0 afterwards. */
+  void clear() {
+    pages = new int[pages.length][];
+    allocatedPages = 0;
+  }
+
+  int getAllocatedPages() {
+    return allocatedPages;
+  }
+}
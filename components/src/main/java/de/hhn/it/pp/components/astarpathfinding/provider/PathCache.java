@@ -0,0 +1,175 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.CacheStatistics;
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.Heuristic;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.SearchAlgorithm;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Least recently used cache of path results. A result is stored together with everything it
+ * depends on: the start and goal cell, the version of the map, the cost table, the algorithm and
+ * whether diagonal steps are allowed. Results of an older version of the map are never found
+ * again and are evicted like all other entries which have not been used for a long time.
+ *
+ * <p>The cache is bounded by the number of results and by the total number of cells of their
+ * paths, so a few very long paths on a large map can not occupy much memory.
+ */
+final class PathCache {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(PathCache.class);
+
+  static final int DEFAULT_MAX_SIZE = 1024;
+
+  /** The maximum number of path cells of all cached results together. */
+  static final long MAX_CACHED_CELLS = 1 << 22;
+
+  private final LinkedHashMap<Key, PathResult> results = new LinkedHashMap<>(16, 0.75f, true);
+  private int maxSize;
+  private long cachedCells;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param maxSize the maximum number of results, 0 disables the cache
+   */
+  PathCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Looks up the result of a query.
+   *
+   * @param key the query and the state it is answered for
+   * @return the cached result or null if the query has to be searched
+   */
+  synchronized PathResult get(Key key) {
+    PathResult result = results.get(key);
+    if (result == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return result;
+  }
+
+  /**
+   * Stores the result of a query and evicts the least recently used results if the cache is full.
+   *
+   * @param key the query and the state it has been answered for
+   * @param result the result of the search
+   */
+  synchronized void put(Key key, PathResult result) {
+    if (maxSize == 0 || result.getLength() > MAX_CACHED_CELLS) {
+      return;
+    }
+    PathResult previous = results.put(key, result);
+    if (previous != null) {
+      cachedCells -= previous.getLength();
+    }
+    cachedCells += result.getLength();
+    evict();
+  }
+
+  /**
+   * Changes the maximum number of results. Results which do not fit any more are evicted.
+   *
+   * @param newMaxSize the maximum number of results, 0 disables the cache
+   */
+  synchronized void setMaxSize(int newMaxSize) {
+    logger.debug("setMaxSize: {} results, {} cached", newMaxSize, results.size());
+    maxSize = newMaxSize;
+    evict();
+  }
+
+  /** Removes all results. The counters are kept. */
+  synchronized void clear() {
+    results.clear();
+    cachedCells = 0;
+  }
+
+  synchronized CacheStatistics getStatistics() {
+    return new CacheStatistics(hits, misses, evictions, results.size(), maxSize);
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<Key, PathResult>> iterator = results.entrySet().iterator();
+    while (results.size() > maxSize || cachedCells > MAX_CACHED_CELLS) {
+      PathResult eldest = iterator.next().getValue();
+      iterator.remove();
+      cachedCells -= eldest.getLength();
+      evictions++;
+    }
+  }
+
+  /** Everything a cached path depends on. */
+  static final class Key {
+    private final int startCell;
+    private final int goalCell;
+    private final long mapVersion;
+    private final CostTable costTable;
+    private final SearchAlgorithm algorithm;
+    private final boolean diagonalPathing;
+    private final double heuristicWeight;
+    private final Heuristic heuristic;
+    private final int hash;
+
+    Key(
+        int startCell,
+        int goalCell,
+        long mapVersion,
+        CostTable costTable,
+        SearchAlgorithm algorithm,
+        boolean diagonalPathing,
+        double heuristicWeight,
+        Heuristic heuristic) {
+      this.startCell = startCell;
+      this.goalCell = goalCell;
+      this.mapVersion = mapVersion;
+      this.costTable = costTable;
+      this.algorithm = algorithm;
+      this.diagonalPathing = diagonalPathing;
+      this.heuristicWeight = heuristicWeight;
+      this.heuristic = heuristic;
+      int value = 31 * startCell + goalCell;
+      value = 31 * value + Long.hashCode(mapVersion);
+      value = 31 * value + costTable.hashCode();
+      value = 31 * value + algorithm.hashCode();
+      value = 31 * value + Boolean.hashCode(diagonalPathing);
+      value = 31 * value + Double.hashCode(heuristicWeight);
+      this.hash = 31 * value + Objects.hashCode(heuristic);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return startCell == other.startCell
+          && goalCell == other.goalCell
+          && mapVersion == other.mapVersion
+          && diagonalPathing == other.diagonalPathing
+          && Double.compare(heuristicWeight, other.heuristicWeight) == 0
+          && algorithm == other.algorithm
+          && Objects.equals(heuristic, other.heuristic)
+          && costTable.equals(other.costTable);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.SearchStats;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event of a single search of an {@link AStarPathfindingAlgorithm}. Only searches
+ * which take longer than the threshold, 1 ms by default, are recorded and no stack trace is taken,
+ * so the event can stay enabled in production recordings. While the event is disabled, a search
+ * only pays for the checks of {@link #begin()} and {@link #shouldCommit()}.
+ */
+@Name("de.hhn.it.pp.astarpathfinding.PathSearch")
+@Label("Path Search")
+@Category("Pathfinding")
+@Description("A single search for the shortest path between two cells")
+@StackTrace(false)
+@Threshold("1 ms")
+final class PathSearchEvent extends jdk.jfr.Event {
+  @Label("Algorithm")
+  String algorithm;
+
+  @Label("Open List")
+  String openList;
+
+  @Label("Diagonal Pathing")
+  boolean diagonalPathing;
+
+  @Label("Map Width")
+  int mapWidth;
+
+  @Label("Map Height")
+  int mapHeight;
+
+  @Label("Start Row")
+  int startRow;
+
+  @Label("Start Column")
+  int startCol;
+
+  @Label("Goal Row")
+  int goalRow;
+
+  @Label("Goal Column")
+  int goalCol;
+
+  @Label("Expanded Nodes")
+  long expandedNodes;
+
+  @Label("Generated Nodes")
+  long generatedNodes;
+
+  @Label("Max Open List Size")
+  int maxOpenListSize;
+
+  @Label("Path Found")
+  @Description("Whether the path reaches the goal, false for a partial path")
+  boolean pathFound;
+
+  @Label("Path Length")
+  @Description("The number of cells of the found or partial path, 0 if there is none")
+  int pathLength;
+
+  @Label("Path Cost")
+  @Description("The cost of the found or partial path, -1 if there is none")
+  int pathCost;
+
+  /**
+   * Ends the event and commits it if it is enabled and the search took longer than the
+   * threshold. The fields are only filled in if the event is committed.
+   *
+   * @param search the algorithm which searched
+   * @param grid the searched grid
+   * @param startCell the start of the search
+   * @param goalCell the goal of the search
+   * @param stats the counters of the search
+   */
+  void finish(
+      AStarPathfindingAlgorithm search,
+      GridMap grid,
+      int startCell,
+      int goalCell,
+      SearchStats stats) {
+    end();
+    if (!shouldCommit()) {
+      return;
+    }
+    algorithm = search.getClass().getSimpleName();
+    openList = search.getOpenListType().name();
+    diagonalPathing = search.isDiagonalPathing();
+    mapWidth = grid.getWidth();
+    mapHeight = grid.getHeight();
+    startRow = grid.row(startCell);
+    startCol = grid.col(startCell);
+    goalRow = grid.row(goalCell);
+    goalCol = grid.col(goalCell);
+    expandedNodes = stats.getExpandedNodes();
+    generatedNodes = stats.getGeneratedNodes();
+    maxOpenListSize = stats.getMaxOpenListSize();
+    pathFound = stats.isPathFound();
+    pathLength = stats.getPathLength();
+    pathCost = stats.getPathCost();
+    commit();
+  }
+}
@@ -1,26 +1,83 @@
 package de.hhn.it.pp.components.astarpathfinding.provider;
 
+import de.hhn.it.pp.components.astarpathfinding.CacheStatistics;
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.DistanceHeuristic;
+import de.hhn.it.pp.components.astarpathfinding.FlowField;
+import de.hhn.it.pp.components.astarpathfinding.Heuristic;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
 import de.hhn.it.pp.components.astarpathfinding.PathfindingInformation;
 import de.hhn.it.pp.components.astarpathfinding.PathfindingService;
 import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.SearchAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.SearchBudget;
+import de.hhn.it.pp.components.astarpathfinding.SearchEvent;
+import de.hhn.it.pp.components.astarpathfinding.SearchListener;
+import de.hhn.it.pp.components.astarpathfinding.SearchMetrics;
+import de.hhn.it.pp.components.astarpathfinding.SolutionListener;
 import de.hhn.it.pp.components.astarpathfinding.TerrainType;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.OccupiedPositionException;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
 import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
 
 public final class Pathfinder implements PathfindingService {
   private static final org.slf4j.Logger logger =
       org.slf4j.LoggerFactory.getLogger(Pathfinder.class);
 
+  /** The number of flow fields which are kept up to date, each one stores 5 bytes per cell. */
+  static final int MAX_FLOW_FIELDS = 16;
+
   private final MapManager mapManager = new MapManager();
-  private boolean diagonalPathing;
+  private volatile boolean diagonalPathing;
+  private volatile SearchAlgorithm searchAlgorithm = SearchAlgorithm.A_STAR;
+  private volatile OpenListType openListType = OpenListType.BINARY_HEAP;
+  private volatile CostTable costTable = CostTable.defaults();
+  private volatile double heuristicWeight = WeightedAStarAlgorithm.DEFAULT_WEIGHT;
+  private volatile Heuristic heuristic = DistanceHeuristic.MANHATTAN;
+  private HierarchicalPathfinder hierarchy;
+  private DStarLitePlanner planner;
+  private final PathCache pathCache = new PathCache(PathCache.DEFAULT_MAX_SIZE);
+  private final SearchMetrics metrics = new SearchMetrics();
+  private final LandmarkTables landmarkTables =
+      new LandmarkTables(mapManager, ForkJoinPool.commonPool());
+  /** The flow fields of the destinations which have been requested last, guarded by this. */
+  private final Map<Integer, DijkstraFlowField> flowFields =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, DijkstraFlowField> eldest) {
+          if (size() <= MAX_FLOW_FIELDS) {
+            return false;
+          }
+          eldest.getValue().invalidate();
+          return true;
+        }
+      };
 
   @Override
   public void createMap(int width, int height)
       throws PositionOutOfBounds {
     logger.info("createMap: width = {} height = {}", width, height);
     mapManager.createMap(width, height);
+    discardPrecomputedState();
+  }
+
+  @Override
+  public void createLargeMap(int width, int height) throws PositionOutOfBounds {
+    logger.info("createLargeMap: width = {} height = {}", width, height);
+    mapManager.createLargeMap(width, height);
+    discardPrecomputedState();
   }
 
   @Override
@@ -40,49 +97,596 @@ public final class Pathfinder implements PathfindingService {
   public void placeTerrain(TerrainType type, Position position) throws PositionOutOfBounds {
     logger.info("placeTerrain: type = {}, position = {} ", type, position.toString());
     mapManager.createTerrain(type, position);
+    landmarkTables.cellChanged(position.getRow(), position.getCol(), costTable, diagonalPathing);
+    synchronized (this) {
+      if (hierarchy != null) {
+        hierarchy.cellChanged(position.getRow(), position.getCol());
+      }
+      if (planner != null) {
+        planner.cellChanged(position.getRow(), position.getCol());
+      }
+      for (DijkstraFlowField field : flowFields.values()) {
+        field.cellChanged(position.getRow(), position.getCol());
+      }
+    }
   }
 
   @Override
   public List<PathfindingInformation> doPathfinding() throws IllegalParameterException {
     logger.info("doPathfinding: no params");
-    return new AStarPathfindingAlgorithm(mapManager, diagonalPathing).findPath();
+    PathfindingRequestEvent event = new PathfindingRequestEvent();
+    event.begin();
+    SearchAlgorithm algorithm = searchAlgorithm;
+    SearchEventLog log = createAlgorithm(algorithm).recordSearch();
+    event.finish(
+        "doPathfinding",
+        algorithm.name(),
+        mapManager.getGrid(),
+        new PathQuery(mapManager.getStartCoordinates(), mapManager.getDestinationCoordinates()),
+        log.isPathFound() ? log.getFinalPath().size() : 0);
+    if (!log.isPathFound()) {
+      return new ArrayList<>();
+    }
+    return log.asFrames();
+  }
+
+  @Override
+  public CompletableFuture<PathResult> doPathfindingAsync(SearchBudget budget)
+      throws IllegalParameterException {
+    return doPathfindingAsync(budget, ForkJoinPool.commonPool());
+  }
+
+  @Override
+  public CompletableFuture<PathResult> doPathfindingAsync(SearchBudget budget, Executor executor)
+      throws IllegalParameterException {
+    logger.info("doPathfindingAsync: budget = {}", budget);
+    checkAsyncParameters(budget, executor);
+    SearchAlgorithm algorithm = searchAlgorithm;
+    AStarPathfindingAlgorithm search = createAlgorithm(algorithm);
+    return runAsync(
+        "doPathfindingAsync",
+        algorithm.name(),
+        executor,
+        (grid, query, requested, cancelled) ->
+            search.findPath(grid, query, budget, requested, cancelled));
+  }
+
+  @Override
+  public CompletableFuture<PathResult> doPathfindingAnytime(
+      SearchBudget budget, SolutionListener listener) throws IllegalParameterException {
+    return doPathfindingAnytime(budget, listener, ForkJoinPool.commonPool());
+  }
+
+  @Override
+  public CompletableFuture<PathResult> doPathfindingAnytime(
+      SearchBudget budget, SolutionListener listener, Executor executor)
+      throws IllegalParameterException {
+    logger.info("doPathfindingAnytime: budget = {}, listener = {}", budget, listener);
+    checkAsyncParameters(budget, executor);
+    if (listener == null) {
+      throw new IllegalParameterException("The listener must not be null!");
+    }
+    AnytimeAStarAlgorithm search =
+        new AnytimeAStarAlgorithm(
+            mapManager,
+            diagonalPathing,
+            openListType,
+            costTable,
+            heuristicWeight,
+            AnytimeAStarAlgorithm.DEFAULT_WEIGHT_STEP);
+    search.setMetrics(metrics);
+    search.setHeuristic(heuristic);
+    search.setLandmarks(landmarkTables.get(mapManager.getSnapshot(), costTable, diagonalPathing));
+    return runAsync(
+        "doPathfindingAnytime",
+        "ANYTIME_A_STAR",
+        executor,
+        (grid, query, requested, cancelled) ->
+            search.findPath(grid, query, budget, listener, requested, cancelled));
+  }
+
+  private static void checkAsyncParameters(SearchBudget budget, Executor executor)
+      throws IllegalParameterException {
+    if (budget == null) {
+      throw new IllegalParameterException("The budget must not be null!");
+    }
+    if (executor == null) {
+      throw new IllegalParameterException("The executor must not be null!");
+    }
+  }
+
+  /**
+   * Runs a search between the start and the end point on a thread of the executor. The start and
+   * the end point are taken now, the search is skipped if the future is done before it starts and
+   * stops once the future is done, e.g. because it has been cancelled. The snapshot of the map is
+   * taken when the search starts and is recorded with the result.
+   */
+  private CompletableFuture<PathResult> runAsync(
+      String operation, String algorithmName, Executor executor, AsyncSearch search) {
+    long requested = System.nanoTime();
+    PathQuery query =
+        new PathQuery(mapManager.getStartCoordinates(), mapManager.getDestinationCoordinates());
+    CompletableFuture<PathResult> future = new CompletableFuture<>();
+    Runnable task =
+        () -> {
+          // The future is done if it has been cancelled before the search started
+          if (future.isDone()) {
+            return;
+          }
+          PathfindingRequestEvent event = new PathfindingRequestEvent();
+          event.begin();
+          try {
+            GridMap grid = mapManager.getGrid();
+            PathResult result = search.run(grid, query, requested, future::isDone);
+            if (result != null) {
+              metrics.recordRequest(1, System.nanoTime() - requested);
+              event.finish(
+                  operation,
+                  algorithmName,
+                  grid,
+                  List.of(query),
+                  List.of(result),
+                  0);
+              future.complete(result);
+            }
+          } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+          }
+        };
+    try {
+      executor.execute(task);
+    } catch (RuntimeException e) {
+      // E.g. the executor has been shut down
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  @Override
+  public PathResult findShortestPath() throws IllegalParameterException {
+    logger.info("findShortestPath: no params");
+    PathQuery query =
+        new PathQuery(mapManager.getStartCoordinates(), mapManager.getDestinationCoordinates());
+    SearchAlgorithm algorithm = searchAlgorithm;
+    return findCachedPaths(
+            "findShortestPath",
+            mapManager.getSnapshot(),
+            List.of(query),
+            algorithm,
+            createAlgorithm(algorithm),
+            null)
+        .get(0);
+  }
+
+  @Override
+  public PathResult replan() throws IllegalParameterException {
+    logger.info("replan: no params");
+    return getPlanner().findShortestPath();
+  }
+
+  @Override
+  public PathResult findShortestPath(SearchListener listener) throws IllegalParameterException {
+    logger.info("findShortestPath: listener = {}", listener);
+    if (listener == null) {
+      throw new IllegalParameterException("The listener must not be null!");
+    }
+    return createAlgorithm().findShortestPath(listener);
+  }
+
+  @Override
+  public Flow.Publisher<SearchEvent> publishPathfinding() {
+    logger.info("publishPathfinding: no params");
+    return new SearchEventPublisher(createAlgorithm());
+  }
+
+  @Override
+  public List<PathResult> findPaths(List<PathQuery> queries)
+      throws IllegalParameterException, PositionOutOfBounds {
+    checkQueries(queries);
+    logger.info("findPaths: {} queries", queries.size());
+    SearchAlgorithm algorithm = searchAlgorithm;
+    return findCachedPaths(
+        "findPaths",
+        mapManager.getSnapshot(),
+        queries,
+        algorithm,
+        createAlgorithm(algorithm),
+        null);
+  }
+
+  @Override
+  public List<PathResult> findPaths(List<PathQuery> queries, ForkJoinPool pool)
+      throws IllegalParameterException, PositionOutOfBounds {
+    checkQueries(queries);
+    if (pool == null) {
+      throw new IllegalParameterException("The pool must not be null!");
+    }
+    logger.info("findPaths: {} queries, parallelism = {}", queries.size(), pool.getParallelism());
+    SearchAlgorithm algorithm = searchAlgorithm;
+    return findCachedPaths(
+        "findPaths",
+        mapManager.getSnapshot(),
+        queries,
+        algorithm,
+        createAlgorithm(algorithm),
+        pool);
+  }
+
+  @Override
+  public List<PathResult> findHierarchicalPaths(List<PathQuery> queries)
+      throws IllegalParameterException, PositionOutOfBounds {
+    checkQueries(queries);
+    logger.info("findHierarchicalPaths: {} queries", queries.size());
+    PathfindingRequestEvent event = new PathfindingRequestEvent();
+    event.begin();
+    long start = System.nanoTime();
+    HierarchicalPathfinder current = getHierarchy();
+    List<PathResult> results = new ArrayList<>(queries.size());
+    for (PathQuery query : queries) {
+      PathResult result = current.findPath(query);
+      metrics.recordSearch(result.getStats());
+      results.add(result);
+    }
+    metrics.recordRequest(queries.size(), System.nanoTime() - start);
+    event.finish(
+        "findHierarchicalPaths", "HIERARCHICAL", mapManager.getGrid(), queries, results, 0);
+    return results;
+  }
+
+  /**
+   * Answers the queries from the path cache and searches only the others. The results of the
+   * searches are cached if the map has not been changed while they were running. The searches
+   * and the whole request are added to the metrics and recorded as a flight recorder event.
+   *
+   * @param operation the name of the called method for the flight recorder event
+   * @param snapshot the snapshot of the map on which the misses are searched
+   * @param queries the checked queries
+   * @param algorithm the kind of the search
+   * @param search the search which answers the queries which are not cached
+   * @param pool the pool which runs the searches, null to search on the calling thread
+   * @return one result per query in the order of the queries
+   */
+  private List<PathResult> findCachedPaths(
+      String operation,
+      MapManager.Snapshot snapshot,
+      List<PathQuery> queries,
+      SearchAlgorithm algorithm,
+      AStarPathfindingAlgorithm search,
+      ForkJoinPool pool) {
+    PathfindingRequestEvent event = new PathfindingRequestEvent();
+    event.begin();
+    long start = System.nanoTime();
+    // The misses are searched on the same snapshot, so their results belong to its version
+    long version = snapshot.getVersion();
+    GridMap grid = snapshot.getGrid();
+    search.setLandmarks(
+        landmarkTables.get(snapshot, search.getCosts(), search.isDiagonalPathing()));
+
+    PathResult[] results = new PathResult[queries.size()];
+    PathCache.Key[] keys = new PathCache.Key[queries.size()];
+    List<PathQuery> misses = new ArrayList<>();
+    for (int i = 0; i < queries.size(); i++) {
+      PathQuery query = queries.get(i);
+      keys[i] =
+          new PathCache.Key(
+              grid.index(query.getStart().getRow(), query.getStart().getCol()),
+              grid.index(query.getGoal().getRow(), query.getGoal().getCol()),
+              version,
+              search.getCosts(),
+              algorithm,
+              search.isDiagonalPathing(),
+              search.getHeuristicWeight(),
+              search.getHeuristic());
+      PathResult cached = pathCache.get(keys[i]);
+      if (cached != null) {
+        results[i] = cached.withQuery(query);
+      } else {
+        misses.add(query);
+      }
+    }
+    if (misses.isEmpty()) {
+      metrics.recordRequest(queries.size(), System.nanoTime() - start);
+      List<PathResult> cachedResults = Arrays.asList(results);
+      event.finish(operation, algorithm.name(), grid, queries, cachedResults, queries.size());
+      return cachedResults;
+    }
+
+    List<PathResult> found =
+        pool == null ? search.findPaths(grid, misses) : search.findPaths(grid, misses, pool);
+    int next = 0;
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] == null) {
+        results[i] = found.get(next++);
+        pathCache.put(keys[i], results[i]);
+      }
+    }
+    metrics.recordRequest(queries.size(), System.nanoTime() - start);
+    List<PathResult> allResults = Arrays.asList(results);
+    event.finish(
+        operation, algorithm.name(), grid, queries, allResults, queries.size() - misses.size());
+    return allResults;
+  }
+
+  /** Returns the hierarchy of the current map, which is created on the first use. */
+  private synchronized HierarchicalPathfinder getHierarchy() {
+    if (hierarchy == null) {
+      hierarchy =
+          new HierarchicalPathfinder(
+              mapManager,
+              HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE,
+              diagonalPathing,
+              costTable);
+    }
+    return hierarchy;
+  }
+
+  /** Returns the incremental planner of the current map, which is created on the first use. */
+  private synchronized DStarLitePlanner getPlanner() {
+    if (planner == null) {
+      planner = new DStarLitePlanner(mapManager, diagonalPathing, costTable);
+    }
+    return planner;
+  }
+
+  @Override
+  public FlowField getFlowField(Position destination)
+      throws IllegalParameterException, PositionOutOfBounds {
+    logger.info("getFlowField: destination = {}", destination);
+    if (destination == null) {
+      throw new IllegalParameterException("The destination must not be null!");
+    }
+    mapManager.checkPositionInBounds(destination);
+    int cell = mapManager.getGrid().index(destination.getRow(), destination.getCol());
+    synchronized (this) {
+      DijkstraFlowField field = flowFields.get(cell);
+      if (field == null) {
+        field = new DijkstraFlowField(mapManager, destination, diagonalPathing, costTable);
+        flowFields.put(cell, field);
+      }
+      return field;
+    }
+  }
+
+  /**
+   * Discards the hierarchy, the planner and the flow fields after a change which affects the whole
+   * map. The cached paths can not be found any more, so they are removed as well.
+   */
+  private synchronized void discardPrecomputedState() {
+    hierarchy = null;
+    planner = null;
+    for (DijkstraFlowField field : flowFields.values()) {
+      field.invalidate();
+    }
+    flowFields.clear();
+    pathCache.clear();
+    landmarkTables.mapChanged(costTable, diagonalPathing);
+  }
+
+  /** Checks all positions of a batch once before the searches start. */
+  private void checkQueries(List<PathQuery> queries)
+      throws IllegalParameterException, PositionOutOfBounds {
+    if (queries == null) {
+      throw new IllegalParameterException("The list of queries must not be null!");
+    }
+    for (PathQuery query : queries) {
+      if (query == null || query.getStart() == null || query.getGoal() == null) {
+        throw new IllegalParameterException("Queries and their positions must not be null!");
+      }
+      mapManager.checkPositionInBounds(query.getStart());
+      mapManager.checkPositionInBounds(query.getGoal());
+    }
   }
 
   @Override
   public void reset() {
     logger.info("reset: no params");
-    // Reset the TerrainType modifiers
-    TerrainType.resetModifers();
+    // Reset the modifiers of this pathfinder only
+    costTable = CostTable.defaults();
     // Reset the mapManager
     mapManager.reset();
+    discardPrecomputedState();
   }
 
   @Override
   public void changeTerrainTypeModifier(TerrainType type, double modifier)
       throws IllegalParameterException {
     logger.info("changeTerrainTypeFactor: type = {}, modifier = {} ", type, modifier);
-    // Check the range of the modifier
-    if (modifier < TerrainType.MIN_VALUE) {
-      throw new IllegalParameterException(
-          String.format(
-              "Invalid modifier value! Modifier must not be lower than %f!",
-              TerrainType.MIN_VALUE));
-    } else if (modifier > TerrainType.MAX_VALUE) {
-      throw new IllegalParameterException(
-          String.format(
-              "Invalid modifier value! Modifier must not be greater than %f!",
-              TerrainType.MAX_VALUE));
+    synchronized (this) {
+      updateCostTable(costTable.withModifier(type, modifier));
     }
-    type.setModifier(modifier);
   }
 
   @Override
   public void setDiagonalPathing(boolean enabled) {
     this.diagonalPathing = enabled;
+    discardPrecomputedState();
+  }
+
+  @Override
+  public void setSearchAlgorithm(SearchAlgorithm algorithm) throws IllegalParameterException {
+    logger.info("setSearchAlgorithm: algorithm = {}", algorithm);
+    if (algorithm == null) {
+      throw new IllegalParameterException("The search algorithm must not be null!");
+    }
+    this.searchAlgorithm = algorithm;
+  }
+
+  @Override
+  public void setOpenListType(OpenListType type) throws IllegalParameterException {
+    logger.info("setOpenListType: type = {}", type);
+    if (type == null) {
+      throw new IllegalParameterException("The open list type must not be null!");
+    }
+    this.openListType = type;
+  }
+
+  @Override
+  public void setCostTable(CostTable costTable) throws IllegalParameterException {
+    logger.info("setCostTable: costTable = {}", costTable);
+    if (costTable == null) {
+      throw new IllegalParameterException("The cost table must not be null!");
+    }
+    updateCostTable(costTable);
+  }
+
+  @Override
+  public CostTable getCostTable() {
+    return costTable;
+  }
+
+  @Override
+  public void setHeuristicWeight(double weight) throws IllegalParameterException {
+    logger.info("setHeuristicWeight: weight = {}", weight);
+    if (!WeightedAStarAlgorithm.isValidWeight(weight)) {
+      throw new IllegalParameterException(
+          "The heuristic weight must be between 1 and " + WeightedAStarAlgorithm.MAX_WEIGHT + "!");
+    }
+    this.heuristicWeight = weight;
+  }
+
+  @Override
+  public double getHeuristicWeight() {
+    return heuristicWeight;
+  }
+
+  @Override
+  public void setHeuristic(Heuristic heuristic) throws IllegalParameterException {
+    logger.info("setHeuristic: heuristic = {}", heuristic);
+    if (heuristic == null) {
+      throw new IllegalParameterException("The heuristic must not be null!");
+    }
+    this.heuristic = heuristic;
+  }
+
+  @Override
+  public Heuristic getHeuristic() {
+    return heuristic;
+  }
+
+  /**
+   * Replaces the cost table. The hierarchy is discarded, the planner only repairs the costs of the
+   * terrain types which have changed and the flow fields are computed again.
+   */
+  private synchronized void updateCostTable(CostTable newCostTable) {
+    costTable = newCostTable;
+    hierarchy = null;
+    landmarkTables.mapChanged(newCostTable, diagonalPathing);
+    if (planner != null) {
+      planner.setCostTable(newCostTable);
+    }
+    for (DijkstraFlowField field : flowFields.values()) {
+      field.setCostTable(newCostTable);
+    }
+  }
+
+  @Override
+  public void setLandmarks(List<Position> landmarks)
+      throws IllegalParameterException, PositionOutOfBounds {
+    logger.info("setLandmarks: landmarks = {}", landmarks);
+    if (landmarks == null) {
+      throw new IllegalParameterException("The landmarks must not be null!");
+    }
+    if (landmarks.size() > LandmarkHeuristic.MAX_LANDMARKS) {
+      throw new IllegalParameterException(
+          "There must not be more than " + LandmarkHeuristic.MAX_LANDMARKS + " landmarks!");
+    }
+    for (Position landmark : landmarks) {
+      if (landmark == null) {
+        throw new IllegalParameterException("The landmarks must not be null!");
+      }
+      mapManager.checkPositionInBounds(landmark);
+    }
+    synchronized (this) {
+      landmarkTables.setLandmarks(landmarks, costTable, diagonalPathing);
+    }
+  }
+
+  @Override
+  public void setLandmarkCount(int count) throws IllegalParameterException {
+    logger.info("setLandmarkCount: count = {}", count);
+    if (count < 0 || count > LandmarkHeuristic.MAX_LANDMARKS) {
+      throw new IllegalParameterException(
+          "The number of landmarks must be between 0 and " + LandmarkHeuristic.MAX_LANDMARKS + "!");
+    }
+    synchronized (this) {
+      landmarkTables.setLandmarkCount(count, costTable, diagonalPathing);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> whenLandmarksReady() {
+    return landmarkTables.whenReady();
+  }
+
+  @Override
+  public void setPathCacheSize(int maxSize) throws IllegalParameterException {
+    logger.info("setPathCacheSize: maxSize = {}", maxSize);
+    if (maxSize < 0) {
+      throw new IllegalParameterException("The size of the path cache must not be negative!");
+    }
+    pathCache.setMaxSize(maxSize);
+  }
+
+  @Override
+  public CacheStatistics getPathCacheStatistics() {
+    return pathCache.getStatistics();
+  }
+
+  @Override
+  public SearchMetrics getSearchMetrics() {
+    return metrics;
+  }
+
+  private AStarPathfindingAlgorithm createAlgorithm() {
+    return createAlgorithm(searchAlgorithm);
+  }
+
+  /** Creates an algorithm of the given kind which adds all its searches to the metrics. */
+  private AStarPathfindingAlgorithm createAlgorithm(SearchAlgorithm algorithm) {
+    AStarPathfindingAlgorithm search;
+    switch (algorithm) {
+      case JUMP_POINT_SEARCH:
+        search =
+            new JumpPointSearchAlgorithm(mapManager, diagonalPathing, openListType, costTable);
+        break;
+      case BIDIRECTIONAL_A_STAR:
+        search =
+            new BidirectionalAStarAlgorithm(mapManager, diagonalPathing, openListType, costTable);
+        break;
+      case WEIGHTED_A_STAR:
+        search =
+            new WeightedAStarAlgorithm(
+                mapManager, diagonalPathing, openListType, costTable, heuristicWeight);
+        break;
+      case A_STAR:
+      default:
+        search =
+            new AStarPathfindingAlgorithm(mapManager, diagonalPathing, openListType, costTable);
+    }
+    search.setMetrics(metrics);
+    search.setHeuristic(heuristic);
+    // Only used by a search which reads the same snapshot, see LandmarkHeuristic.isBuiltOn
+    search.setLandmarks(landmarkTables.get(mapManager.getSnapshot(), costTable, diagonalPathing));
+    return search;
   }
 
   @Override
   public String toString() {
     return "Pathfinder";
   }
+
+  /** A search with a budget which is run by {@link #runAsync}. */
+  @FunctionalInterface
+  private interface AsyncSearch {
+    /**
+     * Runs the search.
+     *
+     * @param grid the snapshot of the map which is searched
+     * @param query the start and the end point
+     * @param requested the value of {@link System#nanoTime()} when the search has been requested
+     * @param cancelled returns true once the result is not needed any more
+     * @return the result or null if the search has been cancelled
+     */
+    PathResult run(GridMap grid, PathQuery query, long requested, BooleanSupplier cancelled);
+  }
 }
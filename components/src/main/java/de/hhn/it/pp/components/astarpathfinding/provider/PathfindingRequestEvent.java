@@ -0,0 +1,140 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import java.util.List;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event of a call of the {@link Pathfinder}, which contains the {@link
+ * PathSearchEvent path search events} of the queries it has searched. Like those, it is only
+ * recorded above a threshold of 1 ms and without a stack trace.
+ */
+@Name("de.hhn.it.pp.astarpathfinding.PathfindingRequest")
+@Label("Pathfinding Request")
+@Category("Pathfinding")
+@Description("A call of the pathfinder which answers one or more queries")
+@StackTrace(false)
+@Threshold("1 ms")
+final class PathfindingRequestEvent extends jdk.jfr.Event {
+  @Label("Operation")
+  String operation;
+
+  @Label("Algorithm")
+  String algorithm;
+
+  @Label("Map Width")
+  int mapWidth;
+
+  @Label("Map Height")
+  int mapHeight;
+
+  @Label("Start Row")
+  @Description("The start of a request with a single query, -1 for a batch")
+  int startRow = -1;
+
+  @Label("Start Column")
+  @Description("The start of a request with a single query, -1 for a batch")
+  int startCol = -1;
+
+  @Label("Goal Row")
+  @Description("The goal of a request with a single query, -1 for a batch")
+  int goalRow = -1;
+
+  @Label("Goal Column")
+  @Description("The goal of a request with a single query, -1 for a batch")
+  int goalCol = -1;
+
+  @Label("Queries")
+  int queries;
+
+  @Label("Cached Queries")
+  @Description("The number of queries which have been answered from the path cache")
+  int cachedQueries;
+
+  @Label("Paths Found")
+  int pathsFound;
+
+  @Label("Path Length")
+  @Description("The number of cells of all found paths")
+  long pathLength;
+
+  /**
+   * Ends the event of a request whose results are path results and commits it if it is enabled
+   * and the request took longer than the threshold.
+   *
+   * @param operation the name of the called method
+   * @param searchAlgorithm the name of the algorithm which answered the queries
+   * @param grid the searched grid
+   * @param requestQueries the queries of the request
+   * @param results the results of the queries
+   * @param cached the number of queries which have been answered from the path cache
+   */
+  void finish(
+      String operation,
+      String searchAlgorithm,
+      GridMap grid,
+      List<PathQuery> requestQueries,
+      List<PathResult> results,
+      int cached) {
+    end();
+    if (!shouldCommit()) {
+      return;
+    }
+    for (PathResult result : results) {
+      if (result.isFound()) {
+        pathsFound++;
+        pathLength += result.getLength();
+      }
+    }
+    fillAndCommit(operation, searchAlgorithm, grid, requestQueries, cached);
+  }
+
+  /**
+   * Ends the event of a request with a single query and commits it if it is enabled and the
+   * request took longer than the threshold.
+   *
+   * @param operation the name of the called method
+   * @param searchAlgorithm the name of the algorithm which answered the query
+   * @param grid the searched grid
+   * @param query the query of the request
+   * @param length the number of cells of the found path, 0 if there is none
+   */
+  void finish(
+      String operation, String searchAlgorithm, GridMap grid, PathQuery query, int length) {
+    end();
+    if (!shouldCommit()) {
+      return;
+    }
+    pathsFound = length > 0 ? 1 : 0;
+    pathLength = length;
+    fillAndCommit(operation, searchAlgorithm, grid, List.of(query), 0);
+  }
+
+  private void fillAndCommit(
+      String operation,
+      String searchAlgorithm,
+      GridMap grid,
+      List<PathQuery> requestQueries,
+      int cached) {
+    this.operation = operation;
+    algorithm = searchAlgorithm;
+    mapWidth = grid.getWidth();
+    mapHeight = grid.getHeight();
+    queries = requestQueries.size();
+    cachedQueries = cached;
+    if (queries == 1) {
+      PathQuery query = requestQueries.get(0);
+      startRow = query.getStart().getRow();
+      startCol = query.getStart().getCol();
+      goalRow = query.getGoal().getRow();
+      goalCol = query.getGoal().getCol();
+    }
+    commit();
+  }
+}
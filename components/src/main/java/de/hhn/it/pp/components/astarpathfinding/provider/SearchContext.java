@@ -0,0 +1,162 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+
+/**
+ * Mutable state of a single search: costs, parents, heap indices, the open list and the closed
+ * list of every cell. The map itself is only read during a search, so all state which a search
+ * changes lives here. Contexts are pooled per thread and reused for the following searches of that
+ * thread. A bidirectional search uses two contexts, one per direction.
+ *
+ * <p>A context does not need to be cleared between two searches. The closed list starts a new
+ * generation and the open list is emptied, which invalidates all costs, parents and heap indices
+ * of the previous search because they are only relied upon for cells which have been added to the
+ * open list again.
+ *
+ * <p>All per cell values are stored in {@link PagedIntArray pages}, so a context only occupies
+ * memory for the regions of the map its searches have touched. A pooled context which has grown
+ * beyond {@link #MAX_POOLED_CELLS} cells frees its pages when it is released.
+ */
+final class SearchContext {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(SearchContext.class);
+
+  /** The number of cells whose state a pooled context keeps between two searches. */
+  static final int MAX_POOLED_CELLS = 1 << 22;
+
+  /** The number of bytes a search needs per touched cell: g, h, parent, heap index and stamp. */
+  static final int BYTES_PER_CELL = 5 * Integer.BYTES;
+
+  /** The number of contexts which are pooled per thread, e.g. for both bidirectional searches. */
+  static final int CONTEXTS_PER_THREAD = 2;
+
+  private static final ThreadLocal<SearchContext[]> POOL =
+      ThreadLocal.withInitial(() -> new SearchContext[CONTEXTS_PER_THREAD]);
+
+  final PagedIntArray gCost = new PagedIntArray();
+  final PagedIntArray hCost = new PagedIntArray();
+  final PagedIntArray parent = new PagedIntArray();
+  final PagedIntArray heapIndex = new PagedIntArray();
+  /** The directions from which the jump point search reached a cell. */
+  final PagedIntArray directions = new PagedIntArray();
+  /**
+   * The cells from which the jump point search without diagonal pathing has already jumped, per
+   * straight direction in the order of {@link GridMap#ROW_OFFSETS}.
+   */
+  final ClosedSet[] jumpedCells = new ClosedSet[4];
+  /** The jump point which the jump from a cell of {@link #jumpedCells} has reached, or -1. */
+  final PagedIntArray[] jumpTargets = new PagedIntArray[4];
+  /** The counters of the current search, which are cleared by {@link #prepare}. */
+  final SearchCounters counters = new SearchCounters();
+  private final CellHeap heap = new CellHeap(gCost, hCost, heapIndex, counters);
+  private BucketQueue bucketQueue;
+  /** The open list of the current search, selected by {@link #prepare(int, OpenListType)}. */
+  OpenList openList = heap;
+  final ClosedSet closedSet = new ClosedSet(0);
+  /** The budget of the current search, null if it is unlimited. Cleared by {@link #prepare}. */
+  SearchLimit limit;
+  /** The anytime search which uses the context, null for other searches. Cleared by prepare. */
+  AnytimeAStarAlgorithm.AnytimeSearch anytimeSearch;
+  /** The cluster which bounds a search of the hierarchy, null for others. Cleared by prepare. */
+  HierarchicalPathfinder.Cluster cluster;
+
+  private boolean inUse;
+
+  private SearchContext() {
+    for (int i = 0; i < jumpedCells.length; i++) {
+      jumpedCells[i] = new ClosedSet(0);
+      jumpTargets[i] = new PagedIntArray();
+    }
+  }
+
+  /**
+   * Returns a context of the current thread, prepared for a search on a map with the given number
+   * of cells. If all {@link #CONTEXTS_PER_THREAD} contexts of the thread are already in use, e.g.
+   * because a search is started from within another search, a new context is created which is not
+   * pooled.
+   *
+   * @param cellCount the number of cells of the searched map
+   * @param openListType the data structure of the open list
+   * @return a context which must be given back with {@link #release()}
+   */
+  static SearchContext acquire(int cellCount, OpenListType openListType) {
+    SearchContext context = null;
+    SearchContext[] pool = POOL.get();
+    for (int i = 0; i < pool.length && context == null; i++) {
+      if (pool[i] == null) {
+        pool[i] = new SearchContext();
+      }
+      if (!pool[i].inUse) {
+        context = pool[i];
+      }
+    }
+    if (context == null) {
+      logger.debug("acquire: contexts of the current thread are in use, creating a new one");
+      context = new SearchContext();
+    }
+    context.inUse = true;
+    context.prepare(cellCount, openListType);
+    return context;
+  }
+
+  /** Gives the context back to the pool of its thread. */
+  void release() {
+    inUse = false;
+    // A jump point search passes far more cells than it adds to the open list
+    int pages = gCost.getAllocatedPages();
+    for (PagedIntArray targets : jumpTargets) {
+      pages = Math.max(pages, targets.getAllocatedPages());
+    }
+    if ((long) pages * PagedIntArray.PAGE_SIZE > MAX_POOLED_CELLS) {
+      logger.debug("release: freeing {} pages", pages);
+      gCost.clear();
+      hCost.clear();
+      parent.clear();
+      heapIndex.clear();
+      directions.clear();
+      heap.trim();
+      if (bucketQueue != null) {
+        bucketQueue.trim();
+      }
+      closedSet.trim();
+      for (int i = 0; i < jumpedCells.length; i++) {
+        jumpedCells[i].trim();
+        jumpTargets[i].clear();
+      }
+    }
+  }
+
+  /**
+   * Resets the context for the next search. Contexts returned by {@link #acquire(int,
+   * OpenListType)} are already prepared, this is only needed for several searches with the same
+   * context.
+   *
+   * @param cellCount the number of cells of the searched map
+   * @param openListType the data structure of the open list
+   */
+  void prepare(int cellCount, OpenListType openListType) {
+    gCost.ensureLength(cellCount);
+    hCost.ensureLength(cellCount);
+    parent.ensureLength(cellCount);
+    heapIndex.ensureLength(cellCount);
+    directions.ensureLength(cellCount);
+    if (openListType == OpenListType.BUCKET_QUEUE) {
+      if (bucketQueue == null) {
+        bucketQueue = new BucketQueue(gCost, hCost, counters);
+      }
+      openList = bucketQueue;
+    } else {
+      openList = heap;
+    }
+    openList.clear(cellCount);
+    closedSet.clear(cellCount);
+    for (int i = 0; i < jumpedCells.length; i++) {
+      jumpedCells[i].clear(cellCount);
+      jumpTargets[i].ensureLength(cellCount);
+    }
+    counters.clear();
+    limit = null;
+    anytimeSearch = null;
+    cluster = null;
+  }
+}
@@ -0,0 +1,78 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.SearchStats;
+
+/**
+ * Mutable counters of the search which currently uses a {@link SearchContext}. The open lists
+ * count their own operations, the algorithms count the expanded and generated cells. The counters
+ * are plain fields because a context is only used by one thread.
+ */
+final class SearchCounters {
+  long expandedCells;
+  long generatedCells;
+  long pushes;
+  long pops;
+  long updates;
+  int maxOpenListSize;
+
+  /** Sets all counters back to zero for the next search. */
+  void clear() {
+    expandedCells = 0;
+    generatedCells = 0;
+    pushes = 0;
+    pops = 0;
+    updates = 0;
+    maxOpenListSize = 0;
+  }
+
+  /**
+   * Adds the counters of another search which is part of the same query, e.g. the backward search
+   * of a bidirectional search. The largest open list sizes are added as well, which is an upper
+   * bound of the largest number of cells both searches held at the same time.
+   *
+   * @param other the counters of the other search
+   */
+  void add(SearchCounters other) {
+    expandedCells += other.expandedCells;
+    generatedCells += other.generatedCells;
+    pushes += other.pushes;
+    pops += other.pops;
+    updates += other.updates;
+    maxOpenListSize += other.maxOpenListSize;
+  }
+
+  /**
+   * Creates the immutable statistics of the finished search.
+   *
+   * @param cells the cells of the found path, null if there is none
+   * @param pathCost the cost of the found path
+   * @param wallTimeNanos the time the search took in nanoseconds
+   * @return the statistics of the search
+   */
+  SearchStats toStats(int[] cells, int pathCost, long wallTimeNanos) {
+    return toStats(cells, pathCost, cells != null, wallTimeNanos);
+  }
+
+  /**
+   * Creates the immutable statistics of a search which may have been stopped with a partial path.
+   *
+   * @param cells the cells of the found or partial path, null if there is none
+   * @param pathCost the cost of the path
+   * @param pathFound whether the path reaches the goal
+   * @param wallTimeNanos the time the search took in nanoseconds
+   * @return the statistics of the search
+   */
+  SearchStats toStats(int[] cells, int pathCost, boolean pathFound, long wallTimeNanos) {
+    return new SearchStats(
+        expandedCells,
+        generatedCells,
+        pushes,
+        pops,
+        updates,
+        maxOpenListSize,
+        cells != null ? cells.length : 0,
+        cells != null ? pathCost : -1,
+        pathFound,
+        wallTimeNanos);
+  }
+}
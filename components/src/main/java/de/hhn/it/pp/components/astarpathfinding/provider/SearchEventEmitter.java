@@ -0,0 +1,93 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.SearchEvent;
+import de.hhn.it.pp.components.astarpathfinding.SearchEvent.Kind;
+import de.hhn.it.pp.components.astarpathfinding.SearchListener;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Turns the changes recorded by a search into {@link SearchEvent search events} and hands them to
+ * a listener as soon as they happen.
+ */
+final class SearchEventEmitter implements SearchRecorder {
+  private static final List<Position> NO_PATH = Collections.emptyList();
+
+  private final GridMap grid;
+  private final SearchListener listener;
+  // The costs of the cells, which are not passed when a cell is closed
+  private final PagedIntArray gCost = new PagedIntArray();
+  private final PagedIntArray hCost = new PagedIntArray();
+  private final PagedIntArray parent = new PagedIntArray();
+
+  SearchEventEmitter(GridMap grid, SearchListener listener) {
+    this.grid = grid;
+    this.listener = listener;
+    gCost.ensureLength(grid.getCellCount());
+    hCost.ensureLength(grid.getCellCount());
+    parent.ensureLength(grid.getCellCount());
+  }
+
+  @Override
+  public void push(int cell, TerrainType type, int gCost, int hCost, int parent) {
+    store(cell, gCost, hCost, parent);
+    emit(Kind.OPENED, cell, gCost, hCost, parent);
+  }
+
+  @Override
+  public void update(int cell, int gCost, int hCost, int parent) {
+    store(cell, gCost, hCost, parent);
+    emit(Kind.UPDATED, cell, gCost, hCost, parent);
+  }
+
+  @Override
+  public void pop(int cell) {
+    // Every removed cell is closed right away, which is reported as a single event
+  }
+
+  @Override
+  public void close(int cell) {
+    emit(Kind.CLOSED, cell, gCost.get(cell), hCost.get(cell), parent.get(cell) - 1);
+  }
+
+  @Override
+  public void endFrame() {
+    listener.onEvent(new SearchEvent(Kind.STEP_FINISHED, null, null, 0, 0, null, NO_PATH));
+  }
+
+  /**
+   * Reports the end of the search.
+   *
+   * @param result the result of the search
+   */
+  void finish(PathResult result) {
+    List<Position> positions = result.isFound() ? result.toPositions() : NO_PATH;
+    listener.onEvent(new SearchEvent(Kind.SEARCH_FINISHED, null, null, 0, 0, null, positions));
+  }
+
+  private void store(int cell, int gCost, int hCost, int parent) {
+    this.gCost.set(cell, gCost);
+    this.hCost.set(cell, hCost);
+    // Shifted by one, so the 0 of a cell which has never been stored means no parent
+    this.parent.set(cell, parent + 1);
+  }
+
+  private void emit(Kind kind, int cell, int gCost, int hCost, int parent) {
+    listener.onEvent(
+        new SearchEvent(
+            kind,
+            toPosition(cell),
+            grid.getType(cell),
+            gCost,
+            hCost,
+            parent == -1 ? null : toPosition(parent),
+            NO_PATH));
+  }
+
+  private Position toPosition(int cell) {
+    return new Position(grid.row(cell), grid.col(cell));
+  }
+}
@@ -0,0 +1,247 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.PathfindingInformation;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only log of the primitive events a pathfinding search goes through. Instead of copying
+ * the open list, the visited list and the final path after every expansion, the algorithm appends
+ * a handful of integers per event. {@link PathfindingInformation} frames are rebuilt from the log
+ * only when a consumer asks for them.
+ */
+public class SearchEventLog implements SearchRecorder {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(SearchEventLog.class);
+
+  /** A cell was added to the open list. */
+  public static final int PUSH = 0;
+  /** A cell was removed from the open list. */
+  public static final int POP = 1;
+  /** The costs of a cell in the open list were lowered. */
+  public static final int UPDATE = 2;
+  /** A cell was added to the closed list. */
+  public static final int CLOSE = 3;
+
+  /** Every event occupies this many slots: kind and type, cell, g cost, h cost, parent cell. */
+  private static final int EVENT_SIZE = 5;
+  private static final int KIND_MASK = 0xFF;
+  private static final int TYPE_SHIFT = 8;
+  private static final int NO_PARENT = -1;
+
+  private final int width;
+  private int[] events = new int[EVENT_SIZE * 64];
+  private int eventCount;
+  private int[] frameEnds = new int[16];
+  private int frameCount;
+  private int pushCount;
+  private boolean pathFound;
+  private List<Terrain> finalPath = Collections.emptyList();
+
+  /**
+   * Creates an empty log for a map of the given width. Cells are identified by their index
+   * {@code row * width + col}.
+   *
+   * @param width the width of the searched map
+   */
+  public SearchEventLog(int width) {
+    this.width = width;
+  }
+
+  /**
+   * Records that a cell was added to the open list.
+   *
+   * @param cell the cell index
+   * @param type the terrain type of the cell
+   * @param gCost the g cost of the cell
+   * @param hCost the h cost of the cell
+   * @param parent the index of the parent cell or a negative value if there is none
+   */
+  @Override
+  public void push(int cell, TerrainType type, int gCost, int hCost, int parent) {
+    append(PUSH | type.ordinal() << TYPE_SHIFT, cell, gCost, hCost, parent);
+    pushCount++;
+  }
+
+  /**
+   * Records that the costs of a cell in the open list were lowered.
+   *
+   * @param cell the cell index
+   * @param gCost the new g cost of the cell
+   * @param hCost the new h cost of the cell
+   * @param parent the index of the new parent cell
+   */
+  @Override
+  public void update(int cell, int gCost, int hCost, int parent) {
+    append(UPDATE, cell, gCost, hCost, parent);
+  }
+
+  /**
+   * Records that a cell was removed from the open list.
+   *
+   * @param cell the cell index
+   */
+  @Override
+  public void pop(int cell) {
+    append(POP, cell, 0, 0, NO_PARENT);
+  }
+
+  /**
+   * Records that a cell was added to the closed list.
+   *
+   * @param cell the cell index
+   */
+  @Override
+  public void close(int cell) {
+    append(CLOSE, cell, 0, 0, NO_PARENT);
+  }
+
+  /** Marks the end of an algorithm step. Every step becomes one frame. */
+  @Override
+  public void endFrame() {
+    if (frameCount == frameEnds.length) {
+      frameEnds = Arrays.copyOf(frameEnds, frameCount * 2);
+    }
+    frameEnds[frameCount++] = eventCount;
+  }
+
+  /**
+   * Stores the final path of a successful search. It will be part of the last frame.
+   *
+   * @param finalPath the final path from the start to the destination
+   */
+  public void setFinalPath(List<Terrain> finalPath) {
+    this.finalPath = finalPath;
+    this.pathFound = true;
+  }
+
+  private void append(int kind, int cell, int gCost, int hCost, int parent) {
+    int offset = eventCount * EVENT_SIZE;
+    if (offset + EVENT_SIZE > events.length) {
+      events = Arrays.copyOf(events, events.length * 2);
+    }
+    events[offset] = kind;
+    events[offset + 1] = cell;
+    events[offset + 2] = gCost;
+    events[offset + 3] = hCost;
+    events[offset + 4] = parent;
+    eventCount++;
+  }
+
+  public int getEventCount() {
+    return eventCount;
+  }
+
+  public int getEventKind(int event) {
+    return events[event * EVENT_SIZE] & KIND_MASK;
+  }
+
+  public int getEventCell(int event) {
+    return events[event * EVENT_SIZE + 1];
+  }
+
+  public int getFrameCount() {
+    return frameCount;
+  }
+
+  public boolean isPathFound() {
+    return pathFound;
+  }
+
+  public List<Terrain> getFinalPath() {
+    return finalPath;
+  }
+
+  /**
+   * Rebuilds the state of the algorithm after the given step by replaying the log up to the end of
+   * that step.
+   *
+   * @param frame the number of the step, starting at 0
+   * @return the state of the open list, the visited list and, for the last frame of a successful
+   *     search, the final path
+   * @throws IllegalParameterException if the frame does not exist
+   */
+  public PathfindingInformation getFrame(int frame) throws IllegalParameterException {
+    if (frame < 0 || frame >= frameCount) {
+      throw new IllegalParameterException(
+          String.format("Frame %d does not exist! The log contains %d frames.", frame, frameCount));
+    }
+    logger.debug("getFrame: frame = {}", frame);
+
+    PathfindingInformation information = new PathfindingInformation(Math.max(1, pushCount));
+    Map<Integer, Terrain> terrains = new HashMap<>();
+    TerrainType[] types = TerrainType.values();
+    int end = frameEnds[frame];
+    for (int event = 0; event < end; event++) {
+      int offset = event * EVENT_SIZE;
+      int cell = events[offset + 1];
+      switch (events[offset] & KIND_MASK) {
+        case PUSH:
+          Terrain pushed =
+              new Terrain(
+                  new Position(cell / width, cell % width), types[events[offset] >>> TYPE_SHIFT]);
+          applyCosts(pushed, offset, terrains);
+          terrains.put(cell, pushed);
+          information.getSpecificPositions().add(pushed);
+          break;
+        case UPDATE:
+          Terrain updated = terrains.get(cell);
+          applyCosts(updated, offset, terrains);
+          information.getSpecificPositions().updateItem(updated);
+          break;
+        case POP:
+          information.getSpecificPositions().remove(terrains.get(cell));
+          break;
+        case CLOSE:
+          information.addVisitedPosition(terrains.get(cell));
+          break;
+        default:
+          break;
+      }
+    }
+
+    if (pathFound && frame == frameCount - 1) {
+      information.setFinalPathPositions(new ArrayList<>(finalPath));
+    }
+    return information;
+  }
+
+  private void applyCosts(Terrain terrain, int offset, Map<Integer, Terrain> terrains) {
+    terrain.setGCost(events[offset + 2]);
+    terrain.setHCost(events[offset + 3]);
+    int parent = events[offset + 4];
+    terrain.setParent(parent == NO_PARENT ? null : terrains.get(parent));
+  }
+
+  /**
+   * Returns a read-only list view of all frames. A frame is rebuilt each time it is requested, so
+   * callers which only need the last frame never pay for the others.
+   *
+   * @return the frames of this log
+   */
+  public List<PathfindingInformation> asFrames() {
+    return new AbstractList<>() {
+      @Override
+      public PathfindingInformation get(int index) {
+        try {
+          return getFrame(index);
+        } catch (IllegalParameterException e) {
+          throw new IndexOutOfBoundsException(e.getMessage());
+        }
+      }
+
+      @Override
+      public int size() {
+        return frameCount;
+      }
+    };
+  }
+}
@@ -0,0 +1,80 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.SearchEvent;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Publishes the events of a search to reactive subscribers. Every subscription starts its own
+ * search, which runs on the executor of the publisher. The events are delivered through a bounded
+ * buffer: when a subscriber requests events slower than the search produces them, the search waits
+ * until the buffer has space again. A subscription which is cancelled stops its search.
+ */
+final class SearchEventPublisher implements Flow.Publisher<SearchEvent> {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(SearchEventPublisher.class);
+
+  /** The number of events which are buffered per subscriber. */
+  static final int BUFFER_CAPACITY = Flow.defaultBufferSize();
+
+  private final AStarPathfindingAlgorithm algorithm;
+  private final Executor executor;
+
+  /**
+   * Creates a publisher whose searches and deliveries run on the common pool, or on a new thread
+   * per task if the common pool cannot run both at the same time.
+   *
+   * @param algorithm the algorithm which runs the searches
+   */
+  SearchEventPublisher(AStarPathfindingAlgorithm algorithm) {
+    this(
+        algorithm,
+        ForkJoinPool.getCommonPoolParallelism() > 1
+            ? ForkJoinPool.commonPool()
+            : task -> new Thread(task).start());
+  }
+
+  /**
+   * Creates a publisher with the given executor. The executor runs the search and the delivery of
+   * the events, so it must be able to run two tasks at the same time.
+   *
+   * @param algorithm the algorithm which runs the searches
+   * @param executor the executor of the searches and the deliveries
+   */
+  SearchEventPublisher(AStarPathfindingAlgorithm algorithm, Executor executor) {
+    this.algorithm = algorithm;
+    this.executor = executor;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super SearchEvent> subscriber) {
+    logger.debug("subscribe: subscriber = {}", subscriber);
+    SubmissionPublisher<SearchEvent> publisher =
+        new SubmissionPublisher<>(executor, BUFFER_CAPACITY);
+    publisher.subscribe(subscriber);
+    executor.execute(() -> run(publisher));
+  }
+
+  private void run(SubmissionPublisher<SearchEvent> publisher) {
+    try {
+      algorithm.findShortestPath(
+          event -> {
+            if (!publisher.hasSubscribers()) {
+              throw new CancellationException();
+            }
+            // Blocks while the buffer of the subscriber is full
+            publisher.submit(event);
+          });
+      publisher.close();
+    } catch (CancellationException e) {
+      logger.debug("run: subscription cancelled, search stopped");
+      publisher.close();
+    } catch (Exception e) {
+      logger.warn("run: search failed", e);
+      publisher.closeExceptionally(e);
+    }
+  }
+}
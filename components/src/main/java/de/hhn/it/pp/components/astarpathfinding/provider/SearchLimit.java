@@ -0,0 +1,100 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.SearchBudget;
+import de.hhn.it.pp.components.astarpathfinding.SearchStatus;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The budget of a running search. The search offers every cell it closes, so the limit knows the
+ * closed cell which is closest to the goal, and asks before every expansion whether it has to
+ * stop. The clock and the cancellation are only checked every {@link #CHECK_INTERVAL} expansions,
+ * which keeps the limit cheap in the inner loop of the search.
+ */
+final class SearchLimit {
+  /** The number of expansions between two checks of the clock and the cancellation. */
+  static final int CHECK_INTERVAL = 256;
+
+  private final long maxExpandedCells;
+  private final long startNanos;
+  private final long timeoutNanos;
+  private final BooleanSupplier cancelled;
+
+  private int bestCell = -1;
+  private int bestHCost = Integer.MAX_VALUE;
+  private SearchStatus status;
+  private boolean stoppedByCancellation;
+
+  /**
+   * Creates the limit of a search.
+   *
+   * @param budget the budget of the search
+   * @param startNanos the value of {@link System#nanoTime()} when the search has been requested
+   * @param cancelled returns true once the search has been cancelled
+   */
+  SearchLimit(SearchBudget budget, long startNanos, BooleanSupplier cancelled) {
+    this.maxExpandedCells = budget.getMaxExpandedNodes();
+    this.startNanos = startNanos;
+    this.timeoutNanos = budget.getTimeoutNanos();
+    this.cancelled = cancelled;
+  }
+
+  /**
+   * Remembers a closed cell if it is closer to the goal than all cells before.
+   *
+   * @param cell the closed cell
+   * @param hCost the distance of the cell to the goal
+   */
+  void offer(int cell, int hCost) {
+    if (hCost < bestHCost) {
+      bestCell = cell;
+      bestHCost = hCost;
+    }
+  }
+
+  /**
+   * Checks whether the search has to stop before its next expansion.
+   *
+   * @param expandedCells the number of cells the search has expanded so far
+   * @return true if the budget is exhausted or the search has been cancelled
+   */
+  boolean isReached(long expandedCells) {
+    if (expandedCells >= maxExpandedCells) {
+      status = SearchStatus.EXPANSION_LIMIT_REACHED;
+      return true;
+    }
+    if (expandedCells % CHECK_INTERVAL != 0) {
+      return false;
+    }
+    if (cancelled.getAsBoolean()) {
+      stoppedByCancellation = true;
+      return true;
+    }
+    if (timeoutNanos != Long.MAX_VALUE && System.nanoTime() - startNanos >= timeoutNanos) {
+      status = SearchStatus.DEADLINE_EXCEEDED;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the closed cell which is closest to the goal.
+   *
+   * @return the cell or -1 if no cell has been closed
+   */
+  int getBestCell() {
+    return bestCell;
+  }
+
+  /**
+   * Returns why the search has been stopped.
+   *
+   * @return the reason or null if the search has not been stopped by its budget
+   */
+  SearchStatus getStatus() {
+    return status;
+  }
+
+  boolean isCancelled() {
+    return stoppedByCancellation;
+  }
+}
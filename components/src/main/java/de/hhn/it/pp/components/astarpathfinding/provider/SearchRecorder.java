@@ -0,0 +1,49 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+
+/**
+ * Receives the changes of the open and closed list while a search is running. Cells are given as
+ * cell indices of the searched {@link GridMap}. A search without recorder does not pay anything
+ * for this interface.
+ */
+interface SearchRecorder {
+
+  /**
+   * Records that a cell was added to the open list.
+   *
+   * @param cell the cell index
+   * @param type the terrain type of the cell
+   * @param gCost the g cost of the cell
+   * @param hCost the h cost of the cell
+   * @param parent the index of the parent cell or -1 for the start cell
+   */
+  void push(int cell, TerrainType type, int gCost, int hCost, int parent);
+
+  /**
+   * Records that the costs and the parent of a cell in the open list were updated.
+   *
+   * @param cell the cell index
+   * @param gCost the new g cost of the cell
+   * @param hCost the new h cost of the cell
+   * @param parent the index of the new parent cell
+   */
+  void update(int cell, int gCost, int hCost, int parent);
+
+  /**
+   * Records that a cell was removed from the open list.
+   *
+   * @param cell the cell index
+   */
+  void pop(int cell);
+
+  /**
+   * Records that a cell was added to the closed list.
+   *
+   * @param cell the cell index
+   */
+  void close(int cell);
+
+  /** Marks the end of an algorithm step. */
+  void endFrame();
+}
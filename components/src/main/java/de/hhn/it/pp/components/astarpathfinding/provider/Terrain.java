@@ -84,7 +84,7 @@ public class Terrain implements IHeapItem<Terrain> {
   }
 
   public int getHCost() {
-    return gCost;
+    return hCost;
   }
 
   public void setHCost(int h) {
@@ -0,0 +1,85 @@
+package de.hhn.it.pp.components.astarpathfinding.provider;
+
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+
+/**
+ * A* search which orders its open list by g + w * h, where the weight w is at least 1. The search
+ * is drawn towards the destination and expands far fewer cells on maps with few obstacles, but the
+ * found paths are only bounded suboptimal: their cost is at most w times the cost of the shortest
+ * path. Closed cells are not opened again when a cheaper path to them is found later, which keeps
+ * this bound.
+ */
+public class WeightedAStarAlgorithm extends AStarPathfindingAlgorithm {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(WeightedAStarAlgorithm.class);
+
+  /** The weight which is used if none is given. */
+  public static final double DEFAULT_WEIGHT = 1.5;
+
+  /** The largest weight, which keeps the f costs of the cells of large maps within an int. */
+  public static final double MAX_WEIGHT = 100;
+
+  private final double weight;
+
+  /**
+   * Constructor for this class.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param weight the factor of the heuristic, between 1 and {@link #MAX_WEIGHT}
+   */
+  public WeightedAStarAlgorithm(MapManager mapManager, boolean diagonalPathing, double weight) {
+    this(mapManager, diagonalPathing, OpenListType.BINARY_HEAP, null, weight);
+  }
+
+  /**
+   * Constructor for this class.
+   *
+   * @param mapManager holds all the information from the map
+   * @param diagonalPathing whether diagonal steps are allowed
+   * @param openListType the data structure of the open list of every search
+   * @param costTable the costs of the steps of every search, may be null
+   * @param weight the factor of the heuristic, between 1 and {@link #MAX_WEIGHT}
+   */
+  public WeightedAStarAlgorithm(
+      MapManager mapManager,
+      boolean diagonalPathing,
+      OpenListType openListType,
+      CostTable costTable,
+      double weight) {
+    super(mapManager, diagonalPathing, openListType, costTable);
+    if (!isValidWeight(weight)) {
+      throw new IllegalArgumentException(
+          "The weight must be between 1 and " + MAX_WEIGHT + " but is " + weight);
+    }
+    this.weight = weight;
+    logger.debug("constructor: weight = {}", weight);
+  }
+
+  /**
+   * Checks whether a weight can be used for the heuristic.
+   *
+   * @param weight the weight
+   * @return true if the weight is between 1 and {@link #MAX_WEIGHT}
+   */
+  public static boolean isValidWeight(double weight) {
+    // Also false for NaN
+    return weight >= 1 && weight <= MAX_WEIGHT;
+  }
+
+  @Override
+  int getHCost(GridMap grid, int cell, int row, int col) {
+    return (int) (weight * super.getHCost(grid, cell, row, col));
+  }
+
+  @Override
+  double getHeuristicWeight() {
+    return weight;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Weighted A* search with weight %s; %s", weight, super.toString());
+  }
+}
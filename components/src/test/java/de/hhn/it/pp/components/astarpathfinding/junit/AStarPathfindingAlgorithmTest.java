@@ -3,19 +3,29 @@ package de.hhn.it.pp.components.astarpathfinding.junit;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
 import de.hhn.it.pp.components.astarpathfinding.PathfindingInformation;
 import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.SearchEvent;
 import de.hhn.it.pp.components.astarpathfinding.TerrainType;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.OccupiedPositionException;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
 import de.hhn.it.pp.components.astarpathfinding.provider.AStarPathfindingAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.JumpPointSearchAlgorithm;
 import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
 import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
 import de.hhn.it.pp.components.astarpathfinding.provider.Terrain;
 import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -31,6 +41,8 @@ public class AStarPathfindingAlgorithmTest {
 
   @BeforeEach
   void setup() {
+    // Other tests change the global modifiers
+    TerrainType.resetModifers();
     testMapManager = new MapManager();
     algorithm = new AStarPathfindingAlgorithm(testMapManager, false);
     algorithmDiagonal = new AStarPathfindingAlgorithm(testMapManager, true);
@@ -52,7 +64,7 @@ public class AStarPathfindingAlgorithmTest {
       testMapManager.createTerrain(TerrainType.SWAMP, new Position(1, 4));
       testMapManager.createTerrain(TerrainType.LAVA, new Position(2, 4));
       testMapManager.createTerrain(TerrainType.SWAMP, new Position(3, 4));
-      ArrayList<PathfindingInformation> result = algorithm.findPath();
+      List<PathfindingInformation> result = algorithm.findPath();
       List<Terrain> finalPath = result.get(result.size() - 1).getFinalPathPositions();
       printMapWithFinalPath(finalPath);
 
@@ -105,7 +117,7 @@ public class AStarPathfindingAlgorithmTest {
       testMapManager.createTerrain(TerrainType.LAVA, new Position(2, 4));
       testMapManager.createTerrain(TerrainType.SWAMP, new Position(3, 4));
 
-      ArrayList<PathfindingInformation> result = algorithm.findPath();
+      List<PathfindingInformation> result = algorithm.findPath();
       List<Terrain> finalPath = result.get(result.size() - 1).getFinalPathPositions();
 
       List<Terrain> expectedPath = new ArrayList<>();
@@ -151,7 +163,7 @@ public class AStarPathfindingAlgorithmTest {
       testMapManager.createTerrain(TerrainType.LAVA, new Position(2,1));
       testMapManager.createTerrain(TerrainType.LAVA, new Position(3,0));
 
-      ArrayList<PathfindingInformation> result = algorithmDiagonal.findPath();
+      List<PathfindingInformation> result = algorithmDiagonal.findPath();
       List<Terrain> finalPath = result.get(result.size() - 1).getFinalPathPositions();
       printMapWithFinalPath(finalPath);
 
@@ -167,6 +179,94 @@ public class AStarPathfindingAlgorithmTest {
       assertFalse(finalPath.isEmpty());
       assertEquals(expectedPath, finalPath, "The expected path is not the same as the actual path");
     }
+
+    @Test
+    @DisplayName("The search does not store its state in the terrains of the map")
+    public void doPathfinding_mapTerrainsUntouched() throws IllegalParameterException {
+      PathResult finalPath = algorithm.findShortestPath();
+
+      assertTrue(finalPath.isFound());
+      for (Terrain[] row : testMapManager.getMap()) {
+        for (Terrain terrain : row) {
+          assertEquals(0, terrain.getGCost(), "The g cost of " + terrain + " was changed");
+          assertEquals(0, terrain.getHCost(), "The h cost of " + terrain + " was changed");
+          assertEquals(null, terrain.getParent(), "The parent of " + terrain + " was changed");
+        }
+      }
+    }
+
+    @Test
+    @DisplayName("The bucket queue finds paths of the same cost as the binary heap")
+    public void findPaths_bucketQueue() throws PositionOutOfBounds {
+      Random random = new Random(11);
+      testMapManager.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+      RandomMaps.placeRandomTerrain(
+        random, MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT, 200, testMapManager::createTerrain);
+      List<PathQuery> queries =
+        RandomMaps.randomQueries(random, MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT, 200);
+
+      for (boolean diagonal : new boolean[] {true, false}) {
+        List<PathResult> expected =
+          new AStarPathfindingAlgorithm(testMapManager, diagonal, OpenListType.BINARY_HEAP)
+            .findPaths(queries);
+        List<PathResult> results =
+          new AStarPathfindingAlgorithm(testMapManager, diagonal, OpenListType.BUCKET_QUEUE)
+            .findPaths(queries);
+        List<PathResult> jumpPointResults =
+          new JumpPointSearchAlgorithm(testMapManager, diagonal, OpenListType.BUCKET_QUEUE)
+            .findPaths(queries);
+        for (int i = 0; i < queries.size(); i++) {
+          String query = queries.get(i).toString();
+          assertEquals(expected.get(i).getCost(), results.get(i).getCost(), query);
+          assertEquals(expected.get(i).getCost(), jumpPointResults.get(i).getCost(), query);
+        }
+      }
+    }
+
+    @Test
+    @DisplayName("Expanding cells does not allocate memory")
+    public void findPaths_noAllocationPerExpandedCell() throws Exception {
+      ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+      assumeTrue(
+        threadBean instanceof com.sun.management.ThreadMXBean
+          && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported(),
+        "Allocated memory per thread can not be measured");
+      com.sun.management.ThreadMXBean allocationBean =
+        (com.sun.management.ThreadMXBean) threadBean;
+      long threadId = Thread.currentThread().getId();
+
+      testMapManager.createLargeMap(256, 256);
+      testMapManager.setStartCoordinates(new Position(0, 0));
+      testMapManager.setDestinationCoordinates(new Position(255, 255));
+      for (boolean diagonal : new boolean[] {false, true}) {
+        AStarPathfindingAlgorithm search =
+          new AStarPathfindingAlgorithm(
+            testMapManager, diagonal, OpenListType.BINARY_HEAP, CostTable.defaults());
+        int[] closedCells = new int[1];
+        search.findShortestPath(
+          event -> {
+            if (event.getKind() == SearchEvent.Kind.CLOSED) {
+              closedCells[0]++;
+            }
+          });
+
+        // The first search allocates the state of the search context of this thread
+        List<PathQuery> queries =
+          List.of(new PathQuery(new Position(0, 0), new Position(255, 255)));
+        search.findPaths(queries);
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        PathResult result = search.findPaths(queries).get(0);
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+        logger.info("{} cells closed, {} bytes allocated", closedCells[0], allocated);
+
+        assertTrue(result.isFound());
+        // Only the result is allocated, which is much less than a byte per closed cell
+        assertTrue(closedCells[0] > 10000, "Only " + closedCells[0] + " cells closed");
+        assertTrue(
+          allocated < 4096 + 8L * result.getLength(),
+          allocated + " bytes allocated for " + closedCells[0] + " closed cells");
+      }
+    }
   }
 
   @Nested
@@ -186,7 +286,7 @@ public class AStarPathfindingAlgorithmTest {
       testMapManager.createTerrain(TerrainType.LAVA, new Position(2, 3));
       testMapManager.createTerrain(TerrainType.LAVA, new Position(3, 2));
 
-      ArrayList<PathfindingInformation> result = algorithm.findPath();
+      List<PathfindingInformation> result = algorithm.findPath();
       assertTrue(result.isEmpty(), "There should not be a path from the start position");
 
       // Reset map
@@ -217,7 +317,7 @@ public class AStarPathfindingAlgorithmTest {
       testMapManager.createTerrain(TerrainType.LAVA, new Position(1,0));
       testMapManager.createTerrain(TerrainType.LAVA, new Position(1,1));
 
-      ArrayList<PathfindingInformation> result = algorithmDiagonal.findPath();
+      List<PathfindingInformation> result = algorithmDiagonal.findPath();
       assertTrue(result.isEmpty(), "There should not be a path to the end position");
     }
 
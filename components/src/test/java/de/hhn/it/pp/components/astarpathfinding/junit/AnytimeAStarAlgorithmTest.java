@@ -0,0 +1,211 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.SearchBudget;
+import de.hhn.it.pp.components.astarpathfinding.SearchStatus;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.AStarPathfindingAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.AnytimeAStarAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.WeightedAStarAlgorithm;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AnytimeAStarAlgorithmTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(AnytimeAStarAlgorithmTest.class);
+
+  private MapManager testMapManager;
+
+  @BeforeEach
+  void setup() {
+    // With the default modifiers every step costs at least 11 times the Manhattan distance, so
+    // the weights would not change the paths
+    TerrainType.DIRT.setModifier(0);
+    TerrainType.GRASS.setModifier(1);
+    TerrainType.SWAMP.setModifier(3);
+    TerrainType.WATER.setModifier(5);
+    testMapManager = new MapManager();
+  }
+
+  @AfterEach
+  void tearDown() {
+    TerrainType.resetModifers();
+  }
+
+  @Test
+  @DisplayName("Weighted A* finds paths within the weight times the cost of the shortest path")
+  public void findPaths_weightedWithinBound() throws PositionOutOfBounds {
+    Random random = new Random(5);
+    for (int map = 0; map < 10; map++) {
+      createRandomMap(random);
+      List<PathQuery> queries =
+          RandomMaps.randomQueries(random, MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT, 100);
+      for (boolean diagonal : new boolean[] {true, false}) {
+        List<PathResult> expected =
+            new AStarPathfindingAlgorithm(testMapManager, diagonal).findPaths(queries);
+        for (double weight : new double[] {1, 1.5, 3}) {
+          for (OpenListType type : OpenListType.values()) {
+            List<PathResult> results =
+                new WeightedAStarAlgorithm(testMapManager, diagonal, type, null, weight)
+                    .findPaths(queries);
+            for (int i = 0; i < queries.size(); i++) {
+              PathResult optimal = expected.get(i);
+              PathResult result = results.get(i);
+              assertEquals(optimal.isFound(), result.isFound(), queries.get(i).toString());
+              if (!optimal.isFound()) {
+                continue;
+              }
+              if (weight == 1) {
+                assertEquals(optimal.getCost(), result.getCost(), queries.get(i).toString());
+              } else {
+                assertTrue(
+                    result.getCost() <= weight * optimal.getCost(),
+                    "Cost " + result.getCost() + " of " + optimal.getCost() + " with " + weight);
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("ARA* publishes improving solutions and ends with the shortest path")
+  public void findPath_improvingSolutions() throws PositionOutOfBounds {
+    Random random = new Random(7);
+    int improvedQueries = 0;
+    for (int map = 0; map < 10; map++) {
+      createRandomMap(random);
+      for (boolean diagonal : new boolean[] {true, false}) {
+        AStarPathfindingAlgorithm aStar = new AStarPathfindingAlgorithm(testMapManager, diagonal);
+        AnytimeAStarAlgorithm anytime =
+            new AnytimeAStarAlgorithm(
+                testMapManager, diagonal, OpenListType.BINARY_HEAP, null, 3, 0.5);
+        for (int i = 0; i < 20; i++) {
+          PathQuery query =
+              RandomMaps.randomQueries(random, MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT, 1)
+                  .get(0);
+          int optimalCost = aStar.findPaths(List.of(query)).get(0).getCost();
+          List<PathResult> solutions = new ArrayList<>();
+          List<Double> weights = new ArrayList<>();
+          PathResult result =
+              anytime.findPath(
+                  query,
+                  SearchBudget.unlimited(),
+                  (solution, weight) -> {
+                    solutions.add(solution);
+                    weights.add(weight);
+                  });
+
+          assertEquals(optimalCost, result.getCost(), query.toString());
+          if (optimalCost == -1) {
+            assertFalse(result.isFound());
+            assertTrue(solutions.isEmpty());
+            continue;
+          }
+          assertEquals(SearchStatus.FOUND, result.getStatus());
+          assertEquals(1.0, weights.get(weights.size() - 1).doubleValue());
+          assertEquals(optimalCost, solutions.get(solutions.size() - 1).getCost());
+          for (int s = 0; s < solutions.size(); s++) {
+            assertTrue(solutions.get(s).getCost() <= weights.get(s) * optimalCost);
+            if (s > 0) {
+              assertTrue(weights.get(s) < weights.get(s - 1));
+              assertTrue(solutions.get(s).getCost() <= solutions.get(s - 1).getCost());
+            }
+          }
+          if (solutions.get(0).getCost() > optimalCost) {
+            improvedQueries++;
+          }
+        }
+      }
+    }
+    logger.info("{} queries improved their first solution", improvedQueries);
+    assertTrue(improvedQueries > 0, "No first solution was worse than the shortest path");
+  }
+
+  @Test
+  @DisplayName("ARA* returns the last solution when the budget is exhausted")
+  public void findPath_budgetKeepsLastSolution()
+      throws PositionOutOfBounds, IllegalParameterException {
+    testMapManager.createLargeMap(200, 200);
+    // A lake between the start and the end which is cheaper to walk around
+    for (int row = 10; row < 200; row++) {
+      for (int col = 50; col < 150; col++) {
+        testMapManager.createTerrain(TerrainType.WATER, new Position(row, col));
+      }
+    }
+    PathQuery query = new PathQuery(new Position(100, 0), new Position(100, 199));
+    AnytimeAStarAlgorithm anytime = new AnytimeAStarAlgorithm(testMapManager, true, 5);
+    List<PathResult> solutions = new ArrayList<>();
+    PathResult shortest =
+        anytime.findPath(
+            query, SearchBudget.unlimited(), (solution, weight) -> solutions.add(solution));
+    PathResult first = solutions.get(0);
+    assertTrue(first.getCost() > shortest.getCost(), "The first solution crosses the lake");
+
+    SearchBudget budget =
+        SearchBudget.unlimited().withMaxExpandedNodes(first.getStats().getExpandedNodes());
+    List<PathResult> limitedSolutions = new ArrayList<>();
+    PathResult result =
+        anytime.findPath(query, budget, (solution, weight) -> limitedSolutions.add(solution));
+    PathResult last = limitedSolutions.get(limitedSolutions.size() - 1);
+    assertTrue(limitedSolutions.size() < solutions.size());
+    assertEquals(SearchStatus.FOUND, result.getStatus());
+    assertEquals(last.getCost(), result.getCost());
+    assertEquals(last.toPositions(), result.toPositions());
+    assertTrue(result.getCost() > shortest.getCost());
+  }
+
+  @Test
+  @DisplayName("ARA* returns a partial path if the budget is exhausted before the first solution")
+  public void findPath_partialPath() throws PositionOutOfBounds, IllegalParameterException {
+    testMapManager.createLargeMap(200, 200);
+    PathQuery query = new PathQuery(new Position(0, 0), new Position(199, 199));
+    SearchBudget budget = SearchBudget.unlimited().withMaxExpandedNodes(10);
+    PathResult result =
+        new AnytimeAStarAlgorithm(testMapManager, false, 2)
+            .findPath(query, budget, (solution, weight) -> {});
+    assertEquals(SearchStatus.EXPANSION_LIMIT_REACHED, result.getStatus());
+    assertTrue(result.isPartial());
+    assertEquals(new Position(0, 0), result.getPosition(0));
+  }
+
+  @Test
+  @DisplayName("Invalid weights are rejected")
+  public void constructor_invalidWeights() {
+    for (double weight : new double[] {0.5, Double.NaN, WeightedAStarAlgorithm.MAX_WEIGHT + 1}) {
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> new WeightedAStarAlgorithm(testMapManager, true, weight));
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> new AnytimeAStarAlgorithm(testMapManager, true, weight));
+    }
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new AnytimeAStarAlgorithm(testMapManager, true, OpenListType.BINARY_HEAP, null, 2, 0));
+  }
+
+  private void createRandomMap(Random random) throws PositionOutOfBounds {
+    testMapManager.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+    RandomMaps.placeRandomTerrain(
+        random, MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT, 200, testMapManager::createTerrain);
+  }
+}
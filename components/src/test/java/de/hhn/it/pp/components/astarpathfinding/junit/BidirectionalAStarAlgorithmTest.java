@@ -0,0 +1,125 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.OccupiedPositionException;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.AStarPathfindingAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.BidirectionalAStarAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.SearchEventLog;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BidirectionalAStarAlgorithmTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(BidirectionalAStarAlgorithmTest.class);
+
+  private MapManager testMapManager;
+
+  @BeforeEach
+  void setup() {
+    TerrainType.resetModifers();
+    testMapManager = new MapManager();
+  }
+
+  @AfterEach
+  void tearDown() {
+    TerrainType.resetModifers();
+  }
+
+  @Test
+  @DisplayName("Bidirectional search finds paths of the same cost as A* on mixed terrain")
+  public void findPaths_sameCostAsAStar() throws PositionOutOfBounds {
+    Random random = new Random(3);
+    for (int map = 0; map < 20; map++) {
+      testMapManager.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+      RandomMaps.placeRandomTerrain(
+          random, MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT, 250, testMapManager::createTerrain);
+      if (map % 2 == 1) {
+        TerrainType.GRASS.setModifier(0.5);
+        TerrainType.SWAMP.setModifier(2.25);
+      } else {
+        TerrainType.resetModifers();
+      }
+
+      List<PathQuery> queries =
+          RandomMaps.randomQueries(random, MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT, 100);
+      for (boolean diagonal : new boolean[] {true, false}) {
+        List<PathResult> expected =
+            new AStarPathfindingAlgorithm(testMapManager, diagonal).findPaths(queries);
+        for (OpenListType type : OpenListType.values()) {
+          List<PathResult> results =
+              new BidirectionalAStarAlgorithm(testMapManager, diagonal, type).findPaths(queries);
+          for (int i = 0; i < queries.size(); i++) {
+            assertEquals(
+                expected.get(i).getCost(),
+                results.get(i).getCost(),
+                "Different cost for " + queries.get(i) + " on map " + map);
+            assertPathConnectsQuery(queries.get(i), results.get(i), diagonal);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Bidirectional search expands far fewer cells than A* on a long query")
+  public void recordSearch_fewerExpansions()
+      throws PositionOutOfBounds, OccupiedPositionException, IllegalParameterException {
+    testMapManager.createLargeMap(300, 300);
+    testMapManager.setStartCoordinates(new Position(150, 0));
+    testMapManager.setDestinationCoordinates(new Position(150, 299));
+
+    SearchEventLog aStarLog = new AStarPathfindingAlgorithm(testMapManager, true).recordSearch();
+    SearchEventLog bidirectionalLog =
+        new BidirectionalAStarAlgorithm(testMapManager, true).recordSearch();
+    int aStarExpansions = countExpansions(aStarLog);
+    int bidirectionalExpansions = countExpansions(bidirectionalLog);
+    logger.info(
+        "A*: {} expansions, bidirectional: {} expansions",
+        aStarExpansions,
+        bidirectionalExpansions);
+
+    assertTrue(bidirectionalLog.isPathFound());
+    assertTrue(
+        bidirectionalExpansions * 4 < aStarExpansions * 3,
+        "Bidirectional search expanded " + bidirectionalExpansions + " of " + aStarExpansions);
+  }
+
+  private int countExpansions(SearchEventLog log) {
+    int expansions = 0;
+    for (int event = 0; event < log.getEventCount(); event++) {
+      if (log.getEventKind(event) == SearchEventLog.CLOSE) {
+        expansions++;
+      }
+    }
+    return expansions;
+  }
+
+  private void assertPathConnectsQuery(PathQuery query, PathResult result, boolean diagonal) {
+    if (!result.isFound()) {
+      return;
+    }
+    assertEquals(query.getStart(), result.getPosition(0));
+    assertEquals(query.getGoal(), result.getPosition(result.getLength() - 1));
+    for (int step = 1; step < result.getLength(); step++) {
+      int rowDistance = Math.abs(result.getRow(step) - result.getRow(step - 1));
+      int colDistance = Math.abs(result.getCol(step) - result.getCol(step - 1));
+      assertTrue(
+          diagonal ? Math.max(rowDistance, colDistance) == 1 : rowDistance + colDistance == 1,
+          "The path " + result.toPositions() + " is not connected");
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.provider.ClosedSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ClosedSetTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(ClosedSetTest.class);
+
+  private ClosedSet closedSet;
+
+  @BeforeEach
+  void setup() {
+    closedSet = new ClosedSet(100);
+  }
+
+  @Test
+  @DisplayName("Added cells are contained, all others are not")
+  public void add_contains() {
+    closedSet.add(3);
+    closedSet.add(99);
+    assertTrue(closedSet.contains(3));
+    assertTrue(closedSet.contains(99));
+    assertFalse(closedSet.contains(0));
+    assertFalse(closedSet.contains(4));
+  }
+
+  @Test
+  @DisplayName("Clearing the set forgets all cells of the previous search")
+  public void clear_forgetsCells() {
+    for (int cell = 0; cell < 100; cell++) {
+      closedSet.add(cell);
+    }
+    closedSet.clear(100);
+    for (int cell = 0; cell < 100; cell++) {
+      assertFalse(closedSet.contains(cell), "Cell " + cell + " should not be closed anymore");
+    }
+    closedSet.add(42);
+    assertTrue(closedSet.contains(42));
+  }
+
+  @Test
+  @DisplayName("Clearing the set with a higher cell count lets it grow")
+  public void clear_grows() {
+    closedSet.add(10);
+    closedSet.clear(500);
+    assertEquals(500, closedSet.getCapacity());
+    assertFalse(closedSet.contains(10));
+    closedSet.add(499);
+    assertTrue(closedSet.contains(499));
+
+    closedSet.clear(20);
+    assertEquals(500, closedSet.getCapacity(), "The set should never shrink");
+    assertFalse(closedSet.contains(499));
+  }
+}
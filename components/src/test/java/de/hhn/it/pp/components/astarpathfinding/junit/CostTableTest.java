@@ -0,0 +1,111 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.provider.AStarPathfindingAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CostTableTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(CostTableTest.class);
+
+  @AfterEach
+  void tearDown() {
+    TerrainType.resetModifers();
+  }
+
+  @Test
+  @DisplayName("The step costs are computed from the modifiers")
+  public void stepCosts_fromModifiers() throws IllegalParameterException {
+    CostTable table = CostTable.defaults().withModifier(TerrainType.GRASS, 0.5);
+    int grass = TerrainType.GRASS.ordinal();
+    assertEquals(1, table.getStraightCost(grass));
+    assertEquals(3, table.getDiagonalCost(grass));
+    assertEquals(11, table.getStepCost(TerrainType.DIRT.ordinal(), 1));
+    assertEquals(22, table.getStepCost(TerrainType.DIRT.ordinal(), 2));
+    assertTrue(table.isPassable(TerrainType.WATER.ordinal()));
+    assertFalse(table.isPassable(TerrainType.LAVA.ordinal()));
+  }
+
+  @Test
+  @DisplayName("A changed modifier creates a new table")
+  public void withModifier_keepsOriginal() throws IllegalParameterException {
+    CostTable defaults = CostTable.defaults();
+    CostTable changed = defaults.withModifier(TerrainType.WATER, 75);
+    assertEquals(TerrainType.WATER.getDefaultModifier(), defaults.getModifier(TerrainType.WATER));
+    assertEquals(75, changed.getModifier(TerrainType.WATER));
+    assertNotEquals(defaults, changed);
+    assertEquals(defaults, changed.withModifier(TerrainType.WATER, 50));
+    assertEquals(defaults.hashCode(), changed.withModifier(TerrainType.WATER, 50).hashCode());
+  }
+
+  @Test
+  @DisplayName("Modifiers out of range are rejected")
+  public void withModifier_outOfRange() {
+    CostTable table = CostTable.defaults();
+    assertThrows(IllegalParameterException.class, () -> table.withModifier(TerrainType.DIRT, -1));
+    assertThrows(IllegalParameterException.class, () -> table.withModifier(TerrainType.DIRT, 101));
+    assertThrows(IllegalParameterException.class, () -> table.withModifier(null, 1));
+  }
+
+  @Test
+  @DisplayName("The table of the terrain types follows their modifiers")
+  public void fromTerrainTypes_followsModifiers() {
+    CostTable before = CostTable.fromTerrainTypes();
+    assertSame(before, CostTable.fromTerrainTypes());
+    TerrainType.SWAMP.setModifier(5);
+    CostTable after = CostTable.fromTerrainTypes();
+    assertEquals(5, after.getModifier(TerrainType.SWAMP));
+    assertEquals(TerrainType.SWAMP.getDefaultModifier(), before.getModifier(TerrainType.SWAMP));
+  }
+
+  @Test
+  @DisplayName("Searches with different tables on the same map do not affect each other")
+  public void findPaths_separateTables() throws Exception {
+    MapManager mapManager = new MapManager();
+    mapManager.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+    // A swamp wall with a gap at the bottom
+    for (int row = 0; row < MapManager.MAX_HEIGHT - 1; row++) {
+      mapManager.createTerrain(TerrainType.SWAMP, new Position(row, 10));
+    }
+    List<PathQuery> queries = List.of(new PathQuery(new Position(0, 0), new Position(0, 20)));
+    CostTable cheapSwamp = CostTable.defaults().withModifier(TerrainType.SWAMP, 0);
+    CostTable blockingSwamp =
+        CostTable.defaults().withModifier(TerrainType.SWAMP, TerrainType.MAX_VALUE);
+
+    PathResult through =
+        new AStarPathfindingAlgorithm(mapManager, false, OpenListType.BINARY_HEAP, cheapSwamp)
+            .findPaths(queries)
+            .get(0);
+    PathResult around =
+        new AStarPathfindingAlgorithm(mapManager, false, OpenListType.BINARY_HEAP, blockingSwamp)
+            .findPaths(queries)
+            .get(0);
+    logger.info("Through the wall {}, around the wall {}", through.getCost(), around.getCost());
+
+    // 9 dirt steps, 1 swamp step and 10 dirt steps
+    assertEquals(19 * 11 + 1, through.getCost());
+    assertTrue(around.getCost() > through.getCost());
+    for (Position position : around.toPositions()) {
+      assertFalse(
+          position.getCol() == 10 && position.getRow() < MapManager.MAX_HEIGHT - 1,
+          "The path crosses the wall");
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.AStarPathfindingAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.DStarLitePlanner;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DStarLitePlannerTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(DStarLitePlannerTest.class);
+
+  private static final int SIZE = 64;
+
+  private MapManager testMapManager;
+
+  @BeforeEach
+  void setup() throws Exception {
+    TerrainType.resetModifers();
+    testMapManager = new MapManager();
+    testMapManager.createLargeMap(SIZE, SIZE);
+  }
+
+  @Test
+  @DisplayName("Replanned paths have the same cost as the paths of A* after every change")
+  public void findShortestPath_sameCostAsAStar() throws Exception {
+    Random random = new Random(13);
+    TerrainType[] types = TerrainType.values();
+    RandomMaps.placeRandomTerrain(
+        random, SIZE, SIZE, SIZE * SIZE / 4, testMapManager::createTerrain);
+
+    for (boolean diagonal : new boolean[] {false, true}) {
+      testMapManager.setStartCoordinates(new Position(0, 0));
+      testMapManager.setDestinationCoordinates(new Position(SIZE - 1, SIZE - 1));
+      DStarLitePlanner planner = new DStarLitePlanner(testMapManager, diagonal);
+      for (int change = 0; change < 60; change++) {
+        Position position = RandomMaps.randomPosition(random, SIZE, SIZE);
+        testMapManager.createTerrain(types[random.nextInt(types.length)], position);
+        planner.cellChanged(position.getRow(), position.getCol());
+        if (change % 10 == 9) {
+          // The start moves along
+          Position start = RandomMaps.randomPosition(random, SIZE, SIZE);
+          if (!start.equals(testMapManager.getDestinationCoordinates())) {
+            testMapManager.setStartCoordinates(start);
+          }
+        }
+
+        PathResult path = planner.findShortestPath();
+        PathResult expected = findWithAStar(diagonal);
+        assertEquals(expected.isFound(), path.isFound(), "Change " + change);
+        if (expected.isFound()) {
+          assertEquals(expected.getCost(), getCost(path), "Change " + change);
+          assertEquals(expected.getCost(), path.getCost(), "Change " + change);
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Replanning after a single changed cell expands only a fraction of the cells")
+  public void findShortestPath_repairsOnlyChangedRegion() throws Exception {
+    testMapManager.createLargeMap(256, 256);
+    Random random = new Random(3);
+    for (int i = 0; i < 256 * 256 / 5; i++) {
+      testMapManager.createTerrain(
+          TerrainType.SWAMP, new Position(random.nextInt(256), random.nextInt(256)));
+    }
+    testMapManager.setStartCoordinates(new Position(0, 0));
+    testMapManager.setDestinationCoordinates(new Position(255, 255));
+    DStarLitePlanner planner = new DStarLitePlanner(testMapManager, true);
+    PathResult first = planner.findShortestPath();
+    long fullSearch = planner.getExpandedCells();
+    assertTrue(first.isFound());
+
+    // Block a cell in the middle of the path
+    Position blocked = first.getPosition(first.getLength() / 2);
+    testMapManager.createTerrain(TerrainType.LAVA, blocked);
+    planner.cellChanged(blocked.getRow(), blocked.getCol());
+    PathResult second = planner.findShortestPath();
+    long repair = planner.getExpandedCells() - fullSearch;
+    logger.info("Full search {} cells, repair {} cells", fullSearch, repair);
+
+    assertEquals(findWithAStar(true).getCost(), getCost(second));
+    assertFalse(second.toPositions().contains(blocked), "The path crosses the blocked cell");
+    assertTrue(repair * 10 < fullSearch, repair + " of " + fullSearch);
+  }
+
+  @Test
+  @DisplayName("The pathfinder repairs its plan after terrain and modifier changes")
+  public void replan_afterChanges() throws Exception {
+    Pathfinder pathfinder = new Pathfinder();
+    pathfinder.createLargeMap(SIZE, SIZE);
+    pathfinder.setDiagonalPathing(true);
+    pathfinder.setStartPoint(new Position(0, 0));
+    pathfinder.setEndPoint(new Position(SIZE - 1, SIZE - 1));
+    assertEquals(pathfinder.findShortestPath().getCost(), pathfinder.replan().getCost());
+
+    // A swamp wall with a single gap at the bottom
+    for (int row = 0; row < SIZE - 1; row++) {
+      pathfinder.placeTerrain(TerrainType.SWAMP, new Position(row, SIZE / 2));
+    }
+    assertEquals(pathfinder.findShortestPath().getCost(), pathfinder.replan().getCost());
+
+    pathfinder.changeTerrainTypeModifier(TerrainType.SWAMP, TerrainType.MAX_VALUE);
+    PathResult path = pathfinder.replan();
+    assertEquals(pathfinder.findShortestPath().getCost(), path.getCost());
+    for (Position position : path.toPositions()) {
+      assertFalse(
+          position.getCol() == SIZE / 2 && position.getRow() < SIZE - 1,
+          "The path crosses the wall");
+    }
+  }
+
+  private PathResult findWithAStar(boolean diagonal) {
+    PathQuery query =
+        new PathQuery(
+            testMapManager.getStartCoordinates(), testMapManager.getDestinationCoordinates());
+    return new AStarPathfindingAlgorithm(testMapManager, diagonal).findPaths(List.of(query)).get(0);
+  }
+
+  /**
+   * Returns the cost of a path on the test map, every step costs the modifier of the terrain which
+   * is left.
+   */
+  private int getCost(PathResult path) throws PositionOutOfBounds {
+    int cost = 0;
+    for (int i = 1; i < path.getLength(); i++) {
+      Position from = path.getPosition(i - 1);
+      Position to = path.getPosition(i);
+      int rowDistance = Math.abs(from.getRow() - to.getRow());
+      int colDistance = Math.abs(from.getCol() - to.getCol());
+      assertEquals(1, Math.max(rowDistance, colDistance), "The path is not connected");
+      double modifier = testMapManager.getTerrainAt(from).getType().getModifier();
+      cost += (int) ((rowDistance + colDistance) * (1 + modifier));
+    }
+    return cost;
+  }
+}
@@ -0,0 +1,125 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.CostTable;
+import de.hhn.it.pp.components.astarpathfinding.DistanceHeuristic;
+import de.hhn.it.pp.components.astarpathfinding.Heuristic;
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.AStarPathfindingAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.BidirectionalAStarAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.JumpPointSearchAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DistanceHeuristicTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(DistanceHeuristicTest.class);
+
+  private static final int SIZE = 96;
+
+  private MapManager testMapManager;
+  private List<PathQuery> queries;
+
+  @BeforeEach
+  void setup() throws PositionOutOfBounds {
+    testMapManager = new MapManager();
+    testMapManager.createLargeMap(SIZE, SIZE);
+    Random random = new Random(3);
+    RandomMaps.placeRandomTerrain(
+        random, SIZE, SIZE, SIZE * SIZE / 4, testMapManager::createTerrain);
+    queries = RandomMaps.randomQueries(random, SIZE, SIZE, 100);
+  }
+
+  @Test
+  @DisplayName("The distances are scaled by the lowest step costs")
+  public void estimate_scaledDistances() {
+    assertEquals(11 * 7, DistanceHeuristic.MANHATTAN.estimate(3, 4, 11, 22));
+    assertEquals(11 * 1 + 20 * 3, DistanceHeuristic.OCTILE.estimate(3, 4, 11, 20));
+    assertEquals(11 * 1 + 22 * 3, DistanceHeuristic.OCTILE.estimate(3, 4, 11, 30));
+    assertEquals(11 * 4, DistanceHeuristic.CHEBYSHEV.estimate(3, 4, 11, 22));
+    assertEquals(11 * 5, DistanceHeuristic.EUCLIDEAN.estimate(3, 4, 11, 22));
+    assertEquals(7 * 5, DistanceHeuristic.EUCLIDEAN.estimate(3, 4, 11, 10));
+    for (DistanceHeuristic heuristic : DistanceHeuristic.values()) {
+      assertEquals(0, heuristic.estimate(0, 0, 11, 22));
+      // Without diagonal steps
+      assertTrue(heuristic.estimate(3, 4, 11, Integer.MAX_VALUE) >= 11 * 4, heuristic.name());
+    }
+  }
+
+  @Test
+  @DisplayName("All heuristics find paths of the same cost as the Manhattan distance")
+  public void findPaths_sameCosts() {
+    for (boolean diagonal : new boolean[] {true, false}) {
+      List<PathResult> expected =
+          new AStarPathfindingAlgorithm(testMapManager, diagonal).findPaths(queries);
+      for (DistanceHeuristic heuristic : DistanceHeuristic.values()) {
+        for (AStarPathfindingAlgorithm algorithm : createAlgorithms(diagonal)) {
+          algorithm.setHeuristic(heuristic);
+          List<PathResult> results = algorithm.findPaths(queries);
+          for (int i = 0; i < queries.size(); i++) {
+            assertEquals(
+                expected.get(i).getCost(),
+                results.get(i).getCost(),
+                heuristic + ", " + algorithm + ": " + queries.get(i));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("The scaled Manhattan distance expands far fewer cells than the plain one")
+  public void findPaths_fewerExpansions() {
+    for (boolean diagonal : new boolean[] {true, false}) {
+      long plainExpansions = countExpansions(diagonal, null);
+      long scaledExpansions = countExpansions(diagonal, DistanceHeuristic.MANHATTAN);
+      logger.info(
+          "diagonal = {}: {} expansions scaled, {} plain",
+          diagonal,
+          scaledExpansions,
+          plainExpansions);
+      assertTrue(scaledExpansions * 2 < plainExpansions);
+    }
+  }
+
+  @Test
+  @DisplayName("The heuristic of the service must not be null")
+  public void setHeuristic_null() throws IllegalParameterException {
+    Pathfinder pathfinder = new Pathfinder();
+    assertEquals(DistanceHeuristic.MANHATTAN, pathfinder.getHeuristic());
+    assertThrows(IllegalParameterException.class, () -> pathfinder.setHeuristic(null));
+    pathfinder.setHeuristic(DistanceHeuristic.EUCLIDEAN);
+    assertEquals(DistanceHeuristic.EUCLIDEAN, pathfinder.getHeuristic());
+  }
+
+  private long countExpansions(boolean diagonal, Heuristic heuristic) {
+    AStarPathfindingAlgorithm algorithm =
+        new AStarPathfindingAlgorithm(
+            testMapManager, diagonal, OpenListType.BINARY_HEAP, CostTable.defaults());
+    algorithm.setHeuristic(heuristic);
+    long expansions = 0;
+    for (PathResult result : algorithm.findPaths(queries)) {
+      expansions += result.getStats().getExpandedNodes();
+    }
+    return expansions;
+  }
+
+  private List<AStarPathfindingAlgorithm> createAlgorithms(boolean diagonal) {
+    return List.of(
+        new AStarPathfindingAlgorithm(testMapManager, diagonal),
+        new JumpPointSearchAlgorithm(testMapManager, diagonal),
+        new BidirectionalAStarAlgorithm(testMapManager, diagonal));
+  }
+}
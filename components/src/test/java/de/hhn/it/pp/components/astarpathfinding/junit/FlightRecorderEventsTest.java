@@ -0,0 +1,90 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FlightRecorderEventsTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(FlightRecorderEventsTest.class);
+
+  private static final String PATH_SEARCH = "de.hhn.it.pp.astarpathfinding.PathSearch";
+  private static final String REQUEST = "de.hhn.it.pp.astarpathfinding.PathfindingRequest";
+
+  @Test
+  @DisplayName("Searches and requests are recorded with their queries and counters")
+  public void doPathfinding_recordsEvents() throws Exception {
+    Pathfinder pathfinder = new Pathfinder();
+    pathfinder.createLargeMap(64, 48);
+    for (int row = 0; row < 40; row++) {
+      pathfinder.placeTerrain(TerrainType.LAVA, new Position(row, 30));
+    }
+    pathfinder.setStartPoint(new Position(2, 3));
+    pathfinder.setEndPoint(new Position(20, 60));
+    PathQuery query = new PathQuery(new Position(0, 0), new Position(47, 63));
+
+    List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable(PATH_SEARCH).withThreshold(Duration.ZERO);
+      recording.enable(REQUEST).withThreshold(Duration.ZERO);
+      recording.start();
+      assertFalse(pathfinder.doPathfinding().isEmpty());
+      pathfinder.findPaths(List.of(query));
+      pathfinder.findPaths(List.of(query));
+      recording.stop();
+      Path file = Files.createTempFile("pathfinding", ".jfr");
+      try {
+        recording.dump(file);
+        events = RecordingFile.readAllEvents(file);
+      } finally {
+        Files.delete(file);
+      }
+    }
+
+    List<RecordedEvent> searches = new ArrayList<>();
+    List<RecordedEvent> requests = new ArrayList<>();
+    for (RecordedEvent event : events) {
+      logger.info("{}", event);
+      if (event.getEventType().getName().equals(PATH_SEARCH)) {
+        searches.add(event);
+      } else if (event.getEventType().getName().equals(REQUEST)) {
+        requests.add(event);
+      }
+    }
+
+    // The second batch is answered from the cache and does not search
+    assertEquals(2, searches.size());
+    RecordedEvent search = searches.get(0);
+    assertEquals(64, search.getInt("mapWidth"));
+    assertEquals(48, search.getInt("mapHeight"));
+    assertEquals(2, search.getInt("startRow"));
+    assertEquals(3, search.getInt("startCol"));
+    assertEquals(20, search.getInt("goalRow"));
+    assertEquals(60, search.getInt("goalCol"));
+    assertTrue(search.getLong("expandedNodes") > 0);
+    assertTrue(search.getInt("pathLength") > 0);
+
+    assertEquals(3, requests.size());
+    assertEquals("doPathfinding", requests.get(0).getString("operation"));
+    assertEquals("A_STAR", requests.get(0).getString("algorithm"));
+    assertEquals(search.getInt("pathLength"), requests.get(0).getLong("pathLength"));
+    assertEquals("findPaths", requests.get(2).getString("operation"));
+    assertEquals(1, requests.get(2).getInt("cachedQueries"));
+    assertEquals(47, requests.get(2).getInt("goalRow"));
+  }
+}
@@ -0,0 +1,187 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.FlowField;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FlowFieldTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(FlowFieldTest.class);
+
+  /** The map has more cells than a tile of the flow field, so updates cross tile borders. */
+  private static final int SIZE = 72;
+
+  private final Position destination = new Position(SIZE / 3, SIZE / 2);
+  private Pathfinder pathfinder;
+  private Random random;
+
+  @BeforeEach
+  void setup() throws Exception {
+    pathfinder = new Pathfinder();
+    pathfinder.createLargeMap(SIZE, SIZE);
+    pathfinder.setPathCacheSize(0);
+    random = new Random(11);
+    for (int i = 0; i < SIZE * SIZE / 4; i++) {
+      placeRandomTerrain();
+    }
+  }
+
+  @Test
+  @DisplayName("The field holds the costs of the shortest paths and leads along them")
+  public void getFlowField_shortestPaths() throws Exception {
+    for (boolean diagonal : new boolean[] {true, false}) {
+      pathfinder.setDiagonalPathing(diagonal);
+      FlowField field = pathfinder.getFlowField(destination);
+      assertEquals(destination, field.getDestination());
+      assertEquals(0, field.getDistance(destination));
+      assertNull(field.getNextStep(destination));
+      assertMatchesSearches(field);
+    }
+  }
+
+  @Test
+  @DisplayName("Placing terrain updates the field like a field computed from scratch")
+  public void placeTerrain_updatesField() throws Exception {
+    for (boolean diagonal : new boolean[] {true, false}) {
+      pathfinder.setDiagonalPathing(diagonal);
+      FlowField field = pathfinder.getFlowField(destination);
+      for (int i = 0; i < 200; i++) {
+        placeRandomTerrain();
+      }
+      // Walls next to the destination cut off and open up large parts of the map
+      for (int col = 0; col < SIZE; col++) {
+        pathfinder.placeTerrain(TerrainType.LAVA, new Position(destination.getRow() + 1, col));
+      }
+      pathfinder.placeTerrain(TerrainType.DIRT, new Position(destination.getRow() + 1, 0));
+      pathfinder.placeTerrain(TerrainType.LAVA, destination);
+      assertMatchesSearches(field);
+      pathfinder.placeTerrain(TerrainType.GRASS, destination);
+      assertSame(field, pathfinder.getFlowField(destination));
+      assertTrue(field.isValid());
+      assertMatchesSearches(field);
+    }
+  }
+
+  @Test
+  @DisplayName("A new cost table computes the field again, a new map discards it")
+  public void changes_recomputeOrDiscard() throws Exception {
+    FlowField field = pathfinder.getFlowField(destination);
+    pathfinder.changeTerrainTypeModifier(TerrainType.WATER, 1);
+    assertTrue(field.isValid());
+    assertMatchesSearches(field);
+
+    pathfinder.createLargeMap(SIZE, SIZE);
+    assertFalse(field.isValid());
+    FlowField newField = pathfinder.getFlowField(destination);
+    assertTrue(newField.isValid());
+    // Every straight step on dirt costs 11
+    assertEquals(
+        11 * (destination.getRow() + destination.getCol()),
+        newField.getDistance(new Position(0, 0)));
+  }
+
+  @Test
+  @DisplayName("Agents always read a complete field while terrain is placed")
+  public void placeTerrain_concurrentReads() throws Exception {
+    pathfinder.createLargeMap(SIZE, SIZE);
+    FlowField field = pathfinder.getFlowField(destination);
+    Position agent = new Position(SIZE - 1, destination.getCol());
+    AtomicBoolean stopped = new AtomicBoolean();
+    AtomicInteger incompleteReads = new AtomicInteger();
+    Thread reader =
+        new Thread(
+            () -> {
+              try {
+                while (!stopped.get()) {
+                  if (field.getNextStep(agent) == null || field.getDistance(agent) <= 0) {
+                    incompleteReads.incrementAndGet();
+                  }
+                }
+              } catch (PositionOutOfBounds e) {
+                incompleteReads.incrementAndGet();
+              }
+            });
+    reader.start();
+    try {
+      // Every change resets the costs of the agent, whose path leads through the changed cell
+      for (int i = 0; i < 2000; i++) {
+        TerrainType type = i % 2 == 0 ? TerrainType.GRASS : TerrainType.DIRT;
+        for (int row = destination.getRow() + 1; row < SIZE; row++) {
+          pathfinder.placeTerrain(type, new Position(row, destination.getCol()));
+        }
+      }
+    } finally {
+      stopped.set(true);
+      reader.join();
+    }
+    assertEquals(0, incompleteReads.get());
+    assertMatchesSearches(field);
+  }
+
+  @Test
+  @DisplayName("Invalid destinations and positions are rejected")
+  public void getFlowField_invalid() throws Exception {
+    assertThrows(IllegalParameterException.class, () -> pathfinder.getFlowField(null));
+    assertThrows(
+        PositionOutOfBounds.class, () -> pathfinder.getFlowField(new Position(SIZE, 0)));
+    FlowField field = pathfinder.getFlowField(destination);
+    assertThrows(PositionOutOfBounds.class, () -> field.getDistance(new Position(0, -1)));
+    assertThrows(PositionOutOfBounds.class, () -> field.getNextStep(new Position(0, SIZE)));
+  }
+
+  /**
+   * Checks that the cost of every position is the cost of the path which the searches find and
+   * that following the steps of the field reaches the destination at that cost.
+   */
+  private void assertMatchesSearches(FlowField field) throws Exception {
+    List<PathQuery> queries = new ArrayList<>();
+    for (int row = 0; row < SIZE; row++) {
+      for (int col = 0; col < SIZE; col++) {
+        queries.add(new PathQuery(new Position(row, col), destination));
+      }
+    }
+    List<PathResult> results = pathfinder.findPaths(queries);
+    for (int i = 0; i < queries.size(); i++) {
+      Position position = queries.get(i).getStart();
+      int cost = field.getDistance(position);
+      assertEquals(results.get(i).getCost(), cost, position.toString());
+      if (cost <= 0) {
+        continue;
+      }
+      Position next = field.getNextStep(position);
+      assertNotNull(next, position.toString());
+      assertTrue(Math.abs(next.getRow() - position.getRow()) <= 1);
+      assertTrue(Math.abs(next.getCol() - position.getCol()) <= 1);
+      assertTrue(field.getDistance(next) >= 0 && field.getDistance(next) < cost);
+    }
+  }
+
+  private void placeRandomTerrain() throws PositionOutOfBounds {
+    TerrainType[] types = TerrainType.values();
+    Position position = new Position(random.nextInt(SIZE), random.nextInt(SIZE));
+    if (!position.equals(destination)) {
+      pathfinder.placeTerrain(types[random.nextInt(types.length)], position);
+    }
+  }
+}
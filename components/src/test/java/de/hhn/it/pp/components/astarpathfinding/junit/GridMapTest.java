@@ -0,0 +1,90 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.GridMap;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class GridMapTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(GridMapTest.class);
+
+  private MapManager testMapManager;
+
+  @BeforeEach
+  void setup() {
+    testMapManager = new MapManager();
+  }
+
+  @Test
+  @DisplayName("Cell indices can be converted back to rows and columns")
+  public void index_roundTrip() {
+    GridMap grid = new GridMap(7, 5, TerrainType.GRASS);
+    for (int row = 0; row < grid.getHeight(); row++) {
+      for (int col = 0; col < grid.getWidth(); col++) {
+        int cell = grid.index(row, col);
+        assertEquals(row, grid.row(cell), "The row of the cell is wrong");
+        assertEquals(col, grid.col(cell), "The column of the cell is wrong");
+        assertEquals(TerrainType.GRASS, grid.getType(cell), "The cell should be grass");
+      }
+    }
+    assertEquals(35, grid.getCellCount());
+  }
+
+  @Test
+  @DisplayName("withType changes the cell in a new grid and leaves the old grid unchanged")
+  public void withType_copyOnWrite() {
+    for (boolean packed : new boolean[] {false, true}) {
+      // Two blocks, the last block and its last tile only partly used
+      GridMap grid = new GridMap(1501, 1499, TerrainType.GRASS, packed);
+      int blockCells = GridMap.BLOCK_TILES * GridMap.TILE_CELLS;
+      int[] cells = {
+        0, 1, GridMap.TILE_CELLS - 1, GridMap.TILE_CELLS, blockCells - 1, blockCells,
+        grid.getCellCount() - 1
+      };
+      GridMap changed = grid;
+      for (int cell : cells) {
+        changed = changed.withType(cell, TerrainType.LAVA);
+      }
+      assertSame(changed, changed.withType(0, TerrainType.LAVA));
+      assertEquals(grid.getMemoryUsage(), changed.getMemoryUsage());
+      for (int cell = 0; cell < grid.getCellCount(); cell++) {
+        assertEquals(TerrainType.GRASS, grid.getType(cell), "The old grid has been changed");
+        TerrainType expected = TerrainType.GRASS;
+        for (int changedCell : cells) {
+          if (cell == changedCell) {
+            expected = TerrainType.LAVA;
+          }
+        }
+        int index = cell;
+        assertEquals(expected, changed.getType(cell), () -> "Cell " + index + " is wrong");
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("The grid of the map manager follows createMap and createTerrain")
+  public void mapManager_keepsGridInSync() throws PositionOutOfBounds {
+    testMapManager.createMap(12, 15);
+    testMapManager.createTerrain(TerrainType.WATER, new Position(3, 7));
+    GridMap grid = testMapManager.getGrid();
+
+    assertAll(
+        () -> assertEquals(12, grid.getWidth()),
+        () -> assertEquals(15, grid.getHeight()),
+        () -> assertEquals(TerrainType.WATER, grid.getType(grid.index(3, 7))),
+        () -> assertEquals(TerrainType.DIRT, grid.getType(grid.index(7, 3))));
+
+    testMapManager.reset();
+    GridMap resetGrid = testMapManager.getGrid();
+    assertEquals(TerrainType.DIRT, resetGrid.getType(resetGrid.index(3, 7)));
+  }
+}
@@ -0,0 +1,192 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.AStarPathfindingAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.HierarchicalPathfinder;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class HierarchicalPathfinderTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(HierarchicalPathfinderTest.class);
+
+  private static final int SIZE = 128;
+
+  private MapManager testMapManager;
+
+  @BeforeEach
+  void setup() throws PositionOutOfBounds {
+    TerrainType.resetModifers();
+    testMapManager = new MapManager();
+    testMapManager.createLargeMap(SIZE, SIZE);
+  }
+
+  @Test
+  @DisplayName("Hierarchical paths are valid and close to the shortest paths")
+  public void findPath_nearOptimal() throws PositionOutOfBounds {
+    Random random = new Random(5);
+    RandomMaps.placeRandomTerrain(
+        random, SIZE, SIZE, SIZE * SIZE / 5, testMapManager::createTerrain);
+    List<PathQuery> queries = RandomMaps.randomQueries(random, SIZE, SIZE, 50);
+
+    for (boolean diagonal : new boolean[] {false, true}) {
+      List<PathResult> expected =
+          new AStarPathfindingAlgorithm(testMapManager, diagonal).findPaths(queries);
+      HierarchicalPathfinder hierarchy =
+          new HierarchicalPathfinder(testMapManager, 16, diagonal);
+      long optimalCost = 0;
+      long hierarchicalCost = 0;
+      for (int i = 0; i < queries.size(); i++) {
+        PathResult result = hierarchy.findPath(queries.get(i));
+        if (!diagonal) {
+          // Without diagonal steps every border crossing is covered by an entrance
+          assertEquals(expected.get(i).isFound(), result.isFound(), queries.get(i).toString());
+        }
+        if (result.isFound()) {
+          assertPathIsValid(queries.get(i), result, diagonal);
+          assertTrue(result.getCost() >= expected.get(i).getCost());
+          optimalCost += expected.get(i).getCost();
+          hierarchicalCost += result.getCost();
+        }
+      }
+      logger.info("Optimal cost {}, hierarchical cost {}", optimalCost, hierarchicalCost);
+      assertTrue(hierarchicalCost * 10 <= optimalCost * 12, hierarchicalCost + " " + optimalCost);
+    }
+  }
+
+  @Test
+  @DisplayName("A path from an obstacle on a cluster border leaves it across the border")
+  public void findPath_startOnObstacleAtBorder() throws PositionOutOfBounds {
+    testMapManager.createLargeMap(33, 43);
+    // The start can only step down into the cluster below, where it is no entrance
+    Position start = new Position(31, 24);
+    testMapManager.createTerrain(TerrainType.LAVA, start);
+    testMapManager.createTerrain(TerrainType.LAVA, new Position(30, 24));
+    testMapManager.createTerrain(TerrainType.LAVA, new Position(31, 23));
+    testMapManager.createTerrain(TerrainType.LAVA, new Position(31, 25));
+    PathQuery query = new PathQuery(start, new Position(16, 9));
+
+    PathResult expected =
+        new AStarPathfindingAlgorithm(testMapManager, false).findPaths(List.of(query)).get(0);
+    PathResult result = new HierarchicalPathfinder(testMapManager, 16, false).findPath(query);
+    assertTrue(result.isFound());
+    assertPathIsValid(query, result, false);
+    assertEquals(new Position(32, 24), result.getPosition(1));
+    assertEquals(expected.getCost(), result.getCost());
+  }
+
+  @Test
+  @DisplayName("A changed cell only rebuilds the clusters next to it")
+  public void cellChanged_rebuildsOnlyAffectedClusters() throws PositionOutOfBounds {
+    HierarchicalPathfinder hierarchy = new HierarchicalPathfinder(testMapManager, 16, false);
+    hierarchy.build();
+    assertEquals(hierarchy.getClusterCount(), hierarchy.getClusterBuilds());
+
+    // Inside of a cluster
+    hierarchy.cellChanged(20, 20);
+    hierarchy.build();
+    assertEquals(hierarchy.getClusterCount() + 1, hierarchy.getClusterBuilds());
+
+    // On the border between two clusters
+    hierarchy.cellChanged(20, 31);
+    hierarchy.build();
+    assertEquals(hierarchy.getClusterCount() + 3, hierarchy.getClusterBuilds());
+  }
+
+  @Test
+  @DisplayName("Queries on several threads find paths while cells change")
+  public void findPath_concurrentWithChanges() throws Exception {
+    HierarchicalPathfinder hierarchy = new HierarchicalPathfinder(testMapManager, 16, false);
+    List<PathQuery> queries = RandomMaps.randomQueries(new Random(7), SIZE, SIZE, 20);
+    AtomicBoolean stopped = new AtomicBoolean();
+    AtomicInteger failures = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                while (!stopped.get()) {
+                  for (PathQuery query : queries) {
+                    PathResult result = hierarchy.findPath(query);
+                    if (!result.isFound() || result.getLength() < 1) {
+                      failures.incrementAndGet();
+                    }
+                  }
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    try {
+      // Grass and dirt are both accessible, so every query keeps its path
+      for (int i = 0; i < 500; i++) {
+        Position position = new Position(i % SIZE, i * 7 % SIZE);
+        testMapManager.createTerrain(i % 2 == 0 ? TerrainType.GRASS : TerrainType.DIRT, position);
+        hierarchy.cellChanged(position.getRow(), position.getCol());
+      }
+    } finally {
+      stopped.set(true);
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    }
+    assertEquals(0, failures.get());
+    for (PathQuery query : queries) {
+      assertPathIsValid(query, hierarchy.findPath(query), false);
+    }
+  }
+
+  @Test
+  @DisplayName("The pathfinder updates its hierarchy when a terrain is placed")
+  public void findHierarchicalPaths_afterPlaceTerrain() throws Exception {
+    Pathfinder pathfinder = new Pathfinder();
+    pathfinder.createLargeMap(64, 64);
+    List<PathQuery> queries = List.of(new PathQuery(new Position(32, 0), new Position(32, 63)));
+    PathResult before = pathfinder.findHierarchicalPaths(queries).get(0);
+    assertTrue(before.isFound());
+
+    // A wall with a single gap at the top
+    for (int row = 1; row < 64; row++) {
+      pathfinder.placeTerrain(TerrainType.LAVA, new Position(row, 40));
+    }
+    PathResult after = pathfinder.findHierarchicalPaths(queries).get(0);
+    assertTrue(after.isFound());
+    assertTrue(after.getCost() > before.getCost());
+    for (Position position : after.toPositions()) {
+      assertFalse(position.getCol() == 40 && position.getRow() > 0, "Path crosses the wall");
+    }
+  }
+
+  private void assertPathIsValid(PathQuery query, PathResult result, boolean diagonal)
+      throws PositionOutOfBounds {
+    assertEquals(query.getStart(), result.getPosition(0));
+    assertEquals(query.getGoal(), result.getPosition(result.getLength() - 1));
+    for (int step = 1; step < result.getLength(); step++) {
+      int rowDistance = Math.abs(result.getRow(step) - result.getRow(step - 1));
+      int colDistance = Math.abs(result.getCol(step) - result.getCol(step - 1));
+      assertTrue(
+          diagonal ? Math.max(rowDistance, colDistance) == 1 : rowDistance + colDistance == 1,
+          "The path " + result.toPositions() + " is not connected");
+      assertTrue(
+          testMapManager.getTerrainAt(result.getPosition(step)).getType().getModifier()
+              < TerrainType.MAX_VALUE,
+          "The path enters an obstacle");
+    }
+  }
+}
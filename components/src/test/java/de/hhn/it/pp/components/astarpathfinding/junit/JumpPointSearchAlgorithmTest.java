@@ -0,0 +1,173 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.OccupiedPositionException;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.AStarPathfindingAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.JumpPointSearchAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.SearchEventLog;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class JumpPointSearchAlgorithmTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(JumpPointSearchAlgorithmTest.class);
+
+  private MapManager testMapManager;
+
+  @BeforeEach
+  void setup() {
+    TerrainType.resetModifers();
+    testMapManager = new MapManager();
+  }
+
+  @AfterEach
+  void tearDown() {
+    TerrainType.resetModifers();
+  }
+
+  @Test
+  @DisplayName("Jump point search finds paths of the same cost as A* on mixed terrain")
+  public void findPaths_sameCostAsAStar() throws PositionOutOfBounds {
+    Random random = new Random(7);
+    TerrainType[] types = TerrainType.values();
+    for (int map = 0; map < 20; map++) {
+      testMapManager.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+      // Large patches of a single type with some obstacles and other types in between
+      for (int patch = 0; patch < 12; patch++) {
+        TerrainType type = types[random.nextInt(types.length)];
+        int top = random.nextInt(MapManager.MAX_HEIGHT);
+        int left = random.nextInt(MapManager.MAX_WIDTH);
+        int height = 1 + random.nextInt(6);
+        int width = 1 + random.nextInt(8);
+        for (int row = top; row < Math.min(top + height, MapManager.MAX_HEIGHT); row++) {
+          for (int col = left; col < Math.min(left + width, MapManager.MAX_WIDTH); col++) {
+            testMapManager.createTerrain(type, new Position(row, col));
+          }
+        }
+      }
+      if (map % 2 == 1) {
+        // Fractional modifiers disable jumps for some types
+        TerrainType.GRASS.setModifier(0.5);
+        TerrainType.SWAMP.setModifier(2.25);
+      } else {
+        TerrainType.resetModifers();
+      }
+
+      List<PathQuery> queries = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        queries.add(
+            new PathQuery(
+                new Position(
+                    random.nextInt(MapManager.MAX_HEIGHT), random.nextInt(MapManager.MAX_WIDTH)),
+                new Position(
+                    random.nextInt(MapManager.MAX_HEIGHT), random.nextInt(MapManager.MAX_WIDTH))));
+      }
+      for (boolean diagonal : new boolean[] {true, false}) {
+        List<PathResult> expected =
+            new AStarPathfindingAlgorithm(testMapManager, diagonal).findPaths(queries);
+        List<PathResult> results =
+            new JumpPointSearchAlgorithm(testMapManager, diagonal).findPaths(queries);
+        for (int i = 0; i < queries.size(); i++) {
+          assertEquals(
+              expected.get(i).getCost(),
+              results.get(i).getCost(),
+              "Different cost for " + queries.get(i) + " on map " + map);
+          assertPathIsConnected(results.get(i), diagonal);
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Jump point search expands far fewer cells than A* on an open map")
+  public void recordSearch_fewerExpansions()
+      throws PositionOutOfBounds, OccupiedPositionException, IllegalParameterException {
+    testMapManager.createLargeMap(500, 500);
+    for (int row = 100; row < 400; row++) {
+      testMapManager.createTerrain(TerrainType.LAVA, new Position(row, 250));
+    }
+    testMapManager.setStartCoordinates(new Position(250, 10));
+    testMapManager.setDestinationCoordinates(new Position(260, 490));
+
+    for (boolean diagonal : new boolean[] {true, false}) {
+      SearchEventLog aStarLog =
+          new AStarPathfindingAlgorithm(testMapManager, diagonal).recordSearch();
+      SearchEventLog jumpPointLog =
+          new JumpPointSearchAlgorithm(testMapManager, diagonal).recordSearch();
+      int aStarExpansions = countExpansions(aStarLog);
+      int jumpPointExpansions = countExpansions(jumpPointLog);
+      logger.info(
+          "Diagonal {}: A*: {} expansions, JPS: {} expansions",
+          diagonal,
+          aStarExpansions,
+          jumpPointExpansions);
+
+      assertTrue(jumpPointLog.isPathFound());
+      assertTrue(
+          jumpPointExpansions * 100 < aStarExpansions,
+          "Jump point search expanded "
+              + jumpPointExpansions
+              + " of "
+              + aStarExpansions
+              + " cells, diagonal "
+              + diagonal);
+    }
+  }
+
+  @Test
+  @DisplayName("Jump point search without diagonals crosses a large open map in linear time")
+  public void findPaths_largeOpenMapInLinearTime() throws PositionOutOfBounds {
+    int size = 1024;
+    testMapManager.createLargeMap(size, size);
+    // Scattered obstacles create jump points in many rows and columns
+    Random random = new Random(3);
+    for (int i = 0; i < 400; i++) {
+      testMapManager.createTerrain(TerrainType.LAVA, RandomMaps.randomPosition(random, size, size));
+    }
+    PathQuery query = new PathQuery(new Position(0, 0), new Position(size - 1, size - 1));
+
+    long start = System.nanoTime();
+    PathResult result =
+        new JumpPointSearchAlgorithm(testMapManager, false).findPaths(List.of(query)).get(0);
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    logger.info("JPS across {} x {}: {} ms, {}", size, size, millis, result.getStats());
+
+    assertEquals(2 * (size - 1) * 11, result.getCost());
+    // Scanning the whole column after every horizontal step took several times as long
+    assertTrue(millis < 5000, "The search took " + millis + " ms");
+  }
+
+  private int countExpansions(SearchEventLog log) {
+    int expansions = 0;
+    for (int event = 0; event < log.getEventCount(); event++) {
+      if (log.getEventKind(event) == SearchEventLog.CLOSE) {
+        expansions++;
+      }
+    }
+    return expansions;
+  }
+
+  private void assertPathIsConnected(PathResult result, boolean diagonal) {
+    for (int step = 1; step < result.getLength(); step++) {
+      int rowDistance = Math.abs(result.getRow(step) - result.getRow(step - 1));
+      int colDistance = Math.abs(result.getCol(step) - result.getCol(step - 1));
+      assertTrue(
+          diagonal ? Math.max(rowDistance, colDistance) == 1 : rowDistance + colDistance == 1,
+          "The path " + result.toPositions() + " is not connected");
+    }
+  }
+}
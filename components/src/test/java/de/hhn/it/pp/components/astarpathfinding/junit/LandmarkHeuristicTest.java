@@ -0,0 +1,176 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.SearchAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LandmarkHeuristicTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(LandmarkHeuristicTest.class);
+
+  private static final int SIZE = 96;
+
+  private Pathfinder landmarks;
+  private Pathfinder manhattan;
+  private List<PathQuery> queries;
+
+  @BeforeEach
+  void setup() throws Exception {
+    landmarks = new Pathfinder();
+    manhattan = new Pathfinder();
+    Random random = new Random(17);
+    for (Pathfinder pathfinder : new Pathfinder[] {landmarks, manhattan}) {
+      pathfinder.createLargeMap(SIZE, SIZE);
+      pathfinder.setPathCacheSize(0);
+    }
+    RandomMaps.placeRandomTerrain(random, SIZE, SIZE, SIZE * SIZE / 4, this::placeTerrain);
+    queries = RandomMaps.randomQueries(random, SIZE, SIZE, 100);
+  }
+
+  @Test
+  @DisplayName("Landmarks find paths of the same cost with fewer expansions")
+  public void findPaths_sameCostFewerExpansions() throws Exception {
+    landmarks.setLandmarkCount(4);
+    landmarks.whenLandmarksReady().get(10, TimeUnit.SECONDS);
+    for (boolean diagonal : new boolean[] {true, false}) {
+      for (SearchAlgorithm algorithm :
+          new SearchAlgorithm[] {SearchAlgorithm.A_STAR, SearchAlgorithm.JUMP_POINT_SEARCH}) {
+        for (Pathfinder pathfinder : new Pathfinder[] {landmarks, manhattan}) {
+          pathfinder.setDiagonalPathing(diagonal);
+          pathfinder.setSearchAlgorithm(algorithm);
+          pathfinder.getSearchMetrics().reset();
+        }
+        landmarks.whenLandmarksReady().get(10, TimeUnit.SECONDS);
+        assertSameCosts(landmarks.findPaths(queries), manhattan.findPaths(queries));
+
+        long landmarkExpansions = landmarks.getSearchMetrics().getExpandedNodes();
+        long manhattanExpansions = manhattan.getSearchMetrics().getExpandedNodes();
+        logger.info(
+            "{}, diagonal = {}: {} expansions with landmarks, {} without",
+            algorithm,
+            diagonal,
+            landmarkExpansions,
+            manhattanExpansions);
+        // The scaled Manhattan distance is already tight on this open map
+        assertTrue(landmarkExpansions < manhattanExpansions);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("The landmark costs are rebuilt after the map and the costs change")
+  public void findPaths_rebuiltAfterChanges() throws Exception {
+    landmarks.setLandmarks(
+        List.of(new Position(0, 0), new Position(SIZE - 1, SIZE - 1), new Position(0, SIZE - 1)));
+    landmarks.whenLandmarksReady().get(10, TimeUnit.SECONDS);
+    assertSameCosts(landmarks.findPaths(queries), manhattan.findPaths(queries));
+
+    // A cheap road across the map lowers many costs below the ones of the old landmark costs
+    for (int col = 0; col < SIZE; col++) {
+      placeTerrain(TerrainType.DIRT, new Position(SIZE / 2, col));
+    }
+    for (Pathfinder pathfinder : new Pathfinder[] {landmarks, manhattan}) {
+      pathfinder.changeTerrainTypeModifier(TerrainType.DIRT, 0);
+    }
+    // Searches before the rebuild has finished use the Manhattan distance
+    assertSameCosts(landmarks.findPaths(queries), manhattan.findPaths(queries));
+    landmarks.whenLandmarksReady().get(10, TimeUnit.SECONDS);
+    assertSameCosts(landmarks.findPaths(queries), manhattan.findPaths(queries));
+
+    landmarks.setLandmarks(List.of());
+    assertTrue(landmarks.whenLandmarksReady().isDone());
+    assertSameCosts(landmarks.findPaths(queries), manhattan.findPaths(queries));
+  }
+
+  @Test
+  @DisplayName("Terrain which raises costs keeps the landmark costs, cheaper terrain rebuilds them")
+  public void placeTerrain_keepsCostsUnlessLowered() throws Exception {
+    landmarks.setLandmarkCount(4);
+    landmarks.whenLandmarksReady().get(10, TimeUnit.SECONDS);
+    for (int row = 0; row < SIZE - 1; row += 4) {
+      placeTerrain(TerrainType.LAVA, new Position(row, SIZE / 2));
+    }
+    assertTrue(landmarks.whenLandmarksReady().isDone());
+    assertUsesLandmarks();
+
+    // A gap in the wall makes the paths through it cheaper
+    placeTerrain(TerrainType.GRASS, new Position(SIZE / 2, SIZE / 2));
+    assertFalse(landmarks.whenLandmarksReady().isDone());
+    assertSameCosts(landmarks.findPaths(queries), manhattan.findPaths(queries));
+    landmarks.whenLandmarksReady().get(10, TimeUnit.SECONDS);
+    assertUsesLandmarks();
+  }
+
+  @Test
+  @DisplayName("The future fails if the landmark costs do not fit into memory")
+  public void whenLandmarksReady_failsIfTooLarge() throws Exception {
+    // 16 landmarks need 32 costs per cell, more than the 2^25 costs of a table
+    landmarks.createLargeMap(1100, 1000);
+    landmarks.setLandmarkCount(16);
+    ExecutionException exception =
+        assertThrows(
+            ExecutionException.class,
+            () -> landmarks.whenLandmarksReady().get(10, TimeUnit.SECONDS));
+    assertTrue(exception.getCause() instanceof IllegalStateException);
+    List<PathQuery> query = List.of(new PathQuery(new Position(0, 0), new Position(5, 5)));
+    assertEquals(110, landmarks.findPaths(query).get(0).getCost());
+
+    landmarks.createLargeMap(SIZE, SIZE);
+    landmarks.whenLandmarksReady().get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  @DisplayName("Invalid landmarks are rejected")
+  public void setLandmarks_invalid() {
+    assertThrows(IllegalParameterException.class, () -> landmarks.setLandmarks(null));
+    assertThrows(
+        PositionOutOfBounds.class, () -> landmarks.setLandmarks(List.of(new Position(SIZE, 0))));
+    List<Position> tooMany = new ArrayList<>();
+    for (int i = 0; i < 17; i++) {
+      tooMany.add(new Position(i, 0));
+    }
+    assertThrows(IllegalParameterException.class, () -> landmarks.setLandmarks(tooMany));
+    assertThrows(IllegalParameterException.class, () -> landmarks.setLandmarkCount(-1));
+    assertThrows(IllegalParameterException.class, () -> landmarks.setLandmarkCount(17));
+  }
+
+  private void placeTerrain(TerrainType type, Position position) throws PositionOutOfBounds {
+    landmarks.placeTerrain(type, position);
+    manhattan.placeTerrain(type, position);
+  }
+
+  /** Checks that the landmark costs are used and the found paths are still the shortest ones. */
+  private void assertUsesLandmarks() throws Exception {
+    landmarks.getSearchMetrics().reset();
+    manhattan.getSearchMetrics().reset();
+    assertSameCosts(landmarks.findPaths(queries), manhattan.findPaths(queries));
+    assertTrue(
+        landmarks.getSearchMetrics().getExpandedNodes()
+            < manhattan.getSearchMetrics().getExpandedNodes());
+  }
+
+  private void assertSameCosts(List<PathResult> results, List<PathResult> expected) {
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(
+          expected.get(i).getCost(), results.get(i).getCost(), queries.get(i).toString());
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(LatencyHistogramTest.class);
+
+  private LatencyHistogram histogram;
+
+  @BeforeEach
+  void setup() {
+    histogram = new LatencyHistogram();
+  }
+
+  @Test
+  @DisplayName("An empty histogram returns zeros")
+  public void getPercentile_empty() {
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getPercentile(99));
+    assertEquals(0, histogram.getMean());
+  }
+
+  @Test
+  @DisplayName("Percentiles are at most one bucket above the exact value")
+  public void getPercentile_withinBucket() {
+    for (long value = 1; value <= 1000000; value++) {
+      histogram.record(value * 1000);
+    }
+    logger.info("{}", histogram);
+
+    assertEquals(1000000, histogram.getCount());
+    assertEquals(1000000000L, histogram.getMax());
+    assertEquals(500000500000000L, histogram.getSum());
+    for (double percentile : new double[] {1, 50, 90, 99, 99.9}) {
+      long exact = (long) Math.ceil(percentile * 10000) * 1000;
+      long estimate = histogram.getPercentile(percentile);
+      assertTrue(estimate >= exact, percentile + ": " + estimate + " < " + exact);
+      assertTrue(estimate <= exact * 1.125, percentile + ": " + estimate + " > " + exact);
+    }
+    assertEquals(histogram.getMax(), histogram.getPercentile(100));
+  }
+
+  @Test
+  @DisplayName("Small, negative and very large values are recorded")
+  public void record_extremeValues() {
+    histogram.record(-5);
+    histogram.record(3);
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(0, histogram.getPercentile(0));
+    assertEquals(3, histogram.getPercentile(50));
+    assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+  }
+
+  @Test
+  @DisplayName("Percentiles outside of 0 to 100 are rejected")
+  public void getPercentile_outOfRange() {
+    assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(-1));
+    assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(100.5));
+  }
+
+  @Test
+  @DisplayName("A reset histogram is empty")
+  public void reset_empty() {
+    histogram.record(42);
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getPercentile(50));
+  }
+
+  @Test
+  @DisplayName("Values recorded by several threads at the same time are all counted")
+  public void record_concurrently() throws InterruptedException {
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      long offset = t;
+      threads.add(
+          new Thread(
+              () -> {
+                for (long value = 1; value <= 100000; value++) {
+                  histogram.record(value * 8 + offset);
+                }
+              }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(800000, histogram.getCount());
+    assertEquals(800007, histogram.getMax());
+    assertEquals(histogram.getMax(), histogram.getPercentile(100));
+  }
+}
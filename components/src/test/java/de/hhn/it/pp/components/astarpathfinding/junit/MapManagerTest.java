@@ -2,14 +2,19 @@ package de.hhn.it.pp.components.astarpathfinding.junit;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import de.hhn.it.pp.components.astarpathfinding.Position;
 import de.hhn.it.pp.components.astarpathfinding.TerrainType;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.OccupiedPositionException;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds.PositionType;
+import de.hhn.it.pp.components.astarpathfinding.provider.GridMap;
 import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
 import de.hhn.it.pp.components.astarpathfinding.provider.Terrain;
 import de.hhn.it.pp.components.exceptions.IllegalParameterException;
@@ -61,6 +66,48 @@ public class MapManagerTest {
     }
   }
 
+  @Test
+  @DisplayName("Every change of the map increases the version")
+  public void getVersion_increasesOnChanges() throws Exception {
+    long version = testMapManager.getVersion();
+    testMapManager.createTerrain(TerrainType.WATER, new Position(1, 1));
+    assertTrue(testMapManager.getVersion() > version);
+    version = testMapManager.getVersion();
+    testMapManager.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+    assertTrue(testMapManager.getVersion() > version);
+    version = testMapManager.getVersion();
+    testMapManager.reset();
+    assertTrue(testMapManager.getVersion() > version);
+  }
+
+  @Test
+  @DisplayName("A snapshot keeps its state of the map when terrain is placed")
+  public void getSnapshot_unchangedByLaterChanges() throws Exception {
+    for (boolean largeMap : new boolean[] {false, true}) {
+      if (largeMap) {
+        testMapManager.createLargeMap(100, 90);
+      }
+      MapManager.Snapshot snapshot = testMapManager.getSnapshot();
+      Terrain[][] map = snapshot.getMap();
+      Position position = new Position(3, 4);
+      Terrain terrain = testMapManager.createTerrain(TerrainType.LAVA, position);
+
+      GridMap grid = snapshot.getGrid();
+      GridMap newGrid = testMapManager.getGrid();
+      assertAll(
+          () -> assertEquals(TerrainType.DIRT, grid.getType(grid.index(3, 4))),
+          () -> assertEquals(TerrainType.LAVA, newGrid.getType(newGrid.index(3, 4))),
+          () -> assertTrue(testMapManager.getVersion() > snapshot.getVersion()),
+          () -> assertNotSame(snapshot, testMapManager.getSnapshot()));
+      if (!largeMap) {
+        assertEquals(TerrainType.DIRT, map[3][4].getType());
+        assertSame(terrain, testMapManager.getMap()[3][4]);
+        // Rows without a change are shared with the snapshot
+        assertSame(map[2], testMapManager.getMap()[2]);
+      }
+    }
+  }
+
   @Nested
   @DisplayName("Tests for createMap")
   class MapManagerTest_createMap {
@@ -113,6 +160,101 @@ public class MapManagerTest {
     }
   }
 
+  @Nested
+  @DisplayName("Tests for createLargeMap")
+  class MapManagerTest_createLargeMap {
+
+    @Test
+    @DisplayName("Readers always see a map while large maps are created")
+    public void createLargeMap_alwaysReadable() throws Exception {
+      Thread writer =
+          new Thread(
+              () -> {
+                try {
+                  for (int i = 0; i < 200; i++) {
+                    testMapManager.createLargeMap(MapManager.MIN_WIDTH + i % 50, 300);
+                  }
+                } catch (PositionOutOfBounds e) {
+                  throw new IllegalStateException(e);
+                }
+              });
+      writer.start();
+      while (writer.isAlive()) {
+        MapManager.Snapshot snapshot = testMapManager.getSnapshot();
+        assertTrue(snapshot.getGrid().getWidth() >= MapManager.MIN_WIDTH);
+        testMapManager.checkPositionInBounds(new Position(0, 0));
+      }
+      writer.join();
+    }
+
+    @Test
+    @DisplayName("Successfully create a large map which only stores the packed grid")
+    public void createLargeMap_newMap() throws PositionOutOfBounds {
+      testMapManager.createLargeMap(4097, 3000);
+      testMapManager.createTerrain(TerrainType.WATER, new Position(2999, 4096));
+      assertAll(
+          () -> assertTrue(testMapManager.isLargeMap(), "The map should be in large-map mode"),
+          () -> assertNull(testMapManager.getMap(), "No terrain objects should be kept"),
+          () -> assertEquals(4097, testMapManager.getWidth()),
+          () -> assertEquals(3000, testMapManager.getHeight()),
+          () -> assertEquals(new Position(1499, 0), testMapManager.getStartCoordinates()),
+          () -> assertEquals(new Position(1499, 4096), testMapManager.getDestinationCoordinates()),
+          () -> assertEquals((4097L * 3000 + 1) / 2, testMapManager.getGrid().getMemoryUsage()),
+          () ->
+              assertEquals(
+                  TerrainType.WATER,
+                  testMapManager.getTerrainAt(new Position(2999, 4096)).getType()),
+          () ->
+              assertEquals(
+                  TerrainType.DIRT,
+                  testMapManager.getTerrainAt(new Position(2999, 4095)).getType()));
+    }
+
+    @Test
+    @DisplayName("Resetting a large map keeps the large-map mode")
+    public void reset_keepsLargeMap() throws PositionOutOfBounds {
+      testMapManager.createLargeMap(100, 100);
+      testMapManager.createTerrain(TerrainType.LAVA, new Position(5, 5));
+      testMapManager.reset();
+      assertAll(
+          () -> assertTrue(testMapManager.isLargeMap()),
+          () -> assertEquals(100, testMapManager.getWidth()),
+          () ->
+              assertEquals(
+                  TerrainType.DIRT, testMapManager.getTerrainAt(new Position(5, 5)).getType()));
+
+      testMapManager.createMap(10, 10);
+      assertFalse(testMapManager.isLargeMap(), "createMap should leave the large-map mode");
+    }
+
+    @Test
+    @DisplayName("A 16384 x 16384 map fits into 128 MiB of terrain data")
+    public void estimateMemory_16k() {
+      long largeMap = MapManager.estimateMapMemory(16384, 16384, true);
+      long normalMap = MapManager.estimateMapMemory(16384, 16384, false);
+      assertAll(
+          () -> assertEquals(128L << 20, largeMap),
+          () -> assertTrue(normalMap > 50 * largeMap, "Terrain objects should dominate"),
+          () ->
+              assertTrue(
+                  MapManager.estimateSearchMemory(16384, 16384) > largeMap,
+                  "A search over the whole map needs more memory than the map"));
+    }
+
+    @Test
+    @DisplayName("Unsuccessfully create a large map above the maximum values")
+    public void createLargeMap_aboveMaximumValues() {
+      assertThrows(
+          PositionOutOfBounds.class,
+          () ->
+              testMapManager.createLargeMap(
+                  MapManager.LARGE_MAX_WIDTH + 1, MapManager.LARGE_MAX_HEIGHT));
+      assertThrows(
+          PositionOutOfBounds.class,
+          () -> testMapManager.createLargeMap(MapManager.MIN_WIDTH - 1, MapManager.MIN_HEIGHT));
+    }
+  }
+
   @Nested
   @DisplayName("Tests for createTerrain")
   class MapManagerTest_createTerrain {
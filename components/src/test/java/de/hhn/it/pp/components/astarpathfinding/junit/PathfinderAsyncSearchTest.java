@@ -0,0 +1,148 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.SearchAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.SearchBudget;
+import de.hhn.it.pp.components.astarpathfinding.SearchStatus;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PathfinderAsyncSearchTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(PathfinderAsyncSearchTest.class);
+
+  private static final int SIZE = 256;
+
+  Pathfinder pathfinder;
+
+  @BeforeEach
+  void setup() throws Exception {
+    pathfinder = new Pathfinder();
+    pathfinder.createLargeMap(SIZE, SIZE);
+    pathfinder.setStartPoint(new Position(0, 0));
+    pathfinder.setEndPoint(new Position(SIZE - 1, SIZE - 1));
+  }
+
+  @Test
+  @DisplayName("An unlimited search finds the shortest path")
+  public void doPathfindingAsync_unlimited() throws Exception {
+    PathResult result =
+        pathfinder.doPathfindingAsync(SearchBudget.unlimited()).get(10, TimeUnit.SECONDS);
+    assertEquals(SearchStatus.FOUND, result.getStatus());
+    assertTrue(result.isFound());
+    assertFalse(result.isPartial());
+    assertEquals(pathfinder.findShortestPath().getLength(), result.getLength());
+  }
+
+  @Test
+  @DisplayName("The expansion limit returns the path to the cell closest to the goal")
+  public void doPathfindingAsync_expansionLimit() throws Exception {
+    // Every terrain change ends a jump, so jump point search cannot cross the map either
+    for (int col = 1; col < SIZE; col += 2) {
+      for (int row = 0; row < SIZE; row++) {
+        pathfinder.placeTerrain(TerrainType.GRASS, new Position(row, col));
+      }
+    }
+    SearchBudget budget = SearchBudget.unlimited().withMaxExpandedNodes(100);
+    for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+      pathfinder.setSearchAlgorithm(algorithm);
+      PathResult result = pathfinder.doPathfindingAsync(budget).get(10, TimeUnit.SECONDS);
+      logger.info("{}: {}", algorithm, result);
+
+      assertEquals(SearchStatus.EXPANSION_LIMIT_REACHED, result.getStatus(), algorithm.name());
+      assertTrue(result.isPartial());
+      assertFalse(result.isFound());
+      assertTrue(result.getStats().getExpandedNodes() <= 100, algorithm.name());
+      assertEquals(result.getLength(), result.getStats().getPathLength(), algorithm.name());
+      assertEquals(result.getCost(), result.getStats().getPathCost(), algorithm.name());
+      assertFalse(result.getStats().isPathFound(), algorithm.name());
+      assertEquals(new Position(0, 0), result.getPosition(0));
+      Position last = result.getPosition(result.getLength() - 1);
+      assertTrue(last.getRow() + last.getCol() > 0, "The path does not leave the start");
+      for (int step = 1; step < result.getLength(); step++) {
+        assertEquals(
+            1,
+            Math.max(
+                Math.abs(result.getRow(step) - result.getRow(step - 1)),
+                Math.abs(result.getCol(step) - result.getCol(step - 1))),
+            "The path is not connected");
+      }
+    }
+    // Partial paths are not counted as found
+    assertEquals(0, pathfinder.getSearchMetrics().getPathsFound());
+  }
+
+  @Test
+  @DisplayName("A passed deadline returns a partial path")
+  public void doPathfindingAsync_deadline() throws Exception {
+    SearchBudget budget = SearchBudget.unlimited().withTimeout(Duration.ZERO);
+    PathResult result = pathfinder.doPathfindingAsync(budget).get(10, TimeUnit.SECONDS);
+    assertEquals(SearchStatus.DEADLINE_EXCEEDED, result.getStatus());
+    assertEquals(1, result.getLength());
+    assertEquals(0, result.getCost());
+  }
+
+  @Test
+  @DisplayName("A cancelled search stops without a result")
+  public void doPathfindingAsync_cancel() throws Exception {
+    pathfinder.createLargeMap(1024, 1024);
+    pathfinder.setEndPoint(new Position(1000, 1000));
+    // Enclose the end point, so the search has to close every other cell
+    for (int row = 999; row <= 1001; row++) {
+      for (int col = 999; col <= 1001; col++) {
+        if (row != 1000 || col != 1000) {
+          pathfinder.placeTerrain(TerrainType.LAVA, new Position(row, col));
+        }
+      }
+    }
+    CountDownLatch started = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      CompletableFuture<PathResult> future =
+          pathfinder.doPathfindingAsync(
+              SearchBudget.unlimited(),
+              task ->
+                  executor.execute(
+                      () -> {
+                        started.countDown();
+                        task.run();
+                      }));
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+      assertTrue(future.cancel(true));
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+    // A search which ran to the end would have been added to the metrics
+    assertEquals(0, pathfinder.getSearchMetrics().getSearches());
+  }
+
+  @Test
+  @DisplayName("Invalid budgets are rejected")
+  public void doPathfindingAsync_invalidBudget() {
+    assertThrows(IllegalParameterException.class, () -> pathfinder.doPathfindingAsync(null));
+    assertThrows(
+        IllegalParameterException.class,
+        () -> SearchBudget.unlimited().withMaxExpandedNodes(0));
+    assertThrows(
+        IllegalParameterException.class,
+        () -> SearchBudget.unlimited().withTimeout(Duration.ofMillis(-1)));
+  }
+}
@@ -0,0 +1,106 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PathfinderBatchQueryTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(PathfinderBatchQueryTest.class);
+
+  Pathfinder pathfinder;
+
+  private List<PathQuery> queries;
+
+  @BeforeEach
+  void setup() throws PositionOutOfBounds {
+    pathfinder = new Pathfinder();
+    placeWalls();
+    Random random = new Random(42);
+    queries = new ArrayList<>();
+    while (queries.size() < 200) {
+      Position start =
+          RandomMaps.randomPosition(random, MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+      Position goal =
+          RandomMaps.randomPosition(random, MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+      if (!start.equals(goal)) {
+        queries.add(new PathQuery(start, goal));
+      }
+    }
+  }
+
+  private void placeWalls() throws PositionOutOfBounds {
+    pathfinder.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+    pathfinder.setDiagonalPathing(true);
+    for (int row = 0; row < MapManager.MAX_HEIGHT - 2; row++) {
+      pathfinder.placeTerrain(TerrainType.LAVA, new Position(row, 10));
+      pathfinder.placeTerrain(TerrainType.WATER, new Position(row + 2, 20));
+    }
+  }
+
+  @Test
+  @DisplayName("A batch finds the same paths as single searches")
+  public void findPaths_sameAsSingleSearches() throws Exception {
+    List<PathResult> results = pathfinder.findPaths(queries);
+    assertEquals(queries.size(), results.size());
+    Position lastGoal = null;
+    for (int i = 0; i < queries.size(); i++) {
+      PathQuery query = queries.get(i);
+      PathResult result = results.get(i);
+      // Park the start on a free position, so neither point is in the way of the other
+      Position parking = new Position(0, 0);
+      while (parking.equals(query.getStart())
+          || parking.equals(query.getGoal())
+          || parking.equals(lastGoal)) {
+        parking = new Position(0, parking.getCol() + 1);
+      }
+      pathfinder.setStartPoint(parking);
+      pathfinder.setEndPoint(query.getGoal());
+      pathfinder.setStartPoint(query.getStart());
+      lastGoal = query.getGoal();
+      List<Position> expected = pathfinder.findShortestPath().toPositions();
+      assertEquals(query, result.getQuery());
+      assertEquals(expected, result.toPositions(), "Different path for " + query);
+      assertEquals(!expected.isEmpty(), result.isFound());
+    }
+  }
+
+  @Test
+  @DisplayName("A parallel batch finds the same paths as a sequential batch")
+  public void findPaths_parallel() throws Exception {
+    List<PathResult> expected = pathfinder.findPaths(queries);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      List<PathResult> results = pathfinder.findPaths(queries, pool);
+      for (int i = 0; i < queries.size(); i++) {
+        assertEquals(expected.get(i).toPositions(), results.get(i).toPositions());
+        assertEquals(expected.get(i).getCost(), results.get(i).getCost());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("A batch with a position out of bounds is rejected before searching")
+  public void findPaths_outOfBounds() {
+    queries.add(new PathQuery(new Position(0, 0), new Position(0, MapManager.MAX_WIDTH)));
+    assertThrows(PositionOutOfBounds.class, () -> pathfinder.findPaths(queries));
+    assertThrows(IllegalParameterException.class, () -> pathfinder.findPaths(null));
+  }
+}
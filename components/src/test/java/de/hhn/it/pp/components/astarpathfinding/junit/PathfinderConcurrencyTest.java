@@ -0,0 +1,119 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PathfinderConcurrencyTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(PathfinderConcurrencyTest.class);
+
+  Pathfinder pathfinder;
+
+  @BeforeEach
+  void setup() {
+    pathfinder = new Pathfinder();
+  }
+
+  @Test
+  @DisplayName("Simultaneous searches on the same pathfinder do not corrupt each other")
+  public void findShortestPath_concurrent() throws Exception {
+    pathfinder.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+    for (int row = 0; row < MapManager.MAX_HEIGHT - 2; row++) {
+      pathfinder.placeTerrain(TerrainType.LAVA, new Position(row, 10));
+      pathfinder.placeTerrain(TerrainType.SWAMP, new Position(row + 2, 20));
+    }
+    List<Position> expectedPath = pathfinder.findShortestPath().toPositions();
+    assertFalse(expectedPath.isEmpty());
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<List<Position>>> futures = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        futures.add(executor.submit(() -> pathfinder.findShortestPath().toPositions()));
+      }
+      for (Future<List<Position>> future : futures) {
+        assertEquals(expectedPath, future.get(), "A concurrent search returned another path");
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Terrain can be placed while batches are searched on another thread")
+  public void placeTerrain_duringSearches() throws Exception {
+    int size = 64;
+    pathfinder.createLargeMap(size, size);
+    Pathfinder sameTerrain = new Pathfinder();
+    sameTerrain.createLargeMap(size, size);
+    Random random = new Random(5);
+    List<PathQuery> queries = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      queries.add(
+          new PathQuery(
+              new Position(random.nextInt(size), random.nextInt(size)),
+              new Position(random.nextInt(size), random.nextInt(size))));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      TerrainType[] types = TerrainType.values();
+      Future<?> editor =
+          executor.submit(
+              () -> {
+                for (int i = 0; i < 2000; i++) {
+                  Position position = new Position(random.nextInt(size), random.nextInt(size));
+                  TerrainType type = types[random.nextInt(types.length)];
+                  pathfinder.placeTerrain(type, position);
+                  sameTerrain.placeTerrain(type, position);
+                }
+                return null;
+              });
+      Future<?> searcher =
+          executor.submit(
+              () -> {
+                do {
+                  for (PathResult result : pathfinder.findPaths(queries)) {
+                    List<Position> positions = result.toPositions();
+                    for (int step = 1; step < positions.size(); step++) {
+                      Position from = positions.get(step - 1);
+                      Position to = positions.get(step);
+                      assertTrue(Math.abs(from.getRow() - to.getRow()) <= 1);
+                      assertTrue(Math.abs(from.getCol() - to.getCol()) <= 1);
+                    }
+                  }
+                } while (!editor.isDone());
+                return null;
+              });
+      editor.get();
+      searcher.get();
+    } finally {
+      executor.shutdown();
+    }
+
+    // No result of an older state of the map has been cached for the final one
+    List<PathResult> expected = sameTerrain.findPaths(queries);
+    List<PathResult> results = pathfinder.findPaths(queries);
+    for (int i = 0; i < queries.size(); i++) {
+      assertEquals(
+          expected.get(i).getCost(), results.get(i).getCost(), queries.get(i).toString());
+    }
+  }
+}
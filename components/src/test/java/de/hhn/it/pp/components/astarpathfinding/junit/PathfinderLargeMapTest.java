@@ -0,0 +1,58 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PathfinderLargeMapTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(PathfinderLargeMapTest.class);
+
+  Pathfinder pathfinder;
+
+  @BeforeEach
+  void setup() {
+    pathfinder = new Pathfinder();
+  }
+
+  @Test
+  @DisplayName("A large map yields the same path as a normal map with the same terrain")
+  public void findShortestPath_sameAsNormalMap() throws Exception {
+    pathfinder.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+    placeWalls(pathfinder);
+    List<Position> expectedPath = pathfinder.findShortestPath().toPositions();
+
+    pathfinder.createLargeMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+    placeWalls(pathfinder);
+    assertEquals(expectedPath, pathfinder.findShortestPath().toPositions());
+  }
+
+  @Test
+  @DisplayName("A path is found across a 2048 x 2048 map")
+  public void findShortestPath_acrossLargeMap() throws Exception {
+    pathfinder.createLargeMap(2048, 2048);
+    for (int row = 0; row < 2040; row++) {
+      pathfinder.placeTerrain(TerrainType.LAVA, new Position(row, 1024));
+    }
+    PathResult path = pathfinder.findShortestPath();
+    assertTrue(path.isFound());
+    assertEquals(new Position(1023, 2047), path.getPosition(path.getLength() - 1));
+  }
+
+  private void placeWalls(Pathfinder pathfinder) throws PositionOutOfBounds {
+    for (int row = 0; row < MapManager.MAX_HEIGHT - 2; row++) {
+      pathfinder.placeTerrain(TerrainType.LAVA, new Position(row, 10));
+      pathfinder.placeTerrain(TerrainType.SWAMP, new Position(row + 2, 20));
+    }
+  }
+}
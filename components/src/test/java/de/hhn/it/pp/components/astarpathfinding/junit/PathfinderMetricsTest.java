@@ -0,0 +1,100 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.OpenListType;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.SearchAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.SearchMetrics;
+import de.hhn.it.pp.components.astarpathfinding.SearchStats;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PathfinderMetricsTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(PathfinderMetricsTest.class);
+
+  Pathfinder pathfinder;
+
+  private final List<PathQuery> queries =
+      List.of(
+          new PathQuery(new Position(0, 0), new Position(17, 28)),
+          new PathQuery(new Position(17, 0), new Position(0, 28)),
+          new PathQuery(new Position(0, 0), new Position(5, 10)));
+
+  @BeforeEach
+  void setup() throws PositionOutOfBounds {
+    pathfinder = new Pathfinder();
+    pathfinder.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+    for (int row = 0; row < MapManager.MAX_HEIGHT - 2; row++) {
+      pathfinder.placeTerrain(TerrainType.WATER, new Position(row, 15));
+    }
+    // Enclose the goal of the last query
+    pathfinder.placeTerrain(TerrainType.LAVA, new Position(4, 10));
+    pathfinder.placeTerrain(TerrainType.LAVA, new Position(6, 10));
+    pathfinder.placeTerrain(TerrainType.LAVA, new Position(5, 9));
+    pathfinder.placeTerrain(TerrainType.LAVA, new Position(5, 11));
+  }
+
+  @Test
+  @DisplayName("Every result counts the operations of its search")
+  public void findPaths_statsOfEverySearch() throws Exception {
+    for (OpenListType type : OpenListType.values()) {
+      for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+        pathfinder.setPathCacheSize(0);
+        pathfinder.setOpenListType(type);
+        pathfinder.setSearchAlgorithm(algorithm);
+        for (PathResult result : pathfinder.findPaths(queries)) {
+          SearchStats stats = result.getStats();
+          logger.info("{} {}: {}", type, algorithm, stats);
+          String message = type + " " + algorithm + " " + result.getQuery();
+          assertEquals(result.isFound(), stats.isPathFound(), message);
+          assertEquals(result.getLength(), stats.getPathLength(), message);
+          assertEquals(result.getCost(), stats.getPathCost(), message);
+          assertTrue(stats.getExpandedNodes() > 0, message);
+          assertTrue(stats.getExpandedNodes() <= stats.getPops(), message);
+          assertTrue(stats.getPops() <= stats.getPushes(), message);
+          assertTrue(stats.getMaxOpenListSize() <= stats.getPushes(), message);
+          assertTrue(stats.getGeneratedNodes() >= stats.getPushes() - 2, message);
+          assertTrue(stats.getWallTimeNanos() > 0, message);
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("The metrics add up the searches and requests")
+  public void getSearchMetrics_addsUpSearches() throws Exception {
+    SearchMetrics metrics = pathfinder.getSearchMetrics();
+    List<PathResult> results = pathfinder.findPaths(queries);
+    pathfinder.findPaths(queries);
+    pathfinder.findHierarchicalPaths(queries.subList(0, 1));
+    logger.info("{}", metrics);
+
+    long expanded = 0;
+    for (PathResult result : results) {
+      expanded += result.getStats().getExpandedNodes();
+    }
+    assertEquals(4, metrics.getSearches());
+    assertEquals(3, metrics.getPathsFound());
+    assertEquals(3, metrics.getRequests());
+    assertEquals(7, metrics.getQueries());
+    assertTrue(metrics.getExpandedNodes() > expanded);
+    assertEquals(4, metrics.getSearchLatency().getCount());
+    assertEquals(3, metrics.getRequestLatency().getCount());
+    assertEquals(metrics.getSearches(), metrics.toMap().get("searches").longValue());
+
+    metrics.reset();
+    assertEquals(0, metrics.getSearches());
+    assertEquals(0, metrics.getRequestLatency().getCount());
+  }
+}
@@ -0,0 +1,102 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.CacheStatistics;
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PathfinderPathCacheTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(PathfinderPathCacheTest.class);
+
+  Pathfinder pathfinder;
+
+  private final List<PathQuery> queries =
+      List.of(
+          new PathQuery(new Position(0, 0), new Position(17, 28)),
+          new PathQuery(new Position(17, 0), new Position(0, 28)));
+
+  @BeforeEach
+  void setup() throws PositionOutOfBounds {
+    pathfinder = new Pathfinder();
+    pathfinder.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+    for (int row = 0; row < MapManager.MAX_HEIGHT - 2; row++) {
+      pathfinder.placeTerrain(TerrainType.WATER, new Position(row, 10));
+    }
+  }
+
+  @Test
+  @DisplayName("Repeated queries are answered from the cache")
+  public void findPaths_repeatedQueriesHit() throws Exception {
+    List<PathResult> first = pathfinder.findPaths(queries);
+    List<PathResult> second = pathfinder.findPaths(queries);
+    CacheStatistics statistics = pathfinder.getPathCacheStatistics();
+    logger.info("Path cache: {}", statistics);
+
+    assertEquals(2, statistics.getHits());
+    assertEquals(2, statistics.getMisses());
+    assertEquals(2, statistics.getSize());
+    for (int i = 0; i < queries.size(); i++) {
+      assertEquals(queries.get(i), second.get(i).getQuery());
+      assertEquals(first.get(i).getCost(), second.get(i).getCost());
+      assertEquals(first.get(i).toPositions(), second.get(i).toPositions());
+    }
+    assertEquals(
+        pathfinder.findShortestPath().toPositions(), pathfinder.findShortestPath().toPositions());
+    assertEquals(3, pathfinder.getPathCacheStatistics().getHits());
+  }
+
+  @Test
+  @DisplayName("Changed terrain and modifiers are not answered from the cache")
+  public void findPaths_changesMiss() throws Exception {
+    int cost = pathfinder.findPaths(queries).get(0).getCost();
+
+    // Close the gap below the water
+    pathfinder.placeTerrain(TerrainType.LAVA, new Position(MapManager.MAX_HEIGHT - 2, 10));
+    pathfinder.placeTerrain(TerrainType.LAVA, new Position(MapManager.MAX_HEIGHT - 1, 10));
+    assertTrue(pathfinder.findPaths(queries).get(0).getCost() > cost);
+    pathfinder.changeTerrainTypeModifier(TerrainType.WATER, 0);
+    assertTrue(pathfinder.findPaths(queries).get(0).getCost() < cost);
+    pathfinder.setDiagonalPathing(true);
+    pathfinder.findPaths(queries);
+
+    CacheStatistics statistics = pathfinder.getPathCacheStatistics();
+    assertEquals(0, statistics.getHits());
+    assertEquals(8, statistics.getMisses());
+  }
+
+  @Test
+  @DisplayName("The least recently used results are evicted")
+  public void setPathCacheSize_evicts() throws Exception {
+    pathfinder.setPathCacheSize(1);
+    pathfinder.findPaths(queries);
+    pathfinder.findPaths(queries.subList(1, 2));
+    CacheStatistics statistics = pathfinder.getPathCacheStatistics();
+    assertEquals(1, statistics.getHits());
+    assertEquals(1, statistics.getEvictions());
+    assertEquals(1, statistics.getSize());
+
+    pathfinder.setPathCacheSize(0);
+    pathfinder.findPaths(queries);
+    assertEquals(0, pathfinder.getPathCacheStatistics().getSize());
+  }
+
+  @Test
+  @DisplayName("A negative cache size is rejected")
+  public void setPathCacheSize_negative() {
+    assertThrows(IllegalParameterException.class, () -> pathfinder.setPathCacheSize(-1));
+  }
+}
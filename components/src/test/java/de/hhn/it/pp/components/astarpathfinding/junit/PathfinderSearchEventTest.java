@@ -0,0 +1,110 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.SearchEvent;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PathfinderSearchEventTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(PathfinderSearchEventTest.class);
+
+  Pathfinder pathfinder;
+
+  @BeforeEach
+  void setup() {
+    pathfinder = new Pathfinder();
+  }
+
+  @BeforeEach
+  void setupMap() throws PositionOutOfBounds {
+    pathfinder.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+    for (int row = 0; row < MapManager.MAX_HEIGHT - 2; row++) {
+      pathfinder.placeTerrain(TerrainType.LAVA, new Position(row, 10));
+    }
+  }
+
+  @Test
+  @DisplayName("A listener receives every step and the final path of the search")
+  public void findShortestPath_listener() throws IllegalParameterException {
+    List<SearchEvent> events = new ArrayList<>();
+    List<Position> path = pathfinder.findShortestPath(events::add).toPositions();
+
+    assertEquals(pathfinder.findShortestPath().toPositions(), path);
+    SearchEvent last = events.get(events.size() - 1);
+    assertEquals(SearchEvent.Kind.SEARCH_FINISHED, last.getKind());
+    assertEquals(path, last.getPath());
+    assertEquals(SearchEvent.Kind.OPENED, events.get(0).getKind());
+    assertEquals(path.get(0), events.get(0).getPosition());
+
+    // One step per state of the recorded search
+    long steps =
+        events.stream().filter(e -> e.getKind() == SearchEvent.Kind.STEP_FINISHED).count();
+    assertEquals(pathfinder.doPathfinding().size(), steps);
+  }
+
+  @Test
+  @DisplayName("A subscriber which requests one event at a time receives all events")
+  public void publishPathfinding_backpressure() throws Exception {
+    List<SearchEvent> expected = new ArrayList<>();
+    pathfinder.findShortestPath(expected::add);
+
+    List<SearchEvent> received = new ArrayList<>();
+    CompletableFuture<Void> completed = new CompletableFuture<>();
+    pathfinder
+        .publishPathfinding()
+        .subscribe(
+            new Flow.Subscriber<SearchEvent>() {
+              private Flow.Subscription subscription;
+
+              @Override
+              public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+              }
+
+              @Override
+              public void onNext(SearchEvent item) {
+                received.add(item);
+                subscription.request(1);
+              }
+
+              @Override
+              public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+              }
+
+              @Override
+              public void onComplete() {
+                completed.complete(null);
+              }
+            });
+    completed.get(30, TimeUnit.SECONDS);
+
+    assertEquals(expected.size(), received.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getKind(), received.get(i).getKind());
+      assertEquals(expected.get(i).getPosition(), received.get(i).getPosition());
+    }
+  }
+
+  @Test
+  @DisplayName("Search without a listener")
+  public void findShortestPath_noListener() {
+    assertThrows(IllegalParameterException.class, () -> pathfinder.findShortestPath(null));
+  }
+}
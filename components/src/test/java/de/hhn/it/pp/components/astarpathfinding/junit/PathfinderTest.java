@@ -5,8 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
 import de.hhn.it.pp.components.astarpathfinding.PathfindingInformation;
 import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.SearchAlgorithm;
 import de.hhn.it.pp.components.astarpathfinding.TerrainType;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.OccupiedPositionException;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
@@ -70,9 +73,44 @@ public class PathfinderTest {
     public void reset_successful() throws IllegalParameterException {
       // Change the cost modifier of the terrain type water
       pathfinder.changeTerrainTypeModifier(TerrainType.WATER, 75);
-      assertEquals(75, TerrainType.WATER.getModifier());
+      assertEquals(75, pathfinder.getCostTable().getModifier(TerrainType.WATER));
       pathfinder.reset();
-      assertEquals(TerrainType.WATER.getDefaultModifier(), TerrainType.WATER.getModifier());
+      assertEquals(
+          TerrainType.WATER.getDefaultModifier(),
+          pathfinder.getCostTable().getModifier(TerrainType.WATER));
+    }
+
+    @Test
+    @DisplayName("Jump point search finds a path of the same cost as A*")
+    public void setSearchAlgorithm_jumpPointSearch() throws Exception {
+      pathfinder.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+      pathfinder.setDiagonalPathing(true);
+      for (int row = 2; row < MapManager.MAX_HEIGHT; row++) {
+        pathfinder.placeTerrain(TerrainType.LAVA, new Position(row, 14));
+      }
+      List<PathQuery> queries =
+          List.of(new PathQuery(new Position(17, 0), new Position(17, MapManager.MAX_WIDTH - 1)));
+      PathResult expected = pathfinder.findPaths(queries).get(0);
+      pathfinder.setSearchAlgorithm(SearchAlgorithm.JUMP_POINT_SEARCH);
+      PathResult result = pathfinder.findPaths(queries).get(0);
+      assertTrue(result.isFound());
+      assertEquals(expected.getCost(), result.getCost());
+    }
+
+    @Test
+    @DisplayName("Bidirectional search finds a path of the same cost as A*")
+    public void setSearchAlgorithm_bidirectional() throws Exception {
+      pathfinder.createMap(MapManager.MAX_WIDTH, MapManager.MAX_HEIGHT);
+      for (int row = 2; row < MapManager.MAX_HEIGHT; row++) {
+        pathfinder.placeTerrain(TerrainType.SWAMP, new Position(row, 14));
+      }
+      List<PathQuery> queries =
+          List.of(new PathQuery(new Position(17, 0), new Position(17, MapManager.MAX_WIDTH - 1)));
+      PathResult expected = pathfinder.findPaths(queries).get(0);
+      pathfinder.setSearchAlgorithm(SearchAlgorithm.BIDIRECTIONAL_A_STAR);
+      PathResult result = pathfinder.findPaths(queries).get(0);
+      assertTrue(result.isFound());
+      assertEquals(expected.getCost(), result.getCost());
     }
   }
 
@@ -129,6 +167,12 @@ public class PathfinderTest {
               pathfinder.placeTerrain(TerrainType.WATER, new Position(MapManager.MAX_WIDTH + 1, 3)),
           "Expected exception was not thrown");
     }
+
+    @Test
+    @DisplayName("Select no search algorithm")
+    public void setSearchAlgorithm_unsuccessful() {
+      assertThrows(IllegalParameterException.class, () -> pathfinder.setSearchAlgorithm(null));
+    }
   }
 
   @Nested
@@ -142,7 +186,12 @@ public class PathfinderTest {
       @DisplayName("Successful change TerrainType value")
       public void changeTerrainTypeModifier_successful() throws IllegalParameterException {
         pathfinder.changeTerrainTypeModifier(TerrainType.WATER, 0.7);
-        assertEquals(0.7, TerrainType.WATER.getModifier());
+        assertEquals(0.7, pathfinder.getCostTable().getModifier(TerrainType.WATER));
+        // Other pathfinders and the terrain types keep their modifiers
+        assertEquals(TerrainType.WATER.getDefaultModifier(), TerrainType.WATER.getModifier());
+        assertEquals(
+            TerrainType.WATER.getDefaultModifier(),
+            new Pathfinder().getCostTable().getModifier(TerrainType.WATER));
       }
     }
 
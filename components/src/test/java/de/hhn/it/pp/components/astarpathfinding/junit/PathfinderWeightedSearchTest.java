@@ -0,0 +1,105 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.SearchAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.SearchBudget;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PathfinderWeightedSearchTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(PathfinderWeightedSearchTest.class);
+
+  private static final int SIZE = 128;
+
+  Pathfinder pathfinder;
+
+  @BeforeEach
+  void setup() throws Exception {
+    pathfinder = new Pathfinder();
+    pathfinder.createLargeMap(SIZE, SIZE);
+    pathfinder.setDiagonalPathing(true);
+    // Cheap steps, so the Manhattan distance is close to the real costs
+    for (TerrainType type : new TerrainType[] {TerrainType.DIRT, TerrainType.GRASS}) {
+      pathfinder.changeTerrainTypeModifier(type, 0);
+    }
+    // A lake which is cheaper to walk around than to cross
+    pathfinder.changeTerrainTypeModifier(TerrainType.WATER, 2);
+    for (int row = 8; row < SIZE; row++) {
+      for (int col = 32; col < 96; col++) {
+        pathfinder.placeTerrain(TerrainType.WATER, new Position(row, col));
+      }
+    }
+    pathfinder.setStartPoint(new Position(64, 0));
+    pathfinder.setEndPoint(new Position(64, SIZE - 1));
+  }
+
+  @Test
+  @DisplayName("Weighted A* stays within the weight of the shortest path and is cached apart")
+  public void findShortestPath_weighted() throws Exception {
+    int shortestCost = pathfinder.doPathfindingAsync(SearchBudget.unlimited()).get().getCost();
+    pathfinder.setSearchAlgorithm(SearchAlgorithm.WEIGHTED_A_STAR);
+    for (double weight : new double[] {1, 2, 5}) {
+      pathfinder.setHeuristicWeight(weight);
+      assertEquals(weight, pathfinder.getHeuristicWeight());
+      pathfinder.findShortestPath();
+      PathResult result = pathfinder.doPathfindingAsync(SearchBudget.unlimited()).get();
+      assertTrue(result.getCost() <= weight * shortestCost);
+    }
+    // Every weight has been searched once
+    assertEquals(3, pathfinder.getPathCacheStatistics().getMisses());
+  }
+
+  @Test
+  @DisplayName("An anytime search publishes cheaper solutions until the shortest path")
+  public void doPathfindingAnytime_improvingSolutions() throws Exception {
+    int shortestCost = pathfinder.doPathfindingAsync(SearchBudget.unlimited()).get().getCost();
+    pathfinder.setHeuristicWeight(5);
+    List<PathResult> solutions = new ArrayList<>();
+    List<Double> weights = new ArrayList<>();
+    PathResult result =
+        pathfinder
+            .doPathfindingAnytime(
+                SearchBudget.unlimited(),
+                (solution, weight) -> {
+                  solutions.add(solution);
+                  weights.add(weight);
+                })
+            .get(10, TimeUnit.SECONDS);
+    logger.info("Solutions: {} with weights {}", solutions, weights);
+
+    assertEquals(shortestCost, result.getCost());
+    assertEquals(5, weights.get(0).doubleValue());
+    assertEquals(1, weights.get(weights.size() - 1).doubleValue());
+    assertTrue(solutions.get(0).getCost() > shortestCost);
+    for (int i = 1; i < solutions.size(); i++) {
+      assertTrue(solutions.get(i).getCost() <= solutions.get(i - 1).getCost());
+    }
+  }
+
+  @Test
+  @DisplayName("Invalid weights and listeners are rejected")
+  public void setHeuristicWeight_invalid() {
+    for (double weight : new double[] {0.99, Double.NaN, Double.POSITIVE_INFINITY, 101}) {
+      assertThrows(IllegalParameterException.class, () -> pathfinder.setHeuristicWeight(weight));
+    }
+    assertThrows(
+        IllegalParameterException.class,
+        () -> pathfinder.doPathfindingAnytime(SearchBudget.unlimited(), null));
+    assertThrows(
+        IllegalParameterException.class,
+        () -> pathfinder.doPathfindingAnytime(null, (solution, weight) -> {}));
+  }
+}
@@ -0,0 +1,78 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import de.hhn.it.pp.components.astarpathfinding.PathQuery;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random terrain and queries for the tests which compare searches on mixed terrain. The values
+ * only depend on the seed of the given random, so every test sees the same maps in every run.
+ */
+final class RandomMaps {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(RandomMaps.class);
+
+  private static final TerrainType[] TYPES = TerrainType.values();
+
+  /** Places a terrain type on a position, e.g. of a map manager or a pathfinder. */
+  @FunctionalInterface
+  interface TerrainPlacer {
+    void place(TerrainType type, Position position) throws PositionOutOfBounds;
+  }
+
+  private RandomMaps() {}
+
+  /**
+   * Returns a random position on a map.
+   *
+   * @param random the source of the position
+   * @param width the width of the map
+   * @param height the height of the map
+   * @return the position
+   */
+  static Position randomPosition(Random random, int width, int height) {
+    return new Position(random.nextInt(height), random.nextInt(width));
+  }
+
+  /**
+   * Places random terrain types, including obstacles, on random positions of a map.
+   *
+   * @param random the source of the types and positions
+   * @param width the width of the map
+   * @param height the height of the map
+   * @param count the number of placed cells
+   * @param placer places a type on the map
+   * @throws PositionOutOfBounds never, the positions are on the map
+   */
+  static void placeRandomTerrain(
+      Random random, int width, int height, int count, TerrainPlacer placer)
+      throws PositionOutOfBounds {
+    for (int i = 0; i < count; i++) {
+      placer.place(TYPES[random.nextInt(TYPES.length)], randomPosition(random, width, height));
+    }
+    logger.debug("placeRandomTerrain: {} cells on {} x {}", count, width, height);
+  }
+
+  /**
+   * Returns queries between random positions of a map. Start and goal may be the same.
+   *
+   * @param random the source of the positions
+   * @param width the width of the map
+   * @param height the height of the map
+   * @param count the number of queries
+   * @return the queries
+   */
+  static List<PathQuery> randomQueries(Random random, int width, int height, int count) {
+    List<PathQuery> queries = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      queries.add(
+          new PathQuery(
+              randomPosition(random, width, height), randomPosition(random, width, height)));
+    }
+    return queries;
+  }
+}
@@ -0,0 +1,131 @@
+package de.hhn.it.pp.components.astarpathfinding.junit;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.hhn.it.pp.components.astarpathfinding.PathfindingInformation;
+import de.hhn.it.pp.components.astarpathfinding.Position;
+import de.hhn.it.pp.components.astarpathfinding.TerrainType;
+import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
+import de.hhn.it.pp.components.astarpathfinding.provider.AStarPathfindingAlgorithm;
+import de.hhn.it.pp.components.astarpathfinding.provider.MapManager;
+import de.hhn.it.pp.components.astarpathfinding.provider.SearchEventLog;
+import de.hhn.it.pp.components.astarpathfinding.provider.Terrain;
+import de.hhn.it.pp.components.exceptions.IllegalParameterException;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchEventLogTest {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(SearchEventLogTest.class);
+
+  private MapManager testMapManager;
+  private AStarPathfindingAlgorithm algorithm;
+
+  @BeforeEach
+  void setup() throws PositionOutOfBounds {
+    testMapManager = new MapManager();
+    testMapManager.createMap(7, 7);
+    testMapManager.createTerrain(TerrainType.SWAMP, new Position(1, 4));
+    testMapManager.createTerrain(TerrainType.LAVA, new Position(2, 4));
+    testMapManager.createTerrain(TerrainType.SWAMP, new Position(3, 4));
+    algorithm = new AStarPathfindingAlgorithm(testMapManager, false);
+  }
+
+  @Test
+  @DisplayName("Every expansion of the algorithm becomes one frame")
+  public void recordSearch_oneFramePerExpansion() throws IllegalParameterException {
+    SearchEventLog log = algorithm.recordSearch();
+
+    int pops = 0;
+    int closes = 0;
+    for (int event = 0; event < log.getEventCount(); event++) {
+      if (log.getEventKind(event) == SearchEventLog.POP) {
+        pops++;
+      } else if (log.getEventKind(event) == SearchEventLog.CLOSE) {
+        closes++;
+      }
+    }
+    int expansions = pops;
+    int closedCells = closes;
+    assertAll(
+        () -> assertTrue(log.isPathFound(), "The log should contain a path"),
+        () -> assertEquals(expansions, log.getFrameCount(), "Expected one frame per expansion"),
+        () -> assertEquals(expansions, closedCells, "Every popped cell should be closed"));
+  }
+
+  @Test
+  @DisplayName("Rebuilt frames contain the visited cells in order and the final path at the end")
+  public void getFrame_rebuildsState() throws IllegalParameterException {
+    SearchEventLog log = algorithm.recordSearch();
+
+    PathfindingInformation first = log.getFrame(0);
+    PathfindingInformation last = log.getFrame(log.getFrameCount() - 1);
+
+    assertAll(
+        () -> assertEquals(1, first.getVisitedPositions().size()),
+        () ->
+            assertEquals(
+                testMapManager.getStartCoordinates(),
+                first.getVisitedPositions().get(0).getPosition(),
+                "The start cell should be visited first"),
+        () -> assertTrue(first.getFinalPathPositions().isEmpty()),
+        () -> assertEquals(log.getFrameCount(), last.getVisitedPositions().size()),
+        () ->
+            assertEquals(
+                testMapManager.getDestinationCoordinates(),
+                last.getVisitedPositions().get(log.getFrameCount() - 1).getPosition(),
+                "The destination cell should be visited last"),
+        () ->
+            assertEquals(
+                algorithm.findShortestPath().toPositions(),
+                last.getFinalPathPositions().stream()
+                    .map(Terrain::getPosition)
+                    .collect(Collectors.toList())));
+  }
+
+  @Test
+  @DisplayName("The parents of rebuilt cells lead back to the start cell")
+  public void getFrame_parentsLeadToStart() throws IllegalParameterException {
+    SearchEventLog log = algorithm.recordSearch();
+    List<Terrain> visited = log.getFrame(log.getFrameCount() - 1).getVisitedPositions();
+
+    Terrain terrain = visited.get(visited.size() - 1);
+    int steps = 0;
+    while (terrain.getParent() != null) {
+      terrain = terrain.getParent();
+      steps++;
+    }
+    assertEquals(testMapManager.getStartCoordinates(), terrain.getPosition());
+    assertEquals(log.getFinalPath().size() - 1, steps);
+  }
+
+  @Test
+  @DisplayName("A search without result keeps its log but returns no frames from findPath")
+  public void recordSearch_noPath() throws IllegalParameterException, PositionOutOfBounds {
+    testMapManager.createTerrain(TerrainType.LAVA, new Position(2, 0));
+    testMapManager.createTerrain(TerrainType.LAVA, new Position(4, 0));
+    testMapManager.createTerrain(TerrainType.LAVA, new Position(3, 1));
+
+    SearchEventLog log = algorithm.recordSearch();
+    assertAll(
+        () -> assertFalse(log.isPathFound()),
+        () -> assertEquals(1, log.getFrameCount()),
+        () -> assertTrue(algorithm.findPath().isEmpty()),
+        () -> assertFalse(algorithm.findShortestPath().isFound()));
+  }
+
+  @Test
+  @DisplayName("Requesting a frame which does not exist")
+  public void getFrame_outOfRange() throws IllegalParameterException {
+    SearchEventLog log = algorithm.recordSearch();
+    assertThrows(IllegalParameterException.class, () -> log.getFrame(log.getFrameCount()));
+    assertThrows(IllegalParameterException.class, () -> log.getFrame(-1));
+  }
+}
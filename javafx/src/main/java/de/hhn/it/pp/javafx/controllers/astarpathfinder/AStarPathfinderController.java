@@ -1,6 +1,6 @@
 package de.hhn.it.pp.javafx.controllers.astarpathfinder;
 
-import de.hhn.it.pp.components.astarpathfinding.PathfindingInformation;
+import de.hhn.it.pp.components.astarpathfinding.PathResult;
 import de.hhn.it.pp.components.astarpathfinding.TerrainType;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.OccupiedPositionException;
 import de.hhn.it.pp.components.astarpathfinding.exceptions.PositionOutOfBounds;
@@ -9,7 +9,6 @@ import de.hhn.it.pp.components.astarpathfinding.provider.Pathfinder;
 import de.hhn.it.pp.components.exceptions.IllegalParameterException;
 import de.hhn.it.pp.javafx.controllers.Controller;
 import java.net.URL;
-import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import javafx.beans.value.ChangeListener;
@@ -97,10 +96,11 @@ public class AStarPathfinderController extends Controller implements Initializab
         new Background(new BackgroundFill(CellLabel.DIRT_COLOR, CornerRadii.EMPTY, Insets.EMPTY)));
 
     // Initialize cost label
-    costLabel.setText(String.valueOf((int) TerrainType.DIRT.getModifier()));
+    costLabel.setText(
+        String.valueOf((int) pathfinder.getCostTable().getModifier(TerrainType.DIRT)));
 
     // Add listener to the cost slider
-    costSlider.setValue(TerrainType.DIRT.getModifier());
+    costSlider.setValue(pathfinder.getCostTable().getModifier(TerrainType.DIRT));
     costSlider
         .valueProperty()
         .addListener(
@@ -137,9 +137,10 @@ public class AStarPathfinderController extends Controller implements Initializab
     pathfinder.reset();
     mapPane.reset();
     // Reset cost label and slider
-    costLabel.setText(
-        String.valueOf((int) obstacleComboBox.getSelectionModel().getSelectedItem().getModifier()));
-    costSlider.setValue(obstacleComboBox.getSelectionModel().getSelectedItem().getModifier());
+    TerrainType selectedType = obstacleComboBox.getSelectionModel().getSelectedItem();
+    double modifier = pathfinder.getCostTable().getModifier(selectedType);
+    costLabel.setText(String.valueOf((int) modifier));
+    costSlider.setValue(modifier);
   }
 
   /**
@@ -150,8 +151,9 @@ public class AStarPathfinderController extends Controller implements Initializab
    */
   public void onStartVisualization(ActionEvent actionEvent) {
     try {
-      List<PathfindingInformation> result = pathfinder.doPathfinding();
-      mapPane.showPath(result);
+      // Only the final path is shown, so the states of the search are not recorded
+      PathResult finalPath = pathfinder.findShortestPath();
+      mapPane.showPath(finalPath.toPositions());
     } catch (IllegalParameterException e) {
       e.printStackTrace();
     }
@@ -168,8 +170,9 @@ public class AStarPathfinderController extends Controller implements Initializab
       ComboBox<?> comboBox = (ComboBox<?>) actionEvent.getSource();
       if (comboBox.getSelectionModel().getSelectedItem() instanceof TerrainType) {
         TerrainType type = (TerrainType) comboBox.getSelectionModel().getSelectedItem();
-        costSlider.setValue(type.getModifier());
-        costLabel.setText(String.valueOf((int) type.getModifier()));
+        double modifier = pathfinder.getCostTable().getModifier(type);
+        costSlider.setValue(modifier);
+        costLabel.setText(String.valueOf((int) modifier));
         Color color = AStarPathfinderController.TERRAIN_COLOR.get(type);
         if (color != null) {
           obstacleColorLabel.setBackground(
@@ -1,9 +1,7 @@
 package de.hhn.it.pp.javafx.controllers.astarpathfinder;
 
-import de.hhn.it.pp.components.astarpathfinding.PathfindingInformation;
 import de.hhn.it.pp.components.astarpathfinding.Position;
 import de.hhn.it.pp.components.astarpathfinding.TerrainType;
-import de.hhn.it.pp.components.astarpathfinding.provider.Terrain;
 import java.util.ArrayList;
 import java.util.List;
 import javafx.scene.Cursor;
@@ -69,23 +67,19 @@ public class MapPane extends FlowPane {
   /**
    * Displays the shortest path on the map if a path could be found by the algorithm.
    *
-   * @param result the path information
+   * @param finalPath the positions of the shortest path, empty if there is no path
    */
-  public void showPath(List<PathfindingInformation> result) {
+  public void showPath(List<Position> finalPath) {
     // Clear path if shown
     removePathMarking();
 
     // Mark new path
-    if (result.size() >= 1) {
-      List<Terrain> finalPath = result.get(result.size() - 1).getFinalPathPositions();
-      for (Terrain t : finalPath) {
-        Position position = t.getPosition();
-        CellLabel cell = map[position.getRow()][position.getCol()];
-        if (cell != null) {
-          if (!cell.isStartPoint() && !cell.isEndPoint()) {
-            cell.markAsPath();
-            markedCells.add(cell);
-          }
+    for (Position position : finalPath) {
+      CellLabel cell = map[position.getRow()][position.getCol()];
+      if (cell != null) {
+        if (!cell.isStartPoint() && !cell.isEndPoint()) {
+          cell.markAsPath();
+          markedCells.add(cell);
         }
       }
     }